@@ -7,19 +7,49 @@ import ai.timefold.solver.core.api.domain.solution.PlanningSolution;
 import ai.timefold.solver.core.api.domain.solution.ProblemFactCollectionProperty;
 import ai.timefold.solver.core.api.domain.valuerange.ValueRangeProvider;
 import ai.timefold.solver.core.api.domain.variable.PlanningVariable;
+import ai.timefold.solver.core.api.score.Score;
+import ai.timefold.solver.core.api.score.ScoreExplanation;
+import ai.timefold.solver.core.api.score.analysis.ConstraintAnalysis;
+import ai.timefold.solver.core.api.score.analysis.ScoreAnalysis;
 import ai.timefold.solver.core.api.score.buildin.simplebigdecimal.SimpleBigDecimalScore;
+import ai.timefold.solver.core.api.score.buildin.simplelong.SimpleLongScore;
+import ai.timefold.solver.core.api.score.constraint.ConstraintMatchTotal;
 import ai.timefold.solver.core.api.score.stream.Constraint;
 import ai.timefold.solver.core.api.score.stream.ConstraintFactory;
 import ai.timefold.solver.core.api.score.stream.ConstraintProvider;
 import ai.timefold.solver.core.api.score.stream.Joiners;
+import ai.timefold.solver.core.api.solver.ScoreAnalysisFetchPolicy;
 import ai.timefold.solver.core.api.solver.SolutionManager;
 import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.api.solver.SolverJob;
+import ai.timefold.solver.core.api.solver.SolverManager;
 import ai.timefold.solver.core.config.score.director.ScoreDirectorFactoryConfig;
+import ai.timefold.solver.core.config.localsearch.LocalSearchPhaseConfig;
+import ai.timefold.solver.core.config.localsearch.decider.forager.LocalSearchForagerConfig;
 import ai.timefold.solver.core.config.solver.SolverConfig;
+import ai.timefold.solver.core.config.solver.termination.TerminationConfig;
 
+import org.example.common.FactStore;
+import org.example.common.PhaseRecorder;
+import org.example.common.ReferenceEvaluator;
+import org.example.common.RuleBreakdown;
+import org.example.common.RuleIsolation;
+import org.example.common.SizeSweep;
+import org.example.common.StressDataGenerator;
+import org.example.common.StressDataset;
+import org.example.common.StressRule;
+import org.example.common.TransactionChunkCursor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 import java.util.stream.IntStream;
 
 import static ai.timefold.solver.core.api.score.stream.ConstraintCollectors.count;
@@ -37,6 +67,21 @@ public class Stress_1 {
     public record SecurityAlert(String location, int severity) {
     }
 
+    // Compact variants: primitive keys and enums instead of low-cardinality Strings
+
+    public enum RiskLevel {LOW, MEDIUM, HIGH}
+
+    public enum CustomerStatus {ACTIVE, INACTIVE}
+
+    public record CompactCustomer(int id, RiskLevel riskLevel, CustomerStatus status) {
+    }
+
+    public record CompactTransaction(int id, int customerId, double amount, int locationId) {
+    }
+
+    public record CompactSecurityAlert(int locationId, int severity) {
+    }
+
     // --- Dummy Entity to satisfy SolverFactory validation ---
     @PlanningEntity
     public class DummyEntity {
@@ -56,7 +101,7 @@ public class Stress_1 {
     public static class EmptySolution {
 
         @ProblemFactCollectionProperty
-        private List<Object> facts;
+        private Collection<Object> facts;
 
         @PlanningEntityCollectionProperty
         private List<DummyEntity> dummyEntityList;
@@ -68,7 +113,7 @@ public class Stress_1 {
         public EmptySolution() {
         }
 
-        public EmptySolution(List<Object> facts) {
+        public EmptySolution(Collection<Object> facts) {
             this.facts = facts;
             this.dummyEntityList = Collections.emptyList();
         }
@@ -78,7 +123,7 @@ public class Stress_1 {
             return Arrays.asList(1, 2);
         }
 
-        public List<Object> getFacts() {
+        public Collection<Object> getFacts() {
             return facts;
         }
 
@@ -96,6 +141,49 @@ public class Stress_1 {
     }
 
 
+    // The same solution scored as SimpleLongScore, for the fixed-point constraint provider
+    @PlanningSolution
+    public static class LongScoreSolution {
+
+        @ProblemFactCollectionProperty
+        private Collection<Object> facts;
+
+        @PlanningEntityCollectionProperty
+        private List<DummyEntity> dummyEntityList;
+
+        @PlanningScore
+        private SimpleLongScore score;
+
+        public LongScoreSolution() {
+        }
+
+        public LongScoreSolution(Collection<Object> facts) {
+            this.facts = facts;
+            this.dummyEntityList = Collections.emptyList();
+        }
+
+        @ValueRangeProvider(id = "some_value_provider")
+        public List<Integer> some_value_provider() {
+            return Arrays.asList(1, 2);
+        }
+
+        public Collection<Object> getFacts() {
+            return facts;
+        }
+
+        public List<DummyEntity> getDummyEntityList() {
+            return dummyEntityList;
+        }
+
+        public SimpleLongScore getScore() {
+            return score;
+        }
+
+        public void setScore(SimpleLongScore score) {
+            this.score = score;
+        }
+    }
+
     // --- Constraint Definitions (Updated API Style) ---
 
     public static class StressTestConstraintProvider implements ConstraintProvider {
@@ -164,77 +252,625 @@ public class Stress_1 {
         }
     }
 
+    // Same five constraints over the compact model: joins and filters on ints and enums.
+    public static class CompactStressTestConstraintProvider implements ConstraintProvider {
+        @Override
+        public Constraint[] defineConstraints(ConstraintFactory constraintFactory) {
+            return new Constraint[]{
+                    highValueTransaction(constraintFactory),
+                    excessiveTransactionsPerCustomer(constraintFactory),
+                    transactionInAlertedLocation(constraintFactory),
+                    inactiveCustomerTransaction(constraintFactory),
+                    highRiskTransactionWithoutAlert(constraintFactory)
+            };
+        }
+
+        Constraint highValueTransaction(ConstraintFactory constraintFactory) {
+            return constraintFactory.forEach(CompactTransaction.class)
+                    .filter(tx -> tx.amount() > 45000)
+                    .penalizeBigDecimal(SimpleBigDecimalScore.ONE,
+                            tx -> BigDecimal.valueOf(tx.amount() / 1000.0))
+                    .asConstraint("high_value_transaction");
+        }
+
+        Constraint excessiveTransactionsPerCustomer(ConstraintFactory constraintFactory) {
+            return constraintFactory.forEach(CompactTransaction.class)
+                    .groupBy(CompactTransaction::customerId, count())
+                    .filter((cid, count) -> count > 25)
+                    .penalizeBigDecimal(SimpleBigDecimalScore.ONE,
+                            (cid, count) -> BigDecimal.valueOf((count - 25) * 10))
+                    .asConstraint("excessive_transactions_per_customer");
+        }
+
+        Constraint transactionInAlertedLocation(ConstraintFactory constraintFactory) {
+            return constraintFactory.forEach(CompactTransaction.class)
+                    .join(CompactSecurityAlert.class,
+                            Joiners.equal(CompactTransaction::locationId, CompactSecurityAlert::locationId))
+                    .penalizeBigDecimal(SimpleBigDecimalScore.ONE,
+                            (tx, alert) -> BigDecimal.valueOf(100 * alert.severity()))
+                    .asConstraint("transaction_in_alerted_location");
+        }
+
+        Constraint inactiveCustomerTransaction(ConstraintFactory constraintFactory) {
+            return constraintFactory.forEach(CompactCustomer.class)
+                    .filter(c -> c.status() == CustomerStatus.INACTIVE)
+                    .join(CompactTransaction.class,
+                            Joiners.equal(CompactCustomer::id, CompactTransaction::customerId))
+                    .penalizeBigDecimal(SimpleBigDecimalScore.ONE,
+                            (c, tx) -> BigDecimal.valueOf(500))
+                    .asConstraint("inactive_customer_transaction");
+        }
+
+        Constraint highRiskTransactionWithoutAlert(ConstraintFactory constraintFactory) {
+            return constraintFactory.forEach(CompactCustomer.class)
+                    .filter(c -> c.riskLevel() == RiskLevel.HIGH)
+                    .join(CompactTransaction.class,
+                            Joiners.equal(CompactCustomer::id, CompactTransaction::customerId))
+                    .ifNotExists(CompactSecurityAlert.class,
+                            Joiners.equal((c, tx) -> tx.locationId(), CompactSecurityAlert::locationId))
+                    .penalizeBigDecimal(SimpleBigDecimalScore.ONE,
+                            (c, tx) -> BigDecimal.valueOf(1000))
+                    .asConstraint("high_risk_transaction_without_alert");
+        }
+    }
+
+    // Either model's five constraints, keeping only those named in the constraintNames custom property,
+    // so -Dstress.mode=isolation can build a network per rule subset.
+    public static class SubsetConstraintProvider implements ConstraintProvider {
+        private boolean compact = false;
+        private Set<String> constraintNames = Set.of();
+
+        // Set through ScoreDirectorFactoryConfig.withConstraintProviderCustomProperties
+        public void setCompact(boolean compact) {
+            this.compact = compact;
+        }
+
+        public void setConstraintNames(String constraintNames) {
+            this.constraintNames = Set.of(constraintNames.split(","));
+        }
+
+        @Override
+        public Constraint[] defineConstraints(ConstraintFactory constraintFactory) {
+            Constraint[] constraints = compact
+                    ? new CompactStressTestConstraintProvider().defineConstraints(constraintFactory)
+                    : new StressTestConstraintProvider().defineConstraints(constraintFactory);
+            return Arrays.stream(constraints)
+                    .filter(constraint -> constraintNames.contains(constraint.getConstraintRef().constraintName()))
+                    .toArray(Constraint[]::new);
+        }
+    }
+
+    // Fixed-point scale of LongStressTestConstraintProvider: one penalty point is this many long score units
+    public static final long LONG_SCORE_SCALE = 1_000_000L;
+
+    // Moves evaluated per local search step in the move benchmark, see runMoveBenchmark
+    static final int MOVE_ACCEPTED_COUNT_LIMIT = 1_000;
+
+    // Same five constraints as StressTestConstraintProvider, but with SimpleLongScore and scaled long penalties,
+    // so no BigDecimal is created per match. Fractional penalties are rounded to 1/LONG_SCORE_SCALE.
+    public static class LongStressTestConstraintProvider implements ConstraintProvider {
+        @Override
+        public Constraint[] defineConstraints(ConstraintFactory constraintFactory) {
+            return new Constraint[]{
+                    highValueTransaction(constraintFactory),
+                    excessiveTransactionsPerCustomer(constraintFactory),
+                    transactionInAlertedLocation(constraintFactory),
+                    inactiveCustomerTransaction(constraintFactory),
+                    highRiskTransactionWithoutAlert(constraintFactory)
+            };
+        }
+
+        Constraint highValueTransaction(ConstraintFactory constraintFactory) {
+            return constraintFactory.forEach(Transaction.class)
+                    .filter(tx -> tx.amount() > 45000)
+                    .penalizeLong(SimpleLongScore.ONE,
+                            tx -> Math.round(tx.amount() / 1000.0 * LONG_SCORE_SCALE))
+                    .asConstraint("high_value_transaction");
+        }
+
+        Constraint excessiveTransactionsPerCustomer(ConstraintFactory constraintFactory) {
+            return constraintFactory.forEach(Transaction.class)
+                    .groupBy(Transaction::customerId, count())
+                    .filter((cid, count) -> count > 25)
+                    .penalizeLong(SimpleLongScore.ONE,
+                            (cid, count) -> (count - 25) * 10L * LONG_SCORE_SCALE)
+                    .asConstraint("excessive_transactions_per_customer");
+        }
+
+        Constraint transactionInAlertedLocation(ConstraintFactory constraintFactory) {
+            return constraintFactory.forEach(Transaction.class)
+                    .join(SecurityAlert.class,
+                            Joiners.equal(Transaction::location, SecurityAlert::location))
+                    .penalizeLong(SimpleLongScore.ONE,
+                            (tx, alert) -> 100L * alert.severity() * LONG_SCORE_SCALE)
+                    .asConstraint("transaction_in_alerted_location");
+        }
+
+        Constraint inactiveCustomerTransaction(ConstraintFactory constraintFactory) {
+            return constraintFactory.forEach(Customer.class)
+                    .filter(c -> "inactive".equals(c.status()))
+                    .join(Transaction.class,
+                            Joiners.equal(Customer::id, Transaction::customerId))
+                    .penalize(SimpleLongScore.of(500L * LONG_SCORE_SCALE))
+                    .asConstraint("inactive_customer_transaction");
+        }
+
+        Constraint highRiskTransactionWithoutAlert(ConstraintFactory constraintFactory) {
+            return constraintFactory.forEach(Customer.class)
+                    .filter(c -> "high".equals(c.riskLevel()))
+                    .join(Transaction.class,
+                            Joiners.equal(Customer::id, Transaction::customerId))
+                    .ifNotExists(SecurityAlert.class,
+                            Joiners.equal((c, tx) -> tx.location(), SecurityAlert::location))
+                    .penalize(SimpleLongScore.of(1000L * LONG_SCORE_SCALE))
+                    .asConstraint("high_risk_transaction_without_alert");
+        }
+    }
+
+    // --- Incremental Move Model ---
+
+    // A transaction whose location is a planning variable, so local search moves it between locations
+    // and Bavet recalculates the score incrementally, as it does in real solving.
+    @PlanningEntity
+    public static class PlannedTransaction {
+        private int id;
+        private int customerId;
+        private double amount;
+
+        @PlanningVariable(valueRangeProviderRefs = "locationRange")
+        private String location;
+
+        public PlannedTransaction() {
+        }
+
+        public PlannedTransaction(int id, int customerId, double amount, String location) {
+            this.id = id;
+            this.customerId = customerId;
+            this.amount = amount;
+            this.location = location;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public int getCustomerId() {
+            return customerId;
+        }
+
+        public double getAmount() {
+            return amount;
+        }
+
+        public String getLocation() {
+            return location;
+        }
+
+        public void setLocation(String location) {
+            this.location = location;
+        }
+    }
+
+    @PlanningSolution
+    public static class PlannedTransactionSolution {
+
+        @ProblemFactCollectionProperty
+        private List<Customer> customers;
+
+        @ProblemFactCollectionProperty
+        private List<SecurityAlert> alerts;
+
+        @ValueRangeProvider(id = "locationRange")
+        private List<String> locations;
+
+        @PlanningEntityCollectionProperty
+        private List<PlannedTransaction> transactions;
+
+        @PlanningScore
+        private SimpleBigDecimalScore score;
+
+        public PlannedTransactionSolution() {
+        }
+
+        public PlannedTransactionSolution(List<Customer> customers, List<SecurityAlert> alerts,
+                                          List<String> locations, List<PlannedTransaction> transactions) {
+            this.customers = customers;
+            this.alerts = alerts;
+            this.locations = locations;
+            this.transactions = transactions;
+        }
+
+        public List<Customer> getCustomers() {
+            return customers;
+        }
+
+        public List<SecurityAlert> getAlerts() {
+            return alerts;
+        }
+
+        public List<String> getLocations() {
+            return locations;
+        }
+
+        public List<PlannedTransaction> getTransactions() {
+            return transactions;
+        }
+
+        public SimpleBigDecimalScore getScore() {
+            return score;
+        }
+
+        public void setScore(SimpleBigDecimalScore score) {
+            this.score = score;
+        }
+    }
+
+    // The five constraints of StressTestConstraintProvider over the planning entity instead of the Transaction fact.
+    public static class PlannedTransactionConstraintProvider implements ConstraintProvider {
+        @Override
+        public Constraint[] defineConstraints(ConstraintFactory constraintFactory) {
+            return new Constraint[]{
+                    highValueTransaction(constraintFactory),
+                    excessiveTransactionsPerCustomer(constraintFactory),
+                    transactionInAlertedLocation(constraintFactory),
+                    inactiveCustomerTransaction(constraintFactory),
+                    highRiskTransactionWithoutAlert(constraintFactory)
+            };
+        }
+
+        Constraint highValueTransaction(ConstraintFactory constraintFactory) {
+            return constraintFactory.forEach(PlannedTransaction.class)
+                    .filter(tx -> tx.getAmount() > 45000)
+                    .penalizeBigDecimal(SimpleBigDecimalScore.ONE,
+                            tx -> BigDecimal.valueOf(tx.getAmount() / 1000.0))
+                    .asConstraint("high_value_transaction");
+        }
+
+        Constraint excessiveTransactionsPerCustomer(ConstraintFactory constraintFactory) {
+            return constraintFactory.forEach(PlannedTransaction.class)
+                    .groupBy(PlannedTransaction::getCustomerId, count())
+                    .filter((cid, count) -> count > 25)
+                    .penalizeBigDecimal(SimpleBigDecimalScore.ONE,
+                            (cid, count) -> BigDecimal.valueOf((count - 25) * 10))
+                    .asConstraint("excessive_transactions_per_customer");
+        }
+
+        Constraint transactionInAlertedLocation(ConstraintFactory constraintFactory) {
+            return constraintFactory.forEach(PlannedTransaction.class)
+                    .join(SecurityAlert.class,
+                            Joiners.equal(PlannedTransaction::getLocation, SecurityAlert::location))
+                    .penalizeBigDecimal(SimpleBigDecimalScore.ONE,
+                            (tx, alert) -> BigDecimal.valueOf(100 * alert.severity()))
+                    .asConstraint("transaction_in_alerted_location");
+        }
+
+        Constraint inactiveCustomerTransaction(ConstraintFactory constraintFactory) {
+            return constraintFactory.forEach(Customer.class)
+                    .filter(c -> "inactive".equals(c.status()))
+                    .join(PlannedTransaction.class,
+                            Joiners.equal(Customer::id, PlannedTransaction::getCustomerId))
+                    .penalizeBigDecimal(SimpleBigDecimalScore.ONE,
+                            (c, tx) -> BigDecimal.valueOf(500))
+                    .asConstraint("inactive_customer_transaction");
+        }
+
+        Constraint highRiskTransactionWithoutAlert(ConstraintFactory constraintFactory) {
+            return constraintFactory.forEach(Customer.class)
+                    .filter(c -> "high".equals(c.riskLevel()))
+                    .join(PlannedTransaction.class,
+                            Joiners.equal(Customer::id, PlannedTransaction::getCustomerId))
+                    .ifNotExists(SecurityAlert.class,
+                            Joiners.equal((c, tx) -> tx.getLocation(), SecurityAlert::location))
+                    .penalizeBigDecimal(SimpleBigDecimalScore.ONE,
+                            (c, tx) -> BigDecimal.valueOf(1000))
+                    .asConstraint("high_risk_transaction_without_alert");
+        }
+    }
+
     // --- Data Generation ---
 
-    public static List<Object> generateData(int numCustomers, int numTransactions, int numLocations) {
-        System.out.println("Generating test data...");
-        Random random = new Random(0); // Use a fixed seed for reproducibility
-        List<String> locations = IntStream.range(0, numLocations)
-                .mapToObj(i -> "location_" + i)
-                .collect(Collectors.toList());
+    /**
+     * Maps the shared generator's column values onto either the String-keyed or the compact records.
+     */
+    public static class FactFactory {
+        private static final List<String> RISK_LEVELS = List.of("low", "medium", "high");
+        private static final RiskLevel[] COMPACT_RISK_LEVELS = RiskLevel.values();
 
-        List<Object> allFacts = new ArrayList<>(numCustomers + numTransactions + (numLocations / 4));
+        private final boolean compact;
+        final String[] locationNames;
 
-        // Generate Customers
-        for (int i = 0; i < numCustomers; i++) {
-            String riskLevel = List.of("low", "medium", "high").get(random.nextInt(3));
-            String status = random.nextDouble() < 0.05 ? "inactive" : "active";
-            allFacts.add(new Customer(i, riskLevel, status));
+        public FactFactory(boolean compact, int numLocations) {
+            this.compact = compact;
+            this.locationNames = IntStream.range(0, numLocations)
+                    .mapToObj(i -> "location_" + i)
+                    .toArray(String[]::new);
         }
 
-        // Generate Transactions
-        for (int i = 0; i < numTransactions; i++) {
-            allFacts.add(new Transaction(
-                    i,
-                    random.nextInt(numCustomers),
-                    random.nextDouble() * 49999.0 + 1.0,
-                    locations.get(random.nextInt(numLocations))
-            ));
+        public Object customer(int id, byte riskLevel, byte status) {
+            boolean inactive = status == StressDataGenerator.STATUS_INACTIVE;
+            return compact
+                    ? new CompactCustomer(id, COMPACT_RISK_LEVELS[riskLevel],
+                            inactive ? CustomerStatus.INACTIVE : CustomerStatus.ACTIVE)
+                    : new Customer(id, RISK_LEVELS.get(riskLevel), inactive ? "inactive" : "active");
+        }
+
+        public Object transaction(int id, int customerId, double amount, int locationId) {
+            return compact
+                    ? new CompactTransaction(id, customerId, amount, locationId)
+                    : new Transaction(id, customerId, amount, locationNames[locationId]);
         }
 
-        // Generate Security Alerts
-        Collections.shuffle(locations, random);
-        int alertCount = Math.max(1, numLocations / 4);
-        for (int i = 0; i < alertCount; i++) {
-            allFacts.add(new SecurityAlert(locations.get(i), random.nextInt(5) + 1));
+        public Object alert(int locationId, int severity) {
+            return compact
+                    ? new CompactSecurityAlert(locationId, severity)
+                    : new SecurityAlert(locationNames[locationId], severity);
         }
+    }
+
+    /**
+     * Produces customers, then transactions, then alerts from the shared {@link StressDataGenerator}
+     * or a {@link FactStore}, pulling transactions one chunk at a time so the dataset is never materialized.
+     */
+    public static class FactIterator implements Iterator<Object> {
+        private final FactFactory factory;
+        private final StressDataset customersAndAlerts;
+        private final TransactionChunkCursor transactions;
+
+        private int customersEmitted = 0;
+        private int chunkPosition = 0;
+        private int alertsEmitted = 0;
 
-        return allFacts;
+        public FactIterator(StressDataGenerator generator, boolean compact) {
+            this(generator.generateWithoutTransactions(), generator.newTransactionCursor(), generator.getNumLocations(), compact);
+        }
+
+        public FactIterator(FactStore store, boolean compact) {
+            this(store.readWithoutTransactions(), store.newTransactionCursor(), store.getNumLocations(), compact);
+        }
+
+        private FactIterator(StressDataset customersAndAlerts, TransactionChunkCursor transactions,
+                             int numLocations, boolean compact) {
+            this.factory = new FactFactory(compact, numLocations);
+            this.customersAndAlerts = customersAndAlerts;
+            this.transactions = transactions;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return alertsEmitted < customersAndAlerts.getNumAlerts();
+        }
+
+        @Override
+        public Object next() {
+            if (customersEmitted < customersAndAlerts.getNumCustomers()) {
+                int id = customersEmitted++;
+                return factory.customer(id, customersAndAlerts.customerRiskLevels[id], customersAndAlerts.customerStatuses[id]);
+            }
+            if (chunkPosition == transactions.getSize() && transactions.advance()) {
+                chunkPosition = 0;
+            }
+            if (chunkPosition < transactions.getSize()) {
+                int i = chunkPosition++;
+                return factory.transaction(transactions.getFirstIndex() + i, transactions.customerIds[i],
+                        transactions.amounts[i], transactions.locationIds[i]);
+            }
+            if (alertsEmitted < customersAndAlerts.getNumAlerts()) {
+                int i = alertsEmitted++;
+                return factory.alert(customersAndAlerts.alertLocationIds[i], customersAndAlerts.alertSeverities[i]);
+            }
+            throw new NoSuchElementException();
+        }
+    }
+
+    /**
+     * A single-pass fact collection that generates (or reads from the fact store) its facts while they are
+     * iterated instead of storing them. A second {@link #iterator()} call throws rather than silently paying for
+     * the whole dataset again; use a materialized list for consumers that iterate the facts more than once.
+     */
+    public static class LazyFactCollection extends AbstractCollection<Object> {
+        private final StressDataGenerator generator;
+        private final FactStore store;
+        private final boolean compact;
+        private boolean iterated = false;
+
+        public LazyFactCollection(StressDataGenerator generator, boolean compact) {
+            this.generator = generator;
+            this.store = null;
+            this.compact = compact;
+        }
+
+        public LazyFactCollection(FactStore store, boolean compact) {
+            this.generator = null;
+            this.store = store;
+            this.compact = compact;
+        }
+
+        @Override
+        public Iterator<Object> iterator() {
+            if (iterated) {
+                throw new IllegalStateException("LazyFactCollection is single-pass and was already iterated; "
+                        + "materialize the facts (stress.streaming=false) for a consumer that iterates them twice");
+            }
+            iterated = true;
+            return store != null ? new FactIterator(store, compact) : new FactIterator(generator, compact);
+        }
+
+        @Override
+        public int size() {
+            return Math.toIntExact(store != null ? store.getFactCount() : generator.getFactCount());
+        }
+    }
+
+    public static List<Object> generateData(StressDataGenerator generator, boolean compact, ForkJoinPool pool) {
+        System.out.println("Generating test data...");
+        return materialize(generator.generate(pool), compact, pool);
+    }
+
+    /**
+     * Builds the records for a fully generated dataset, creating transactions in parallel.
+     */
+    public static List<Object> materialize(StressDataset dataset, boolean compact, ForkJoinPool pool) {
+        FactFactory factory = new FactFactory(compact, dataset.numLocations);
+        int numCustomers = dataset.getNumCustomers();
+        int numTransactions = dataset.getNumTransactions();
+        Object[] facts = new Object[Math.toIntExact(dataset.getFactCount())];
+        for (int i = 0; i < numCustomers; i++) {
+            facts[i] = factory.customer(i, dataset.customerRiskLevels[i], dataset.customerStatuses[i]);
+        }
+        int chunkCount = (numTransactions + StressDataGenerator.CHUNK_SIZE - 1) / StressDataGenerator.CHUNK_SIZE;
+        pool.invoke(new StressDataGenerator.ChunkRangeAction(0, chunkCount, chunk -> {
+            int from = chunk * StressDataGenerator.CHUNK_SIZE;
+            int to = Math.min(numTransactions, from + StressDataGenerator.CHUNK_SIZE);
+            for (int i = from; i < to; i++) {
+                facts[numCustomers + i] = factory.transaction(i, dataset.transactionCustomerIds[i],
+                        dataset.transactionAmounts[i], dataset.transactionLocationIds[i]);
+            }
+        }));
+        for (int i = 0; i < dataset.getNumAlerts(); i++) {
+            facts[numCustomers + numTransactions + i] =
+                    factory.alert(dataset.alertLocationIds[i], dataset.alertSeverities[i]);
+        }
+        return Arrays.asList(facts);
     }
 
     // --- Main Test Runner ---
 
     public static void main(String[] args) {
         // --- Configuration ---
-        int numCustomers = 10_000;
-        int numTransactions = 10_000_000; // Reduced for reasonable heap size
-        int numLocations = 1_000;
+        int numCustomers = Integer.getInteger("stress.customers", 10_000);
+        int numTransactions = Integer.getInteger("stress.transactions", 10_000_000); // Reduced for reasonable heap size
+        int numLocations = Integer.getInteger("stress.locations", 1_000);
+        long seed = Long.getLong("stress.seed", 0L);
+        int generatorThreads = Integer.getInteger("stress.threads", Runtime.getRuntime().availableProcessors());
+        // Set -Dstress.streaming=true to let Bavet pull facts from a lazy collection instead of a list
+        boolean streaming = Boolean.getBoolean("stress.streaming");
+        // Set -Dstress.model=compact to use int location ids and enums instead of Strings
+        String model = System.getProperty("stress.model", "string");
+        boolean compact;
+        switch (model) {
+            case "string" -> compact = false;
+            case "compact" -> compact = true;
+            default -> throw new IllegalArgumentException("Unknown fact model: " + model + " (expected string or compact)");
+        }
+        // Set -Dstress.score=long for SimpleLongScore with fixed-point penalties instead of SimpleBigDecimalScore,
+        // or -Dstress.score=both to score the same facts both ways and compare (string model only)
+        String scoreType = System.getProperty("stress.score", "bigdecimal");
+        boolean bigDecimalScore;
+        boolean longScore;
+        switch (scoreType) {
+            case "bigdecimal" -> {
+                bigDecimalScore = true;
+                longScore = false;
+            }
+            case "long" -> {
+                bigDecimalScore = false;
+                longScore = true;
+            }
+            case "both" -> {
+                bigDecimalScore = true;
+                longScore = true;
+            }
+            default -> throw new IllegalArgumentException("Unknown score type: " + scoreType + " (expected bigdecimal, long or both)");
+        }
+        if (longScore && compact) {
+            throw new IllegalArgumentException("The long score variant only supports the string fact model.");
+        }
+        // Set -Dstress.verify=true to check the result against the engine-free ReferenceEvaluator
+        boolean verify = Boolean.getBoolean("stress.verify");
+        // Set -Dstress.profileCsv=<file> to export the per-constraint breakdown
+        String profileCsv = System.getProperty("stress.profileCsv");
+        // Set -Dstress.results=<prefix> to write <prefix>.json and <prefix>.csv (metrics and per-phase GC/allocation)
+        String results = System.getProperty("stress.results");
+        // Set -Dstress.factStore=<file> to replay the dataset from a memory-mapped FactStore (written on first use),
+        // e.g. the same file the Drools harness reads
+        String factStorePath = System.getProperty("stress.factStore");
+        PhaseRecorder phases = new PhaseRecorder("bavet");
+
+        // Set -Dstress.mode=moves to benchmark incremental move evaluation on a planning entity instead of a bulk explain,
+        // or -Dstress.mode=sweep to explain growing, optionally skewed datasets (see -Dstress.sweep*),
+        // or -Dstress.mode=isolation to explain the same facts with each single constraint and each cumulative prefix
+        String mode = System.getProperty("stress.mode", "bulk");
+        if ("moves".equals(mode)) {
+            runMoveBenchmark(seed, numCustomers, numLocations, generatorThreads);
+            return;
+        }
+        if ("sweep".equals(mode)) {
+            runSweep(seed, numCustomers, numLocations, compact);
+            return;
+        }
+        if ("isolation".equals(mode)) {
+            var dataGenerator = new StressDataGenerator(seed, numCustomers, numTransactions, numLocations);
+            runIsolation(dataGenerator, factStorePath != null ? openFactStore(Path.of(factStorePath), dataGenerator) : null,
+                    compact, generatorThreads);
+            return;
+        }
 
         System.out.println("### Starting Rule Engine Stress Test (Java/Bavet) ###");
 
         // 1. Setup Phase & Initial State
+        phases.begin("setup");
         long timeStartSetup = System.nanoTime();
-        SolverConfig solverConfig = new SolverConfig()
-                .withConstraintProviderClass(StressTestConstraintProvider.class)
-                .withSolutionClass(EmptySolution.class)
-                .withEntityClasses(DummyEntity.class)
-                .withMoveThreadCount("1");
-        SolverFactory<EmptySolution> solverFactory = SolverFactory.create(solverConfig);
-        SolutionManager<EmptySolution, SimpleBigDecimalScore> solutionManager = SolutionManager.create(solverFactory);
+        SolutionManager<EmptySolution, SimpleBigDecimalScore> solutionManager = null;
+        SolutionManager<LongScoreSolution, SimpleLongScore> longSolutionManager = null;
+        if (bigDecimalScore) {
+            SolverFactory<EmptySolution> solverFactory = SolverFactory.create(newSolverConfig(compact
+                    ? CompactStressTestConstraintProvider.class
+                    : StressTestConstraintProvider.class, EmptySolution.class));
+            solutionManager = SolutionManager.create(solverFactory);
+        }
+        if (longScore) {
+            SolverFactory<LongScoreSolution> longSolverFactory = SolverFactory.create(
+                    newSolverConfig(LongStressTestConstraintProvider.class, LongScoreSolution.class));
+            longSolutionManager = SolutionManager.create(longSolverFactory);
+        }
         long timeEndSetup = System.nanoTime();
+        phases.end();
 
-        // 2. Data Generation Phase
+        // 2. Data Generation Phase (deferred to the processing phase when streaming)
+        phases.begin("generate");
         long timeStartData = System.nanoTime();
-        List<Object> allFacts = generateData(numCustomers, numTransactions, numLocations);
+        var dataGenerator = new StressDataGenerator(seed, numCustomers, numTransactions, numLocations);
+        FactStore factStore = factStorePath != null ? openFactStore(Path.of(factStorePath), dataGenerator) : null;
+        // A lazy collection is single-pass, so each score run gets its own, created inside its timed phase
+        Supplier<Collection<Object>> allFacts;
+        if (streaming) {
+            allFacts = () -> factStore != null
+                    ? new LazyFactCollection(factStore, compact)
+                    : new LazyFactCollection(dataGenerator, compact);
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(generatorThreads);
+            List<Object> facts = factStore != null
+                    ? materialize(factStore.readDataset(), compact, pool)
+                    : generateData(dataGenerator, compact, pool);
+            pool.shutdown();
+            allFacts = () -> facts;
+        }
         long timeEndData = System.nanoTime();
+        phases.end();
 
 
         // 3. Processing Phase
         System.out.println("Inserting facts and processing rules...");
-        long timeStartProcessing = System.nanoTime();
-        var solution = new EmptySolution(allFacts);
-        var scoreExplanation = solutionManager.explain(solution);
+        List<ScoreRun> scoreRuns = new ArrayList<>();
+        if (bigDecimalScore) {
+            phases.begin("explain");
+            long timeStartExplain = System.nanoTime();
+            var solution = new EmptySolution(allFacts.get());
+            ScoreExplanation<EmptySolution, SimpleBigDecimalScore> explanation = solutionManager.explain(solution);
+            scoreRuns.add(new ScoreRun("bigdecimal", "explain", System.nanoTime() - timeStartExplain, explanation));
+            phases.end();
+        }
+        if (longScore) {
+            phases.begin("explain-long");
+            long timeStartExplain = System.nanoTime();
+            var solution = new LongScoreSolution(allFacts.get());
+            ScoreExplanation<LongScoreSolution, SimpleLongScore> explanation = longSolutionManager.explain(solution);
+            scoreRuns.add(new ScoreRun("long", "explain-long", System.nanoTime() - timeStartExplain, explanation));
+            phases.end();
+        }
         long timeEndProcessing = System.nanoTime();
+        ScoreRun primary = scoreRuns.get(0);
+        var scoreExplanation = primary.explanation();
 
         // 4. Get Memory Snapshot (Approximation)
         Runtime runtime = Runtime.getRuntime();
@@ -248,19 +884,24 @@ public class Stress_1 {
         // Time Metrics
         double setupDuration = (timeEndSetup - timeStartSetup) / 1_000_000_000.0;
         double dataGenDuration = (timeEndData - timeStartData) / 1_000_000_000.0;
-        double processingDuration = (timeEndProcessing - timeStartProcessing) / 1_000_000_000.0;
+        double processingDuration = primary.durationNanos() / 1_000_000_000.0;
         double totalDuration = (timeEndProcessing - timeStartSetup) / 1_000_000_000.0;
 
         // Performance Metrics
-        long totalFacts = allFacts.size();
+        long totalFacts = factStore != null ? factStore.getFactCount() : dataGenerator.getFactCount();
         double factsPerSecond = (processingDuration > 0) ? totalFacts / processingDuration : Double.POSITIVE_INFINITY;
 
         // Display Report using Markdown
         System.out.println("\n#### Performance Summary");
         System.out.println("| Metric                         | Value               |");
         System.out.println("|--------------------------------|---------------------|");
+        System.out.printf("| Fact Model                     | %s         |%n", model);
+        System.out.printf("| Score Type                     | %s         |%n", scoreType);
         System.out.printf("| Total Facts Processed          | %,d         |%n", totalFacts);
         System.out.printf("| Setup Time (Build Network)     | %.4f s      |%n", setupDuration);
+        if (factStore != null) {
+            System.out.printf("| Fact Store                     | %s         |%n", factStore.getPath());
+        }
         System.out.printf("| Data Generation Time           | %.4f s      |%n", dataGenDuration);
         System.out.printf("| **Processing Time (Insert+Flush)** | **%.4f s** |%n", processingDuration);
         System.out.printf("| Total Time                     | %.4f s      |%n", totalDuration);
@@ -270,14 +911,344 @@ public class Stress_1 {
         System.out.println("| Metric                         | Value               |");
         System.out.println("|--------------------------------|---------------------|");
         System.out.printf("| **Final Memory Usage** | **%.2f MB** |%n", memoryUsed / (1024.0 * 1024.0));
+        phases.printReport();
+
+        System.out.println("\n#### Score Arithmetic Comparison");
+        System.out.println("| Score Type   | Processing Time | Throughput              | Allocated       | Penalty              |");
+        System.out.println("|--------------|-----------------|-------------------------|-----------------|----------------------|");
+        for (ScoreRun run : scoreRuns) {
+            double seconds = run.durationNanos() / 1_000_000_000.0;
+            System.out.printf("| %-12s | %13.4f s | %,17.2f facts/s | %,12.2f MB | %,20.6f |%n",
+                    run.scoreType(), seconds, totalFacts / seconds,
+                    phases.getAllocatedBytes(run.phase()) / (1024.0 * 1024.0),
+                    toPenalty(run.explanation().getScore()));
+        }
 
         System.out.println("\n#### Engine Output");
         System.out.println("- **Final Score:** " + scoreExplanation.getScore());
         System.out.println("- **Total Constraint Matches:** " + scoreExplanation.getConstraintMatchTotalMap().values().stream().mapToLong(cm -> cm.getConstraintMatchCount()).sum());
-        scoreExplanation.getConstraintMatchTotalMap().entrySet().stream()
-                .sorted(Map.Entry.comparingByKey())
-                .forEach(entry ->
-                        System.out.printf("  - `%s`: %d matches%n",
-                                entry.getKey(), entry.getValue().getConstraintMatchCount()));
+        if (verify) {
+            for (ScoreRun run : scoreRuns) {
+                printReferenceCheck(dataGenerator, factStore, run.scoreType(), run.explanation(), generatorThreads);
+            }
+        }
+
+        // Bavet does not expose per-constraint timing, so the breakdown has matches and score impact only
+        RuleBreakdown breakdown = toBreakdown(scoreExplanation);
+        breakdown.printReport("Time");
+        if (profileCsv != null) {
+            try {
+                breakdown.writeCsv(Path.of(profileCsv), "bavet");
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write " + profileCsv, e);
+            }
+            System.out.println("- **Per-constraint breakdown written to** " + profileCsv);
+        }
+
+        if (results != null) {
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            metrics.put("factModel", model);
+            metrics.put("scoreType", scoreType);
+            metrics.put("streaming", streaming);
+            metrics.put("seed", factStore != null ? factStore.getSeed() : seed);
+            metrics.put("factStore", factStore != null ? factStore.getPath().toString() : null);
+            metrics.put("totalFacts", totalFacts);
+            metrics.put("setupMs", setupDuration * 1000.0);
+            metrics.put("dataGenerationMs", dataGenDuration * 1000.0);
+            metrics.put("processingMs", processingDuration * 1000.0);
+            metrics.put("throughputFactsPerSec", factsPerSecond);
+            metrics.put("finalMemoryBytes", memoryUsed);
+            metrics.put("finalScore", -toPenalty(scoreExplanation.getScore()));
+            metrics.put("totalConstraintMatches", scoreExplanation.getConstraintMatchTotalMap().values().stream()
+                    .mapToLong(ConstraintMatchTotal::getConstraintMatchCount).sum());
+            for (ScoreRun run : scoreRuns) {
+                metrics.put(run.scoreType() + "ProcessingMs", run.durationNanos() / 1_000_000.0);
+                metrics.put(run.scoreType() + "AllocatedBytes", phases.getAllocatedBytes(run.phase()));
+            }
+            try {
+                phases.writeResults(Path.of(results), metrics);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write results to " + results, e);
+            }
+            System.out.println("- **Results written to** " + results + ".json and " + results + ".csv");
+        }
+    }
+
+    /**
+     * Scores each sweep point from a {@link LazyFactCollection}, with one network configuration for all points;
+     * processing time includes generating the facts on the fly, since the largest points do not fit in memory as a list.
+     * Like the Drools sweep's ScoreHolder, the analysis only counts matches (no justifications). The retained heap
+     * is what the analysis holds, because Bavet drops its network when analyze() returns; the peak heap covers the
+     * network itself.
+     */
+    static void runSweep(long seed, int numCustomers, int numLocations, boolean compact) {
+        System.out.println("### Starting Rule Engine Size and Skew Sweep (Java/Bavet) ###");
+        // Transaction counts, Zipf exponents for customer/location ids (0 = uniform) and the CSV to write
+        String transactionSpec = System.getProperty("stress.sweepTransactions", SizeSweep.DEFAULT_TRANSACTIONS);
+        String exponentSpec = System.getProperty("stress.sweepExponents", SizeSweep.DEFAULT_EXPONENTS);
+        Path csv = Path.of(System.getProperty("stress.sweepCsv", "target/sweep-bavet.csv"));
+
+        SolutionManager<EmptySolution, SimpleBigDecimalScore> solutionManager = SolutionManager.create(
+                SolverFactory.create(newSolverConfig(compact
+                        ? CompactStressTestConstraintProvider.class
+                        : StressTestConstraintProvider.class, EmptySolution.class)));
+        SizeSweep sweep = new SizeSweep("bavet", "score analysis (network dropped)", seed, numCustomers, numLocations, transactionSpec, exponentSpec);
+        List<SizeSweep.Point> points;
+        try {
+            points = sweep.run(generator -> {
+                var facts = new LazyFactCollection(generator, compact);
+                long timeStart = System.nanoTime();
+                ScoreAnalysis<SimpleBigDecimalScore> analysis = solutionManager.analyze(new EmptySolution(facts),
+                        ScoreAnalysisFetchPolicy.FETCH_MATCH_COUNT);
+                long processingDuration = System.nanoTime() - timeStart;
+                long matches = analysis.constraintAnalyses().stream()
+                        .mapToLong(ConstraintAnalysis::matchCount).sum();
+                return new SizeSweep.Outcome(processingDuration, toPenalty(analysis.score()), matches,
+                        SizeSweep.usedHeapAfterGc());
+            }, csv);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + csv, e);
+        }
+
+        System.out.println("\n--- Stress Test Results ---");
+        System.out.println("- **Fact Model:** " + (compact ? "compact" : "string"));
+        sweep.printReport(points);
+        System.out.println("- **Sweep written to** " + csv);
+    }
+
+    /**
+     * Explains the same facts with a {@link SubsetConstraintProvider} for each single constraint and each cumulative
+     * prefix. Bavet builds its network inside explain() and drops it on return, so the network's cost shows in the
+     * fire time and peak heap, setup is only the solver configuration, and the retained heap is the explanation.
+     * There is no empty baseline: a provider must define at least one constraint.
+     */
+    static void runIsolation(StressDataGenerator dataGenerator, FactStore factStore, boolean compact, int generatorThreads) {
+        System.out.println("### Starting Per-Rule Isolation (Java/Bavet) ###");
+        System.out.println("Generating test data...");
+        ForkJoinPool pool = new ForkJoinPool(generatorThreads);
+        List<Object> facts = factStore != null
+                ? materialize(factStore.readDataset(), compact, pool)
+                : generateData(dataGenerator, compact, pool);
+        pool.shutdown();
+
+        RuleIsolation isolation = new RuleIsolation("bavet", false);
+        List<RuleIsolation.Measurement> measurements = isolation.run(rules -> {
+            long timeStart = System.nanoTime();
+            SolutionManager<EmptySolution, SimpleBigDecimalScore> solutionManager = SolutionManager.create(
+                    SolverFactory.create(newSubsetSolverConfig(rules, compact)));
+            long setupDuration = System.nanoTime() - timeStart;
+            timeStart = System.nanoTime();
+            ScoreExplanation<EmptySolution, SimpleBigDecimalScore> explanation = solutionManager.explain(new EmptySolution(facts));
+            long fireDuration = System.nanoTime() - timeStart;
+            long matches = explanation.getConstraintMatchTotalMap().values().stream()
+                    .mapToLong(ConstraintMatchTotal::getConstraintMatchCount).sum();
+            return new RuleIsolation.Outcome(setupDuration, fireDuration, toPenalty(explanation.getScore()), matches,
+                    SizeSweep.usedHeapAfterGc());
+        });
+
+        System.out.println("\n--- Stress Test Results ---");
+        System.out.printf("- **Fact Model:** %s, **Total Facts:** %,d%n", compact ? "compact" : "string", facts.size());
+        System.out.println("- **Setup** is building the solver factory; **fire** is explain(), which also builds the network");
+        RuleIsolation.printReport("bavet", measurements);
+    }
+
+    private static SolverConfig newSubsetSolverConfig(Set<StressRule> rules, boolean compact) {
+        StringJoiner constraintNames = new StringJoiner(",");
+        for (StressRule rule : rules) {
+            constraintNames.add(rule.getConstraintName());
+        }
+        return new SolverConfig()
+                .withScoreDirectorFactory(new ScoreDirectorFactoryConfig()
+                        .withConstraintProviderClass(SubsetConstraintProvider.class)
+                        .withConstraintProviderCustomProperties(Map.of(
+                                "compact", Boolean.toString(compact),
+                                "constraintNames", constraintNames.toString())))
+                .withSolutionClass(EmptySolution.class)
+                .withEntityClasses(DummyEntity.class)
+                .withMoveThreadCount("1");
+    }
+
+    /**
+     * Local search over {@link PlannedTransaction#getLocation()} with a fixed budget of evaluated moves.
+     * <p>
+     * The same solution is first scored with {@code update} (score only) and {@code explain} (score plus
+     * justifications) to separate those costs. The solver's own first step is a from-scratch calculation
+     * of about the {@code update} cost, so the move speed is also reported with that time taken out.
+     * Each step accepts from up to {@link #MOVE_ACCEPTED_COUNT_LIMIT} moves, so the planning clone made
+     * on every new best solution is amortized over many evaluated moves.
+     */
+    static void runMoveBenchmark(long seed, int numCustomers, int numLocations, int generatorThreads) {
+        int numTransactions = Integer.getInteger("stress.moveTransactions", 100_000);
+        long moveCount = Long.getLong("stress.moveCount", 1_000_000L);
+        long moveSeconds = Long.getLong("stress.moveSeconds", 300L);
+
+        System.out.println("### Starting Incremental Move Benchmark (Java/Bavet) ###");
+        System.out.println("Generating test data...");
+        ForkJoinPool pool = new ForkJoinPool(generatorThreads);
+        StressDataset dataset = new StressDataGenerator(seed, numCustomers, numTransactions, numLocations).generate(pool);
+        pool.shutdown();
+        FactFactory factory = new FactFactory(false, numLocations);
+        List<Customer> customers = new ArrayList<>(numCustomers);
+        for (int i = 0; i < numCustomers; i++) {
+            customers.add((Customer) factory.customer(i, dataset.customerRiskLevels[i], dataset.customerStatuses[i]));
+        }
+        List<SecurityAlert> alerts = new ArrayList<>(dataset.getNumAlerts());
+        for (int i = 0; i < dataset.getNumAlerts(); i++) {
+            alerts.add((SecurityAlert) factory.alert(dataset.alertLocationIds[i], dataset.alertSeverities[i]));
+        }
+        List<String> locations = new ArrayList<>(numLocations);
+        for (int i = 0; i < numLocations; i++) {
+            locations.add(factory.locationNames[i]);
+        }
+        List<PlannedTransaction> transactions = new ArrayList<>(numTransactions);
+        for (int i = 0; i < numTransactions; i++) {
+            transactions.add(new PlannedTransaction(i, dataset.transactionCustomerIds[i], dataset.transactionAmounts[i],
+                    locations.get(dataset.transactionLocationIds[i])));
+        }
+        var solution = new PlannedTransactionSolution(customers, alerts, locations, transactions);
+
+        SolverConfig solverConfig = new SolverConfig()
+                .withSolutionClass(PlannedTransactionSolution.class)
+                .withEntityClasses(PlannedTransaction.class)
+                .withConstraintProviderClass(PlannedTransactionConstraintProvider.class)
+                .withRandomSeed(seed)
+                .withPhases(new LocalSearchPhaseConfig()
+                        .withForagerConfig(new LocalSearchForagerConfig()
+                                .withAcceptedCountLimit(MOVE_ACCEPTED_COUNT_LIMIT)))
+                .withTerminationConfig(new TerminationConfig()
+                        .withScoreCalculationCountLimit(moveCount)
+                        .withSpentLimit(Duration.ofSeconds(moveSeconds)));
+        SolverFactory<PlannedTransactionSolution> solverFactory = SolverFactory.create(solverConfig);
+        SolutionManager<PlannedTransactionSolution, SimpleBigDecimalScore> solutionManager = SolutionManager.create(solverFactory);
+
+        // 1. Score-only vs justified calculation of the initial solution
+        System.out.println("Scoring the initial solution...");
+        long timeStart = System.nanoTime();
+        SimpleBigDecimalScore initialScore = solutionManager.update(solution);
+        long updateNanos = System.nanoTime() - timeStart;
+        timeStart = System.nanoTime();
+        solutionManager.explain(solution);
+        long explainNanos = System.nanoTime() - timeStart;
+
+        // 2. Local search: every evaluated move is an incremental score calculation
+        System.out.println("Running local search...");
+        AtomicLong bestSolutionChanges = new AtomicLong();
+        SimpleBigDecimalScore bestScore;
+        long scoreCalculationCount;
+        timeStart = System.nanoTime();
+        try (SolverManager<PlannedTransactionSolution, Long> solverManager = SolverManager.create(solverFactory)) {
+            SolverJob<PlannedTransactionSolution, Long> job = solverManager.solveBuilder()
+                    .withProblemId(1L)
+                    .withProblem(solution)
+                    .withBestSolutionConsumer(best -> bestSolutionChanges.incrementAndGet())
+                    .run();
+            bestScore = job.getFinalBestSolution().getScore();
+            scoreCalculationCount = job.getScoreCalculationCount();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while solving", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Solving failed", e.getCause());
+        }
+        long solveNanos = System.nanoTime() - timeStart;
+
+        double updateSeconds = updateNanos / 1_000_000_000.0;
+        double solveSeconds = solveNanos / 1_000_000_000.0;
+        double searchSeconds = Math.max(solveSeconds - updateSeconds, Double.MIN_VALUE);
+
+        System.out.println("\n--- Stress Test Results ---");
+        System.out.println("\n#### Incremental Move Summary");
+        System.out.println("| Metric                         | Value               |");
+        System.out.println("|--------------------------------|---------------------|");
+        System.out.printf("| Planning Entities              | %,d transactions |%n", numTransactions);
+        System.out.printf("| Problem Facts                  | %,d customers, %,d alerts |%n", numCustomers, alerts.size());
+        System.out.printf("| Update Time (score only)       | %.4f s      |%n", updateSeconds);
+        System.out.printf("| Explain Time (+ justifications) | %.4f s     |%n", explainNanos / 1_000_000_000.0);
+        System.out.printf("| Solve Time                     | %.4f s      |%n", solveSeconds);
+        System.out.printf("| Evaluated Moves                | %,d         |%n", scoreCalculationCount);
+        System.out.printf("| Best Solution Changes          | %,d         |%n", bestSolutionChanges.get());
+        System.out.printf("| Move Speed (wall)              | %,.2f moves/sec |%n", scoreCalculationCount / solveSeconds);
+        System.out.printf("| **Move Speed (excl. initial calculation)** | **%,.2f moves/sec** |%n", scoreCalculationCount / searchSeconds);
+
+        System.out.println("\n#### Engine Output");
+        System.out.println("- **Initial Score:** " + initialScore);
+        System.out.println("- **Best Score:** " + bestScore);
+    }
+
+    /**
+     * One explain() of the facts with one score type, and the recorder phase it ran in.
+     */
+    record ScoreRun(String scoreType, String phase, long durationNanos, ScoreExplanation<?, ?> explanation) {
+    }
+
+    private static SolverConfig newSolverConfig(Class<? extends ConstraintProvider> constraintProviderClass,
+                                                Class<?> solutionClass) {
+        return new SolverConfig()
+                .withConstraintProviderClass(constraintProviderClass)
+                .withSolutionClass(solutionClass)
+                .withEntityClasses(DummyEntity.class)
+                .withMoveThreadCount("1");
+    }
+
+    /**
+     * A score as a positive penalty in the DRL's units, undoing the fixed-point scale of the long variant.
+     */
+    public static double toPenalty(Score<?> score) {
+        if (score instanceof SimpleLongScore longScore) {
+            return -longScore.score() / (double) LONG_SCORE_SCALE;
+        }
+        if (score instanceof SimpleBigDecimalScore bigDecimalScore) {
+            return bigDecimalScore.score().negate().doubleValue();
+        }
+        throw new IllegalArgumentException("Unsupported score type: " + score.getClass().getName());
+    }
+
+    /**
+     * Per-constraint match counts and penalties (as positive numbers, like the Drools ScoreHolder).
+     */
+    public static RuleBreakdown toBreakdown(ScoreExplanation<?, ?> scoreExplanation) {
+        RuleBreakdown breakdown = new RuleBreakdown();
+        for (ConstraintMatchTotal<?> total : scoreExplanation.getConstraintMatchTotalMap().values()) {
+            breakdown.add(StressRule.forConstraintName(total.getConstraintRef().constraintName()),
+                    total.getConstraintMatchCount(), toPenalty(total.getScore()));
+        }
+        return breakdown;
+    }
+
+    /**
+     * Maps the fact store at {@code path}, writing it from the generator first if it does not exist yet;
+     * an existing store must have been written with the same dataset settings.
+     */
+    static FactStore openFactStore(Path path, StressDataGenerator dataGenerator) {
+        try {
+            FactStore factStore = FactStore.openOrWrite(path, dataGenerator);
+            System.out.printf("Using fact store %s (%,d facts, seed %d)%n", path, factStore.getFactCount(), factStore.getSeed());
+            return factStore;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open fact store " + path, e);
+        }
+    }
+
+    /**
+     * Recomputes the score and per-constraint match counts without an engine and reports whether Bavet agrees.
+     */
+    static void printReferenceCheck(StressDataGenerator dataGenerator, FactStore factStore, String scoreType,
+                                    ScoreExplanation<?, ?> scoreExplanation, int threads) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        ReferenceEvaluator.Result reference = ReferenceEvaluator.evaluate(
+                factStore != null ? factStore.readDataset() : dataGenerator.generate(pool), pool);
+        pool.shutdown();
+
+        double penalty = toPenalty(scoreExplanation.getScore());
+        Map<String, Integer> matchCounts = new HashMap<>();
+        for (ConstraintMatchTotal<?> total : scoreExplanation.getConstraintMatchTotalMap().values()) {
+            matchCounts.put(total.getConstraintRef().constraintName(), total.getConstraintMatchCount());
+        }
+        boolean agrees = reference.scoreAgrees(penalty, 1e-9);
+        for (StressRule rule : StressRule.values()) {
+            agrees &= reference.getMatchCount(rule) == matchCounts.getOrDefault(rule.getConstraintName(), 0);
+        }
+        System.out.printf("- **Reference Check (%s):** %s (expected score -%,.2f, %,d matches)%n",
+                scoreType, agrees ? "OK" : "MISMATCH", reference.getScore(), reference.getTotalMatches());
     }
 }
@@ -0,0 +1,139 @@
+package org.example.dataset;
+
+import org.example.dataset.cloudbalancing.CloudBalance;
+import org.example.dataset.projectjobscheduling.Allocation;
+import org.example.dataset.projectjobscheduling.ExecutionMode;
+import org.example.dataset.projectjobscheduling.Job;
+import org.example.dataset.projectjobscheduling.ProjectJobSchedule;
+import org.example.dataset.projectjobscheduling.ResourceRequirement;
+import org.example.dataset.snapshot.Snapshot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Converts every cloud balancing and project job scheduling JSON file to a snapshot under
+ * {@code target/snapshots} and compares, per file, streaming the JSON into columns with reopening the snapshot,
+ * with and without checking it against the JSON, and with walking every object of the opened snapshot.
+ */
+public class SnapshotLoadTimes {
+
+    public static void main(String[] args) throws IOException {
+        Path dataRoot = Paths.get(args.length > 0 ? args[0] : "../../data");
+        Path snapshotRoot = Paths.get(args.length > 1 ? args[1] : "target/snapshots");
+        int runs = Integer.getInteger("snapshot.runs", 5);
+        List<Path> files = new ArrayList<>();
+        files.addAll(list(dataRoot.resolve("cloudbalancing")));
+        files.addAll(list(dataRoot.resolve("projectjobscheduling/unsolved")));
+
+        for (Path file : files) {
+            load(file, snapshotPath(dataRoot, snapshotRoot, file)); // Converts stale snapshots, warms up the JIT
+        }
+
+        System.out.println("\n#### Snapshot Load Times");
+        System.out.printf("- Best of %d runs per file; Open checks the header only, Validated also the source CRC32C\n", runs);
+        System.out.println("| File                                | JSON       | Snapshot   | Stream JSON | Open        | Validated   | Materialize | Objects  |");
+        System.out.println("|-------------------------------------|------------|------------|-------------|-------------|-------------|-------------|----------|");
+        long totalJsonNanos = 0L;
+        long totalValidatedNanos = 0L;
+        for (Path file : files) {
+            Path snapshotPath = snapshotPath(dataRoot, snapshotRoot, file);
+            boolean cloud = file.toString().contains("cloudbalancing");
+            long convert = Long.MAX_VALUE;
+            long open = Long.MAX_VALUE;
+            long validated = Long.MAX_VALUE;
+            long materialize = Long.MAX_VALUE;
+            long objects = 0L;
+            for (int run = 0; run < runs; run++) {
+                long startTime = System.nanoTime();
+                Snapshot converted = (cloud ? CloudBalance.convert(file) : ProjectJobSchedule.convert(file)).toSnapshot();
+                convert = Math.min(convert, System.nanoTime() - startTime);
+                if (converted.getColumnNames().isEmpty()) {
+                    throw new IllegalStateException("No columns from " + file);
+                }
+
+                startTime = System.nanoTime();
+                Snapshot snapshot = Snapshot.open(snapshotPath);
+                open = Math.min(open, System.nanoTime() - startTime);
+
+                startTime = System.nanoTime();
+                if (!Snapshot.open(snapshotPath).isSnapshotOf(file)) {
+                    throw new IllegalStateException("Stale snapshot " + snapshotPath);
+                }
+                validated = Math.min(validated, System.nanoTime() - startTime);
+
+                startTime = System.nanoTime();
+                objects = cloud ? walk(new CloudBalance(snapshot)) : walk(new ProjectJobSchedule(snapshot));
+                materialize = Math.min(materialize, System.nanoTime() - startTime);
+            }
+            totalJsonNanos += convert;
+            totalValidatedNanos += validated;
+            String name = dataRoot.relativize(file).toString();
+            System.out.printf("| %-35s | %7.2f MB | %7.2f MB | %8.3f ms | %8.3f ms | %8.3f ms | %8.3f ms | %,8d |\n",
+                    name.length() > 35 ? "..." + name.substring(name.length() - 32) : name,
+                    Files.size(file) / (1024.0 * 1024.0),
+                    Files.size(snapshotPath) / (1024.0 * 1024.0),
+                    convert / 1_000_000.0,
+                    open / 1_000_000.0,
+                    validated / 1_000_000.0,
+                    materialize / 1_000_000.0,
+                    objects);
+        }
+        System.out.printf("- %d files: streaming the JSON %.3f ms, validated snapshots %.3f ms (%.1fx)\n", files.size(),
+                totalJsonNanos / 1_000_000.0, totalValidatedNanos / 1_000_000.0, (double) totalJsonNanos / totalValidatedNanos);
+    }
+
+    private static List<Path> list(Path directory) throws IOException {
+        try (Stream<Path> walk = Files.list(directory)) {
+            return walk.filter(p -> p.toString().endsWith(".json")).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static Path snapshotPath(Path dataRoot, Path snapshotRoot, Path file) {
+        String relative = dataRoot.relativize(file).toString();
+        return snapshotRoot.resolve(relative.substring(0, relative.length() - ".json".length()) + ".snap");
+    }
+
+    private static void load(Path file, Path snapshotPath) throws IOException {
+        if (file.toString().contains("cloudbalancing")) {
+            walk(CloudBalance.load(file, snapshotPath));
+        } else {
+            walk(ProjectJobSchedule.load(file, snapshotPath));
+        }
+    }
+
+    /** Touches every object and every reference, so all of them are materialized. */
+    private static long walk(CloudBalance balance) {
+        long count = 0L;
+        for (int i = 0; i < balance.getComputerCount(); i++) {
+            count += balance.getComputer(i).getCost() >= 0 ? 1 : 0;
+        }
+        for (int i = 0; i < balance.getProcessCount(); i++) {
+            count += balance.getProcess(i).getComputer() == null ? 1 : 2;
+        }
+        return count;
+    }
+
+    private static long walk(ProjectJobSchedule schedule) {
+        long count = schedule.getProjects().size() + schedule.getResources().size();
+        for (Job job : schedule.getJobs()) {
+            count += 1 + job.getSuccessorJobs().size() + (job.getProject() != null ? 0 : 1);
+        }
+        for (ExecutionMode mode : schedule.getExecutionModes()) {
+            count += 1 + (mode.getJob() != null ? 0 : 1);
+        }
+        for (ResourceRequirement requirement : schedule.getResourceRequirements()) {
+            count += 1 + (requirement.getResource() != null ? 0 : 1);
+        }
+        for (Allocation allocation : schedule.getAllocations()) {
+            count += 1 + allocation.getPredecessorAllocations().size() + (allocation.getSinkAllocation() != null ? 0 : 1);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,293 @@
+package org.example.dataset.cloudbalancing;
+
+import org.example.dataset.json.JsonTokenizer;
+import org.example.dataset.json.JsonTokenizer.Token;
+import org.example.dataset.snapshot.IntList;
+import org.example.dataset.snapshot.Snapshot;
+import org.example.dataset.snapshot.SnapshotWriter;
+
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A cloud balancing instance ({@code data/cloudbalancing/*.json}) backed by a {@link Snapshot}.
+ * <p>
+ * {@link #convert(Path)} streams the JSON once into columns ({@code computer.*}, {@code process.*}, with
+ * {@code process.computer} resolved to a computer index or -1); {@link #load(Path, Path)} reuses the snapshot
+ * file while it matches the JSON. Computers and processes are created on first access and then kept; creating
+ * one twice under a race is harmless, as they are immutable.
+ */
+public class CloudBalance {
+
+    public static final String KIND = "cloudbalance";
+
+    private final Snapshot snapshot;
+    private final int id;
+    private final IntBuffer computerIds;
+    private final IntBuffer cpuPowers;
+    private final IntBuffer memories;
+    private final IntBuffer networkBandwidths;
+    private final IntBuffer costs;
+    private final IntBuffer processIds;
+    private final IntBuffer requiredCpuPowers;
+    private final IntBuffer requiredMemories;
+    private final IntBuffer requiredNetworkBandwidths;
+    private final IntBuffer processComputers;
+    private final CloudComputer[] computers;
+    private final CloudProcess[] processes;
+
+    public CloudBalance(Snapshot snapshot) {
+        if (!KIND.equals(snapshot.getKind())) {
+            throw new IllegalArgumentException("Not a " + KIND + " snapshot: " + snapshot.getKind());
+        }
+        this.snapshot = snapshot;
+        this.id = snapshot.getColumn("balance.id").get(0);
+        this.computerIds = snapshot.getColumn("computer.id");
+        this.cpuPowers = snapshot.getColumn("computer.cpuPower");
+        this.memories = snapshot.getColumn("computer.memory");
+        this.networkBandwidths = snapshot.getColumn("computer.network");
+        this.costs = snapshot.getColumn("computer.cost");
+        this.processIds = snapshot.getColumn("process.id");
+        this.requiredCpuPowers = snapshot.getColumn("process.cpuPower");
+        this.requiredMemories = snapshot.getColumn("process.memory");
+        this.requiredNetworkBandwidths = snapshot.getColumn("process.network");
+        this.processComputers = snapshot.getColumn("process.computer");
+        this.computers = new CloudComputer[computerIds.limit()];
+        this.processes = new CloudProcess[processIds.limit()];
+    }
+
+    // --- Loading ---
+
+    /**
+     * Opens the snapshot at {@code snapshotPath} if it was converted from the current {@code source}, otherwise
+     * converts the JSON and writes the snapshot there first.
+     */
+    public static CloudBalance load(Path source, Path snapshotPath) throws IOException {
+        if (Files.exists(snapshotPath)) {
+            try {
+                Snapshot snapshot = Snapshot.open(snapshotPath);
+                if (KIND.equals(snapshot.getKind()) && snapshot.isSnapshotOf(source)) {
+                    return new CloudBalance(snapshot);
+                }
+            } catch (IOException e) {
+                System.out.println("Reconverting " + source + ": " + e.getMessage());
+            }
+        }
+        convert(source).write(snapshotPath, source);
+        return new CloudBalance(Snapshot.open(snapshotPath));
+    }
+
+    /**
+     * Streams a cloud balancing JSON file into snapshot columns. The {@code score} is not kept.
+     */
+    public static SnapshotWriter convert(Path source) throws IOException {
+        JsonTokenizer json = JsonTokenizer.open(source);
+        int balanceId = 0;
+        Columns computers = new Columns(5);
+        Columns processes = new Columns(5);
+        json.expect(Token.BEGIN_OBJECT);
+        for (Token token = json.next(); token == Token.NAME; token = json.next()) {
+            if (json.isString("id")) {
+                balanceId = json.readInt();
+            } else if (json.isString("computerList")) {
+                readComputers(json, computers);
+            } else if (json.isString("processList")) {
+                readProcesses(json, processes);
+            } else {
+                json.skipValue();
+            }
+        }
+        // Processes may name their computer by id; resolve to the computer's position
+        Map<Integer, Integer> computerIndices = new HashMap<>();
+        for (int i = 0; i < computers.size(); i++) {
+            computerIndices.put(computers.get(0, i), i);
+        }
+        int[] processComputers = processes.toArray(4);
+        for (int i = 0; i < processComputers.length; i++) {
+            if (processComputers[i] != -1) {
+                Integer index = computerIndices.get(processComputers[i]);
+                if (index == null) {
+                    throw new IOException("Process " + processes.get(0, i) + " refers to unknown computer "
+                            + processComputers[i] + " in " + source);
+                }
+                processComputers[i] = index;
+            }
+        }
+        return new SnapshotWriter(KIND)
+                .column("balance.id", new int[]{balanceId})
+                .column("computer.id", computers.toArray(0))
+                .column("computer.cpuPower", computers.toArray(1))
+                .column("computer.memory", computers.toArray(2))
+                .column("computer.network", computers.toArray(3))
+                .column("computer.cost", computers.toArray(4))
+                .column("process.id", processes.toArray(0))
+                .column("process.cpuPower", processes.toArray(1))
+                .column("process.memory", processes.toArray(2))
+                .column("process.network", processes.toArray(3))
+                .column("process.computer", processComputers);
+    }
+
+    private static void readComputers(JsonTokenizer json, Columns computers) throws IOException {
+        json.expect(Token.BEGIN_ARRAY);
+        for (Token token = json.next(); token == Token.BEGIN_OBJECT; token = json.next()) {
+            int[] row = new int[5];
+            for (token = json.next(); token == Token.NAME; token = json.next()) {
+                int field = json.isString("id") ? 0 : json.isString("cpuPower") ? 1 : json.isString("memory") ? 2
+                        : json.isString("networkBandwidth") ? 3 : json.isString("cost") ? 4 : -1;
+                if (field < 0) {
+                    json.skipValue();
+                } else {
+                    row[field] = json.readInt();
+                }
+            }
+            computers.add(row);
+        }
+    }
+
+    private static void readProcesses(JsonTokenizer json, Columns processes) throws IOException {
+        json.expect(Token.BEGIN_ARRAY);
+        for (Token token = json.next(); token == Token.BEGIN_OBJECT; token = json.next()) {
+            int[] row = {0, 0, 0, 0, -1};
+            for (token = json.next(); token == Token.NAME; token = json.next()) {
+                int field = json.isString("id") ? 0 : json.isString("requiredCpuPower") ? 1
+                        : json.isString("requiredMemory") ? 2 : json.isString("requiredNetworkBandwidth") ? 3
+                        : json.isString("computer") ? 4 : -1;
+                if (field < 0) {
+                    json.skipValue();
+                } else if (field == 4) {
+                    row[4] = readComputerId(json);
+                } else {
+                    row[field] = json.readInt();
+                }
+            }
+            processes.add(row);
+        }
+    }
+
+    /** A process's computer: null, a computer id, or a computer object of which only the id is read. */
+    private static int readComputerId(JsonTokenizer json) throws IOException {
+        Token token = json.next();
+        switch (token) {
+            case NULL:
+                return -1;
+            case NUMBER:
+                return json.getInt();
+            case BEGIN_OBJECT:
+                int computerId = -1;
+                for (token = json.next(); token == Token.NAME; token = json.next()) {
+                    if (json.isString("id")) {
+                        computerId = json.readInt();
+                    } else {
+                        json.skipValue();
+                    }
+                }
+                return computerId;
+            default:
+                throw json.error("Expected a computer but got " + token);
+        }
+    }
+
+    // --- Access ---
+
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getComputerCount() {
+        return computers.length;
+    }
+
+    public CloudComputer getComputer(int index) {
+        CloudComputer computer = computers[index];
+        if (computer == null) {
+            computer = new CloudComputer(index, computerIds.get(index), cpuPowers.get(index), memories.get(index),
+                    networkBandwidths.get(index), costs.get(index));
+            computers[index] = computer;
+        }
+        return computer;
+    }
+
+    /** The computers in file order, materialized as they are read from the list. */
+    public List<CloudComputer> getComputers() {
+        return new AbstractList<CloudComputer>() {
+            @Override
+            public CloudComputer get(int index) {
+                return getComputer(index);
+            }
+
+            @Override
+            public int size() {
+                return computers.length;
+            }
+        };
+    }
+
+    public int getProcessCount() {
+        return processes.length;
+    }
+
+    public CloudProcess getProcess(int index) {
+        CloudProcess process = processes[index];
+        if (process == null) {
+            process = new CloudProcess(this, index, processIds.get(index), requiredCpuPowers.get(index),
+                    requiredMemories.get(index), requiredNetworkBandwidths.get(index), processComputers.get(index));
+            processes[index] = process;
+        }
+        return process;
+    }
+
+    public List<CloudProcess> getProcesses() {
+        return new AbstractList<CloudProcess>() {
+            @Override
+            public CloudProcess get(int index) {
+                return getProcess(index);
+            }
+
+            @Override
+            public int size() {
+                return processes.length;
+            }
+        };
+    }
+
+    /** Row-wise builder for a fixed number of int columns. */
+    private static final class Columns {
+
+        private final IntList[] columns;
+
+        Columns(int width) {
+            columns = new IntList[width];
+            for (int i = 0; i < width; i++) {
+                columns[i] = new IntList();
+            }
+        }
+
+        void add(int[] row) {
+            for (int i = 0; i < columns.length; i++) {
+                columns[i].add(row[i]);
+            }
+        }
+
+        int get(int column, int row) {
+            return columns[column].get(row);
+        }
+
+        int size() {
+            return columns[0].size();
+        }
+
+        int[] toArray(int column) {
+            return columns[column].toArray();
+        }
+    }
+}
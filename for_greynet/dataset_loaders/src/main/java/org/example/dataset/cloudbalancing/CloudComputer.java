@@ -0,0 +1,53 @@
+package org.example.dataset.cloudbalancing;
+
+/**
+ * A computer of a {@link CloudBalance}, with the capacities its processes share and its cost when used.
+ */
+public final class CloudComputer {
+
+    private final int index;
+    private final int id;
+    private final int cpuPower;
+    private final int memory;
+    private final int networkBandwidth;
+    private final int cost;
+
+    CloudComputer(int index, int id, int cpuPower, int memory, int networkBandwidth, int cost) {
+        this.index = index;
+        this.id = id;
+        this.cpuPower = cpuPower;
+        this.memory = memory;
+        this.networkBandwidth = networkBandwidth;
+        this.cost = cost;
+    }
+
+    /** Position in {@code computerList}. */
+    public int getIndex() {
+        return index;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getCpuPower() {
+        return cpuPower;
+    }
+
+    public int getMemory() {
+        return memory;
+    }
+
+    public int getNetworkBandwidth() {
+        return networkBandwidth;
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    @Override
+    public String toString() {
+        return "Computer-" + id;
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.dataset.cloudbalancing;
+
+/**
+ * A process of a {@link CloudBalance} and the computer it was assigned in the source file, if any.
+ */
+public final class CloudProcess {
+
+    private final CloudBalance balance;
+    private final int index;
+    private final int id;
+    private final int requiredCpuPower;
+    private final int requiredMemory;
+    private final int requiredNetworkBandwidth;
+    private final int computerIndex;
+
+    CloudProcess(CloudBalance balance, int index, int id, int requiredCpuPower, int requiredMemory,
+                 int requiredNetworkBandwidth, int computerIndex) {
+        this.balance = balance;
+        this.index = index;
+        this.id = id;
+        this.requiredCpuPower = requiredCpuPower;
+        this.requiredMemory = requiredMemory;
+        this.requiredNetworkBandwidth = requiredNetworkBandwidth;
+        this.computerIndex = computerIndex;
+    }
+
+    /** Position in {@code processList}. */
+    public int getIndex() {
+        return index;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getRequiredCpuPower() {
+        return requiredCpuPower;
+    }
+
+    public int getRequiredMemory() {
+        return requiredMemory;
+    }
+
+    public int getRequiredNetworkBandwidth() {
+        return requiredNetworkBandwidth;
+    }
+
+    /** The assigned computer, or null; null throughout the unsolved datasets. */
+    public CloudComputer getComputer() {
+        return computerIndex < 0 ? null : balance.getComputer(computerIndex);
+    }
+
+    @Override
+    public String toString() {
+        return "Process-" + id;
+    }
+}
@@ -0,0 +1,339 @@
+package org.example.dataset.json;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A pull tokenizer over UTF-8 JSON in a (usually memory-mapped) buffer, for converters that stream a document
+ * once instead of building a tree.
+ * <p>
+ * Commas and colons are treated as separators and not checked, so malformed documents may be accepted; the
+ * inputs are the Jackson-written files under {@code data}, not arbitrary JSON. Member names and string values
+ * are decoded on request through {@link #getString()}; numbers through {@link #getInt()}, {@link #getLong()} or
+ * {@link #getDouble()}.
+ */
+public final class JsonTokenizer {
+
+    public enum Token {
+        BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, TRUE, FALSE, NULL, END
+    }
+
+    private final String source;
+    private final ByteBuffer buffer;
+    private final int limit;
+    private int position = 0;
+
+    // Span of the current STRING, NAME or NUMBER token; escaped strings are decoded into text
+    private int start;
+    private int end;
+    private boolean escaped;
+    private byte[] scratch = new byte[64];
+    private int depth = 0;
+
+    public JsonTokenizer(String source, ByteBuffer buffer) {
+        this.source = source;
+        this.buffer = buffer;
+        this.limit = buffer.limit();
+    }
+
+    public static JsonTokenizer open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("JSON file larger than 2 GiB: " + path);
+            }
+            return new JsonTokenizer(path.toString(), channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    public Token next() throws IOException {
+        while (position < limit) {
+            byte b = buffer.get(position++);
+            switch (b) {
+                case ' ':
+                case '\n':
+                case '\r':
+                case '\t':
+                case ',':
+                case ':':
+                    continue;
+                case '{':
+                    depth++;
+                    return Token.BEGIN_OBJECT;
+                case '[':
+                    depth++;
+                    return Token.BEGIN_ARRAY;
+                case '}':
+                case ']':
+                    if (depth == 0) {
+                        throw error("Unbalanced '" + (char) b + "'");
+                    }
+                    depth--;
+                    return b == '}' ? Token.END_OBJECT : Token.END_ARRAY;
+                case '"':
+                    scanString();
+                    return isFollowedByColon() ? Token.NAME : Token.STRING;
+                case 't':
+                    return readLiteral("rue", Token.TRUE);
+                case 'f':
+                    return readLiteral("alse", Token.FALSE);
+                case 'n':
+                    return readLiteral("ull", Token.NULL);
+                default:
+                    if (b == '-' || (b >= '0' && b <= '9')) {
+                        readNumber();
+                        return Token.NUMBER;
+                    }
+                    throw error("Unexpected character '" + (char) b + "'");
+            }
+        }
+        if (depth != 0) {
+            throw error("Unexpected end of document");
+        }
+        return Token.END;
+    }
+
+    /**
+     * Skips the value that starts with {@code token} (already returned by {@link #next()}), including nested
+     * objects and arrays.
+     */
+    public void skipValue(Token token) throws IOException {
+        if (token != Token.BEGIN_OBJECT && token != Token.BEGIN_ARRAY) {
+            return;
+        }
+        int target = depth - 1;
+        while (depth > target) {
+            if (next() == Token.END) {
+                throw error("Unexpected end of document");
+            }
+        }
+    }
+
+    /** Reads the next token and skips the value it starts. */
+    public void skipValue() throws IOException {
+        skipValue(next());
+    }
+
+    public String getString() {
+        if (escaped) {
+            return new String(scratch, 0, end, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[end - start];
+        for (int i = start; i < end; i++) {
+            bytes[i - start] = buffer.get(i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Whether the current STRING or NAME token, unescaped, is {@code ascii}; allocates nothing. */
+    public boolean isString(String ascii) {
+        int length = escaped ? end : end - start;
+        if (length != ascii.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            byte b = escaped ? scratch[i] : buffer.get(start + i);
+            if (b != ascii.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getLong() throws IOException {
+        int i = start;
+        boolean negative = buffer.get(i) == '-';
+        if (negative) {
+            i++;
+        }
+        long value = 0L;
+        for (; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b < '0' || b > '9' || value > (Long.MAX_VALUE - 9) / 10) {
+                throw error("Not an integer: " + new String(scratchCopy(start, end), 0, end - start, StandardCharsets.US_ASCII));
+            }
+            value = value * 10 + (b - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    public int getInt() throws IOException {
+        long value = getLong();
+        if (value != (int) value) {
+            throw error("Integer out of range: " + value);
+        }
+        return (int) value;
+    }
+
+    public double getDouble() {
+        return Double.parseDouble(new String(scratchCopy(start, end), 0, end - start, StandardCharsets.US_ASCII));
+    }
+
+    // --- Expectations, for schema-driven converters ---
+
+    public void expect(Token expected) throws IOException {
+        Token token = next();
+        if (token != expected) {
+            throw error("Expected " + expected + " but got " + token);
+        }
+    }
+
+    /** Reads an integer value, or {@code nullValue} for {@code null}. */
+    public int readInt(int nullValue) throws IOException {
+        Token token = next();
+        if (token == Token.NULL) {
+            return nullValue;
+        }
+        if (token != Token.NUMBER) {
+            throw error("Expected a number but got " + token);
+        }
+        return getInt();
+    }
+
+    public int readInt() throws IOException {
+        expect(Token.NUMBER);
+        return getInt();
+    }
+
+    public boolean readBoolean() throws IOException {
+        Token token = next();
+        if (token != Token.TRUE && token != Token.FALSE) {
+            throw error("Expected a boolean but got " + token);
+        }
+        return token == Token.TRUE;
+    }
+
+    public String readString() throws IOException {
+        Token token = next();
+        if (token == Token.NULL) {
+            return null;
+        }
+        if (token != Token.STRING) {
+            throw error("Expected a string but got " + token);
+        }
+        return getString();
+    }
+
+    public IOException error(String message) {
+        return new IOException(message + " at byte " + position + " of " + source);
+    }
+
+    // --- Scanning ---
+
+    private void scanString() throws IOException {
+        start = position;
+        escaped = false;
+        while (position < limit) {
+            byte b = buffer.get(position);
+            if (b == '"') {
+                end = position++;
+                return;
+            }
+            if (b == '\\') {
+                unescape();
+                return;
+            }
+            position++;
+        }
+        throw error("Unterminated string");
+    }
+
+    /** Slow path: copies the string so far into scratch and decodes escapes. */
+    private void unescape() throws IOException {
+        escaped = true;
+        int length = 0;
+        ensureScratch(position - start);
+        for (int i = start; i < position; i++) {
+            scratch[length++] = buffer.get(i);
+        }
+        while (position < limit) {
+            byte b = buffer.get(position++);
+            if (b == '"') {
+                end = length;
+                return;
+            }
+            ensureScratch(length + 4);
+            if (b != '\\') {
+                scratch[length++] = b;
+                continue;
+            }
+            if (position >= limit) {
+                break;
+            }
+            byte e = buffer.get(position++);
+            switch (e) {
+                case 'b': scratch[length++] = '\b'; break;
+                case 'f': scratch[length++] = '\f'; break;
+                case 'n': scratch[length++] = '\n'; break;
+                case 'r': scratch[length++] = '\r'; break;
+                case 't': scratch[length++] = '\t'; break;
+                case 'u':
+                    if (position + 4 > limit) {
+                        throw error("Truncated \\u escape");
+                    }
+                    char c = (char) Integer.parseInt(new String(scratchCopy(position, position + 4), 0, 4, StandardCharsets.US_ASCII), 16);
+                    ensureScratch(length + 4);
+                    byte[] encoded = String.valueOf(c).getBytes(StandardCharsets.UTF_8);
+                    System.arraycopy(encoded, 0, scratch, length, encoded.length);
+                    length += encoded.length;
+                    position += 4;
+                    break;
+                default: scratch[length++] = e; break; // \" \\ \/
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    private void readNumber() {
+        start = position - 1;
+        while (position < limit) {
+            byte b = buffer.get(position);
+            if ((b >= '0' && b <= '9') || b == '.' || b == 'e' || b == 'E' || b == '+' || b == '-') {
+                position++;
+            } else {
+                break;
+            }
+        }
+        end = position;
+    }
+
+    /** A string directly followed by a colon is a member name. */
+    private boolean isFollowedByColon() {
+        for (int i = position; i < limit; i++) {
+            byte b = buffer.get(i);
+            if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+                return b == ':';
+            }
+        }
+        return false;
+    }
+
+    private Token readLiteral(String rest, Token token) throws IOException {
+        for (int i = 0; i < rest.length(); i++) {
+            if (position >= limit || buffer.get(position++) != rest.charAt(i)) {
+                throw error("Bad literal");
+            }
+        }
+        return token;
+    }
+
+    private byte[] scratchCopy(int from, int to) {
+        ensureScratch(to - from);
+        for (int i = from; i < to; i++) {
+            scratch[i - from] = buffer.get(i);
+        }
+        return scratch;
+    }
+
+    private void ensureScratch(int length) {
+        if (length > scratch.length) {
+            byte[] grown = new byte[Math.max(length, scratch.length * 2)];
+            System.arraycopy(scratch, 0, grown, 0, scratch.length);
+            scratch = grown;
+        }
+    }
+}
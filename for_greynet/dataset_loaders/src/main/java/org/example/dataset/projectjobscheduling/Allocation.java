@@ -0,0 +1,81 @@
+package org.example.dataset.projectjobscheduling;
+
+import java.util.List;
+
+/**
+ * The planning entity of a job: the chosen execution mode and delay (null in the unsolved datasets), linked to
+ * the allocations of its project's source and sink jobs and of its predecessors and successors.
+ */
+public final class Allocation {
+
+    private final ProjectJobSchedule schedule;
+    private final int index;
+    private final int id;
+    private final int jobIndex;
+    private final int sourceAllocationIndex;
+    private final int sinkAllocationIndex;
+    private final int executionModeIndex;
+    private final Integer delay;
+    private final int predecessorsDoneDate;
+
+    Allocation(ProjectJobSchedule schedule, int index, int id, int jobIndex, int sourceAllocationIndex,
+               int sinkAllocationIndex, int executionModeIndex, Integer delay, int predecessorsDoneDate) {
+        this.schedule = schedule;
+        this.index = index;
+        this.id = id;
+        this.jobIndex = jobIndex;
+        this.sourceAllocationIndex = sourceAllocationIndex;
+        this.sinkAllocationIndex = sinkAllocationIndex;
+        this.executionModeIndex = executionModeIndex;
+        this.delay = delay;
+        this.predecessorsDoneDate = predecessorsDoneDate;
+    }
+
+    /** Position in {@code allocationList}. */
+    public int getIndex() {
+        return index;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public Job getJob() {
+        return schedule.getJob(jobIndex);
+    }
+
+    public Allocation getSourceAllocation() {
+        return schedule.getAllocation(sourceAllocationIndex);
+    }
+
+    public Allocation getSinkAllocation() {
+        return schedule.getAllocation(sinkAllocationIndex);
+    }
+
+    public List<Allocation> getPredecessorAllocations() {
+        return schedule.getPredecessorAllocations(index);
+    }
+
+    public List<Allocation> getSuccessorAllocations() {
+        return schedule.getSuccessorAllocations(index);
+    }
+
+    /** The chosen execution mode, or null. */
+    public ExecutionMode getExecutionMode() {
+        return executionModeIndex < 0 ? null : schedule.getExecutionMode(executionModeIndex);
+    }
+
+    /** The chosen delay, or null. */
+    public Integer getDelay() {
+        return delay;
+    }
+
+    public int getPredecessorsDoneDate() {
+        return predecessorsDoneDate;
+    }
+
+    @Override
+    public String toString() {
+        return "Allocation-" + id;
+    }
+}
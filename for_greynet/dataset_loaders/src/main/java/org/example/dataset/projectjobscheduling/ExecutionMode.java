@@ -0,0 +1,49 @@
+package org.example.dataset.projectjobscheduling;
+
+import java.util.List;
+
+/**
+ * One way to execute a job: its duration and what it takes of each resource.
+ */
+public final class ExecutionMode {
+
+    private final ProjectJobSchedule schedule;
+    private final int index;
+    private final int id;
+    private final int duration;
+    private final int jobIndex;
+
+    ExecutionMode(ProjectJobSchedule schedule, int index, int id, int duration, int jobIndex) {
+        this.schedule = schedule;
+        this.index = index;
+        this.id = id;
+        this.duration = duration;
+        this.jobIndex = jobIndex;
+    }
+
+    /** Position in {@code executionModeList}. */
+    public int getIndex() {
+        return index;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getDuration() {
+        return duration;
+    }
+
+    public Job getJob() {
+        return schedule.getJob(jobIndex);
+    }
+
+    public List<ResourceRequirement> getResourceRequirements() {
+        return schedule.getModeRequirements(index);
+    }
+
+    @Override
+    public String toString() {
+        return "ExecutionMode-" + id;
+    }
+}
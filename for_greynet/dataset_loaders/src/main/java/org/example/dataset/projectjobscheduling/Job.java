@@ -0,0 +1,53 @@
+package org.example.dataset.projectjobscheduling;
+
+import java.util.List;
+
+/**
+ * A job of a project, its alternative execution modes and the jobs that may only start after it ends.
+ */
+public final class Job {
+
+    private final ProjectJobSchedule schedule;
+    private final int index;
+    private final int id;
+    private final JobType jobType;
+    private final int projectIndex;
+
+    Job(ProjectJobSchedule schedule, int index, int id, JobType jobType, int projectIndex) {
+        this.schedule = schedule;
+        this.index = index;
+        this.id = id;
+        this.jobType = jobType;
+        this.projectIndex = projectIndex;
+    }
+
+    /** Position in {@code jobList}. */
+    public int getIndex() {
+        return index;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public JobType getJobType() {
+        return jobType;
+    }
+
+    public Project getProject() {
+        return schedule.getProject(projectIndex);
+    }
+
+    public List<ExecutionMode> getExecutionModes() {
+        return schedule.getJobExecutionModes(index);
+    }
+
+    public List<Job> getSuccessorJobs() {
+        return schedule.getSuccessorJobs(index);
+    }
+
+    @Override
+    public String toString() {
+        return "Job-" + id;
+    }
+}
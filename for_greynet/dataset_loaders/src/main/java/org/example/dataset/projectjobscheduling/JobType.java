@@ -0,0 +1,10 @@
+package org.example.dataset.projectjobscheduling;
+
+/**
+ * A project's dummy start and end jobs, and everything in between.
+ */
+public enum JobType {
+    SOURCE,
+    STANDARD,
+    SINK
+}
@@ -0,0 +1,54 @@
+package org.example.dataset.projectjobscheduling;
+
+import java.util.List;
+
+/**
+ * A project of a {@link ProjectJobSchedule}: its release date, the critical path length of its precedence
+ * graph, its local resources and its jobs.
+ */
+public final class Project {
+
+    private final ProjectJobSchedule schedule;
+    private final int index;
+    private final int id;
+    private final int releaseDate;
+    private final int criticalPathDuration;
+
+    Project(ProjectJobSchedule schedule, int index, int id, int releaseDate, int criticalPathDuration) {
+        this.schedule = schedule;
+        this.index = index;
+        this.id = id;
+        this.releaseDate = releaseDate;
+        this.criticalPathDuration = criticalPathDuration;
+    }
+
+    /** Position in {@code projectList}. */
+    public int getIndex() {
+        return index;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getReleaseDate() {
+        return releaseDate;
+    }
+
+    public int getCriticalPathDuration() {
+        return criticalPathDuration;
+    }
+
+    public List<Resource> getLocalResources() {
+        return schedule.getLocalResources(index);
+    }
+
+    public List<Job> getJobs() {
+        return schedule.getProjectJobs(index);
+    }
+
+    @Override
+    public String toString() {
+        return "Project-" + id;
+    }
+}
@@ -0,0 +1,288 @@
+package org.example.dataset.projectjobscheduling;
+
+import org.example.dataset.snapshot.Snapshot;
+import org.example.dataset.snapshot.SnapshotWriter;
+
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * A multi-project job scheduling instance ({@code data/projectjobscheduling/unsolved/*.json}) backed by a
+ * {@link Snapshot}.
+ * <p>
+ * Every object is a row in its type's columns ({@code project.*}, {@code resource.*}, {@code job.*},
+ * {@code mode.*}, {@code requirement.*}, {@code allocation.*}) at its position in the JSON's top-level list, and
+ * every reference is that position (-1 for null). List-valued references are stored as an offsets column and a
+ * targets column. Objects are created on first access and then kept; creating one twice under a race is
+ * harmless, as they are immutable. A solver that only needs a few columns can read them straight from
+ * {@link #getSnapshot()} without creating objects at all.
+ */
+public class ProjectJobSchedule {
+
+    public static final String KIND = "pjschedule";
+    /** Stands for null in int columns that are not references ({@code allocation.delay}). */
+    public static final int NULL_INT = Integer.MIN_VALUE;
+
+    private static final JobType[] JOB_TYPES = JobType.values();
+
+    private final Snapshot snapshot;
+    private final int id;
+    private final Table<Project> projects;
+    private final Table<Resource> resources;
+    private final Table<Job> jobs;
+    private final Table<ExecutionMode> executionModes;
+    private final Table<ResourceRequirement> requirements;
+    private final Table<Allocation> allocations;
+    private final Relation projectResources;
+    private final Relation projectJobs;
+    private final Relation jobModes;
+    private final Relation jobSuccessors;
+    private final Relation modeRequirements;
+    private final Relation allocationPredecessors;
+    private final Relation allocationSuccessors;
+
+    public ProjectJobSchedule(Snapshot snapshot) {
+        if (!KIND.equals(snapshot.getKind())) {
+            throw new IllegalArgumentException("Not a " + KIND + " snapshot: " + snapshot.getKind());
+        }
+        this.snapshot = snapshot;
+        this.id = snapshot.getColumn("schedule.id").get(0);
+
+        IntBuffer projectIds = snapshot.getColumn("project.id");
+        IntBuffer releaseDates = snapshot.getColumn("project.releaseDate");
+        IntBuffer criticalPaths = snapshot.getColumn("project.criticalPath");
+        this.projects = new Table<>(new Project[projectIds.limit()], i -> new Project(this, i, projectIds.get(i),
+                releaseDates.get(i), criticalPaths.get(i)));
+
+        IntBuffer resourceIds = snapshot.getColumn("resource.id");
+        IntBuffer capacities = snapshot.getColumn("resource.capacity");
+        IntBuffer renewables = snapshot.getColumn("resource.renewable");
+        IntBuffer resourceProjects = snapshot.getColumn("resource.project");
+        this.resources = new Table<>(new Resource[resourceIds.limit()], i -> new Resource(this, i, resourceIds.get(i),
+                capacities.get(i), renewables.get(i) != 0, resourceProjects.get(i)));
+
+        IntBuffer jobIds = snapshot.getColumn("job.id");
+        IntBuffer jobTypes = snapshot.getColumn("job.type");
+        IntBuffer jobProjects = snapshot.getColumn("job.project");
+        this.jobs = new Table<>(new Job[jobIds.limit()], i -> new Job(this, i, jobIds.get(i),
+                JOB_TYPES[jobTypes.get(i)], jobProjects.get(i)));
+
+        IntBuffer modeIds = snapshot.getColumn("mode.id");
+        IntBuffer durations = snapshot.getColumn("mode.duration");
+        IntBuffer modeJobs = snapshot.getColumn("mode.job");
+        this.executionModes = new Table<>(new ExecutionMode[modeIds.limit()], i -> new ExecutionMode(this, i,
+                modeIds.get(i), durations.get(i), modeJobs.get(i)));
+
+        IntBuffer requirementIds = snapshot.getColumn("requirement.id");
+        IntBuffer amounts = snapshot.getColumn("requirement.amount");
+        IntBuffer requirementModes = snapshot.getColumn("requirement.mode");
+        IntBuffer requirementResources = snapshot.getColumn("requirement.resource");
+        this.requirements = new Table<>(new ResourceRequirement[requirementIds.limit()], i -> new ResourceRequirement(
+                this, i, requirementIds.get(i), amounts.get(i), requirementModes.get(i), requirementResources.get(i)));
+
+        IntBuffer allocationIds = snapshot.getColumn("allocation.id");
+        IntBuffer delays = snapshot.getColumn("allocation.delay");
+        IntBuffer doneDates = snapshot.getColumn("allocation.doneDate");
+        IntBuffer allocationJobs = snapshot.getColumn("allocation.job");
+        IntBuffer sources = snapshot.getColumn("allocation.source");
+        IntBuffer sinks = snapshot.getColumn("allocation.sink");
+        IntBuffer allocationModes = snapshot.getColumn("allocation.mode");
+        this.allocations = new Table<>(new Allocation[allocationIds.limit()], i -> new Allocation(this, i,
+                allocationIds.get(i), allocationJobs.get(i), sources.get(i), sinks.get(i), allocationModes.get(i),
+                delays.get(i) == NULL_INT ? null : delays.get(i), doneDates.get(i)));
+
+        this.projectResources = new Relation(snapshot, "project.resources");
+        this.projectJobs = new Relation(snapshot, "project.jobs");
+        this.jobModes = new Relation(snapshot, "job.modes");
+        this.jobSuccessors = new Relation(snapshot, "job.successors");
+        this.modeRequirements = new Relation(snapshot, "mode.requirements");
+        this.allocationPredecessors = new Relation(snapshot, "allocation.predecessors");
+        this.allocationSuccessors = new Relation(snapshot, "allocation.successors");
+    }
+
+    // --- Loading ---
+
+    /**
+     * Opens the snapshot at {@code snapshotPath} if it was converted from the current {@code source}, otherwise
+     * converts the JSON and writes the snapshot there first.
+     */
+    public static ProjectJobSchedule load(Path source, Path snapshotPath) throws IOException {
+        if (Files.exists(snapshotPath)) {
+            try {
+                Snapshot snapshot = Snapshot.open(snapshotPath);
+                if (KIND.equals(snapshot.getKind()) && snapshot.isSnapshotOf(source)) {
+                    return new ProjectJobSchedule(snapshot);
+                }
+            } catch (IOException e) {
+                System.out.println("Reconverting " + source + ": " + e.getMessage());
+            }
+        }
+        convert(source).write(snapshotPath, source);
+        return new ProjectJobSchedule(Snapshot.open(snapshotPath));
+    }
+
+    /**
+     * Streams a project job scheduling JSON file into snapshot columns, resolving its {@code @id} references.
+     * The {@code score} is not kept.
+     */
+    public static SnapshotWriter convert(Path source) throws IOException {
+        return ScheduleConverter.convert(source);
+    }
+
+    // --- Access ---
+
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public List<Project> getProjects() {
+        return projects.list();
+    }
+
+    public Project getProject(int index) {
+        return projects.get(index);
+    }
+
+    public List<Resource> getResources() {
+        return resources.list();
+    }
+
+    public Resource getResource(int index) {
+        return resources.get(index);
+    }
+
+    public List<Job> getJobs() {
+        return jobs.list();
+    }
+
+    public Job getJob(int index) {
+        return jobs.get(index);
+    }
+
+    public List<ExecutionMode> getExecutionModes() {
+        return executionModes.list();
+    }
+
+    public ExecutionMode getExecutionMode(int index) {
+        return executionModes.get(index);
+    }
+
+    public List<ResourceRequirement> getResourceRequirements() {
+        return requirements.list();
+    }
+
+    public ResourceRequirement getResourceRequirement(int index) {
+        return requirements.get(index);
+    }
+
+    public List<Allocation> getAllocations() {
+        return allocations.list();
+    }
+
+    public Allocation getAllocation(int index) {
+        return allocations.get(index);
+    }
+
+    List<Resource> getLocalResources(int project) {
+        return projectResources.list(project, resources);
+    }
+
+    List<Job> getProjectJobs(int project) {
+        return projectJobs.list(project, jobs);
+    }
+
+    List<ExecutionMode> getJobExecutionModes(int job) {
+        return jobModes.list(job, executionModes);
+    }
+
+    List<Job> getSuccessorJobs(int job) {
+        return jobSuccessors.list(job, jobs);
+    }
+
+    List<ResourceRequirement> getModeRequirements(int mode) {
+        return modeRequirements.list(mode, requirements);
+    }
+
+    List<Allocation> getPredecessorAllocations(int allocation) {
+        return allocationPredecessors.list(allocation, allocations);
+    }
+
+    List<Allocation> getSuccessorAllocations(int allocation) {
+        return allocationSuccessors.list(allocation, allocations);
+    }
+
+    /** Objects of one type, created from their columns on first access. */
+    private static final class Table<T> {
+
+        private final T[] objects;
+        private final IntFunction<T> factory;
+
+        Table(T[] objects, IntFunction<T> factory) {
+            this.objects = objects;
+            this.factory = factory;
+        }
+
+        T get(int index) {
+            T object = objects[index];
+            if (object == null) {
+                object = factory.apply(index);
+                objects[index] = object;
+            }
+            return object;
+        }
+
+        List<T> list() {
+            return new AbstractList<T>() {
+                @Override
+                public T get(int index) {
+                    return Table.this.get(index);
+                }
+
+                @Override
+                public int size() {
+                    return objects.length;
+                }
+            };
+        }
+    }
+
+    /** A list-valued reference: the targets of row {@code i} are {@code targets[offsets[i] .. offsets[i + 1])}. */
+    private static final class Relation {
+
+        private final IntBuffer offsets;
+        private final IntBuffer targets;
+
+        Relation(Snapshot snapshot, String name) {
+            this.offsets = snapshot.getColumn(name + ".offsets");
+            this.targets = snapshot.getColumn(name);
+        }
+
+        <T> List<T> list(int row, Table<T> table) {
+            int from = offsets.get(row);
+            int size = offsets.get(row + 1) - from;
+            return new AbstractList<T>() {
+                @Override
+                public T get(int index) {
+                    if (index < 0 || index >= size) {
+                        throw new IndexOutOfBoundsException(index + " of " + size);
+                    }
+                    return table.get(targets.get(from + index));
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package org.example.dataset.projectjobscheduling;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * One single-project PSPLIB multi-mode file ({@code .mm}): per job its successors and, per execution mode, the
+ * duration and the request for every resource (renewable ones first, then nonrenewable), plus the resource
+ * availabilities. Immutable once read, so one instance is shared by every descriptor that names the file.
+ */
+final class PsplibFile {
+
+    final Path path;
+    final int renewableCount;
+    final int nonrenewableCount;
+    /** The {@code MPM-Time} of the project: its critical path duration with every job in its shortest mode. */
+    final int mpmTime;
+    final int[][] successors;
+    final int[][] durations;
+    /** {@code requests[job][mode][resource]}. */
+    final int[][][] requests;
+    final int[] availabilities;
+
+    private PsplibFile(Path path, int renewableCount, int nonrenewableCount, int mpmTime, int[][] successors,
+                       int[][] durations, int[][][] requests, int[] availabilities) {
+        this.path = path;
+        this.renewableCount = renewableCount;
+        this.nonrenewableCount = nonrenewableCount;
+        this.mpmTime = mpmTime;
+        this.successors = successors;
+        this.durations = durations;
+        this.requests = requests;
+        this.availabilities = availabilities;
+    }
+
+    int getJobCount() {
+        return successors.length;
+    }
+
+    int getResourceCount() {
+        return renewableCount + nonrenewableCount;
+    }
+
+    static PsplibFile read(Path path) throws IOException {
+        return new Parser(path, Files.readAllLines(path, StandardCharsets.ISO_8859_1)).parse();
+    }
+
+    /**
+     * The files are small (a few KB) and line-oriented, so they are parsed line by line.
+     */
+    private static final class Parser {
+
+        private final Path path;
+        private final List<String> lines;
+        private int line = 0;
+
+        Parser(Path path, List<String> lines) {
+            this.path = path;
+            this.lines = lines;
+        }
+
+        PsplibFile parse() throws IOException {
+            int jobCount = headerValue("jobs (incl. supersource/sink )");
+            int renewableCount = headerValue("  - renewable");
+            int nonrenewableCount = headerValue("  - nonrenewable");
+            if (headerValue("  - doubly constrained") != 0) {
+                throw error("Doubly constrained resources are not supported");
+            }
+            int resourceCount = renewableCount + nonrenewableCount;
+
+            skipTo("PROJECT INFORMATION:");
+            line++; // Column headings
+            int[] project = ints(next());
+            int mpmTime = project[project.length - 1];
+
+            skipTo("PRECEDENCE RELATIONS:");
+            line++;
+            int[] modeCounts = new int[jobCount];
+            int[][] successors = new int[jobCount][];
+            for (int job = 0; job < jobCount; job++) {
+                int[] values = ints(next());
+                if (values.length < 3 || values[0] != job + 1 || values.length != 3 + values[2]) {
+                    throw error("Bad precedence line for job " + (job + 1));
+                }
+                modeCounts[job] = values[1];
+                successors[job] = new int[values[2]];
+                for (int i = 0; i < values[2]; i++) {
+                    successors[job][i] = values[3 + i] - 1;
+                    if (successors[job][i] <= job || successors[job][i] >= jobCount) {
+                        throw error("Job " + (job + 1) + " has an invalid successor " + values[3 + i]);
+                    }
+                }
+            }
+
+            skipTo("REQUESTS/DURATIONS:");
+            line += 2; // Column headings and a line of dashes
+            int[][] durations = new int[jobCount][];
+            int[][][] requests = new int[jobCount][][];
+            for (int job = 0; job < jobCount; job++) {
+                durations[job] = new int[modeCounts[job]];
+                requests[job] = new int[modeCounts[job]][];
+                for (int mode = 0; mode < modeCounts[job]; mode++) {
+                    int[] values = ints(next());
+                    // The first mode of a job starts with the job number
+                    int offset = mode == 0 ? 1 : 0;
+                    if (values.length != offset + 2 + resourceCount || (mode == 0 && values[0] != job + 1)
+                            || values[offset] != mode + 1) {
+                        throw error("Bad request line for job " + (job + 1) + " mode " + (mode + 1));
+                    }
+                    durations[job][mode] = values[offset + 1];
+                    requests[job][mode] = new int[resourceCount];
+                    System.arraycopy(values, offset + 2, requests[job][mode], 0, resourceCount);
+                }
+            }
+
+            skipTo("RESOURCEAVAILABILITIES:");
+            line++;
+            int[] availabilities = ints(next());
+            if (availabilities.length != resourceCount) {
+                throw error("Expected " + resourceCount + " resource availabilities");
+            }
+            return new PsplibFile(path, renewableCount, nonrenewableCount, mpmTime, successors, durations,
+                    requests, availabilities);
+        }
+
+        private int headerValue(String key) throws IOException {
+            for (; line < lines.size(); line++) {
+                String text = lines.get(line);
+                if (text.startsWith(key)) {
+                    String value = text.substring(text.indexOf(':') + 1).trim();
+                    int end = 0;
+                    while (end < value.length() && Character.isDigit(value.charAt(end))) {
+                        end++;
+                    }
+                    line++;
+                    try {
+                        return Integer.parseInt(value.substring(0, end));
+                    } catch (NumberFormatException e) {
+                        throw error("Bad value for '" + key.trim() + "'");
+                    }
+                }
+            }
+            throw error("No '" + key.trim() + "'");
+        }
+
+        private void skipTo(String heading) throws IOException {
+            while (line < lines.size() && !lines.get(line).startsWith(heading)) {
+                line++;
+            }
+            if (line == lines.size()) {
+                throw error("No " + heading);
+            }
+            line++;
+        }
+
+        private String next() throws IOException {
+            if (line >= lines.size()) {
+                throw error("Unexpected end of file");
+            }
+            return lines.get(line++);
+        }
+
+        private int[] ints(String text) throws IOException {
+            String[] tokens = text.trim().split("\\s+");
+            int[] values = new int[tokens.length];
+            try {
+                for (int i = 0; i < tokens.length; i++) {
+                    values[i] = Integer.parseInt(tokens[i]);
+                }
+            } catch (NumberFormatException e) {
+                throw error("Expected numbers: '" + text.trim() + "'");
+            }
+            return values;
+        }
+
+        private IOException error(String message) {
+            return new IOException(message + " at line " + line + " of " + path);
+        }
+    }
+}
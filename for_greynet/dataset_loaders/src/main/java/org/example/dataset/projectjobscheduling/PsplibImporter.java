@@ -0,0 +1,551 @@
+package org.example.dataset.projectjobscheduling;
+
+import org.example.dataset.snapshot.IntList;
+import org.example.dataset.snapshot.SnapshotWriter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Builds {@link ProjectJobSchedule}s from the multi-project descriptors in
+ * {@code data/projectjobscheduling/import} ({@code A-*.txt}, {@code B-*.txt}) and the PSPLIB {@code .mm} files
+ * they name, the way {@code unsolved/*.json} were built from them.
+ * <p>
+ * A descriptor lists, per project, its release date, critical path duration and {@code .mm} file, then one
+ * entry per resource of the {@code .mm} files: the capacity of a global resource shared by all projects, or -1
+ * where each project keeps its own (local) resource with the capacity from its file. As in the importer the JSON
+ * was made with, the k global capacities go to the first k resources of the files wherever the -1 entries are
+ * ({@code A-3.txt} lists {@code -1 49 -1 -1}, and its global resource takes the place of {@code R 1}). Every descriptor is one task on the
+ * pool, which forks one task per project file. The {@code .mm} files are parsed once per importer however many
+ * descriptors and tasks name them: the first task to ask for a file parses it and the others wait for that
+ * result.
+ * <p>
+ * Ids are assigned as in the JSON: sequentially over all projects in descriptor order, global resources first,
+ * and requirements only for nonzero requests. Each job gets an allocation with the same id; the source and sink
+ * allocations have their single execution mode and a zero delay, and every allocation starts with the project's
+ * release date as its predecessors' done date.
+ */
+public class PsplibImporter {
+
+    private final ForkJoinPool pool;
+    private final ConcurrentMap<Path, CompletableFuture<PsplibFile>> projectFiles = new ConcurrentHashMap<>();
+    private final LongAdder projectFileRequests = new LongAdder();
+
+    public PsplibImporter(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    // --- Descriptors ---
+
+    /** The projects and global resource capacities of a multi-project descriptor. */
+    public static final class Descriptor {
+
+        private final List<ProjectFile> projects;
+        private final int[] globalCapacities;
+
+        /**
+         * @param globalCapacities one entry per resource of the project files; -1 for a local resource
+         */
+        public Descriptor(List<ProjectFile> projects, int[] globalCapacities) {
+            this.projects = Collections.unmodifiableList(new ArrayList<>(projects));
+            this.globalCapacities = globalCapacities.clone();
+        }
+
+        public List<ProjectFile> getProjects() {
+            return projects;
+        }
+
+        public int[] getGlobalCapacities() {
+            return globalCapacities.clone();
+        }
+    }
+
+    /**
+     * A project of a descriptor. A negative critical path duration stands for the file's own {@code MPM-Time},
+     * which is what the shipped descriptors list.
+     */
+    public static final class ProjectFile {
+
+        private final Path path;
+        private final int releaseDate;
+        private final int criticalPathDuration;
+
+        public ProjectFile(Path path, int releaseDate, int criticalPathDuration) {
+            this.path = path;
+            this.releaseDate = releaseDate;
+            this.criticalPathDuration = criticalPathDuration;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public int getReleaseDate() {
+            return releaseDate;
+        }
+
+        public int getCriticalPathDuration() {
+            return criticalPathDuration;
+        }
+    }
+
+    /**
+     * Reads a descriptor; project file paths are resolved against its directory.
+     */
+    public static Descriptor readDescriptor(Path path) throws IOException {
+        List<String> tokens = new ArrayList<>();
+        for (String line : Files.readAllLines(path, StandardCharsets.ISO_8859_1)) {
+            for (String token : line.trim().split("\\s+")) {
+                if (!token.isEmpty()) {
+                    tokens.add(token);
+                }
+            }
+        }
+        try {
+            int position = 0;
+            int projectCount = Integer.parseInt(tokens.get(position++));
+            List<ProjectFile> projects = new ArrayList<>(projectCount);
+            for (int i = 0; i < projectCount; i++) {
+                int releaseDate = Integer.parseInt(tokens.get(position++));
+                int criticalPathDuration = Integer.parseInt(tokens.get(position++));
+                Path projectPath = path.resolveSibling(tokens.get(position++));
+                projects.add(new ProjectFile(projectPath, releaseDate, criticalPathDuration));
+            }
+            int[] globalCapacities = new int[Integer.parseInt(tokens.get(position++))];
+            for (int i = 0; i < globalCapacities.length; i++) {
+                globalCapacities[i] = Integer.parseInt(tokens.get(position++));
+            }
+            return new Descriptor(projects, globalCapacities);
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            throw new IOException("Bad multi-project descriptor " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    // --- Importing ---
+
+    public ProjectJobSchedule importDescriptor(Path path) throws IOException {
+        return importDescriptors(Collections.singletonList(path)).get(0);
+    }
+
+    /**
+     * Imports the descriptors in parallel, one task per descriptor and per project file.
+     */
+    public List<ProjectJobSchedule> importDescriptors(List<Path> paths) throws IOException {
+        try {
+            return pool.invoke(ForkJoinTask.adapt(() -> {
+                List<DescriptorTask> tasks = new ArrayList<>(paths.size());
+                for (Path path : paths) {
+                    tasks.add(new DescriptorTask(path));
+                }
+                ForkJoinTask.invokeAll(tasks);
+                return tasks.stream().map(ForkJoinTask::join).collect(Collectors.toList());
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Builds a schedule from any set of project files, e.g. a larger mix drawn from the PSPLIB pool.
+     */
+    public ProjectJobSchedule importProjects(Descriptor descriptor) throws IOException {
+        try {
+            return pool.invoke(ForkJoinTask.adapt(() -> build(descriptor)));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private final class DescriptorTask extends RecursiveTask<ProjectJobSchedule> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Path path;
+
+        DescriptorTask(Path path) {
+            this.path = path;
+        }
+
+        @Override
+        protected ProjectJobSchedule compute() {
+            try {
+                return build(readDescriptor(path));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /** Parses the descriptor's project files in parallel (from within the pool) and assembles the schedule. */
+    private ProjectJobSchedule build(Descriptor descriptor) {
+        List<ForkJoinTask<PsplibFile>> tasks = new ArrayList<>(descriptor.projects.size());
+        for (ProjectFile project : descriptor.projects) {
+            tasks.add(ForkJoinTask.adapt(() -> getProjectFile(project.path)));
+        }
+        ForkJoinTask.invokeAll(tasks);
+        List<PsplibFile> files = new ArrayList<>(tasks.size());
+        for (ForkJoinTask<PsplibFile> task : tasks) {
+            files.add(task.join());
+        }
+        try {
+            return new ProjectJobSchedule(assemble(descriptor, files).toSnapshot());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The parsed project file, shared between tasks: the first request parses it, later ones wait for it.
+     */
+    private PsplibFile getProjectFile(Path path) {
+        projectFileRequests.increment();
+        Path key = path.toAbsolutePath().normalize();
+        CompletableFuture<PsplibFile> parsed = new CompletableFuture<>();
+        CompletableFuture<PsplibFile> existing = projectFiles.putIfAbsent(key, parsed);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw e;
+            }
+        }
+        // Every failure must complete the future, or the tasks waiting on this file block forever
+        try {
+            parsed.complete(PsplibFile.read(path));
+        } catch (IOException e) {
+            UncheckedIOException failure = new UncheckedIOException(e);
+            parsed.completeExceptionally(failure);
+            throw failure;
+        } catch (RuntimeException | Error e) {
+            parsed.completeExceptionally(e);
+            throw e;
+        }
+        return parsed.join();
+    }
+
+    /** Project file requests so far, including those answered from the cache. */
+    public long getProjectFileRequests() {
+        return projectFileRequests.sum();
+    }
+
+    /** Distinct project files parsed so far. */
+    public int getProjectFilesParsed() {
+        return projectFiles.size();
+    }
+
+    // --- Model ---
+
+    private static SnapshotWriter assemble(Descriptor descriptor, List<PsplibFile> files) throws IOException {
+        int[] globalCapacities = descriptor.globalCapacities;
+        for (PsplibFile file : files) {
+            if (file.getResourceCount() != globalCapacities.length) {
+                throw new IOException(file.path + " has " + file.getResourceCount() + " resources, the descriptor "
+                        + globalCapacities.length);
+            }
+        }
+        int projectCount = files.size();
+        int renewableCount = files.isEmpty() ? 0 : files.get(0).renewableCount;
+
+        IntList resourceCapacities = new IntList();
+        IntList resourceRenewables = new IntList();
+        IntList resourceLocals = new IntList();
+        IntList resourceProjects = new IntList();
+        int[] globalResources = new int[globalCapacities.length];
+        Arrays.fill(globalResources, -1);
+        int globalCount = 0;
+        for (int capacity : globalCapacities) {
+            if (capacity != -1) {
+                globalResources[globalCount] = resourceCapacities.size();
+                resourceCapacities.add(capacity);
+                resourceRenewables.add(globalCount < renewableCount ? 1 : 0);
+                resourceLocals.add(0);
+                resourceProjects.add(-1);
+                globalCount++;
+            }
+        }
+
+        int[][] projectResources = new int[projectCount][];
+        int[][] projectJobs = new int[projectCount][];
+        IntList jobTypes = new IntList();
+        IntList jobProjects = new IntList();
+        List<int[]> jobModes = new ArrayList<>();
+        List<int[]> jobSuccessors = new ArrayList<>();
+        IntList modeDurations = new IntList();
+        IntList modeJobs = new IntList();
+        List<int[]> modeRequirements = new ArrayList<>();
+        IntList requirementAmounts = new IntList();
+        IntList requirementModes = new IntList();
+        IntList requirementResources = new IntList();
+        IntList allocationSources = new IntList();
+        IntList allocationSinks = new IntList();
+        IntList allocationModes = new IntList();
+        IntList allocationDelays = new IntList();
+        IntList allocationDoneDates = new IntList();
+
+        for (int p = 0; p < projectCount; p++) {
+            PsplibFile file = files.get(p);
+            if (file.renewableCount != renewableCount) {
+                throw new IOException(file.path + " has " + file.renewableCount + " renewable resources, not " + renewableCount);
+            }
+            int[] resources = globalResources.clone();
+            IntList locals = new IntList();
+            for (int slot = 0; slot < globalCapacities.length; slot++) {
+                if (globalResources[slot] == -1) {
+                    resources[slot] = resourceCapacities.size();
+                    locals.add(resources[slot]);
+                    resourceCapacities.add(file.availabilities[slot]);
+                    resourceRenewables.add(slot < renewableCount ? 1 : 0);
+                    resourceLocals.add(1);
+                    resourceProjects.add(p);
+                }
+            }
+            projectResources[p] = locals.toArray();
+
+            int firstJob = jobTypes.size();
+            int jobCount = file.getJobCount();
+            projectJobs[p] = new int[jobCount];
+            for (int j = 0; j < jobCount; j++) {
+                int job = firstJob + j;
+                projectJobs[p][j] = job;
+                jobTypes.add((j == 0 ? JobType.SOURCE : j == jobCount - 1 ? JobType.SINK : JobType.STANDARD).ordinal());
+                jobProjects.add(p);
+                int[] successors = new int[file.successors[j].length];
+                for (int i = 0; i < successors.length; i++) {
+                    successors[i] = firstJob + file.successors[j][i];
+                }
+                jobSuccessors.add(successors);
+
+                int[] modes = new int[file.durations[j].length];
+                for (int m = 0; m < modes.length; m++) {
+                    int mode = modeDurations.size();
+                    modes[m] = mode;
+                    modeDurations.add(file.durations[j][m]);
+                    modeJobs.add(job);
+                    IntList requirements = new IntList();
+                    int[] requests = file.requests[j][m];
+                    for (int slot = 0; slot < requests.length; slot++) {
+                        if (requests[slot] != 0) {
+                            requirements.add(requirementAmounts.size());
+                            requirementAmounts.add(requests[slot]);
+                            requirementModes.add(mode);
+                            requirementResources.add(resources[slot]);
+                        }
+                    }
+                    modeRequirements.add(requirements.toArray());
+                }
+                jobModes.add(modes);
+
+                boolean dummy = j == 0 || j == jobCount - 1;
+                if (dummy && modes.length != 1) {
+                    throw new IOException("The " + (j == 0 ? "source" : "sink") + " job of " + file.path
+                            + " has " + modes.length + " modes");
+                }
+                allocationSources.add(firstJob);
+                allocationSinks.add(firstJob + jobCount - 1);
+                allocationModes.add(dummy ? modes[0] : -1);
+                allocationDelays.add(dummy ? 0 : ProjectJobSchedule.NULL_INT);
+                allocationDoneDates.add(descriptor.projects.get(p).releaseDate);
+            }
+        }
+
+        int jobCount = jobTypes.size();
+        // Predecessors in job order, as the successor lists are walked job by job
+        IntList[] predecessors = new IntList[jobCount];
+        for (int job = 0; job < jobCount; job++) {
+            predecessors[job] = new IntList(4);
+        }
+        for (int job = 0; job < jobCount; job++) {
+            for (int successor : jobSuccessors.get(job)) {
+                predecessors[successor].add(job);
+            }
+        }
+        int[][] allocationPredecessors = new int[jobCount][];
+        for (int job = 0; job < jobCount; job++) {
+            allocationPredecessors[job] = predecessors[job].toArray();
+        }
+        int[][] successors = jobSuccessors.toArray(new int[0][]);
+        int[] projectReleaseDates = new int[projectCount];
+        int[] projectCriticalPaths = new int[projectCount];
+        for (int p = 0; p < projectCount; p++) {
+            projectReleaseDates[p] = descriptor.projects.get(p).releaseDate;
+            int criticalPathDuration = descriptor.projects.get(p).criticalPathDuration;
+            projectCriticalPaths[p] = criticalPathDuration < 0 ? files.get(p).mpmTime : criticalPathDuration;
+        }
+
+        return new SnapshotWriter(ProjectJobSchedule.KIND)
+                .column("schedule.id", new int[]{0})
+                .column("project.id", sequence(projectCount))
+                .column("project.releaseDate", projectReleaseDates)
+                .column("project.criticalPath", projectCriticalPaths)
+                .relation("project.resources", projectResources)
+                .relation("project.jobs", projectJobs)
+                .column("resource.id", sequence(resourceCapacities.size()))
+                .column("resource.capacity", resourceCapacities.toArray())
+                .column("resource.renewable", resourceRenewables.toArray())
+                .column("resource.local", resourceLocals.toArray())
+                .column("resource.project", resourceProjects.toArray())
+                .column("job.id", sequence(jobCount))
+                .column("job.type", jobTypes.toArray())
+                .column("job.project", jobProjects.toArray())
+                .relation("job.modes", jobModes.toArray(new int[0][]))
+                .relation("job.successors", successors)
+                .column("mode.id", sequence(modeDurations.size()))
+                .column("mode.duration", modeDurations.toArray())
+                .column("mode.job", modeJobs.toArray())
+                .relation("mode.requirements", modeRequirements.toArray(new int[0][]))
+                .column("requirement.id", sequence(requirementAmounts.size()))
+                .column("requirement.amount", requirementAmounts.toArray())
+                .column("requirement.mode", requirementModes.toArray())
+                .column("requirement.resource", requirementResources.toArray())
+                .column("allocation.id", sequence(jobCount))
+                .column("allocation.delay", allocationDelays.toArray())
+                .column("allocation.doneDate", allocationDoneDates.toArray())
+                .column("allocation.job", sequence(jobCount))
+                .column("allocation.source", allocationSources.toArray())
+                .column("allocation.sink", allocationSinks.toArray())
+                .column("allocation.mode", allocationModes.toArray())
+                .relation("allocation.predecessors", allocationPredecessors)
+                .relation("allocation.successors", successors);
+    }
+
+    private static int[] sequence(int size) {
+        int[] values = new int[size];
+        Arrays.setAll(values, i -> i);
+        return values;
+    }
+
+    // --- Command line ---
+
+    /**
+     * Imports every descriptor in parallel and on one thread, each run with an empty file cache, checks each
+     * schedule column by column against its JSON in {@code unsolved}, then builds a larger schedule from projects
+     * drawn at random from all {@code .mm} files.
+     * <p>
+     * Arguments: the import and unsolved directories. Properties: {@code psplib.runs} (5),
+     * {@code psplib.generate} (projects in the generated schedule, 200).
+     */
+    public static void main(String[] args) throws IOException {
+        Path importDirectory = Paths.get(args.length > 0 ? args[0] : "../../data/projectjobscheduling/import");
+        Path unsolvedDirectory = Paths.get(args.length > 1 ? args[1] : "../../data/projectjobscheduling/unsolved");
+        int runs = Integer.getInteger("psplib.runs", 5);
+        int generate = Integer.getInteger("psplib.generate", 200);
+        List<Path> descriptors;
+        try (Stream<Path> list = Files.list(importDirectory)) {
+            descriptors = list.filter(p -> p.toString().endsWith(".txt")).sorted().collect(Collectors.toList());
+        }
+        ForkJoinPool parallel = ForkJoinPool.commonPool();
+        ForkJoinPool single = new ForkJoinPool(1);
+        new PsplibImporter(parallel).importDescriptors(descriptors); // Warm-up
+
+        long parallelNanos = Long.MAX_VALUE;
+        long singleNanos = Long.MAX_VALUE;
+        long jsonNanos = Long.MAX_VALUE;
+        PsplibImporter importer = null;
+        List<ProjectJobSchedule> schedules = null;
+        for (int run = 0; run < runs; run++) {
+            long startTime = System.nanoTime();
+            importer = new PsplibImporter(parallel);
+            schedules = importer.importDescriptors(descriptors);
+            parallelNanos = Math.min(parallelNanos, System.nanoTime() - startTime);
+
+            startTime = System.nanoTime();
+            new PsplibImporter(single).importDescriptors(descriptors);
+            singleNanos = Math.min(singleNanos, System.nanoTime() - startTime);
+
+            startTime = System.nanoTime();
+            for (Path descriptor : descriptors) {
+                ProjectJobSchedule.convert(jsonFor(unsolvedDirectory, descriptor));
+            }
+            jsonNanos = Math.min(jsonNanos, System.nanoTime() - startTime);
+        }
+        single.shutdown();
+
+        System.out.println("\n#### PSPLIB Import");
+        System.out.println("| Descriptor | Projects | Jobs  | Modes  | Requirements | Resources | Unsolved JSON                  |");
+        System.out.println("|------------|----------|-------|--------|--------------|-----------|--------------------------------|");
+        int mismatches = 0;
+        for (int i = 0; i < descriptors.size(); i++) {
+            ProjectJobSchedule schedule = schedules.get(i);
+            Path json = jsonFor(unsolvedDirectory, descriptors.get(i));
+            String comparison;
+            if (!Files.exists(json)) {
+                comparison = "missing";
+            } else {
+                List<String> different = schedule.getSnapshot().diffColumns(ProjectJobSchedule.convert(json).toSnapshot());
+                comparison = different.isEmpty() ? "equal" : "differs: " + String.join(",", different);
+                mismatches += different.isEmpty() ? 0 : 1;
+            }
+            System.out.printf("| %-10s | %8d | %,5d | %,6d | %,12d | %9d | %-30s |\n",
+                    descriptors.get(i).getFileName(),
+                    schedule.getProjects().size(),
+                    schedule.getJobs().size(),
+                    schedule.getExecutionModes().size(),
+                    schedule.getResourceRequirements().size(),
+                    schedule.getResources().size(),
+                    comparison.length() > 30 ? comparison.substring(0, 27) + "..." : comparison);
+        }
+        System.out.printf("- %d descriptors, %d mismatches against the JSON\n", descriptors.size(), mismatches);
+        System.out.printf("- .mm files: %d requests, %d parsed\n", importer.getProjectFileRequests(), importer.getProjectFilesParsed());
+        System.out.printf("- Best of %d runs: %.3f ms in the common pool (parallelism %d), %.3f ms in a pool of 1, %.3f ms streaming the %d JSON files\n",
+                runs, parallelNanos / 1_000_000.0, parallel.getParallelism(), singleNanos / 1_000_000.0,
+                jsonNanos / 1_000_000.0, descriptors.size());
+
+        if (generate > 0) {
+            List<Path> pool;
+            try (Stream<Path> walk = Files.walk(importDirectory)) {
+                pool = walk.filter(p -> p.toString().endsWith(".mm")).sorted().collect(Collectors.toList());
+            }
+            // The global resources of the shipped descriptor with the most projects
+            Descriptor template = null;
+            for (Path descriptor : descriptors) {
+                Descriptor candidate = readDescriptor(descriptor);
+                if (template == null || candidate.projects.size() > template.projects.size()) {
+                    template = candidate;
+                }
+            }
+            SplittableRandom random = new SplittableRandom(37);
+            List<ProjectFile> projects = new ArrayList<>(generate);
+            for (int i = 0; i < generate; i++) {
+                projects.add(new ProjectFile(pool.get(random.nextInt(pool.size())), 2 * i, -1));
+            }
+            long startTime = System.nanoTime();
+            PsplibImporter generator = new PsplibImporter(parallel);
+            ProjectJobSchedule generated = generator.importProjects(new Descriptor(projects, template.globalCapacities));
+            long generateNanos = System.nanoTime() - startTime;
+            System.out.printf("- Generated: %d projects from a pool of %d .mm files (%d parsed), %,d jobs, %,d modes, %,d requirements in %.3f ms\n",
+                    generate, pool.size(), generator.getProjectFilesParsed(), generated.getJobs().size(),
+                    generated.getExecutionModes().size(), generated.getResourceRequirements().size(), generateNanos / 1_000_000.0);
+        }
+    }
+
+    private static Path jsonFor(Path unsolvedDirectory, Path descriptor) {
+        String name = descriptor.getFileName().toString();
+        return unsolvedDirectory.resolve(name.substring(0, name.length() - ".txt".length()) + ".json");
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.dataset.projectjobscheduling;
+
+/**
+ * A global resource, shared by all projects, or a project's local one. Renewable resources have their capacity
+ * per time unit; non-renewable ones for the whole project.
+ */
+public final class Resource {
+
+    private final ProjectJobSchedule schedule;
+    private final int index;
+    private final int id;
+    private final int capacity;
+    private final boolean renewable;
+    private final int projectIndex;
+
+    Resource(ProjectJobSchedule schedule, int index, int id, int capacity, boolean renewable, int projectIndex) {
+        this.schedule = schedule;
+        this.index = index;
+        this.id = id;
+        this.capacity = capacity;
+        this.renewable = renewable;
+        this.projectIndex = projectIndex;
+    }
+
+    /** Position in {@code resourceList}. */
+    public int getIndex() {
+        return index;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public boolean isRenewable() {
+        return renewable;
+    }
+
+    public boolean isGlobal() {
+        return projectIndex < 0;
+    }
+
+    /** The owning project of a local resource, or null for a global one. */
+    public Project getProject() {
+        return projectIndex < 0 ? null : schedule.getProject(projectIndex);
+    }
+
+    @Override
+    public String toString() {
+        return (isGlobal() ? "GlobalResource-" : "LocalResource-") + id;
+    }
+}
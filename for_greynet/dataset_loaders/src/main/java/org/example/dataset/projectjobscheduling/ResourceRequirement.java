@@ -0,0 +1,50 @@
+package org.example.dataset.projectjobscheduling;
+
+/**
+ * The amount of a resource an execution mode needs.
+ */
+public final class ResourceRequirement {
+
+    private final ProjectJobSchedule schedule;
+    private final int index;
+    private final int id;
+    private final int requirement;
+    private final int executionModeIndex;
+    private final int resourceIndex;
+
+    ResourceRequirement(ProjectJobSchedule schedule, int index, int id, int requirement, int executionModeIndex,
+                        int resourceIndex) {
+        this.schedule = schedule;
+        this.index = index;
+        this.id = id;
+        this.requirement = requirement;
+        this.executionModeIndex = executionModeIndex;
+        this.resourceIndex = resourceIndex;
+    }
+
+    /** Position in {@code resourceRequirementList}. */
+    public int getIndex() {
+        return index;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getRequirement() {
+        return requirement;
+    }
+
+    public ExecutionMode getExecutionMode() {
+        return schedule.getExecutionMode(executionModeIndex);
+    }
+
+    public Resource getResource() {
+        return schedule.getResource(resourceIndex);
+    }
+
+    @Override
+    public String toString() {
+        return "ResourceRequirement-" + id;
+    }
+}
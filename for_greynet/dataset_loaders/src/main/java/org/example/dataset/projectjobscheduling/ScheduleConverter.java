@@ -0,0 +1,497 @@
+package org.example.dataset.projectjobscheduling;
+
+import org.example.dataset.json.JsonTokenizer;
+import org.example.dataset.json.JsonTokenizer.Token;
+import org.example.dataset.snapshot.IntList;
+import org.example.dataset.snapshot.SnapshotWriter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams a project job scheduling JSON file into the columns of a {@link ProjectJobSchedule}.
+ * <p>
+ * The files are written by Jackson with object identity: the first time an object is serialized it is written
+ * in full with an {@code @id} such as {@code "Job#3"}, possibly deep inside another object (a job inside its
+ * predecessor's {@code successorJobList}), and every later occurrence is just that string. The converter gives
+ * each object an index the first time its {@code @id} is seen, as a definition or a reference, and stores its
+ * fields at that index. Once the document is read, the top-level lists ({@code jobList}, ...) fix the final
+ * order, and every reference is renumbered to a position in those lists.
+ */
+final class ScheduleConverter {
+
+    private final JsonTokenizer json;
+    private final EntityTable projects = new EntityTable("Project");
+    private final EntityTable resources = new EntityTable("Resource");
+    private final EntityTable jobs = new EntityTable("Job");
+    private final EntityTable modes = new EntityTable("ExecutionMode");
+    private final EntityTable requirements = new EntityTable("ResourceRequirement");
+    private final EntityTable allocations = new EntityTable("Allocation");
+
+    private ScheduleConverter(JsonTokenizer json) {
+        this.json = json;
+    }
+
+    static SnapshotWriter convert(Path source) throws IOException {
+        return new ScheduleConverter(JsonTokenizer.open(source)).convert();
+    }
+
+    private SnapshotWriter convert() throws IOException {
+        int scheduleId = 0;
+        Map<EntityTable, int[]> topLevel = new HashMap<>();
+        json.expect(Token.BEGIN_OBJECT);
+        for (Token token = json.next(); token == Token.NAME; token = json.next()) {
+            switch (json.getString()) {
+                case "id":
+                    scheduleId = json.readInt();
+                    break;
+                case "projectList":
+                    topLevel.put(projects, readList(this::readProject));
+                    break;
+                case "resourceList":
+                    topLevel.put(resources, readList(this::readResource));
+                    break;
+                case "jobList":
+                    topLevel.put(jobs, readList(this::readJob));
+                    break;
+                case "executionModeList":
+                    topLevel.put(modes, readList(this::readMode));
+                    break;
+                case "resourceRequirementList":
+                    topLevel.put(requirements, readList(this::readRequirement));
+                    break;
+                case "allocationList":
+                    topLevel.put(allocations, readList(this::readAllocation));
+                    break;
+                default:
+                    json.skipValue(); // score
+                    break;
+            }
+        }
+        for (EntityTable table : new EntityTable[]{projects, resources, jobs, modes, requirements, allocations}) {
+            int[] order = topLevel.get(table);
+            if (order == null) {
+                throw json.error("No top-level list of " + table.type);
+            }
+            table.order(order, json);
+        }
+        return new SnapshotWriter(ProjectJobSchedule.KIND)
+                .column("schedule.id", new int[]{scheduleId})
+                .column("project.id", projects.column(0, null))
+                .column("project.releaseDate", projects.column(1, null))
+                .column("project.criticalPath", projects.column(2, null))
+                .relation("project.resources", projects.relation(0, resources))
+                .relation("project.jobs", projects.relation(1, jobs))
+                .column("resource.id", resources.column(0, null))
+                .column("resource.capacity", resources.column(1, null))
+                .column("resource.renewable", resources.column(2, null))
+                .column("resource.local", resources.column(3, null))
+                .column("resource.project", resources.column(4, projects))
+                .column("job.id", jobs.column(0, null))
+                .column("job.type", jobs.column(1, null))
+                .column("job.project", jobs.column(2, projects))
+                .relation("job.modes", jobs.relation(0, modes))
+                .relation("job.successors", jobs.relation(1, jobs))
+                .column("mode.id", modes.column(0, null))
+                .column("mode.duration", modes.column(1, null))
+                .column("mode.job", modes.column(2, jobs))
+                .relation("mode.requirements", modes.relation(0, requirements))
+                .column("requirement.id", requirements.column(0, null))
+                .column("requirement.amount", requirements.column(1, null))
+                .column("requirement.mode", requirements.column(2, modes))
+                .column("requirement.resource", requirements.column(3, resources))
+                .column("allocation.id", allocations.column(0, null))
+                .column("allocation.delay", allocations.column(1, null))
+                .column("allocation.doneDate", allocations.column(2, null))
+                .column("allocation.job", allocations.column(3, jobs))
+                .column("allocation.source", allocations.column(4, allocations))
+                .column("allocation.sink", allocations.column(5, allocations))
+                .column("allocation.mode", allocations.column(6, modes))
+                .relation("allocation.predecessors", allocations.relation(0, allocations))
+                .relation("allocation.successors", allocations.relation(1, allocations));
+    }
+
+    // --- Objects; each reader is handed the value's first token and returns the object's index, or -1 for null ---
+
+    private int readProject(Token token) throws IOException {
+        if (token != Token.BEGIN_OBJECT) {
+            return reference(token, projects);
+        }
+        int index = -1;
+        int id = 0;
+        int releaseDate = 0;
+        int criticalPathDuration = 0;
+        int[] localResources = new int[0];
+        int[] projectJobs = new int[0];
+        for (token = json.next(); token == Token.NAME; token = json.next()) {
+            switch (json.getString()) {
+                case "@id":
+                    index = projects.define(json.readString(), json);
+                    break;
+                case "id":
+                    id = json.readInt();
+                    break;
+                case "releaseDate":
+                    releaseDate = json.readInt();
+                    break;
+                case "criticalPathDuration":
+                    criticalPathDuration = json.readInt();
+                    break;
+                case "localResourceList":
+                    localResources = readList(this::readResource);
+                    break;
+                case "jobList":
+                    projectJobs = readList(this::readJob);
+                    break;
+                default:
+                    json.skipValue();
+                    break;
+            }
+        }
+        projects.store(requireId(index, projects), new int[]{id, releaseDate, criticalPathDuration},
+                localResources, projectJobs);
+        return index;
+    }
+
+    private int readResource(Token token) throws IOException {
+        if (token != Token.BEGIN_OBJECT) {
+            return reference(token, resources);
+        }
+        int index = -1;
+        int id = 0;
+        int capacity = 0;
+        boolean renewable = false;
+        boolean local = false;
+        int project = -1;
+        for (token = json.next(); token == Token.NAME; token = json.next()) {
+            switch (json.getString()) {
+                case "@type":
+                    local = "local".equals(json.readString());
+                    break;
+                case "@id":
+                    index = resources.define(json.readString(), json);
+                    break;
+                case "id":
+                    id = json.readInt();
+                    break;
+                case "capacity":
+                    capacity = json.readInt();
+                    break;
+                case "renewable":
+                    renewable = json.readBoolean();
+                    break;
+                case "project":
+                    project = readProject(json.next());
+                    break;
+                default:
+                    json.skipValue();
+                    break;
+            }
+        }
+        resources.store(requireId(index, resources), new int[]{id, capacity, renewable ? 1 : 0, local ? 1 : 0, project});
+        return index;
+    }
+
+    private int readJob(Token token) throws IOException {
+        if (token != Token.BEGIN_OBJECT) {
+            return reference(token, jobs);
+        }
+        int index = -1;
+        int id = 0;
+        int jobType = -1;
+        int project = -1;
+        int[] jobModes = new int[0];
+        int[] successors = new int[0];
+        for (token = json.next(); token == Token.NAME; token = json.next()) {
+            switch (json.getString()) {
+                case "@id":
+                    index = jobs.define(json.readString(), json);
+                    break;
+                case "id":
+                    id = json.readInt();
+                    break;
+                case "project":
+                    project = readProject(json.next());
+                    break;
+                case "jobType":
+                    String name = json.readString();
+                    try {
+                        jobType = JobType.valueOf(name).ordinal();
+                    } catch (IllegalArgumentException | NullPointerException e) {
+                        throw json.error("Unknown jobType " + name);
+                    }
+                    break;
+                case "executionModeList":
+                    jobModes = readList(this::readMode);
+                    break;
+                case "successorJobList":
+                    successors = readList(this::readJob);
+                    break;
+                default:
+                    json.skipValue();
+                    break;
+            }
+        }
+        jobs.store(requireId(index, jobs), new int[]{id, jobType, project}, jobModes, successors);
+        return index;
+    }
+
+    private int readMode(Token token) throws IOException {
+        if (token != Token.BEGIN_OBJECT) {
+            return reference(token, modes);
+        }
+        int index = -1;
+        int id = 0;
+        int duration = 0;
+        int job = -1;
+        int[] modeRequirements = new int[0];
+        for (token = json.next(); token == Token.NAME; token = json.next()) {
+            switch (json.getString()) {
+                case "@id":
+                    index = modes.define(json.readString(), json);
+                    break;
+                case "id":
+                    id = json.readInt();
+                    break;
+                case "job":
+                    job = readJob(json.next());
+                    break;
+                case "duration":
+                    duration = json.readInt();
+                    break;
+                case "resourceRequirementList":
+                    modeRequirements = readList(this::readRequirement);
+                    break;
+                default:
+                    json.skipValue();
+                    break;
+            }
+        }
+        modes.store(requireId(index, modes), new int[]{id, duration, job}, modeRequirements);
+        return index;
+    }
+
+    private int readRequirement(Token token) throws IOException {
+        if (token != Token.BEGIN_OBJECT) {
+            return reference(token, requirements);
+        }
+        int index = -1;
+        int id = 0;
+        int amount = 0;
+        int mode = -1;
+        int resource = -1;
+        for (token = json.next(); token == Token.NAME; token = json.next()) {
+            switch (json.getString()) {
+                case "@id":
+                    index = requirements.define(json.readString(), json);
+                    break;
+                case "id":
+                    id = json.readInt();
+                    break;
+                case "executionMode":
+                    mode = readMode(json.next());
+                    break;
+                case "resource":
+                    resource = readResource(json.next());
+                    break;
+                case "requirement":
+                    amount = json.readInt();
+                    break;
+                default:
+                    json.skipValue();
+                    break;
+            }
+        }
+        requirements.store(requireId(index, requirements), new int[]{id, amount, mode, resource});
+        return index;
+    }
+
+    private int readAllocation(Token token) throws IOException {
+        if (token != Token.BEGIN_OBJECT) {
+            return reference(token, allocations);
+        }
+        int index = -1;
+        int id = 0;
+        int delay = ProjectJobSchedule.NULL_INT;
+        int predecessorsDoneDate = 0;
+        int job = -1;
+        int source = -1;
+        int sink = -1;
+        int mode = -1;
+        int[] predecessors = new int[0];
+        int[] successors = new int[0];
+        for (token = json.next(); token == Token.NAME; token = json.next()) {
+            switch (json.getString()) {
+                case "@id":
+                    index = allocations.define(json.readString(), json);
+                    break;
+                case "id":
+                    id = json.readInt();
+                    break;
+                case "job":
+                    job = readJob(json.next());
+                    break;
+                case "sourceAllocation":
+                    source = readAllocation(json.next());
+                    break;
+                case "sinkAllocation":
+                    sink = readAllocation(json.next());
+                    break;
+                case "predecessorAllocationList":
+                    predecessors = readList(this::readAllocation);
+                    break;
+                case "successorAllocationList":
+                    successors = readList(this::readAllocation);
+                    break;
+                case "executionMode":
+                    mode = readMode(json.next());
+                    break;
+                case "delay":
+                    delay = json.readInt(ProjectJobSchedule.NULL_INT);
+                    break;
+                case "predecessorsDoneDate":
+                    predecessorsDoneDate = json.readInt();
+                    break;
+                default:
+                    json.skipValue();
+                    break;
+            }
+        }
+        allocations.store(requireId(index, allocations),
+                new int[]{id, delay, predecessorsDoneDate, job, source, sink, mode}, predecessors, successors);
+        return index;
+    }
+
+    private int reference(Token token, EntityTable table) throws IOException {
+        if (token == Token.NULL) {
+            return -1;
+        }
+        if (token != Token.STRING) {
+            throw json.error("Expected a " + table.type + " or its @id but got " + token);
+        }
+        return table.index(json.getString());
+    }
+
+    private int requireId(int index, EntityTable table) throws IOException {
+        if (index < 0) {
+            throw json.error(table.type + " without @id");
+        }
+        return index;
+    }
+
+    private int[] readList(ElementReader reader) throws IOException {
+        Token token = json.next();
+        if (token == Token.NULL) {
+            return new int[0];
+        }
+        if (token != Token.BEGIN_ARRAY) {
+            throw json.error("Expected a list but got " + token);
+        }
+        IntList indices = new IntList();
+        for (token = json.next(); token != Token.END_ARRAY; token = json.next()) {
+            indices.add(reader.read(token));
+        }
+        return indices.toArray();
+    }
+
+    @FunctionalInterface
+    private interface ElementReader {
+        int read(Token token) throws IOException;
+    }
+
+    /**
+     * The objects of one type by index of first sight: int fields, and relations as index arrays.
+     */
+    private static final class EntityTable {
+
+        final String type;
+        final Map<String, Integer> indices = new HashMap<>();
+        final BitSet defined = new BitSet();
+        final List<int[]> fields = new ArrayList<>();
+        final List<int[][]> relations = new ArrayList<>();
+        // position[index] is the object's position in its top-level list; order is the inverse
+        int[] position;
+        int[] order;
+
+        EntityTable(String type) {
+            this.type = type;
+        }
+
+        int index(String id) {
+            Integer index = indices.get(id);
+            if (index == null) {
+                index = indices.size();
+                indices.put(id, index);
+            }
+            return index;
+        }
+
+        int define(String id, JsonTokenizer json) throws IOException {
+            if (id == null) {
+                throw json.error(type + " with a null @id");
+            }
+            int index = index(id);
+            if (defined.get(index)) {
+                throw json.error(type + " " + id + " is defined twice");
+            }
+            defined.set(index);
+            return index;
+        }
+
+        void store(int index, int[] values, int[]... related) {
+            while (fields.size() <= index) {
+                fields.add(null);
+                relations.add(null);
+            }
+            fields.set(index, values);
+            relations.set(index, related);
+        }
+
+        void order(int[] topLevel, JsonTokenizer json) throws IOException {
+            int count = indices.size();
+            if (topLevel.length != count) {
+                throw json.error("The top-level list has " + topLevel.length + " of " + count + " " + type + " objects");
+            }
+            if (defined.cardinality() != count) {
+                throw json.error(type + " " + (count - defined.cardinality()) + " objects are referenced but never defined");
+            }
+            position = new int[count];
+            Arrays.fill(position, -1);
+            for (int i = 0; i < count; i++) {
+                if (topLevel[i] < 0 || position[topLevel[i]] != -1) {
+                    throw json.error("The top-level list of " + type + " has a null or repeated entry at " + i);
+                }
+                position[topLevel[i]] = i;
+            }
+            order = topLevel;
+        }
+
+        /** Field values in top-level order; references to {@code target} are renumbered to its positions. */
+        int[] column(int field, EntityTable target) {
+            int[] column = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                int value = fields.get(order[i])[field];
+                column[i] = target == null || value < 0 ? value : target.position[value];
+            }
+            return column;
+        }
+
+        int[][] relation(int relation, EntityTable target) {
+            int[][] column = new int[order.length][];
+            for (int i = 0; i < order.length; i++) {
+                int[] related = relations.get(order[i])[relation];
+                column[i] = new int[related.length];
+                for (int j = 0; j < related.length; j++) {
+                    column[i][j] = target.position[related[j]];
+                }
+            }
+            return column;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.dataset.snapshot;
+
+import java.util.Arrays;
+
+/**
+ * A growable int array for building snapshot columns while streaming a source.
+ */
+public final class IntList {
+
+    private int[] values;
+    private int size = 0;
+
+    public IntList() {
+        this(16);
+    }
+
+    public IntList(int initialCapacity) {
+        this.values = new int[Math.max(1, initialCapacity)];
+    }
+
+    public void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    /** Sets {@code index}, growing the list with zeros if it is past the end. */
+    public void set(int index, int value) {
+        if (index >= values.length) {
+            values = Arrays.copyOf(values, Math.max(index + 1, values.length * 2));
+        }
+        values[index] = value;
+        size = Math.max(size, index + 1);
+    }
+
+    public int get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException(index + " >= " + size);
+        }
+        return values[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
@@ -0,0 +1,185 @@
+package org.example.dataset.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * A columnar snapshot of a dataset: named int32 columns, either memory-mapped from a file written by
+ * {@link SnapshotWriter} or held on the heap. Columns are read in place; nothing is decoded when a snapshot is
+ * opened, which is what lets a benchmark sweep reload hundreds of instances cheaply.
+ * <p>
+ * The file records the length and CRC32C of the source it was converted from, so {@link #isSnapshotOf(Path)} can
+ * tell whether it is still current. File layout, little-endian:
+ * <pre>
+ * header     magic "SNAPSHOT" (8), version (4), column count (4), source length (8), source CRC32C (8),
+ *            kind (16, ASCII, zero-padded), zero padding to 64 bytes
+ * directory  per column: name (32, ASCII, zero-padded), value count (4), reserved (4), offset (8)
+ * columns    int32 values, each column starting on a 64-byte boundary
+ * </pre>
+ */
+public class Snapshot {
+
+    static final long MAGIC = ByteBuffer.wrap("SNAPSHOT".getBytes(StandardCharsets.US_ASCII))
+            .order(ByteOrder.LITTLE_ENDIAN).getLong();
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 64;
+    static final int KIND_BYTES = 16;
+    static final int NAME_BYTES = 32;
+    static final int ENTRY_BYTES = NAME_BYTES + 16;
+    static final int COLUMN_ALIGNMENT = 64;
+
+    private final String kind;
+    private final long sourceLength;
+    private final long sourceChecksum;
+    private final Map<String, IntBuffer> columns;
+
+    Snapshot(String kind, long sourceLength, long sourceChecksum, Map<String, IntBuffer> columns) {
+        this.kind = kind;
+        this.sourceLength = sourceLength;
+        this.sourceChecksum = sourceChecksum;
+        this.columns = columns;
+    }
+
+    /**
+     * Maps a snapshot file. The header and directory are checked; the columns are not read.
+     *
+     * @throws IOException if the file is not a snapshot or is truncated
+     */
+    public static Snapshot open(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot larger than 2 GiB: " + path);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.limit() < HEADER_BYTES || buffer.getLong(0) != MAGIC) {
+            throw new IOException("Not a snapshot: " + path);
+        }
+        if (buffer.getInt(8) != VERSION) {
+            throw new IOException("Unsupported snapshot version " + buffer.getInt(8) + " in " + path);
+        }
+        int columnCount = buffer.getInt(12);
+        if (columnCount < 0 || HEADER_BYTES + (long) columnCount * ENTRY_BYTES > buffer.limit()) {
+            throw new IOException("Truncated snapshot directory: " + path);
+        }
+        Map<String, IntBuffer> columns = new LinkedHashMap<>();
+        for (int i = 0; i < columnCount; i++) {
+            int entry = HEADER_BYTES + i * ENTRY_BYTES;
+            String name = readAscii(buffer, entry, NAME_BYTES);
+            int count = buffer.getInt(entry + NAME_BYTES);
+            long offset = buffer.getLong(entry + NAME_BYTES + 8);
+            if (count < 0 || offset < 0 || offset + (long) count * Integer.BYTES > buffer.limit()) {
+                throw new IOException("Column " + name + " runs past the end of " + path);
+            }
+            ByteBuffer slice = buffer.duplicate();
+            slice.position((int) offset);
+            slice.limit((int) offset + count * Integer.BYTES);
+            columns.put(name, slice.slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer());
+        }
+        return new Snapshot(readAscii(buffer, 32, KIND_BYTES), buffer.getLong(16), buffer.getLong(24),
+                Collections.unmodifiableMap(columns));
+    }
+
+    private static String readAscii(ByteBuffer buffer, int offset, int length) {
+        byte[] bytes = new byte[length];
+        int size = 0;
+        while (size < length && buffer.get(offset + size) != 0) {
+            bytes[size] = buffer.get(offset + size);
+            size++;
+        }
+        return new String(bytes, 0, size, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * CRC32C of a file's bytes, read through a mapping; a few milliseconds even for the largest JSON instance.
+     */
+    public static long checksum(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            CRC32C crc = new CRC32C();
+            long size = channel.size();
+            for (long offset = 0L; offset < size; offset += Integer.MAX_VALUE) {
+                crc.update(channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(Integer.MAX_VALUE, size - offset)));
+            }
+            return crc.getValue();
+        }
+    }
+
+    /**
+     * Whether this snapshot was converted from the current contents of {@code source}: same length and CRC32C.
+     */
+    public boolean isSnapshotOf(Path source) throws IOException {
+        return Files.size(source) == sourceLength && checksum(source) == sourceChecksum;
+    }
+
+    /** What the snapshot holds, e.g. {@code cloudbalance}; loaders check it before reading columns. */
+    public String getKind() {
+        return kind;
+    }
+
+    public long getSourceLength() {
+        return sourceLength;
+    }
+
+    public long getSourceChecksum() {
+        return sourceChecksum;
+    }
+
+    public List<String> getColumnNames() {
+        return new ArrayList<>(columns.keySet());
+    }
+
+    /**
+     * A read-only view of the column, positioned at 0; use absolute {@code get(int)}.
+     *
+     * @throws IllegalArgumentException if there is no such column
+     */
+    public IntBuffer getColumn(String name) {
+        IntBuffer column = columns.get(name);
+        if (column == null) {
+            throw new IllegalArgumentException("Snapshot of kind " + kind + " has no column " + name);
+        }
+        return column.duplicate();
+    }
+
+    public int[] toArray(String name) {
+        IntBuffer column = getColumn(name);
+        int[] values = new int[column.remaining()];
+        column.get(values);
+        return values;
+    }
+
+    /**
+     * Names of the columns whose values differ from {@code other}'s, including columns only one of them has.
+     */
+    public List<String> diffColumns(Snapshot other) {
+        List<String> different = new ArrayList<>();
+        for (Map.Entry<String, IntBuffer> entry : columns.entrySet()) {
+            IntBuffer theirs = other.columns.get(entry.getKey());
+            if (theirs == null || !entry.getValue().duplicate().equals(theirs.duplicate())) {
+                different.add(entry.getKey());
+            }
+        }
+        for (String name : other.columns.keySet()) {
+            if (!columns.containsKey(name)) {
+                different.add(name);
+            }
+        }
+        return different;
+    }
+}
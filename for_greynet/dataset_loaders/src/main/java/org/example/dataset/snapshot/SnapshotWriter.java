@@ -0,0 +1,124 @@
+package org.example.dataset.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Collects the int columns of a {@link Snapshot} and writes them in the snapshot file format, or wraps them as
+ * an in-memory snapshot.
+ */
+public class SnapshotWriter {
+
+    private final String kind;
+    private final Map<String, int[]> columns = new LinkedHashMap<>();
+
+    public SnapshotWriter(String kind) {
+        checkAscii("Kind", kind, Snapshot.KIND_BYTES);
+        this.kind = kind;
+    }
+
+    public SnapshotWriter column(String name, int[] values) {
+        checkAscii("Column name", name, Snapshot.NAME_BYTES);
+        if (columns.putIfAbsent(name, values) != null) {
+            throw new IllegalArgumentException("Duplicate column " + name);
+        }
+        return this;
+    }
+
+    /**
+     * Adds a one-to-many relation as two columns: {@code name.offsets} (entity count + 1 entries) and
+     * {@code name} (the targets of entity {@code i} at {@code [offsets[i], offsets[i + 1])}).
+     */
+    public SnapshotWriter relation(String name, int[][] targets) {
+        int[] offsets = new int[targets.length + 1];
+        for (int i = 0; i < targets.length; i++) {
+            offsets[i + 1] = offsets[i] + targets[i].length;
+        }
+        int[] flat = new int[offsets[targets.length]];
+        for (int i = 0; i < targets.length; i++) {
+            System.arraycopy(targets[i], 0, flat, offsets[i], targets[i].length);
+        }
+        return column(name + ".offsets", offsets).column(name, flat);
+    }
+
+    private static void checkAscii(String what, String text, int maxBytes) {
+        if (text.isEmpty() || text.length() > maxBytes || !StandardCharsets.US_ASCII.newEncoder().canEncode(text)) {
+            throw new IllegalArgumentException(what + " must be 1 to " + maxBytes + " ASCII characters: " + text);
+        }
+    }
+
+    /** The columns as a heap snapshot with no source. */
+    public Snapshot toSnapshot() {
+        Map<String, IntBuffer> buffers = new LinkedHashMap<>();
+        columns.forEach((name, values) -> buffers.put(name, IntBuffer.wrap(values).asReadOnlyBuffer()));
+        return new Snapshot(kind, -1L, -1L, Collections.unmodifiableMap(buffers));
+    }
+
+    /**
+     * Writes the snapshot to a temporary file next to {@code path} and moves it into place when complete.
+     *
+     * @param source the file the columns were converted from, whose length and CRC32C are recorded
+     */
+    public void write(Path path, Path source) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        long[] offsets = new long[columns.size()];
+        long size = align(Snapshot.HEADER_BYTES + (long) columns.size() * Snapshot.ENTRY_BYTES);
+        int i = 0;
+        for (int[] values : columns.values()) {
+            offsets[i++] = size;
+            size = align(size + (long) values.length * Integer.BYTES);
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot larger than 2 GiB: " + path);
+        }
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putLong(0, Snapshot.MAGIC);
+            buffer.putInt(8, Snapshot.VERSION);
+            buffer.putInt(12, columns.size());
+            buffer.putLong(16, Files.size(source));
+            buffer.putLong(24, Snapshot.checksum(source));
+            putAscii(buffer, 32, kind);
+            i = 0;
+            for (Map.Entry<String, int[]> column : columns.entrySet()) {
+                int entry = Snapshot.HEADER_BYTES + i * Snapshot.ENTRY_BYTES;
+                putAscii(buffer, entry, column.getKey());
+                buffer.putInt(entry + Snapshot.NAME_BYTES, column.getValue().length);
+                buffer.putLong(entry + Snapshot.NAME_BYTES + 8, offsets[i]);
+                buffer.position((int) offsets[i]);
+                buffer.asIntBuffer().put(column.getValue());
+                i++;
+            }
+            buffer.force();
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void putAscii(MappedByteBuffer buffer, int offset, String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        for (int i = 0; i < bytes.length; i++) {
+            buffer.put(offset + i, bytes[i]);
+        }
+    }
+
+    private static long align(long offset) {
+        return (offset + Snapshot.COLUMN_ALIGNMENT - 1) / Snapshot.COLUMN_ALIGNMENT * Snapshot.COLUMN_ALIGNMENT;
+    }
+}
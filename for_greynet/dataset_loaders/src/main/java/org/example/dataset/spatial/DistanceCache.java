@@ -0,0 +1,194 @@
+package org.example.dataset.spatial;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link DistanceFunction} that answers from a {@link NeighborIndex} when the pair is in the neighbor lists and
+ * otherwise computes the distance lazily and keeps it in a bounded cache.
+ * <p>
+ * The cache is split into stripes by pair hash, each under its own lock so concurrent solver threads rarely
+ * contend. A stripe is an open-addressing table of primitive {@code long} keys and {@code double} distances:
+ * a pair lives within {@value Stripe#WAYS} slots of its home slot, and when those are all taken the first one
+ * not read since the window's last eviction makes room (a second-chance approximation of LRU), so lookups
+ * neither box nor allocate. A missed distance is computed outside the lock; two threads missing the same pair
+ * both compute it, which is harmless.
+ * <p>
+ * Opt-in: caching only pays when the underlying distance is dearer than a lookup that usually misses the CPU
+ * caches (a road-network query, a great-circle formula, a model with penalties). Plain Euclidean distances are
+ * cheaper to recompute, so the TSPLIB distance functions are used directly by default.
+ */
+public class DistanceCache implements DistanceFunction {
+
+    private final DistanceFunction distanceFunction;
+    private final NeighborIndex neighborIndex;
+    private final boolean symmetric;
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    private final LongAdder neighborHits = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param neighborIndex consulted first, or null to use the cache alone
+     * @param capacity      pairs kept in total, divided over the stripes
+     * @param stripes       rounded up to a power of two
+     * @param symmetric     whether {@code distance(a, b) == distance(b, a)}, so both orders share one entry
+     */
+    public DistanceCache(DistanceFunction distanceFunction, NeighborIndex neighborIndex, int capacity, int stripes,
+                         boolean symmetric) {
+        if (capacity < 1 || stripes < 1) {
+            throw new IllegalArgumentException("Capacity (" + capacity + ") and stripes (" + stripes + ") must be positive");
+        }
+        this.distanceFunction = distanceFunction;
+        this.neighborIndex = neighborIndex;
+        this.symmetric = symmetric;
+        int stripeCount = Integer.highestOneBit(stripes - 1) << 1;
+        stripeCount = Math.max(1, Math.min(stripeCount, Integer.highestOneBit(capacity)));
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new Stripe(Math.max(1, capacity / stripeCount));
+        }
+        this.stripeMask = stripeCount - 1;
+    }
+
+    @Override
+    public double distance(int from, int to) {
+        if (from == to) {
+            return 0.0;
+        }
+        if (neighborIndex != null) {
+            float found = neighborIndex.findDistance(from, to);
+            if (Float.isNaN(found) && symmetric) {
+                found = neighborIndex.findDistance(to, from);
+            }
+            if (!Float.isNaN(found)) {
+                neighborHits.increment();
+                return found;
+            }
+        }
+        long key = symmetric && to < from ? pairKey(to, from) : pairKey(from, to);
+        long hash = key * 0x9E37_79B9_7F4A_7C15L;
+        Stripe stripe = stripes[(int) (hash >>> 32) & stripeMask];
+        int home = (int) hash;
+        double cached;
+        synchronized (stripe) {
+            cached = stripe.get(key, home);
+        }
+        if (!Double.isNaN(cached)) {
+            cacheHits.increment();
+            return cached;
+        }
+        misses.increment();
+        double distance = distanceFunction.distance(from, to);
+        synchronized (stripe) {
+            stripe.put(key, home, distance);
+        }
+        return distance;
+    }
+
+    private static long pairKey(int from, int to) {
+        return ((long) from << 32) | (to & 0xFFFF_FFFFL);
+    }
+
+    public long getNeighborHits() {
+        return neighborHits.sum();
+    }
+
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    /** Pairs currently cached over all stripes. */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Slots are never emptied, only overwritten, so a lookup may stop at the first empty slot of its window.
+     */
+    private static final class Stripe {
+
+        /** Slots from a pair's home slot where it may be stored. */
+        static final int WAYS = 8;
+        /** {@code pairKey(0, 0)}, never cached because {@code distance(a, a)} returns early. */
+        private static final long EMPTY = 0L;
+
+        private final long[] keys;
+        private final double[] values;
+        private final boolean[] referenced;
+        private final int mask;
+        private int size;
+
+        /**
+         * @param capacity pairs to hold, rounded up to a power of two of at least {@value #WAYS} slots
+         */
+        Stripe(int capacity) {
+            int slots = Math.max(WAYS, Integer.highestOneBit(Math.max(1, capacity - 1)) << 1);
+            this.keys = new long[slots];
+            this.values = new double[slots];
+            this.referenced = new boolean[slots];
+            this.mask = slots - 1;
+        }
+
+        /** The cached distance, or NaN if the pair is not cached. */
+        double get(long key, int home) {
+            for (int i = 0; i < WAYS; i++) {
+                int slot = (home + i) & mask;
+                long slotKey = keys[slot];
+                if (slotKey == key) {
+                    referenced[slot] = true;
+                    return values[slot];
+                }
+                if (slotKey == EMPTY) {
+                    break;
+                }
+            }
+            return Double.NaN;
+        }
+
+        void put(long key, int home, double value) {
+            int victim = -1;
+            for (int i = 0; i < WAYS; i++) {
+                int slot = (home + i) & mask;
+                long slotKey = keys[slot];
+                if (slotKey == key || slotKey == EMPTY) {
+                    if (slotKey == EMPTY) {
+                        size++;
+                    }
+                    store(slot, key, value);
+                    return;
+                }
+                if (victim < 0 && !referenced[slot]) {
+                    victim = slot;
+                }
+            }
+            // Evict the first slot not read since this window's bits were last cleared, or the home slot if all were;
+            // clearing them again means an entry must be read before the next eviction here to survive it
+            for (int i = 0; i < WAYS; i++) {
+                referenced[(home + i) & mask] = false;
+            }
+            store(victim >= 0 ? victim : home & mask, key, value);
+        }
+
+        private void store(int slot, long key, double value) {
+            keys[slot] = key;
+            values[slot] = value;
+            referenced[slot] = true;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package org.example.dataset.spatial;
+
+/**
+ * Distance between two nodes of an instance, by node index. See {@link TsplibDistances#of} for the TSPLIB metrics.
+ */
+@FunctionalInterface
+public interface DistanceFunction {
+
+    double distance(int from, int to);
+}
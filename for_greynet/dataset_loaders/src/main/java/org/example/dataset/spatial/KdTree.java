@@ -0,0 +1,139 @@
+package org.example.dataset.spatial;
+
+/**
+ * A static k-d tree over points in 2 or 3 dimensions, stored implicitly: the points are permuted so that the
+ * median of every range is its subtree root, split on the axis of widest spread. Queries are thread-safe.
+ */
+final class KdTree {
+
+    private final double[] coordinates; // point p occupies [p * dims, (p + 1) * dims)
+    private final int dims;
+    private final int[] order;
+    private final byte[] axes;
+
+    KdTree(double[] coordinates, int dims) {
+        this.coordinates = coordinates;
+        this.dims = dims;
+        int n = coordinates.length / dims;
+        this.order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        this.axes = new byte[n];
+        build(0, n);
+    }
+
+    private void build(int lo, int hi) {
+        while (hi - lo > 1) {
+            int axis = widestAxis(lo, hi);
+            int mid = (lo + hi) >>> 1;
+            select(lo, hi - 1, mid, axis);
+            axes[mid] = (byte) axis;
+            // Recurse into the smaller half and loop on the larger, so the stack stays logarithmic
+            if (mid - lo < hi - mid - 1) {
+                build(lo, mid);
+                lo = mid + 1;
+            } else {
+                build(mid + 1, hi);
+                hi = mid;
+            }
+        }
+    }
+
+    private int widestAxis(int lo, int hi) {
+        int best = 0;
+        double bestSpread = -1.0;
+        for (int axis = 0; axis < dims; axis++) {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int i = lo; i < hi; i++) {
+                double value = coordinates[order[i] * dims + axis];
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            if (max - min > bestSpread) {
+                bestSpread = max - min;
+                best = axis;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Quickselect: afterwards order[k] holds the point with the k-th smallest coordinate on the axis within
+     * [left, right], with no larger coordinate before it and no smaller one after it.
+     */
+    private void select(int left, int right, int k, int axis) {
+        while (right > left) {
+            double pivot = coordinates[order[(left + right) >>> 1] * dims + axis];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (coordinates[order[i] * dims + axis] < pivot) {
+                    i++;
+                }
+                while (coordinates[order[j] * dims + axis] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    int swap = order[i];
+                    order[i] = order[j];
+                    order[j] = swap;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Collects the nearest points to {@code point} (excluding the point itself) into the heap, by squared
+     * Euclidean distance in the tree's space.
+     */
+    void nearest(int point, NeighborHeap heap) {
+        search(0, order.length, point, heap);
+    }
+
+    private void search(int lo, int hi, int point, NeighborHeap heap) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        int node = order[mid];
+        if (node != point) {
+            heap.offer(node, squaredDistance(node, point));
+        }
+        if (hi - lo == 1) {
+            return;
+        }
+        int axis = axes[mid];
+        double diff = coordinates[point * dims + axis] - coordinates[node * dims + axis];
+        if (diff < 0.0) {
+            search(lo, mid, point, heap);
+            if (diff * diff < heap.bound()) {
+                search(mid + 1, hi, point, heap);
+            }
+        } else {
+            search(mid + 1, hi, point, heap);
+            if (diff * diff < heap.bound()) {
+                search(lo, mid, point, heap);
+            }
+        }
+    }
+
+    private double squaredDistance(int a, int b) {
+        double sum = 0.0;
+        for (int axis = 0; axis < dims; axis++) {
+            double diff = coordinates[a * dims + axis] - coordinates[b * dims + axis];
+            sum += diff * diff;
+        }
+        return sum;
+    }
+}
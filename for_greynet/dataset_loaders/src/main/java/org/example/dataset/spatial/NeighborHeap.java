@@ -0,0 +1,87 @@
+package org.example.dataset.spatial;
+
+/**
+ * Bounded max-heap of the k best (smallest key) candidates seen so far; reusable through {@link #clear()}.
+ */
+final class NeighborHeap {
+
+    private final int capacity;
+    private final int[] nodes;
+    private final double[] keys;
+    private int size = 0;
+
+    NeighborHeap(int capacity) {
+        this.capacity = capacity;
+        this.nodes = new int[capacity];
+        this.keys = new double[capacity];
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Key a candidate must beat to enter the heap once it is full. */
+    double bound() {
+        return size < capacity ? Double.POSITIVE_INFINITY : keys[0];
+    }
+
+    void offer(int node, double key) {
+        if (size < capacity) {
+            int i = size++;
+            // Sift up
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[parent] >= key) {
+                    break;
+                }
+                nodes[i] = nodes[parent];
+                keys[i] = keys[parent];
+                i = parent;
+            }
+            nodes[i] = node;
+            keys[i] = key;
+        } else if (key < keys[0]) {
+            siftDown(node, key, size);
+        }
+    }
+
+    private void siftDown(int node, double key, int heapSize) {
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && keys[child + 1] > keys[child]) {
+                child++;
+            }
+            if (keys[child] <= key) {
+                break;
+            }
+            nodes[i] = nodes[child];
+            keys[i] = keys[child];
+            i = child;
+        }
+        nodes[i] = node;
+        keys[i] = key;
+    }
+
+    /**
+     * Empties the heap into {@code outNodes} nearest first and returns how many were written.
+     */
+    int drainAscending(int[] outNodes) {
+        int count = size;
+        while (size > 0) {
+            int last = --size;
+            outNodes[last] = nodes[0];
+            if (last > 0) {
+                siftDown(nodes[last], keys[last], last);
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,433 @@
+package org.example.dataset.spatial;
+
+import org.example.dataset.tsplib.TsplibInstance;
+import org.example.dataset.tsplib.TsplibReader;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+
+/**
+ * The k nearest neighbors of every node, nearest first, as two flat {@code n * k} arrays: neighbor indices and
+ * their distances under the instance's {@link TsplibDistances metric}. Nearby move selectors draw from these
+ * lists instead of a full distance matrix, which at 100k nodes would need 10^10 entries.
+ * <p>
+ * Neighbors come from a {@link KdTree} over the coordinates: the plane for {@code EUC_2D}, {@code CEIL_2D} and
+ * {@code ATT}, whose distances only grow with the Euclidean distance, and the unit sphere for {@code GEO}, where
+ * the chord length orders points like the great-circle distance. Instances with an explicit matrix are searched
+ * row by row. Ties may be ordered differently from a brute-force search.
+ * <p>
+ * An index can be written to a binary file and mapped on later runs without copying:
+ * <pre>
+ * header     magic "NEIGHBRS" (8), version (4), nodes (4), k (4), reserved (4), instance checksum (8),
+ *            zero padding to 64 bytes
+ * neighbors  n * k int32 node indices, little-endian
+ * distances  n * k float32, little-endian, starting on a 64-byte boundary
+ * </pre>
+ * The checksum covers the instance's metric and coordinates (or weights), so a stale file is rebuilt.
+ */
+public class NeighborIndex {
+
+    private static final long MAGIC = readMagic("NEIGHBRS");
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int SECTION_ALIGNMENT = 64;
+
+    private final int nodeCount;
+    private final int k;
+    private final IntBuffer neighbors;
+    private final FloatBuffer distances;
+
+    private NeighborIndex(int nodeCount, int k, IntBuffer neighbors, FloatBuffer distances) {
+        this.nodeCount = nodeCount;
+        this.k = k;
+        this.neighbors = neighbors;
+        this.distances = distances;
+    }
+
+    // --- Building ---
+
+    /**
+     * Finds the {@code k} nearest neighbors of every node in parallel on the common pool; {@code k} is capped at
+     * {@code n - 1}.
+     */
+    public static NeighborIndex build(TsplibInstance instance, int k) {
+        int n = instance.getDimension();
+        int neighborCount = Math.min(k, n - 1);
+        if ((long) n * neighborCount > Integer.MAX_VALUE / 4) {
+            throw new IllegalArgumentException("Neighbor lists too large: " + n + " nodes x " + neighborCount);
+        }
+        DistanceFunction distanceFunction = TsplibDistances.of(instance);
+        KdTree tree = instance.hasEdgeWeights() ? null : newKdTree(instance);
+        int[] neighbors = new int[n * neighborCount];
+        float[] distances = new float[n * neighborCount];
+        ThreadLocal<NeighborHeap> heaps = ThreadLocal.withInitial(() -> new NeighborHeap(neighborCount));
+        IntStream.range(0, n).parallel().forEach(node -> {
+            NeighborHeap heap = heaps.get();
+            heap.clear();
+            if (tree != null) {
+                tree.nearest(node, heap);
+            } else {
+                for (int other = 0; other < n; other++) {
+                    if (other != node) {
+                        heap.offer(other, distanceFunction.distance(node, other));
+                    }
+                }
+            }
+            int offset = node * neighborCount;
+            int[] found = new int[neighborCount];
+            heap.drainAscending(found);
+            // Rounded metrics (CEIL_2D, ATT, GEO) can tie; a stable sort keeps the tree's order within a tie
+            long[] keyed = new long[neighborCount];
+            float[] foundDistances = new float[neighborCount];
+            for (int rank = 0; rank < neighborCount; rank++) {
+                foundDistances[rank] = (float) distanceFunction.distance(node, found[rank]);
+                keyed[rank] = ((long) Float.floatToIntBits(foundDistances[rank]) << 32) | rank;
+            }
+            Arrays.sort(keyed); // Non-negative floats sort like their bits
+            for (int rank = 0; rank < neighborCount; rank++) {
+                int source = (int) keyed[rank];
+                neighbors[offset + rank] = found[source];
+                distances[offset + rank] = foundDistances[source];
+            }
+        });
+        return new NeighborIndex(n, neighborCount, IntBuffer.wrap(neighbors), FloatBuffer.wrap(distances));
+    }
+
+    private static KdTree newKdTree(TsplibInstance instance) {
+        int n = instance.getDimension();
+        double[] x = instance.getLatitudes();
+        double[] y = instance.getLongitudes();
+        if ("GEO".equals(instance.getEdgeWeightType())) {
+            double[] latitudes = TsplibDistances.toGeoRadians(x);
+            double[] longitudes = TsplibDistances.toGeoRadians(y);
+            double[] points = new double[n * 3];
+            for (int i = 0; i < n; i++) {
+                points[3 * i] = Math.cos(latitudes[i]) * Math.cos(longitudes[i]);
+                points[3 * i + 1] = Math.cos(latitudes[i]) * Math.sin(longitudes[i]);
+                points[3 * i + 2] = Math.sin(latitudes[i]);
+            }
+            return new KdTree(points, 3);
+        }
+        double[] points = new double[n * 2];
+        for (int i = 0; i < n; i++) {
+            points[2 * i] = x[i];
+            points[2 * i + 1] = y[i];
+        }
+        return new KdTree(points, 2);
+    }
+
+    // --- File ---
+
+    /**
+     * Writes the index to a temporary file next to {@code path} and moves it into place when complete, stamped
+     * with the checksum of the instance it was built from.
+     */
+    public void write(Path path, TsplibInstance instance) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        long entries = (long) nodeCount * k;
+        long distancesOffset = align(HEADER_BYTES + entries * Integer.BYTES);
+        long size = distancesOffset + entries * Float.BYTES;
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putLong(0, MAGIC);
+            buffer.putInt(8, VERSION);
+            buffer.putInt(12, nodeCount);
+            buffer.putInt(16, k);
+            buffer.putLong(24, checksum(instance));
+            IntBuffer neighborSection = slice(buffer, HEADER_BYTES, entries * Integer.BYTES).asIntBuffer();
+            FloatBuffer distanceSection = slice(buffer, distancesOffset, entries * Float.BYTES).asFloatBuffer();
+            for (int i = 0; i < entries; i++) {
+                neighborSection.put(i, neighbors.get(i));
+                distanceSection.put(i, distances.get(i));
+            }
+            buffer.force();
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Maps an index file; the neighbor and distance arrays are read straight from the mapping.
+     *
+     * @throws IOException if the file is not an index of this instance
+     */
+    public static NeighborIndex open(Path path, TsplibInstance instance) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.limit() < HEADER_BYTES || buffer.getLong(0) != MAGIC) {
+            throw new IOException("Not a neighbor index: " + path);
+        }
+        if (buffer.getInt(8) != VERSION) {
+            throw new IOException("Unsupported neighbor index version " + buffer.getInt(8) + " in " + path);
+        }
+        int nodeCount = buffer.getInt(12);
+        int k = buffer.getInt(16);
+        if (nodeCount != instance.getDimension() || buffer.getLong(24) != checksum(instance)) {
+            throw new IOException("Neighbor index " + path + " was built for a different instance");
+        }
+        long entries = (long) nodeCount * k;
+        long distancesOffset = align(HEADER_BYTES + entries * Integer.BYTES);
+        if (buffer.limit() < distancesOffset + entries * Float.BYTES) {
+            throw new IOException("Truncated neighbor index: " + path);
+        }
+        return new NeighborIndex(nodeCount, k,
+                slice(buffer, HEADER_BYTES, entries * Integer.BYTES).asIntBuffer(),
+                slice(buffer, distancesOffset, entries * Float.BYTES).asFloatBuffer());
+    }
+
+    /**
+     * Maps the index at {@code path} if it matches the instance and has at least {@code k} neighbors per node,
+     * otherwise builds it and writes it there.
+     */
+    public static NeighborIndex openOrBuild(Path path, TsplibInstance instance, int k) throws IOException {
+        if (Files.exists(path)) {
+            try {
+                NeighborIndex index = open(path, instance);
+                if (index.k >= Math.min(k, instance.getDimension() - 1)) {
+                    return index;
+                }
+            } catch (IOException e) {
+                System.out.println("Rebuilding neighbor index: " + e.getMessage());
+            }
+        }
+        NeighborIndex index = build(instance, k);
+        index.write(path, instance);
+        return open(path, instance);
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, long offset, long length) {
+        ByteBuffer duplicate = buffer.duplicate();
+        duplicate.position((int) offset);
+        duplicate.limit((int) (offset + length));
+        return duplicate.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static long align(long offset) {
+        return (offset + SECTION_ALIGNMENT - 1) / SECTION_ALIGNMENT * SECTION_ALIGNMENT;
+    }
+
+    private static long readMagic(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII)).order(ByteOrder.LITTLE_ENDIAN).getLong();
+    }
+
+    /**
+     * CRC32 of the metric and the coordinates or explicit weights the neighbors were computed from.
+     */
+    static long checksum(TsplibInstance instance) {
+        CRC32 crc = new CRC32();
+        crc.update(String.valueOf(instance.getEdgeWeightType()).getBytes(StandardCharsets.UTF_8));
+        ByteBuffer block = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+        block.putInt(instance.getDimension());
+        if (instance.hasEdgeWeights()) {
+            for (float weight : instance.getEdgeWeights()) {
+                if (block.remaining() < Float.BYTES) {
+                    crc.update(block.flip());
+                    block.clear();
+                }
+                block.putFloat(weight);
+            }
+        } else {
+            double[] x = instance.getLatitudes();
+            double[] y = instance.getLongitudes();
+            for (int i = 0; i < x.length; i++) {
+                if (block.remaining() < 2 * Double.BYTES) {
+                    crc.update(block.flip());
+                    block.clear();
+                }
+                block.putDouble(x[i]).putDouble(y[i]);
+            }
+        }
+        crc.update(block.flip());
+        return crc.getValue();
+    }
+
+    // --- Access ---
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /** Neighbors per node. */
+    public int getK() {
+        return k;
+    }
+
+    /** The {@code rank}-th nearest neighbor of {@code node}, 0 being the nearest. */
+    public int getNeighbor(int node, int rank) {
+        return neighbors.get(node * k + rank);
+    }
+
+    public float getDistance(int node, int rank) {
+        return distances.get(node * k + rank);
+    }
+
+    /**
+     * Distance from {@code from} to {@code to} if {@code to} is in the neighbor list of {@code from}, else NaN.
+     */
+    public float findDistance(int from, int to) {
+        int offset = from * k;
+        for (int rank = 0; rank < k; rank++) {
+            if (neighbors.get(offset + rank) == to) {
+                return distances.get(offset + rank);
+            }
+        }
+        return Float.NaN;
+    }
+
+    // --- Command line ---
+
+    /**
+     * Builds the index of a TSPLIB file, writes and maps it, checks a sample of nodes against a brute-force search
+     * and times distance lookups computed directly. With {@code -Dneighbors.cacheCapacity=<pairs>} it also times
+     * them through a {@link DistanceCache}; that is opt-in because TSPLIB distances are cheaper to recompute than
+     * a lookup in a cache much larger than the CPU caches.
+     * <p>
+     * Arguments: the file (default {@code usa-n100000-k500.vrp}), {@code k} (default 40) and the index path
+     * (default {@code target/neighbors/<name>-k<k>.bin}).
+     */
+    public static void main(String[] args) throws IOException {
+        Path file = Paths.get(args.length > 0 ? args[0] : "../../data/vrp/data/import/usa/basic/air/usa-n100000-k500.vrp");
+        int k = args.length > 1 ? Integer.parseInt(args[1]) : 40;
+        int lookups = Integer.getInteger("neighbors.lookups", 10_000_000);
+        int capacity = Integer.getInteger("neighbors.cacheCapacity", 0);
+        int stripes = Integer.getInteger("neighbors.cacheStripes", 64);
+
+        long startTime = System.nanoTime();
+        TsplibInstance instance = TsplibReader.read(file);
+        long loadNanos = System.nanoTime() - startTime;
+        Path indexPath = Paths.get(args.length > 2 ? args[2] : "target/neighbors/" + instance.getName() + "-k" + k + ".bin");
+
+        startTime = System.nanoTime();
+        NeighborIndex built = build(instance, k);
+        long buildNanos = System.nanoTime() - startTime;
+        startTime = System.nanoTime();
+        built.write(indexPath, instance);
+        long writeNanos = System.nanoTime() - startTime;
+        startTime = System.nanoTime();
+        NeighborIndex index = open(indexPath, instance);
+        long openNanos = System.nanoTime() - startTime;
+        long n = instance.getDimension();
+
+        System.out.println("\n#### Neighbor Index (" + instance.getName() + ")");
+        System.out.printf("| %-30s | %-20s |\n", "Metric", "Value");
+        System.out.printf("|%s|%s|\n", "-".repeat(32), "-".repeat(22));
+        System.out.printf("| %-30s | %-20s |\n", "Edge weight type", instance.hasEdgeWeights() ? "explicit" : instance.getEdgeWeightType());
+        System.out.printf("| %-30s | %,20d |\n", "Nodes", n);
+        System.out.printf("| %-30s | %,20d |\n", "Neighbors per node", index.getK());
+        System.out.printf("| %-30s | %,17.3f ms |\n", "Load", loadNanos / 1_000_000.0);
+        System.out.printf("| %-30s | %,17.3f ms |\n", "Build", buildNanos / 1_000_000.0);
+        System.out.printf("| %-30s | %,17.3f ms |\n", "Write", writeNanos / 1_000_000.0);
+        System.out.printf("| %-30s | %,17.3f ms |\n", "Open (mmap)", openNanos / 1_000_000.0);
+        System.out.printf("| %-30s | %,17.2f MB |\n", "Index file", Files.size(indexPath) / (1024.0 * 1024.0));
+        System.out.printf("| %-30s | %,17.2f MB |\n", "Full matrix (float)", n * n * Float.BYTES / (1024.0 * 1024.0));
+        System.out.printf("| %-30s | %-20s |\n", "Sampled check", verifySample(instance, index, 100));
+
+        DistanceFunction distanceFunction = TsplibDistances.of(instance);
+        boolean symmetric = !instance.hasEdgeWeights() || !"FULL_MATRIX".equals(instance.getEdgeWeightFormat());
+        // Nearby selection draws most pairs from the neighbor lists; the rest are spread over a hot set of nodes
+        int[] pairs = new int[2 * lookups];
+        SplittableRandom random = new SplittableRandom(37);
+        int hotNodes = (int) Math.min(n, 2_000);
+        for (int i = 0; i < lookups; i++) {
+            int from = random.nextInt((int) n);
+            pairs[2 * i] = from;
+            pairs[2 * i + 1] = random.nextInt(10) < 8
+                    ? index.getNeighbor(from, random.nextInt(index.getK()))
+                    : random.nextInt(hotNodes);
+        }
+        System.out.println("\n#### Distance Lookups");
+        System.out.printf("- %,d lookups, 80%% from the neighbor lists; %s\n", lookups, capacity > 0
+                ? String.format("cache of %,d pairs in %d stripes", capacity, stripes)
+                : "no cache (-Dneighbors.cacheCapacity=<pairs> to time one)");
+        System.out.println("| Source          | ns/lookup  | Neighbor Hits | Cache Hits    | Misses        | Checksum             |");
+        System.out.println("|-----------------|------------|---------------|---------------|---------------|----------------------|");
+        double directChecksum = 0.0;
+        double cachedChecksum = 0.0;
+        for (int round = 0; round < 2; round++) { // The first round warms up the JIT and the cache
+            startTime = System.nanoTime();
+            double sum = 0.0;
+            for (int i = 0; i < lookups; i++) {
+                sum += distanceFunction.distance(pairs[2 * i], pairs[2 * i + 1]);
+            }
+            long directNanos = System.nanoTime() - startTime;
+            if (round == 1) {
+                directChecksum = sum;
+                System.out.printf("| %-15s | %10.1f | %13s | %13s | %13s | %,20.2f |\n",
+                        "direct", (double) directNanos / lookups, "-", "-", "-", sum);
+            }
+            if (capacity <= 0) {
+                continue;
+            }
+            DistanceCache cache = new DistanceCache(distanceFunction, index, capacity, stripes, symmetric);
+            startTime = System.nanoTime();
+            double cachedSum = 0.0;
+            for (int i = 0; i < lookups; i++) {
+                cachedSum += cache.distance(pairs[2 * i], pairs[2 * i + 1]);
+            }
+            long cachedNanos = System.nanoTime() - startTime;
+            if (round == 1) {
+                cachedChecksum = cachedSum;
+                System.out.printf("| %-15s | %10.1f | %,13d | %,13d | %,13d | %,20.2f |\n",
+                        "neighbors+cache", (double) cachedNanos / lookups,
+                        cache.getNeighborHits(), cache.getCacheHits(), cache.getMisses(), cachedSum);
+            }
+        }
+        if (capacity > 0 && cachedChecksum != directChecksum) {
+            System.out.println("- Checksums differ by the float rounding of neighbor distances");
+        }
+    }
+
+    /**
+     * Compares the neighbor distances of {@code samples} random nodes with an exhaustive search; distances rather
+     * than node indices are compared, so ties may be broken differently.
+     */
+    private static String verifySample(TsplibInstance instance, NeighborIndex index, int samples) {
+        int n = instance.getDimension();
+        int k = index.getK();
+        DistanceFunction distanceFunction = TsplibDistances.of(instance);
+        SplittableRandom random = new SplittableRandom(17);
+        NeighborHeap heap = new NeighborHeap(k);
+        int[] expected = new int[k];
+        int bad = 0;
+        for (int sample = 0; sample < Math.min(samples, n); sample++) {
+            int node = random.nextInt(n);
+            heap.clear();
+            for (int other = 0; other < n; other++) {
+                if (other != node) {
+                    heap.offer(other, distanceFunction.distance(node, other));
+                }
+            }
+            heap.drainAscending(expected);
+            for (int rank = 0; rank < k; rank++) {
+                if (index.getDistance(node, rank) != (float) distanceFunction.distance(node, expected[rank])) {
+                    bad++;
+                    break;
+                }
+            }
+        }
+        return bad == 0 ? "OK (" + Math.min(samples, n) + " nodes)" : bad + " bad nodes";
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.dataset.spatial;
+
+import org.example.dataset.tsplib.TsplibInstance;
+
+/**
+ * The TSPLIB edge weight functions over a {@link TsplibInstance}'s coordinates.
+ */
+public final class TsplibDistances {
+
+    // TSPLIB's own constants for GEO, kept so distances match published optima
+    private static final double GEO_EARTH_RADIUS = 6378.388;
+    private static final double GEO_PI = 3.141592;
+
+    private TsplibDistances() {
+    }
+
+    /**
+     * The distance of the instance's {@code EDGE_WEIGHT_TYPE}: the explicit matrix if the file has one, otherwise
+     * {@code CEIL_2D}, {@code ATT} and {@code GEO} as defined by TSPLIB. {@code EUC_2D} is the plain Euclidean
+     * distance without TSPLIB's rounding to the nearest integer, because the Belgium and USA sets store degrees.
+     */
+    public static DistanceFunction of(TsplibInstance instance) {
+        if (instance.hasEdgeWeights()) {
+            int n = instance.getDimension();
+            float[] weights = instance.getEdgeWeights();
+            return (from, to) -> weights[from * n + to];
+        }
+        if (!instance.hasCoordinates()) {
+            throw new IllegalArgumentException("Instance " + instance.getName() + " has neither coordinates nor edge weights");
+        }
+        double[] x = instance.getLatitudes();
+        double[] y = instance.getLongitudes();
+        String type = instance.getEdgeWeightType() != null ? instance.getEdgeWeightType() : "EUC_2D";
+        switch (type) {
+            case "EUC_2D":
+                return (from, to) -> Math.sqrt(squared(x[from] - x[to]) + squared(y[from] - y[to]));
+            case "CEIL_2D":
+                return (from, to) -> Math.ceil(Math.sqrt(squared(x[from] - x[to]) + squared(y[from] - y[to])));
+            case "ATT":
+                return (from, to) -> {
+                    double r = Math.sqrt((squared(x[from] - x[to]) + squared(y[from] - y[to])) / 10.0);
+                    double t = Math.rint(r);
+                    return t < r ? t + 1.0 : t;
+                };
+            case "GEO":
+                double[] latitudes = toGeoRadians(x);
+                double[] longitudes = toGeoRadians(y);
+                return (from, to) -> {
+                    double q1 = Math.cos(longitudes[from] - longitudes[to]);
+                    double q2 = Math.cos(latitudes[from] - latitudes[to]);
+                    double q3 = Math.cos(latitudes[from] + latitudes[to]);
+                    return (int) (GEO_EARTH_RADIUS * Math.acos(0.5 * ((1.0 + q1) * q2 - (1.0 - q1) * q3)) + 1.0);
+                };
+            default:
+                throw new IllegalArgumentException("Unsupported EDGE_WEIGHT_TYPE " + type + " in " + instance.getName());
+        }
+    }
+
+    /**
+     * TSPLIB GEO coordinates are DDD.MM (degrees and minutes); this is the conversion the TSPLIB distance uses.
+     */
+    public static double[] toGeoRadians(double[] degreesMinutes) {
+        double[] radians = new double[degreesMinutes.length];
+        for (int i = 0; i < radians.length; i++) {
+            double degrees = (int) degreesMinutes[i];
+            double minutes = degreesMinutes[i] - degrees;
+            radians[i] = GEO_PI * (degrees + 5.0 * minutes / 3.0) / 180.0;
+        }
+        return radians;
+    }
+
+    private static double squared(double value) {
+        return value * value;
+    }
+}
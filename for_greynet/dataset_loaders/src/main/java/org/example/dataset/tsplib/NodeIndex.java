@@ -0,0 +1,56 @@
+package org.example.dataset.tsplib;
+
+import java.util.Arrays;
+
+/**
+ * Maps TSPLIB node ids, which need not be contiguous, to node indices: a dense table when the ids are
+ * small enough, otherwise a binary search over the sorted ids.
+ */
+final class NodeIndex {
+
+    private final int[] indexById;
+    private final int[] sortedIds;
+    private final int[] sortedIndices;
+
+    NodeIndex(int[] nodeIds) {
+        int maxId = -1;
+        for (int id : nodeIds) {
+            maxId = Math.max(maxId, id);
+        }
+        if (maxId <= 4 * nodeIds.length + 1024) {
+            indexById = new int[maxId + 1];
+            Arrays.fill(indexById, -1);
+            for (int i = 0; i < nodeIds.length; i++) {
+                if (nodeIds[i] >= 0) {
+                    indexById[nodeIds[i]] = i;
+                }
+            }
+            sortedIds = null;
+            sortedIndices = null;
+        } else {
+            indexById = null;
+            long[] pairs = new long[nodeIds.length];
+            for (int i = 0; i < nodeIds.length; i++) {
+                pairs[i] = ((long) nodeIds[i] << 32) | i;
+            }
+            Arrays.sort(pairs);
+            sortedIds = new int[nodeIds.length];
+            sortedIndices = new int[nodeIds.length];
+            for (int i = 0; i < nodeIds.length; i++) {
+                sortedIds[i] = (int) (pairs[i] >> 32);
+                sortedIndices[i] = (int) pairs[i];
+            }
+        }
+    }
+
+    /**
+     * @return the index of the node with this id, or -1
+     */
+    int get(int nodeId) {
+        if (indexById != null) {
+            return nodeId >= 0 && nodeId < indexById.length ? indexById[nodeId] : -1;
+        }
+        int position = Arrays.binarySearch(sortedIds, nodeId);
+        return position >= 0 ? sortedIndices[position] : -1;
+    }
+}
@@ -0,0 +1,152 @@
+package org.example.dataset.tsplib;
+
+/**
+ * A TSPLIB {@code .tsp} or {@code .vrp} instance as flat primitive arrays, as read by {@link TsplibReader}.
+ * <p>
+ * Nodes are numbered {@code 0..dimension-1} in the order of {@code NODE_COORD_SECTION} (or by TSPLIB id when the
+ * file has no coordinates); {@link #getNodeId(int)} and {@link #getIndex(int)} translate to and from the ids in
+ * the file, which need not be contiguous. Arrays for sections the file does not have are {@code null}.
+ */
+public class TsplibInstance {
+
+    private final String name;
+    private final String type;
+    private final String edgeWeightType;
+    private final String edgeWeightFormat;
+    private final String edgeWeightUnit;
+    private final int dimension;
+    private final int capacity;
+    private final int[] nodeIds;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final int[] demands;
+    private final int[] readyTimes;
+    private final int[] dueTimes;
+    private final int[] serviceDurations;
+    private final int[] depots;
+    private final float[] edgeWeights;
+    private final NodeIndex nodeIndex;
+
+    TsplibInstance(String name, String type, String edgeWeightType, String edgeWeightFormat, String edgeWeightUnit,
+                   int dimension, int capacity, int[] nodeIds, double[] latitudes, double[] longitudes,
+                   int[] demands, int[] readyTimes, int[] dueTimes, int[] serviceDurations, int[] depots,
+                   float[] edgeWeights) {
+        this.name = name;
+        this.type = type;
+        this.edgeWeightType = edgeWeightType;
+        this.edgeWeightFormat = edgeWeightFormat;
+        this.edgeWeightUnit = edgeWeightUnit;
+        this.dimension = dimension;
+        this.capacity = capacity;
+        this.nodeIds = nodeIds;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.demands = demands;
+        this.readyTimes = readyTimes;
+        this.dueTimes = dueTimes;
+        this.serviceDurations = serviceDurations;
+        this.depots = depots;
+        this.edgeWeights = edgeWeights;
+
+        this.nodeIndex = new NodeIndex(nodeIds);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** {@code TSP}, {@code CVRP}, {@code CVRPTW}, ... */
+    public String getType() {
+        return type;
+    }
+
+    /** {@code EUC_2D}, {@code GEO}, {@code EXPLICIT}, ... */
+    public String getEdgeWeightType() {
+        return edgeWeightType;
+    }
+
+    /** The {@code EDGE_WEIGHT_FORMAT} of an explicit instance, or null. */
+    public String getEdgeWeightFormat() {
+        return edgeWeightFormat;
+    }
+
+    /** The {@code EDGE_WEIGHT_UNIT_OF_MEASUREMENT} (e.g. {@code km} or {@code sec}), or null. */
+    public String getEdgeWeightUnit() {
+        return edgeWeightUnit;
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    /** Vehicle capacity of a VRP instance, or 0. */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getNodeId(int index) {
+        return nodeIds[index];
+    }
+
+    /**
+     * @return the node index of the TSPLIB id, or -1 if there is no such node
+     */
+    public int getIndex(int nodeId) {
+        return nodeIndex.get(nodeId);
+    }
+
+    public boolean hasCoordinates() {
+        return latitudes != null;
+    }
+
+    /** First coordinate of each node: latitude in the Belgium/USA sets, x in the classic TSPLIB sets. */
+    public double[] getLatitudes() {
+        return latitudes;
+    }
+
+    /** Second coordinate of each node: longitude, or y. */
+    public double[] getLongitudes() {
+        return longitudes;
+    }
+
+    public int[] getDemands() {
+        return demands;
+    }
+
+    public boolean hasTimeWindows() {
+        return readyTimes != null;
+    }
+
+    public int[] getReadyTimes() {
+        return readyTimes;
+    }
+
+    public int[] getDueTimes() {
+        return dueTimes;
+    }
+
+    public int[] getServiceDurations() {
+        return serviceDurations;
+    }
+
+    /** Node indices of the depots, in file order. */
+    public int[] getDepots() {
+        return depots;
+    }
+
+    public boolean hasEdgeWeights() {
+        return edgeWeights != null;
+    }
+
+    /**
+     * The explicit weights as a full row-major {@code dimension x dimension} matrix, whatever the file's
+     * format; triangular formats are mirrored. Road instances are asymmetric.
+     */
+    public float[] getEdgeWeights() {
+        return edgeWeights;
+    }
+
+    public float getEdgeWeight(int from, int to) {
+        return edgeWeights[from * dimension + to];
+    }
+}
@@ -0,0 +1,520 @@
+package org.example.dataset.tsplib;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Reads TSPLIB {@code .tsp} and {@code .vrp} files by memory-mapping them and parsing the sections straight
+ * from the mapped bytes into primitive arrays, so a 100k-node instance loads without a String per line.
+ * <p>
+ * Header lines ({@code KEY : value}) are decoded to Strings; they are a handful per file. Supported sections
+ * are {@code NODE_COORD_SECTION}, {@code DEMAND_SECTION} (with the ready time, due time and service duration
+ * columns of CVRPTW files), {@code DEPOT_SECTION} and {@code EDGE_WEIGHT_SECTION} in the {@code FULL_MATRIX},
+ * {@code UPPER_ROW}, {@code LOWER_ROW}, {@code UPPER_DIAG_ROW} and {@code LOWER_DIAG_ROW} formats. Node names
+ * after the coordinates are skipped. Sections this reader does not model ({@code DISPLAY_DATA_SECTION},
+ * {@code FIXED_EDGES_SECTION}, and the {@code HUB_COORD_SECTION} and {@code SEGMENTED_EDGE_WEIGHT_SECTION} of the
+ * segmented road instances) are skipped, so those instances load with coordinates but without edge weights.
+ * <p>
+ * A reader is single-use and not thread-safe; {@link #read(Path)} creates one per file.
+ */
+public class TsplibReader {
+
+    // Largest dimension whose full matrix fits in one float[]
+    private static final int MAX_EXPLICIT_DIMENSION = 46_340;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    private final Path path;
+    private final ByteBuffer buffer;
+    private final int limit;
+    private int position = 0;
+
+    private String name;
+    private String type;
+    private String edgeWeightType;
+    private String edgeWeightFormat;
+    private String edgeWeightUnit;
+    private int dimension = -1;
+    private int capacity = 0;
+    private int[] nodeIds;
+    private double[] latitudes;
+    private double[] longitudes;
+    private int[] demands;
+    private int[] readyTimes;
+    private int[] dueTimes;
+    private int[] serviceDurations;
+    private int[] depots;
+    private float[] edgeWeights;
+    private NodeIndex nodeIndex;
+
+    private TsplibReader(Path path, ByteBuffer buffer) {
+        this.path = path;
+        this.buffer = buffer;
+        this.limit = buffer.limit();
+    }
+
+    public static TsplibInstance read(Path path) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("TSPLIB file larger than 2 GiB: " + path);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        return new TsplibReader(path, buffer).parse();
+    }
+
+    private TsplibInstance parse() throws IOException {
+        while (skipBlankLines()) {
+            String keyword = readKeyword();
+            skipBlanks();
+            if (position < limit && buffer.get(position) == ':') {
+                position++;
+                readHeader(keyword, readRestOfLine());
+                continue;
+            }
+            skipLine();
+            switch (keyword) {
+                case "NODE_COORD_SECTION":
+                    readNodeCoordinates();
+                    break;
+                case "DEMAND_SECTION":
+                    readDemands();
+                    break;
+                case "DEPOT_SECTION":
+                    readDepots();
+                    break;
+                case "EDGE_WEIGHT_SECTION":
+                    readEdgeWeights();
+                    break;
+                case "EOF":
+                    position = limit;
+                    break;
+                default:
+                    skipSection();
+                    break;
+            }
+        }
+        if (dimension < 0) {
+            throw new IOException("No DIMENSION in " + path);
+        }
+        return newInstance();
+    }
+
+    private void readHeader(String keyword, String value) throws IOException {
+        switch (keyword) {
+            case "NAME":
+                name = value;
+                break;
+            case "TYPE":
+                type = value;
+                break;
+            case "DIMENSION":
+                dimension = parseHeaderInt(keyword, value);
+                break;
+            case "CAPACITY":
+                capacity = parseHeaderInt(keyword, value);
+                break;
+            case "EDGE_WEIGHT_TYPE":
+                edgeWeightType = value;
+                break;
+            case "EDGE_WEIGHT_FORMAT":
+                edgeWeightFormat = value;
+                break;
+            case "EDGE_WEIGHT_UNIT_OF_MEASUREMENT":
+                edgeWeightUnit = value;
+                break;
+            default:
+                break; // COMMENT, DISPLAY_DATA_TYPE, NODE_COORD_TYPE, HUBS, ...
+        }
+    }
+
+    private int parseHeaderInt(String keyword, String value) throws IOException {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IOException("Bad " + keyword + " '" + value + "' in " + path, e);
+        }
+    }
+
+    // --- Sections ---
+
+    private void readNodeCoordinates() throws IOException {
+        requireDimension("NODE_COORD_SECTION");
+        nodeIds = new int[dimension];
+        latitudes = new double[dimension];
+        longitudes = new double[dimension];
+        int count = 0;
+        while (count < dimension && skipBlankLines() && !atKeyword()) {
+            nodeIds[count] = readInt();
+            latitudes[count] = readDouble();
+            longitudes[count] = readDouble();
+            skipLine(); // Optional node name or third coordinate
+            count++;
+        }
+        if (count != dimension) {
+            throw new IOException("NODE_COORD_SECTION has " + count + " of " + dimension + " nodes in " + path);
+        }
+    }
+
+    private void readDemands() throws IOException {
+        requireDimension("DEMAND_SECTION");
+        demands = new int[dimension];
+        while (skipBlankLines() && !atKeyword()) {
+            int index = toIndex(readInt());
+            demands[index] = readInt();
+            if (skipBlanks()) {
+                // CVRPTW: ready time, due time and service duration follow the demand
+                if (readyTimes == null) {
+                    readyTimes = new int[dimension];
+                    dueTimes = new int[dimension];
+                    serviceDurations = new int[dimension];
+                }
+                readyTimes[index] = readInt();
+                dueTimes[index] = readInt();
+                serviceDurations[index] = readInt();
+            }
+            skipLine();
+        }
+    }
+
+    private void readDepots() throws IOException {
+        int[] read = new int[4];
+        int count = 0;
+        while (skipBlankLines() && !atKeyword()) {
+            int id = readInt();
+            skipLine();
+            if (id == -1) {
+                break;
+            }
+            if (count == read.length) {
+                read = Arrays.copyOf(read, count * 2);
+            }
+            read[count++] = toIndex(id);
+        }
+        depots = Arrays.copyOf(read, count);
+    }
+
+    private void readEdgeWeights() throws IOException {
+        requireDimension("EDGE_WEIGHT_SECTION");
+        if (dimension > MAX_EXPLICIT_DIMENSION) {
+            throw new IOException("EDGE_WEIGHT_SECTION too large for a full matrix (" + dimension + " nodes) in " + path);
+        }
+        String format = edgeWeightFormat != null ? edgeWeightFormat : "FULL_MATRIX";
+        int n = dimension;
+        edgeWeights = new float[n * n];
+        switch (format) {
+            case "FULL_MATRIX":
+                for (int i = 0; i < n * n; i++) {
+                    edgeWeights[i] = nextWeight();
+                }
+                break;
+            case "UPPER_ROW":
+                for (int i = 0; i < n; i++) {
+                    for (int j = i + 1; j < n; j++) {
+                        setSymmetric(i, j, nextWeight());
+                    }
+                }
+                break;
+            case "LOWER_ROW":
+                for (int i = 0; i < n; i++) {
+                    for (int j = 0; j < i; j++) {
+                        setSymmetric(i, j, nextWeight());
+                    }
+                }
+                break;
+            case "UPPER_DIAG_ROW":
+                for (int i = 0; i < n; i++) {
+                    for (int j = i; j < n; j++) {
+                        setSymmetric(i, j, nextWeight());
+                    }
+                }
+                break;
+            case "LOWER_DIAG_ROW":
+                for (int i = 0; i < n; i++) {
+                    for (int j = 0; j <= i; j++) {
+                        setSymmetric(i, j, nextWeight());
+                    }
+                }
+                break;
+            default:
+                throw new IOException("Unsupported EDGE_WEIGHT_FORMAT " + format + " in " + path);
+        }
+        skipLine();
+    }
+
+    private float nextWeight() throws IOException {
+        skipWhitespace();
+        return (float) readDouble();
+    }
+
+    private void setSymmetric(int i, int j, float weight) {
+        edgeWeights[i * dimension + j] = weight;
+        edgeWeights[j * dimension + i] = weight;
+    }
+
+    private void skipSection() {
+        while (skipBlankLines() && !atKeyword()) {
+            skipLine();
+        }
+    }
+
+    private void requireDimension(String section) throws IOException {
+        if (dimension < 0) {
+            throw new IOException(section + " before DIMENSION in " + path);
+        }
+    }
+
+    /**
+     * Node index of a TSPLIB id: by position in NODE_COORD_SECTION, or {@code id - 1} without coordinates.
+     */
+    private int toIndex(int id) throws IOException {
+        int index;
+        if (nodeIds == null) {
+            index = id - 1;
+        } else {
+            if (nodeIndex == null) {
+                nodeIndex = new NodeIndex(nodeIds);
+            }
+            index = nodeIndex.get(id);
+        }
+        if (index < 0 || index >= dimension) {
+            throw new IOException("Unknown node id " + id + " in " + path);
+        }
+        return index;
+    }
+
+    private TsplibInstance newInstance() {
+        int[] ids = nodeIds;
+        if (ids == null) {
+            ids = new int[dimension];
+            for (int i = 0; i < dimension; i++) {
+                ids[i] = i + 1;
+            }
+        }
+        return new TsplibInstance(name, type, edgeWeightType, edgeWeightFormat, edgeWeightUnit, dimension, capacity,
+                ids, latitudes, longitudes, demands, readyTimes, dueTimes, serviceDurations, depots, edgeWeights);
+    }
+
+    // --- Byte scanning ---
+
+    /**
+     * Skips spaces, tabs and carriage returns on the current line.
+     *
+     * @return whether a token follows on this line
+     */
+    private boolean skipBlanks() {
+        while (position < limit) {
+            byte b = buffer.get(position);
+            if (b != ' ' && b != '\t' && b != '\r') {
+                return b != '\n';
+            }
+            position++;
+        }
+        return false;
+    }
+
+    private void skipWhitespace() {
+        while (position < limit && buffer.get(position) <= ' ') {
+            position++;
+        }
+    }
+
+    /**
+     * @return whether there is anything left in the file
+     */
+    private boolean skipBlankLines() {
+        skipWhitespace();
+        return position < limit;
+    }
+
+    private void skipLine() {
+        while (position < limit && buffer.get(position++) != '\n') {
+            // Skip to the start of the next line
+        }
+    }
+
+    private boolean atKeyword() {
+        byte b = buffer.get(position);
+        return (b >= 'A' && b <= 'Z') || (b >= 'a' && b <= 'z');
+    }
+
+    private String readKeyword() {
+        int start = position;
+        while (position < limit) {
+            byte b = buffer.get(position);
+            if (b == ':' || b <= ' ') {
+                break;
+            }
+            position++;
+        }
+        return decode(start, position);
+    }
+
+    private String readRestOfLine() {
+        skipBlanks();
+        int start = position;
+        skipLine();
+        int end = position;
+        while (end > start && buffer.get(end - 1) <= ' ') {
+            end--;
+        }
+        return decode(start, end);
+    }
+
+    private String decode(int start, int end) {
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int readInt() throws IOException {
+        skipBlanks();
+        int start = position;
+        boolean negative = false;
+        if (position < limit && (buffer.get(position) == '-' || buffer.get(position) == '+')) {
+            negative = buffer.get(position) == '-';
+            position++;
+        }
+        long value = 0L;
+        int digits = 0;
+        while (position < limit) {
+            int digit = buffer.get(position) - '0';
+            if (digit < 0 || digit > 9) {
+                break;
+            }
+            value = value * 10 + digit;
+            digits++;
+            position++;
+        }
+        if (digits == 0 || digits > 10 || value > Integer.MAX_VALUE + (negative ? 1L : 0L)) {
+            throw new IOException("Bad integer '" + decode(start, Math.max(position, Math.min(start + 20, limit)))
+                    + "' at byte " + start + " in " + path);
+        }
+        return (int) (negative ? -value : value);
+    }
+
+    /**
+     * Parses a decimal number in place. Up to 15 significant digits and a power of ten up to 22 convert
+     * exactly with one multiplication or division, which covers every file in the data sets; anything else
+     * falls back to {@link Double#parseDouble(String)}.
+     */
+    private double readDouble() throws IOException {
+        skipBlanks();
+        int start = position;
+        boolean negative = false;
+        if (position < limit && (buffer.get(position) == '-' || buffer.get(position) == '+')) {
+            negative = buffer.get(position) == '-';
+            position++;
+        }
+        long mantissa = 0L;
+        int significantDigits = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean fraction = false;
+        while (position < limit) {
+            byte b = buffer.get(position);
+            if (b == '.' && !fraction) {
+                fraction = true;
+            } else if (b >= '0' && b <= '9') {
+                digits++;
+                if (significantDigits < 18) {
+                    mantissa = mantissa * 10 + (b - '0');
+                    if (mantissa != 0L) {
+                        significantDigits++;
+                    }
+                    if (fraction) {
+                        exponent--;
+                    }
+                } else if (!fraction) {
+                    exponent++;
+                }
+            } else {
+                break;
+            }
+            position++;
+        }
+        if (digits == 0) {
+            throw new IOException("Bad number '" + decode(start, Math.min(start + 20, limit)) + "' at byte " + start + " in " + path);
+        }
+        if (position < limit && (buffer.get(position) == 'e' || buffer.get(position) == 'E')) {
+            position++;
+            exponent += readInt();
+        }
+        if (significantDigits <= 15 && Math.abs(exponent) <= 22) {
+            double value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+            return negative ? -value : value;
+        }
+        return Double.parseDouble(decode(start, position));
+    }
+
+    // --- Command line ---
+
+    /**
+     * Loads every {@code .tsp} and {@code .vrp} file under the given files or directories (default: the
+     * data/tsp and data/vrp import trees) and prints the load time of each, best of a few runs after a warm-up pass.
+     */
+    public static void main(String[] args) throws IOException {
+        List<Path> roots = new ArrayList<>();
+        for (String arg : args.length > 0 ? args : new String[]{"../../data/tsp/data/import", "../../data/vrp/data/import"}) {
+            roots.add(Paths.get(arg));
+        }
+        List<Path> files = new ArrayList<>();
+        for (Path root : roots) {
+            try (Stream<Path> walk = Files.walk(root)) {
+                files.addAll(walk.filter(p -> p.toString().endsWith(".tsp") || p.toString().endsWith(".vrp"))
+                        .sorted()
+                        .collect(Collectors.toList()));
+            }
+        }
+        int runs = Integer.getInteger("tsplib.runs", 5);
+        for (Path file : files) {
+            read(file); // Warm-up, so the first large file does not pay for compiling the parser
+        }
+
+        System.out.println("\n#### TSPLIB Load Times");
+        System.out.printf("- Best of %d runs per file\n", runs);
+        System.out.println("| File                                          | Type     | Nodes   | Edge Weights   | Size       | Load Time   | MB/s     |");
+        System.out.println("|-----------------------------------------------|----------|---------|----------------|------------|-------------|----------|");
+        long totalBytes = 0L;
+        long totalNanos = 0L;
+        for (Path file : files) {
+            long size = Files.size(file);
+            long best = Long.MAX_VALUE;
+            TsplibInstance instance = null;
+            for (int run = 0; run < runs; run++) {
+                long startTime = System.nanoTime();
+                instance = read(file);
+                best = Math.min(best, System.nanoTime() - startTime);
+            }
+            totalBytes += size;
+            totalNanos += best;
+            String fileName = file.getFileName().toString();
+            String type = instance.getType() != null ? instance.getType() : "-";
+            System.out.printf("| %-45s | %-8s | %,7d | %-14s | %,7.2f MB | %8.3f ms | %8.1f |\n",
+                    fileName.length() > 45 ? fileName.substring(0, 42) + "..." : fileName,
+                    type.length() > 8 ? type.substring(0, 8) : type,
+                    instance.getDimension(),
+                    instance.hasEdgeWeights() ? instance.getEdgeWeightFormat() != null ? instance.getEdgeWeightFormat().toLowerCase() : "full_matrix" : "-",
+                    size / (1024.0 * 1024.0),
+                    best / 1_000_000.0,
+                    size / (1024.0 * 1024.0) / (best / 1_000_000_000.0));
+        }
+        System.out.printf("- %d files, %,.2f MB in %.3f ms\n", files.size(), totalBytes / (1024.0 * 1024.0), totalNanos / 1_000_000.0);
+    }
+}
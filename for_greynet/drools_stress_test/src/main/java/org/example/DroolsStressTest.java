@@ -1,100 +1,811 @@
 // --- File: src/main/java/com/example/DroolsStressTest.java ---
 package org.example;
 
-import org.example.model.Customer;
-import org.example.model.SecurityAlert;
+import org.example.common.FactStore;
+import org.example.common.PhaseRecorder;
+import org.example.common.ReferenceEvaluator;
+import org.example.common.RuleBreakdown;
+import org.example.common.RuleIsolation;
+import org.example.common.SizeSweep;
+import org.example.common.StressDataGenerator;
+import org.example.common.StressDataset;
+import org.example.common.StressRule;
 import org.example.model.ScoreHolder;
-import org.example.model.Transaction;
+import org.kie.api.KieBase;
+import org.kie.api.KieBaseConfiguration;
 import org.kie.api.KieServices;
 import org.kie.api.builder.KieBuilder;
 import org.kie.api.builder.KieFileSystem;
 import org.kie.api.builder.KieModule;
+import org.kie.api.conf.EventProcessingOption;
 import org.kie.api.io.Resource;
 import org.kie.api.runtime.KieContainer;
 import org.kie.api.runtime.KieSession;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class DroolsStressTest {
 
     // --- Configuration ---
-    private static final int NUM_CUSTOMERS = 10_000;
-    private static final int NUM_TRANSACTIONS = 10_000_000;
-    private static final int NUM_LOCATIONS = 1_000;
-    private static final Random random = new Random();
+    private static final int NUM_CUSTOMERS = Integer.getInteger("stress.customers", 10_000);
+    private static final int NUM_TRANSACTIONS = Integer.getInteger("stress.transactions", 10_000_000);
+    private static final int NUM_LOCATIONS = Integer.getInteger("stress.locations", 1_000);
+    private static final long SEED = Long.getLong("stress.seed", 0L);
+    private static final int GENERATOR_THREADS = Integer.getInteger("stress.threads", Runtime.getRuntime().availableProcessors());
+
+    // Set -Dstress.mode=incremental to follow the bulk load with batches of updates/deletes,
+    // or -Dstress.mode=sharded to split the bulk load across parallel sessions of one KieBase,
+    // or -Dstress.mode=sweep to stream growing, optionally skewed datasets through fresh sessions,
+    // or -Dstress.mode=stream to insert transaction events continuously into a fireUntilHalt session,
+    // or -Dstress.mode=tenants to score many small tenant datasets concurrently from one KieBase,
+    // or -Dstress.mode=isolation to build a KieBase per single rule and per cumulative prefix of the rules
+    private static final String MODE = System.getProperty("stress.mode", "bulk");
+    private static final int NUM_DELTA_BATCHES = Integer.getInteger("stress.deltaBatches", 1_000);
+    private static final int DELTA_BATCH_SIZE = Integer.getInteger("stress.deltaBatchSize", 100);
+    private static final long DELTA_SEED = 0L;
+    // Comma-separated shard counts for sharded mode, e.g. -Dstress.shards=1,2,4,8 (default: powers of two up to the core count)
+    private static final String SHARDS = System.getProperty("stress.shards", "");
+
+    // Set -Dstress.streaming=true to insert straight from the generator instead of a materialized list
+    private static final boolean STREAMING = Boolean.getBoolean("stress.streaming");
+
+    // Set -Dstress.model=compact to use int location ids and enums instead of Strings
+    private static final String MODEL = System.getProperty("stress.model", "string");
+    private static final String DRL_PATH = "rules/StressTestRules.drl";
+    private static final String COMPACT_DRL_PATH = "rules/compact/StressTestRulesCompact.drl";
+    private static final String STREAM_DRL_PATH = "rules/stream/StressTestRulesStream.drl";
+    // A rule declaration up to its closing "end", for compiling subsets of a DRL file
+    private static final Pattern RULE_BLOCK = Pattern.compile("^rule\\s+\"([^\"]+)\".*?^end\\b", Pattern.MULTILINE | Pattern.DOTALL);
+
+    // Set -Dstress.kbase=kmodule to load the kbase declared in META-INF/kmodule.xml from the classpath
+    // (an executable model when built with -Pexecutable-model) instead of compiling the DRL at startup.
+    // -Dstress.mode=startup compares the sources listed in -Dstress.startupSources side by side.
+    private static final String KIE_BASE_SOURCE = System.getProperty("stress.kbase", "drl");
+    private static final String STARTUP_SOURCES = System.getProperty("stress.startupSources", "drl,kmodule,cached");
+    private static final String KIE_BASE_NAME = "stressRules";
+    private static final String COMPACT_KIE_BASE_NAME = "stressRulesCompact";
+    private static final Map<String, KieBase> KIE_BASE_CACHE = new ConcurrentHashMap<>();
+
+    // Set -Dstress.verify=true to check the bulk-load result against the engine-free ReferenceEvaluator
+    private static final boolean VERIFY = Boolean.getBoolean("stress.verify");
+    private static final double VERIFY_TOLERANCE = 1e-9;
+
+    // Set -Dstress.profile=true to attach the RuleProfiler (per-rule matches and consequence time),
+    // and -Dstress.profileCsv=<file> to export the per-rule breakdown
+    private static final boolean PROFILE = Boolean.getBoolean("stress.profile");
+    private static final String PROFILE_CSV = System.getProperty("stress.profileCsv");
+
+    // Set -Dstress.results=<prefix> to write <prefix>.json and <prefix>.csv with the metrics and per-phase
+    // allocation/GC figures; each phase is also emitted as a JFR event (run with -XX:StartFlightRecording)
+    private static final String RESULTS = System.getProperty("stress.results");
+
+    // Set -Dstress.factStore=<file> to replay the dataset from a memory-mapped FactStore (written from the
+    // generator on first use), so runs on different engines or versions load byte-identical facts
+    private static final String FACT_STORE = System.getProperty("stress.factStore");
+
+    // Sweep mode: transaction counts, Zipf exponents for customer/location ids (0 = uniform) and the CSV to write
+    private static final String SWEEP_TRANSACTIONS = System.getProperty("stress.sweepTransactions", SizeSweep.DEFAULT_TRANSACTIONS);
+    private static final String SWEEP_EXPONENTS = System.getProperty("stress.sweepExponents", SizeSweep.DEFAULT_EXPONENTS);
+    private static final String SWEEP_CSV = System.getProperty("stress.sweepCsv", "target/sweep-drools.csv");
+
+    // Stream mode: producer threads, total target events/sec (0 = unthrottled), run length and warm-up excluded from the steady state
+    private static final int STREAM_PRODUCERS = Integer.getInteger("stress.producers", 2);
+    private static final double STREAM_EVENT_RATE = Double.parseDouble(System.getProperty("stress.eventRate", "5000"));
+    private static final int STREAM_SECONDS = Integer.getInteger("stress.streamSeconds", 60);
+    private static final int STREAM_WARMUP_SECONDS = Integer.getInteger("stress.streamWarmupSeconds", 15);
+    // Seconds between the forced full GCs whose heap readings give the leak slope
+    private static final int STREAM_GC_SAMPLE_SECONDS = Integer.getInteger("stress.streamGcSampleSeconds", 5);
+
+    // Tenants mode: tenant count and per-tenant dataset size, tenants in flight at once, executor
+    // (virtual threads on Java 21+, or a fixed pool) and untimed warm-up tenants per session source
+    private static final int TENANTS = Integer.getInteger("stress.tenants", 1_000);
+    private static final int TENANT_CUSTOMERS = Integer.getInteger("stress.tenantCustomers", 500);
+    private static final int TENANT_TRANSACTIONS = Integer.getInteger("stress.tenantTransactions", 10_000);
+    private static final int TENANT_LOCATIONS = Integer.getInteger("stress.tenantLocations", 100);
+    private static final int TENANT_CONCURRENCY = Integer.getInteger("stress.tenantConcurrency", 4 * Runtime.getRuntime().availableProcessors());
+    private static final String TENANT_EXECUTOR = System.getProperty("stress.tenantExecutor", "virtual");
+    private static final int TENANT_WARMUP = Integer.getInteger("stress.tenantWarmup", 100);
 
     public static void main(String[] args) {
         System.out.println("### Starting Rule Engine Stress Test (Java Drools) ###");
+        boolean compact = isCompactModel(MODEL);
+        boolean incremental = "incremental".equals(MODE);
+        if (incremental && compact) {
+            throw new IllegalArgumentException("Incremental mode only supports the string fact model.");
+        }
+        if ("sharded".equals(MODE)) {
+            runSharded(compact);
+            return;
+        }
+        if ("startup".equals(MODE)) {
+            runStartupComparison(compact);
+            return;
+        }
+        if ("sweep".equals(MODE)) {
+            runSweep(compact);
+            return;
+        }
+        if ("stream".equals(MODE)) {
+            if (compact) {
+                throw new IllegalArgumentException("Stream mode only supports the string fact model.");
+            }
+            runStreaming();
+            return;
+        }
+        if ("tenants".equals(MODE)) {
+            runTenants(compact);
+            return;
+        }
+        if ("isolation".equals(MODE)) {
+            runIsolation(compact);
+            return;
+        }
+
+        PhaseRecorder phases = new PhaseRecorder("drools");
 
         // 1. Setup Phase: Build the KieSession
+        phases.begin("setup");
         long startTime = System.nanoTime();
-        KieSession kSession = createKieSession();
+        // Rules only, also in incremental mode: the score queries are maintained in a separate replay (see below)
+        KieSession kSession = loadKieBase(KIE_BASE_SOURCE, compact).newKieSession();
         long setupDuration = System.nanoTime() - startTime;
+        phases.end();
 
-        // 2. Data Generation Phase
-        System.out.println("Generating test data...");
-        startTime = System.nanoTime();
-        List<Object> allFacts = generateData(NUM_CUSTOMERS, NUM_TRANSACTIONS, NUM_LOCATIONS);
-        long dataGenDuration = System.nanoTime() - startTime;
+        // 2. Data Generation Phase (skipped when streaming: facts are generated during insert)
+        Iterator<Object> facts;
+        long totalFacts;
+        long dataGenDuration = 0L;
+        long factStoreDuration = 0L;
+        StressDataGenerator dataGenerator = new StressDataGenerator(SEED, NUM_CUSTOMERS, NUM_TRANSACTIONS, NUM_LOCATIONS);
+        FactStore factStore = null;
+        if (FACT_STORE != null) {
+            phases.begin("fact-store");
+            startTime = System.nanoTime();
+            factStore = openFactStore(dataGenerator);
+            factStoreDuration = System.nanoTime() - startTime;
+            phases.end();
+        }
+        if (STREAMING) {
+            FactGenerator generator = factStore != null
+                    ? new FactGenerator(factStore, compact)
+                    : new FactGenerator(dataGenerator, compact);
+            totalFacts = generator.size();
+            facts = generator;
+        } else {
+            System.out.println("Generating test data...");
+            phases.begin("generate");
+            startTime = System.nanoTime();
+            List<Object> allFacts = generateData(dataGenerator, factStore, compact);
+            dataGenDuration = System.nanoTime() - startTime;
+            phases.end();
+            totalFacts = allFacts.size();
+            facts = allFacts.iterator();
+        }
 
         // 3. Processing Phase
         System.out.println("Inserting facts and processing rules...");
         ScoreHolder scoreHolder = new ScoreHolder();
         kSession.setGlobal("scoreHolder", scoreHolder);
+        RuleProfiler profiler = null;
+        if (PROFILE) {
+            profiler = new RuleProfiler();
+            profiler.attach(kSession);
+        }
+
+        IncrementalPhase incrementalPhase = incremental
+                ? new IncrementalPhase(kSession,
+                        factStore != null ? factStore.getNumCustomers() : NUM_CUSTOMERS,
+                        factStore != null ? factStore.getNumLocations() : NUM_LOCATIONS,
+                        DELTA_SEED)
+                : null;
 
+        phases.begin("insert");
         startTime = System.nanoTime();
-        for (Object fact : allFacts) {
-            kSession.insert(fact);
+        while (facts.hasNext()) {
+            Object fact = facts.next();
+            if (incremental) {
+                incrementalPhase.insert(fact);
+            } else {
+                kSession.insert(fact);
+            }
         }
+        phases.end();
+        phases.begin("fire");
         kSession.fireAllRules();
         long processingDuration = System.nanoTime() - startTime;
+        phases.end();
+        facts = null; // The engine holds its own references; drop ours so only engine memory is measured
+        double bulkScore = scoreHolder.getScore();
+        long bulkRulesFired = scoreHolder.getRulesFired();
 
-        // Clean up the session
-        kSession.dispose();
+        // 3b. Incremental Phase: small batches of changes, fired after each batch
+        double rescore = Double.NaN;
+        if (incremental) {
+            System.out.println("Applying incremental update batches...");
+            phases.begin("incremental");
+            incrementalPhase.run(NUM_DELTA_BATCHES, DELTA_BATCH_SIZE, scoreHolder);
+            phases.end();
+            if (VERIFY) {
+                rescore = rescore(kSession);
+            }
+        }
 
-        // 4. Get Memory Snapshot
+        // 4. Get Memory Snapshot while the session (and its node memories) is still alive
         Runtime runtime = Runtime.getRuntime();
         runtime.gc(); // Suggest garbage collection to get a more stable memory reading
         long memoryUsed = runtime.totalMemory() - runtime.freeMemory();
 
+        // Clean up the session
+        phases.begin("dispose");
+        kSession.dispose();
+        phases.end();
+
+        // 3c. Score Check: the rules' ScoreHolder cannot subtract retracted matches, so the score after the
+        // deltas comes from the live queries of a second session replaying the same facts and deltas. It is
+        // kept out of the timed session, whose batch figures then hold the rules only.
+        LiveScore liveScore = null;
+        if (incremental) {
+            System.out.println("Replaying the updates with the score queries...");
+            phases.begin("live-score");
+            liveScore = replayWithLiveScore(dataGenerator, factStore);
+            phases.end();
+        }
+
         // 5. Reporting
         System.out.println("\n--- Stress Test Results ---");
         System.out.println("\n#### Performance Summary");
         System.out.printf("| %-30s | %-20s |\n", "Metric", "Value");
         System.out.printf("|-%-30s-|-%-20s-|\n", "-".repeat(30), "-".repeat(20));
-        System.out.printf("| %-30s | %,d facts\n", "Total Facts Processed", allFacts.size());
+        System.out.printf("| %-30s | %s\n", "Fact Model", compact ? "compact" : "string");
+        System.out.printf("| %-30s | %s\n", "KieBase Source", KIE_BASE_SOURCE);
+        System.out.printf("| %-30s | %,d facts\n", "Total Facts Processed", totalFacts);
         System.out.printf("| %-30s | %.4f s\n", "Setup Time (Build Session)", TimeUnit.NANOSECONDS.toMillis(setupDuration) / 1000.0);
+        if (factStore != null) {
+            System.out.printf("| %-30s | %s\n", "Fact Store", factStore.getPath());
+            System.out.printf("| %-30s | %.4f s\n", "Fact Store Open/Write Time", TimeUnit.NANOSECONDS.toMillis(factStoreDuration) / 1000.0);
+        }
         System.out.printf("| %-30s | %.4f s\n", "Data Generation Time", TimeUnit.NANOSECONDS.toMillis(dataGenDuration) / 1000.0);
         System.out.printf("| %-30s | %.4f s\n", "Processing Time (Insert+Fire)", TimeUnit.NANOSECONDS.toMillis(processingDuration) / 1000.0);
 
-        double throughput = allFacts.size() / (processingDuration / 1_000_000_000.0);
+        double throughput = totalFacts / (processingDuration / 1_000_000_000.0);
         System.out.printf("| %-30s | %,.2f facts/sec\n", "Throughput", throughput);
 
         System.out.println("\n#### Memory Usage Summary");
         System.out.printf("| %-30s | %-20s |\n", "Metric", "Value");
         System.out.printf("|-%-30s-|-%-20s-|\n", "-".repeat(30), "-".repeat(20));
         System.out.printf("| %-30s | %.2f MB\n", "Final Memory Usage", memoryUsed / (1024.0 * 1024.0));
+        phases.printReport();
 
         System.out.println("\n#### Engine Output");
-        System.out.printf("- Final Score: %,.2f\n", scoreHolder.getScore());
-        System.out.printf("- Total Rule Activations: %,d\n", scoreHolder.getRulesFired());
+        if (incremental) {
+            // The ScoreHolder never subtracts, so after the deltas only the live queries give the score
+            System.out.printf("- Bulk Score: %,.2f\n", bulkScore);
+            System.out.printf("- Final Score (live queries, replayed): %,.2f\n", liveScore.getScore());
+            System.out.printf("- Final Matches (live queries, replayed): %,d\n", liveScore.getMatches());
+            System.out.printf("- Total Rule Activations (fired, incl. retracted): %,d\n", scoreHolder.getRulesFired());
+        } else {
+            System.out.printf("- Final Score: %,.2f\n", scoreHolder.getScore());
+            System.out.printf("- Total Rule Activations: %,d\n", scoreHolder.getRulesFired());
+        }
+        if (VERIFY) {
+            printReferenceCheck(dataGenerator, factStore, bulkScore, bulkRulesFired);
+            if (incremental) {
+                boolean agrees = Math.abs(rescore - liveScore.getScore()) <= VERIFY_TOLERANCE * Math.max(1.0, Math.abs(rescore));
+                System.out.printf("- Final Score Check: %s (fresh session over the final facts %,.2f)\n",
+                        agrees ? "OK" : "MISMATCH", rescore);
+            }
+        }
+
+        RuleBreakdown breakdown = incremental
+                ? liveScore.toBreakdown()
+                : profiler != null ? profiler.toBreakdown(scoreHolder) : toBreakdown(scoreHolder);
+        if (incremental && profiler != null) {
+            profiler.addTimes(breakdown);
+        }
+        breakdown.printReport("Consequence Time");
+        if (profiler != null) {
+            profiler.printReport();
+        }
+        if (PROFILE_CSV != null) {
+            writeBreakdownCsv(breakdown, Paths.get(PROFILE_CSV));
+        }
+
+        if (incremental) {
+            incrementalPhase.printReport();
+        }
+
+        if (RESULTS != null) {
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            metrics.put("mode", MODE);
+            metrics.put("factModel", compact ? "compact" : "string");
+            metrics.put("kieBaseSource", KIE_BASE_SOURCE);
+            metrics.put("streaming", STREAMING);
+            metrics.put("seed", factStore != null ? factStore.getSeed() : SEED);
+            metrics.put("factStore", factStore != null ? factStore.getPath().toString() : null);
+            metrics.put("factStoreMs", factStoreDuration / 1_000_000.0);
+            metrics.put("totalFacts", totalFacts);
+            metrics.put("setupMs", setupDuration / 1_000_000.0);
+            metrics.put("dataGenerationMs", dataGenDuration / 1_000_000.0);
+            metrics.put("processingMs", processingDuration / 1_000_000.0);
+            metrics.put("throughputFactsPerSec", throughput);
+            metrics.put("finalMemoryBytes", memoryUsed);
+            metrics.put("bulkScore", bulkScore);
+            metrics.put("bulkRuleActivations", bulkRulesFired);
+            metrics.put("finalScore", incremental ? liveScore.getScore() : scoreHolder.getScore());
+            metrics.put("finalMatches", incremental ? liveScore.getMatches() : scoreHolder.getRulesFired());
+            metrics.put("totalRuleActivations", scoreHolder.getRulesFired());
+            writeResults(phases, Paths.get(RESULTS), metrics);
+        }
+    }
+
+    /**
+     * Bulk-loads the same dataset into 1..N sessions sharing one KieBase, one thread per session,
+     * and reports the scaling curve with the merged per-shard scores.
+     */
+    private static void runSharded(boolean compact) {
+        long startTime = System.nanoTime();
+        KieBase kBase = loadKieBase(KIE_BASE_SOURCE, compact);
+        long setupDuration = System.nanoTime() - startTime;
+
+        System.out.println("Generating test data...");
+        StressDataGenerator dataGenerator = new StressDataGenerator(SEED, NUM_CUSTOMERS, NUM_TRANSACTIONS, NUM_LOCATIONS);
+        FactStore factStore = FACT_STORE != null ? openFactStore(dataGenerator) : null;
+        ForkJoinPool pool = new ForkJoinPool(GENERATOR_THREADS);
+        StressDataset dataset;
+        try {
+            dataset = loadDataset(dataGenerator, factStore, pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        ShardedRun shardedRun = new ShardedRun(kBase, dataset, compact);
+        List<ShardedRun.Result> results = new ArrayList<>();
+        for (int shardCount : ShardedRun.parseShardCounts(SHARDS, Runtime.getRuntime().availableProcessors())) {
+            System.out.println("Inserting facts and processing rules in " + shardCount + " shard(s)...");
+            try {
+                results.add(shardedRun.run(shardCount));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted during sharded run", e);
+            } catch (ExecutionException e) {
+                throw new RuntimeException("Shard failed", e.getCause());
+            }
+        }
+
+        System.out.println("\n--- Stress Test Results ---");
+        System.out.println("\n#### Performance Summary");
+        System.out.printf("| %-30s | %-20s |\n", "Metric", "Value");
+        System.out.printf("|-%-30s-|-%-20s-|\n", "-".repeat(30), "-".repeat(20));
+        System.out.printf("| %-30s | %s\n", "Fact Model", compact ? "compact" : "string");
+        System.out.printf("| %-30s | %s\n", "KieBase Source", KIE_BASE_SOURCE);
+        System.out.printf("| %-30s | %,d facts\n", "Total Facts Processed", dataset.getFactCount());
+        System.out.printf("| %-30s | %.4f s\n", "Setup Time (Build KieBase)", TimeUnit.NANOSECONDS.toMillis(setupDuration) / 1000.0);
+        ShardedRun.printReport(results, dataset.getFactCount());
+
+        if (VERIFY) {
+            ReferenceEvaluator.Result reference = ReferenceEvaluator.evaluate(dataset);
+            System.out.println("\n#### Engine Output");
+            System.out.printf("- Expected Score: %,.2f (%,d activations)\n", reference.getScore(), reference.getTotalMatches());
+            for (ShardedRun.Result result : results) {
+                boolean agrees = reference.scoreAgrees(result.scoreHolder.getScore(), VERIFY_TOLERANCE)
+                        && reference.getTotalMatches() == result.scoreHolder.getRulesFired();
+                System.out.printf("- Reference Check (%d shards): %s\n", result.shardCount, agrees ? "OK" : "MISMATCH");
+            }
+        }
+    }
+
+    /**
+     * Streams each sweep point into a fresh session of one KieBase; processing time includes generating
+     * the facts on the fly, since the largest points do not fit in memory as a list.
+     */
+    private static void runSweep(boolean compact) {
+        KieBase kBase = loadKieBase(KIE_BASE_SOURCE, compact);
+        SizeSweep sweep = new SizeSweep("drools", "live session", SEED, NUM_CUSTOMERS, NUM_LOCATIONS, SWEEP_TRANSACTIONS, SWEEP_EXPONENTS);
+        Path csv = Paths.get(SWEEP_CSV);
+        List<SizeSweep.Point> points;
+        try {
+            points = sweep.run(generator -> {
+                KieSession kSession = kBase.newKieSession();
+                try {
+                    ScoreHolder scoreHolder = new ScoreHolder();
+                    kSession.setGlobal("scoreHolder", scoreHolder);
+                    FactGenerator facts = new FactGenerator(generator, compact);
+                    long startTime = System.nanoTime();
+                    while (facts.hasNext()) {
+                        kSession.insert(facts.next());
+                    }
+                    kSession.fireAllRules();
+                    long processingDuration = System.nanoTime() - startTime;
+                    return new SizeSweep.Outcome(processingDuration, scoreHolder.getScore(),
+                            scoreHolder.getRulesFired(), SizeSweep.usedHeapAfterGc());
+                } finally {
+                    kSession.dispose();
+                }
+            }, csv);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + csv, e);
+        }
+
+        System.out.println("\n--- Stress Test Results ---");
+        System.out.printf("- Fact Model: %s, KieBase Source: %s\n", compact ? "compact" : "string", KIE_BASE_SOURCE);
+        sweep.printReport(points);
+        System.out.println("- Sweep written to " + csv);
+    }
+
+    /**
+     * Streams transaction events from producer threads into one fireUntilHalt session for a fixed time.
+     */
+    private static void runStreaming() {
+        long startTime = System.nanoTime();
+        KieBase kBase = createStreamKieBase(STREAM_DRL_PATH);
+        long setupDuration = System.nanoTime() - startTime;
+
+        StressDataGenerator dataGenerator = new StressDataGenerator(SEED, NUM_CUSTOMERS, NUM_TRANSACTIONS, NUM_LOCATIONS);
+        StreamingRun streamingRun = new StreamingRun(kBase, dataGenerator, STREAM_PRODUCERS, STREAM_EVENT_RATE,
+                STREAM_SECONDS, STREAM_WARMUP_SECONDS, STREAM_GC_SAMPLE_SECONDS);
+        System.out.printf("Streaming transaction events for %d s...\n", STREAM_SECONDS);
+        try {
+            streamingRun.run();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted during streaming run", e);
+        }
+
+        System.out.println("\n--- Stress Test Results ---");
+        System.out.printf("- Setup Time (Build KieBase): %.4f s\n", TimeUnit.NANOSECONDS.toMillis(setupDuration) / 1000.0);
+        streamingRun.printReport();
+    }
+
+    /**
+     * Scores {@link #TENANTS} tenant datasets concurrently, first from a KieSessionsPool and then with a new
+     * session per tenant, after an untimed warm-up of each.
+     */
+    private static void runTenants(boolean compact) {
+        long startTime = System.nanoTime();
+        KieContainer kContainer = createKieContainer(compact ? COMPACT_DRL_PATH : DRL_PATH);
+        long setupDuration = System.nanoTime() - startTime;
+
+        ExecutorService executor = TenantPoolRun.newExecutor(TENANT_EXECUTOR, TENANT_CONCURRENCY);
+        boolean virtual = !(executor instanceof ThreadPoolExecutor);
+        List<TenantPoolRun.Result> results = new ArrayList<>();
+        try (TenantPoolRun tenantRun = new TenantPoolRun(kContainer, compact, SEED, TENANT_CUSTOMERS, TENANT_TRANSACTIONS,
+                TENANT_LOCATIONS, TENANT_CONCURRENCY, VERIFY)) {
+            for (String sessions : new String[]{TenantPoolRun.POOLED, TenantPoolRun.NEW_SESSION}) {
+                // Warm-up tenants come after the measured ones, so both session sources score the same datasets
+                tenantRun.run(sessions, executor, TENANTS, TENANT_WARMUP);
+                System.out.printf("Scoring %,d tenants (%s sessions)...\n", TENANTS, sessions);
+                results.add(tenantRun.run(sessions, executor, 0, TENANTS));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted during tenants run", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("A tenant failed", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+
+        System.out.println("\n--- Stress Test Results ---");
+        System.out.printf("- Fact Model: %s\n", compact ? "compact" : "string");
+        System.out.printf("- Setup Time (Build KieBase): %.4f s\n", TimeUnit.NANOSECONDS.toMillis(setupDuration) / 1000.0);
+        System.out.printf("- Tenant Dataset: %,d customers, %,d transactions, %,d locations\n",
+                TENANT_CUSTOMERS, TENANT_TRANSACTIONS, TENANT_LOCATIONS);
+        TenantPoolRun.printReport(results, virtual ? "virtual threads" : "fixed pool of " + TENANT_CONCURRENCY + " threads",
+                TENANT_CONCURRENCY);
+    }
+
+    /**
+     * Bulk-loads the same facts into a session of a KieBase compiled from each single rule and each cumulative
+     * prefix of the rules, to see which rules the setup time, fire time and node memories come from.
+     */
+    private static void runIsolation(boolean compact) {
+        String drlPath = compact ? COMPACT_DRL_PATH : DRL_PATH;
+        System.out.println("Generating test data...");
+        StressDataGenerator dataGenerator = new StressDataGenerator(SEED, NUM_CUSTOMERS, NUM_TRANSACTIONS, NUM_LOCATIONS);
+        FactStore factStore = FACT_STORE != null ? openFactStore(dataGenerator) : null;
+        List<Object> facts = generateData(dataGenerator, factStore, compact);
+
+        RuleIsolation isolation = new RuleIsolation("drools", true);
+        List<RuleIsolation.Measurement> measurements = isolation.run(rules -> {
+            long startTime = System.nanoTime();
+            KieSession kSession = createRuleSubsetKieBase(drlPath, rules).newKieSession();
+            long setupDuration = System.nanoTime() - startTime;
+            ScoreHolder scoreHolder = new ScoreHolder();
+            kSession.setGlobal("scoreHolder", scoreHolder);
+            try {
+                startTime = System.nanoTime();
+                for (Object fact : facts) {
+                    kSession.insert(fact);
+                }
+                kSession.fireAllRules();
+                long fireDuration = System.nanoTime() - startTime;
+                return new RuleIsolation.Outcome(setupDuration, fireDuration, scoreHolder.getScore(),
+                        scoreHolder.getRulesFired(), SizeSweep.usedHeapAfterGc());
+            } finally {
+                kSession.dispose();
+            }
+        });
+
+        System.out.println("\n--- Stress Test Results ---");
+        System.out.printf("- Fact Model: %s, Total Facts: %,d\n", compact ? "compact" : "string", facts.size());
+        System.out.println("- Setup is compiling the rule subset and creating the session; fire is insert plus fireAllRules");
+        RuleIsolation.printReport("drools", measurements);
+    }
+
+    /**
+     * Times KieBase setup, session creation and the first fires of a small probe for each KieBase source.
+     */
+    private static void runStartupComparison(boolean compact) {
+        ForkJoinPool pool = new ForkJoinPool(GENERATOR_THREADS);
+        List<Object> probeFacts;
+        try {
+            StressDataset probe = new StressDataGenerator(SEED, 1_000, 10_000, 100).generate(pool);
+            probeFacts = FactGenerator.materialize(probe, compact, pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        StartupComparison comparison = new StartupComparison(probeFacts);
+        for (String source : STARTUP_SOURCES.split(",")) {
+            String name = source.trim();
+            String label = name;
+            if ("cached".equals(name)) {
+                // Only a map lookup in this JVM: the KieBase was built by an earlier worker, not loaded from disk
+                loadKieBase(name, compact);
+                label = "cached (in-process hit)";
+            }
+            System.out.println("Measuring startup from " + label + "...");
+            comparison.measure(label, () -> loadKieBase(name, compact));
+        }
+
+        System.out.println("\n--- Stress Test Results ---");
+        System.out.printf("\n- Fact Model: %s\n", compact ? "compact" : "string");
+        System.out.printf("- Executable Model Runtime: %s\n", isExecutableModelAvailable() ? "on classpath" : "absent (build with -Pexecutable-model)");
+        comparison.printReport();
+    }
+
+    /**
+     * Per-rule matches and penalties as attributed by the rules themselves, without listener timings.
+     */
+    public static RuleBreakdown toBreakdown(ScoreHolder scoreHolder) {
+        RuleBreakdown breakdown = new RuleBreakdown();
+        for (StressRule rule : StressRule.values()) {
+            breakdown.add(rule, scoreHolder.getPenaltyCount(rule), scoreHolder.getPenalty(rule));
+        }
+        return breakdown;
+    }
+
+    private static void writeResults(PhaseRecorder phases, Path prefix, Map<String, Object> metrics) {
+        try {
+            phases.writeResults(prefix, metrics);
+            System.out.println("- Results written to " + prefix + ".json and " + prefix + ".csv");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write results to " + prefix, e);
+        }
+    }
+
+    private static void writeBreakdownCsv(RuleBreakdown breakdown, Path path) {
+        try {
+            breakdown.writeCsv(path, "drools");
+            System.out.println("- Per-rule breakdown written to " + path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + path, e);
+        }
+    }
+
+    /**
+     * Loads the same facts into a session with the score queries, applies the same delta batches (same seed)
+     * and returns the live score of the result. Only the incremental mode's string model gets here.
+     */
+    private static LiveScore replayWithLiveScore(StressDataGenerator dataGenerator, FactStore factStore) {
+        KieSession kSession = createKieContainer(DRL_PATH, LiveScore.QUERIES_DRL_PATH).getKieBase().newKieSession();
+        try {
+            ScoreHolder scoreHolder = new ScoreHolder();
+            kSession.setGlobal("scoreHolder", scoreHolder);
+            IncrementalPhase replay = new IncrementalPhase(kSession,
+                    factStore != null ? factStore.getNumCustomers() : NUM_CUSTOMERS,
+                    factStore != null ? factStore.getNumLocations() : NUM_LOCATIONS,
+                    DELTA_SEED);
+            Iterator<Object> facts = STREAMING
+                    ? factStore != null ? new FactGenerator(factStore, false) : new FactGenerator(dataGenerator, false)
+                    : generateData(dataGenerator, factStore, false).iterator();
+            while (facts.hasNext()) {
+                replay.insert(facts.next());
+            }
+            kSession.fireAllRules();
+            LiveScore liveScore = new LiveScore(kSession);
+            replay.run(NUM_DELTA_BATCHES, DELTA_BATCH_SIZE, scoreHolder);
+            liveScore.close();
+            return liveScore;
+        } finally {
+            kSession.dispose();
+        }
+    }
+
+    /**
+     * Scores the facts left in the session from scratch in a fresh session, to check the live-query score
+     * after the incremental deltas.
+     */
+    private static double rescore(KieSession kSession) {
+        KieSession fresh = createKieSession(DRL_PATH);
+        try {
+            ScoreHolder scoreHolder = new ScoreHolder();
+            fresh.setGlobal("scoreHolder", scoreHolder);
+            for (Object fact : kSession.getObjects()) {
+                fresh.insert(fact);
+            }
+            fresh.fireAllRules();
+            return scoreHolder.getScore();
+        } finally {
+            fresh.dispose();
+        }
+    }
+
+    /**
+     * Recomputes the bulk-load result without an engine and reports whether Drools agrees.
+     */
+    private static void printReferenceCheck(StressDataGenerator dataGenerator, FactStore factStore,
+                                            double score, long rulesFired) {
+        ForkJoinPool pool = new ForkJoinPool(GENERATOR_THREADS);
+        ReferenceEvaluator.Result reference;
+        try {
+            reference = ReferenceEvaluator.evaluate(loadDataset(dataGenerator, factStore, pool), pool);
+        } finally {
+            pool.shutdown();
+        }
+        boolean agrees = reference.scoreAgrees(score, VERIFY_TOLERANCE) && reference.getTotalMatches() == rulesFired;
+        System.out.printf("- Reference Check: %s (expected score %,.2f, %,d activations)\n",
+                agrees ? "OK" : "MISMATCH", reference.getScore(), reference.getTotalMatches());
     }
 
     /**
      * Creates and configures a KieSession from our DRL file.
      */
-    private static KieSession createKieSession() {
+    public static KieSession createKieSession() {
+        return createKieSession(DRL_PATH);
+    }
+
+    /**
+     * Creates and configures a KieSession from the given classpath DRL file.
+     */
+    public static KieSession createKieSession(String drlPath) {
+        return createKieBase(drlPath).newKieSession();
+    }
+
+    /**
+     * Gets the stress-test KieBase from the given source: {@code drl}, {@code kmodule} or {@code cached}.
+     */
+    public static KieBase loadKieBase(String source, boolean compact) {
+        switch (source) {
+            case "drl":
+                return createKieBase(compact ? COMPACT_DRL_PATH : DRL_PATH);
+            case "kmodule":
+                return createClasspathKieBase(compact ? COMPACT_KIE_BASE_NAME : KIE_BASE_NAME);
+            case "cached":
+                return getCachedKieBase(compact ? COMPACT_DRL_PATH : DRL_PATH);
+            default:
+                throw new IllegalArgumentException("Unknown KieBase source: " + source + " (expected drl, kmodule or cached)");
+        }
+    }
+
+    /**
+     * Loads a named KieBase from the kmodule.xml on the classpath. With the executable-model profile the
+     * rules were compiled at build time; otherwise the DRL in the kbase packages is compiled here.
+     */
+    public static KieBase createClasspathKieBase(String kieBaseName) {
+        return KieServices.get().getKieClasspathContainer().getKieBase(kieBaseName);
+    }
+
+    /**
+     * Returns the KieBase for the DRL file, compiling it only on the first call in this JVM.
+     */
+    public static KieBase getCachedKieBase(String drlPath) {
+        return KIE_BASE_CACHE.computeIfAbsent(drlPath, DroolsStressTest::createKieBase);
+    }
+
+    private static boolean isExecutableModelAvailable() {
+        try {
+            Class.forName("org.drools.modelcompiler.CanonicalKieModule");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Compiles the given classpath DRL file into a KieBase that can serve many sessions.
+     */
+    public static KieBase createKieBase(String drlPath) {
+        return createKieBase(drlPath, null);
+    }
+
+    /**
+     * Compiles the given classpath DRL file into a KieBase in STREAM event processing mode,
+     * so events expire and sliding windows apply; its sessions use the realtime clock.
+     */
+    public static KieBase createStreamKieBase(String drlPath) {
+        KieBaseConfiguration configuration = KieServices.get().newKieBaseConfiguration();
+        configuration.setOption(EventProcessingOption.STREAM);
+        return createKieBase(drlPath, configuration);
+    }
+
+    /**
+     * @param configuration KieBase options, or null for the defaults
+     */
+    private static KieBase createKieBase(String drlPath, KieBaseConfiguration configuration) {
+        KieContainer kContainer = createKieContainer(drlPath);
+        return configuration != null ? kContainer.newKieBase(configuration) : kContainer.getKieBase();
+    }
+
+    /**
+     * Compiles the given classpath DRL files into a KieContainer whose default KieBase holds the rules,
+     * e.g. to draw sessions from {@link KieContainer#newKieSessionsPool(int)}.
+     */
+    public static KieContainer createKieContainer(String... drlPaths) {
         KieServices ks = KieServices.get();
         KieFileSystem kfs = ks.newKieFileSystem();
 
-        // Add the DRL file to the virtual file system
-        Resource drlResource = ks.getResources().newClassPathResource("rules/StressTestRules.drl");
-        kfs.write(drlResource);
+        // Add the DRL files to the virtual file system
+        for (String drlPath : drlPaths) {
+            Resource drlResource = ks.getResources().newClassPathResource(drlPath);
+            kfs.write(drlResource);
+        }
+        return buildKieContainer(ks, kfs);
+    }
 
+    /**
+     * Compiles only the given rules of a classpath DRL file (its package, imports and globals are kept),
+     * so the network holds just their nodes. An empty set gives a KieBase with no rules at all.
+     */
+    public static KieBase createRuleSubsetKieBase(String drlPath, Set<StressRule> rules) {
+        String drl;
+        try (InputStream in = DroolsStressTest.class.getClassLoader().getResourceAsStream(drlPath)) {
+            if (in == null) {
+                throw new IllegalArgumentException("DRL not found on the classpath: " + drlPath);
+            }
+            drl = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + drlPath, e);
+        }
+        Matcher matcher = RULE_BLOCK.matcher(drl);
+        StringBuilder subset = new StringBuilder();
+        boolean header = true;
+        while (matcher.find()) {
+            if (header) {
+                subset.append(drl, 0, matcher.start()).append('\n');
+                header = false;
+            }
+            if (rules.contains(StressRule.forRuleName(matcher.group(1)))) {
+                subset.append(matcher.group()).append('\n');
+            }
+        }
+
+        KieServices ks = KieServices.get();
+        KieFileSystem kfs = ks.newKieFileSystem();
+        kfs.write("src/main/resources/" + drlPath, subset.toString());
+        return buildKieContainer(ks, kfs).getKieBase();
+    }
+
+    private static KieContainer buildKieContainer(KieServices ks, KieFileSystem kfs) {
         // Build the KieModule
         KieBuilder kb = ks.newKieBuilder(kfs);
         kb.buildAll();
@@ -105,66 +816,52 @@ public class DroolsStressTest {
         }
 
         KieModule kModule = kb.getKieModule();
-        KieContainer kContainer = ks.newKieContainer(kModule.getReleaseId());
-
-        return kContainer.newKieSession();
+        return ks.newKieContainer(kModule.getReleaseId());
     }
 
     /**
-     * Generates a large, randomized dataset for testing.
+     * Generates a large, randomized dataset for testing, in parallel but reproducible from the seed.
      */
-    private static List<Object> generateData(int numCustomers, int numTransactions, int numLocations) {
-        List<Object> facts = new ArrayList<>(numCustomers + numTransactions + numLocations);
-        String[] riskLevels = {"low", "medium", "high"};
-        String[] statuses = {"active", "inactive"};
-        double[] statusWeights = {0.95, 0.05};
-
-        List<String> locations = new ArrayList<>(numLocations);
-        for (int i = 0; i < numLocations; i++) {
-            locations.add("location_" + i);
-        }
-
-        for (int i = 0; i < numCustomers; i++) {
-            facts.add(new Customer(
-                    i,
-                    riskLevels[random.nextInt(riskLevels.length)],
-                    weightedRandomChoice(statuses, statusWeights)
-            ));
+    private static List<Object> generateData(StressDataGenerator dataGenerator, FactStore factStore, boolean compact) {
+        ForkJoinPool pool = new ForkJoinPool(GENERATOR_THREADS);
+        try {
+            StressDataset dataset = loadDataset(dataGenerator, factStore, pool);
+            return FactGenerator.materialize(dataset, compact, pool);
+        } finally {
+            pool.shutdown();
         }
+    }
 
-        for (int i = 0; i < numTransactions; i++) {
-            facts.add(new Transaction(
-                    i,
-                    random.nextInt(numCustomers),
-                    random.nextDouble() * 50000.0,
-                    locations.get(random.nextInt(numLocations))
-            ));
-        }
+    /**
+     * Reads the dataset from the fact store if one is configured, otherwise generates it.
+     */
+    private static StressDataset loadDataset(StressDataGenerator dataGenerator, FactStore factStore, ForkJoinPool pool) {
+        return factStore != null ? factStore.readDataset() : dataGenerator.generate(pool);
+    }
 
-        // Create alerts for a subset of locations
-        Collections.shuffle(locations);
-        int alertCount = Math.max(1, numLocations / 4);
-        for (int i = 0; i < alertCount; i++) {
-            facts.add(new SecurityAlert(
-                    locations.get(i),
-                    random.nextInt(5) + 1
-            ));
+    /**
+     * Maps the fact store named by {@code stress.factStore}, writing it from the generator if it does not exist yet;
+     * an existing store must have been written with the same dataset settings.
+     */
+    private static FactStore openFactStore(StressDataGenerator dataGenerator) {
+        Path path = Paths.get(FACT_STORE);
+        try {
+            FactStore factStore = FactStore.openOrWrite(path, dataGenerator);
+            System.out.printf("Using fact store %s (%,d facts, seed %d)\n", path, factStore.getFactCount(), factStore.getSeed());
+            return factStore;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open fact store " + path, e);
         }
-        return facts;
     }
 
-    private static String weightedRandomChoice(String[] items, double[] weights) {
-        double totalWeight = 0.0;
-        for (double w : weights) {
-            totalWeight += w;
-        }
-        double r = random.nextDouble() * totalWeight;
-        for (int i = 0; i < items.length; i++) {
-            r -= weights[i];
-            if (r <= 0.0) {
-                return items[i];
-            }
+    private static boolean isCompactModel(String model) {
+        switch (model) {
+            case "string":
+                return false;
+            case "compact":
+                return true;
+            default:
+                throw new IllegalArgumentException("Unknown fact model: " + model + " (expected string or compact)");
         }
-        return items[items.length - 1]; // Fallback
     }
 }
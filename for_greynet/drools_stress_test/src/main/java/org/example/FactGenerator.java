@@ -0,0 +1,156 @@
+package org.example;
+
+import org.example.common.FactStore;
+import org.example.common.StressDataGenerator;
+import org.example.common.StressDataset;
+import org.example.common.TransactionChunkCursor;
+import org.example.model.CompactCustomer;
+import org.example.model.CompactSecurityAlert;
+import org.example.model.CompactTransaction;
+import org.example.model.Customer;
+import org.example.model.CustomerStatus;
+import org.example.model.RiskLevel;
+import org.example.model.SecurityAlert;
+import org.example.model.Transaction;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Produces the stress-test facts one at a time: customers, then transactions, then alerts.
+ * Transactions are pulled from the shared {@link StressDataGenerator} one chunk at a time,
+ * so inserting straight from this iterator loads the same dataset without holding it in memory.
+ * A {@link FactStore} can stand in for the generator to replay a dataset from disk.
+ * The compact variant emits the {@code Compact*} fact model for the same values.
+ */
+public class FactGenerator implements Iterator<Object> {
+
+    private final FactFactory factory;
+    private final StressDataset customersAndAlerts;
+    private final TransactionChunkCursor transactions;
+    private final long size;
+
+    private int customersEmitted = 0;
+    private int chunkPosition = 0;
+    private int alertsEmitted = 0;
+
+    public FactGenerator(StressDataGenerator generator, boolean compact) {
+        this(generator.generateWithoutTransactions(), generator.newTransactionCursor(),
+                generator.getNumLocations(), generator.getFactCount(), compact);
+    }
+
+    public FactGenerator(FactStore store, boolean compact) {
+        this(store.readWithoutTransactions(), store.newTransactionCursor(),
+                store.getNumLocations(), store.getFactCount(), compact);
+    }
+
+    private FactGenerator(StressDataset customersAndAlerts, TransactionChunkCursor transactions,
+                          int numLocations, long size, boolean compact) {
+        this.factory = new FactFactory(compact, numLocations);
+        this.customersAndAlerts = customersAndAlerts;
+        this.transactions = transactions;
+        this.size = size;
+    }
+
+    /**
+     * Total number of facts this generator will produce.
+     */
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return alertsEmitted < customersAndAlerts.getNumAlerts();
+    }
+
+    @Override
+    public Object next() {
+        if (customersEmitted < customersAndAlerts.getNumCustomers()) {
+            int id = customersEmitted++;
+            return factory.customer(id, customersAndAlerts.customerRiskLevels[id], customersAndAlerts.customerStatuses[id]);
+        }
+        if (chunkPosition == transactions.getSize() && transactions.advance()) {
+            chunkPosition = 0;
+        }
+        if (chunkPosition < transactions.getSize()) {
+            int i = chunkPosition++;
+            return factory.transaction(transactions.getFirstIndex() + i, transactions.customerIds[i],
+                    transactions.amounts[i], transactions.locationIds[i]);
+        }
+        if (alertsEmitted < customersAndAlerts.getNumAlerts()) {
+            int i = alertsEmitted++;
+            return factory.alert(customersAndAlerts.alertLocationIds[i], customersAndAlerts.alertSeverities[i]);
+        }
+        throw new NoSuchElementException();
+    }
+
+    /**
+     * Builds the fact objects for a fully generated dataset, creating transaction facts in parallel.
+     */
+    public static List<Object> materialize(StressDataset dataset, boolean compact, ForkJoinPool pool) {
+        FactFactory factory = new FactFactory(compact, dataset.numLocations);
+        int numCustomers = dataset.getNumCustomers();
+        int numTransactions = dataset.getNumTransactions();
+        Object[] facts = new Object[Math.toIntExact(dataset.getFactCount())];
+        for (int i = 0; i < numCustomers; i++) {
+            facts[i] = factory.customer(i, dataset.customerRiskLevels[i], dataset.customerStatuses[i]);
+        }
+        int chunkCount = (numTransactions + StressDataGenerator.CHUNK_SIZE - 1) / StressDataGenerator.CHUNK_SIZE;
+        pool.invoke(new StressDataGenerator.ChunkRangeAction(0, chunkCount, chunk -> {
+            int from = chunk * StressDataGenerator.CHUNK_SIZE;
+            int to = Math.min(numTransactions, from + StressDataGenerator.CHUNK_SIZE);
+            for (int i = from; i < to; i++) {
+                facts[numCustomers + i] = factory.transaction(i, dataset.transactionCustomerIds[i],
+                        dataset.transactionAmounts[i], dataset.transactionLocationIds[i]);
+            }
+        }));
+        for (int i = 0; i < dataset.getNumAlerts(); i++) {
+            facts[numCustomers + numTransactions + i] =
+                    factory.alert(dataset.alertLocationIds[i], dataset.alertSeverities[i]);
+        }
+        return Arrays.asList(facts);
+    }
+
+    /**
+     * Maps generated column values onto either the String-keyed or the compact fact classes.
+     */
+    static class FactFactory {
+        private static final String[] RISK_LEVELS = {"low", "medium", "high"};
+        private static final String[] STATUSES = {"active", "inactive"};
+        private static final RiskLevel[] COMPACT_RISK_LEVELS = RiskLevel.values();
+        private static final CustomerStatus[] COMPACT_STATUSES = CustomerStatus.values();
+
+        private final boolean compact;
+        final String[] locationNames;
+
+        FactFactory(boolean compact, int numLocations) {
+            this.compact = compact;
+            this.locationNames = new String[numLocations];
+            for (int i = 0; i < numLocations; i++) {
+                locationNames[i] = "location_" + i;
+            }
+        }
+
+        Object customer(int id, byte riskLevel, byte status) {
+            return compact
+                    ? new CompactCustomer(id, COMPACT_RISK_LEVELS[riskLevel], COMPACT_STATUSES[status])
+                    : new Customer(id, RISK_LEVELS[riskLevel], STATUSES[status]);
+        }
+
+        Object transaction(int id, int customerId, double amount, int locationId) {
+            return compact
+                    ? new CompactTransaction(id, customerId, amount, locationId)
+                    : new Transaction(id, customerId, amount, locationNames[locationId]);
+        }
+
+        Object alert(int locationId, int severity) {
+            return compact
+                    ? new CompactSecurityAlert(locationId, severity)
+                    : new SecurityAlert(locationNames[locationId], severity);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package org.example;
+
+import org.example.common.LatencyRecorder;
+import org.example.model.Customer;
+import org.example.model.ScoreHolder;
+import org.example.model.SecurityAlert;
+import org.example.model.Transaction;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.FactHandle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Applies small batches of fact changes to an already loaded session and fires after each batch,
+ * which is the access pattern of solver move evaluation rather than a one-off bulk load.
+ */
+public class IncrementalPhase {
+
+    private static final String[] RISK_LEVELS = {"low", "medium", "high"};
+    private static final String[] STATUSES = {"active", "inactive"};
+    private static final int DELTA_KINDS = 6;
+
+    private final KieSession kSession;
+    private final Random random;
+    private final int numCustomers;
+    private final String[] locations;
+
+    private final List<FactHandle> customerHandles = new ArrayList<>();
+    private final List<FactHandle> transactionHandles = new ArrayList<>();
+    private final List<FactHandle> alertHandles = new ArrayList<>();
+
+    private final LatencyRecorder batchLatencies = new LatencyRecorder();
+    private long totalDeltas = 0;
+    private long rulesFiredDuringPhase = 0;
+
+    public IncrementalPhase(KieSession kSession, int numCustomers, int numLocations, long seed) {
+        this.kSession = kSession;
+        this.random = new Random(seed);
+        this.numCustomers = numCustomers;
+        this.locations = new String[numLocations];
+        for (int i = 0; i < numLocations; i++) {
+            locations[i] = "location_" + i;
+        }
+    }
+
+    /**
+     * Inserts a fact and keeps its handle so the fact can be updated or deleted later.
+     */
+    public void insert(Object fact) {
+        FactHandle handle = kSession.insert(fact);
+        if (fact instanceof Transaction) {
+            transactionHandles.add(handle);
+        } else if (fact instanceof Customer) {
+            customerHandles.add(handle);
+        } else if (fact instanceof SecurityAlert) {
+            alertHandles.add(handle);
+        }
+    }
+
+    public void run(int numBatches, int batchSize, ScoreHolder scoreHolder) {
+        long rulesFiredBefore = scoreHolder.getRulesFired();
+        for (int batch = 0; batch < numBatches; batch++) {
+            long startTime = System.nanoTime();
+            for (int i = 0; i < batchSize; i++) {
+                applyRandomDelta();
+            }
+            kSession.fireAllRules();
+            batchLatencies.record(System.nanoTime() - startTime);
+            totalDeltas += batchSize;
+        }
+        rulesFiredDuringPhase = scoreHolder.getRulesFired() - rulesFiredBefore;
+    }
+
+    private void applyRandomDelta() {
+        switch (random.nextInt(DELTA_KINDS)) {
+            case 0: {
+                FactHandle handle = randomHandle(transactionHandles);
+                Transaction tx = (Transaction) kSession.getObject(handle);
+                tx.setAmount(random.nextDouble() * 49999.0 + 1.0);
+                kSession.update(handle, tx, "amount");
+                break;
+            }
+            case 1: {
+                FactHandle handle = randomHandle(transactionHandles);
+                Transaction tx = (Transaction) kSession.getObject(handle);
+                tx.setLocation(locations[random.nextInt(locations.length)]);
+                kSession.update(handle, tx, "location");
+                break;
+            }
+            case 2: {
+                FactHandle handle = randomHandle(transactionHandles);
+                Transaction tx = (Transaction) kSession.getObject(handle);
+                tx.setCustomerId(random.nextInt(numCustomers));
+                kSession.update(handle, tx, "customerId");
+                break;
+            }
+            case 3: {
+                FactHandle handle = randomHandle(customerHandles);
+                Customer customer = (Customer) kSession.getObject(handle);
+                customer.setStatus(STATUSES[random.nextInt(STATUSES.length)]);
+                kSession.update(handle, customer, "status");
+                break;
+            }
+            case 4: {
+                FactHandle handle = randomHandle(customerHandles);
+                Customer customer = (Customer) kSession.getObject(handle);
+                customer.setRiskLevel(RISK_LEVELS[random.nextInt(RISK_LEVELS.length)]);
+                kSession.update(handle, customer, "riskLevel");
+                break;
+            }
+            default: {
+                // Move an alert: retract one and raise a new one somewhere else
+                int index = random.nextInt(alertHandles.size());
+                kSession.delete(alertHandles.get(index));
+                SecurityAlert alert = new SecurityAlert(
+                        locations[random.nextInt(locations.length)],
+                        random.nextInt(5) + 1);
+                alertHandles.set(index, kSession.insert(alert));
+                break;
+            }
+        }
+    }
+
+    private FactHandle randomHandle(List<FactHandle> handles) {
+        return handles.get(random.nextInt(handles.size()));
+    }
+
+    public void printReport() {
+        double totalSeconds = batchLatencies.getTotalNanos() / 1_000_000_000.0;
+        System.out.println("\n#### Incremental Update Summary");
+        System.out.printf("| %-30s | %-20s |\n", "Metric", "Value");
+        System.out.printf("|-%-30s-|-%-20s-|\n", "-".repeat(30), "-".repeat(20));
+        System.out.printf("| %-30s | %,d x %,d deltas\n", "Batches", batchLatencies.getCount(), totalDeltas / Math.max(1, batchLatencies.getCount()));
+        System.out.printf("| %-30s | %.3f ms\n", "Batch Latency p50", LatencyRecorder.toMillis(batchLatencies.getPercentile(50.0)));
+        System.out.printf("| %-30s | %.3f ms\n", "Batch Latency p99", LatencyRecorder.toMillis(batchLatencies.getPercentile(99.0)));
+        System.out.printf("| %-30s | %.3f ms\n", "Batch Latency p999", LatencyRecorder.toMillis(batchLatencies.getPercentile(99.9)));
+        System.out.printf("| %-30s | %.3f ms\n", "Batch Latency max", LatencyRecorder.toMillis(batchLatencies.getMax()));
+        System.out.printf("| %-30s | %,.2f deltas/sec\n", "Delta Throughput", totalDeltas / totalSeconds);
+        System.out.printf("| %-30s | %,d\n", "Rule Activations (deltas)", rulesFiredDuringPhase);
+    }
+}
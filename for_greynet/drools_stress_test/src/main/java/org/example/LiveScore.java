@@ -0,0 +1,127 @@
+package org.example;
+
+import org.example.common.RuleBreakdown;
+import org.example.common.StressRule;
+import org.example.model.SecurityAlert;
+import org.example.model.Transaction;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.LiveQuery;
+import org.kie.api.runtime.rule.Row;
+import org.kie.api.runtime.rule.ViewChangedEventListener;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * The score of a session's current working memory, kept up to date through a live query per rule
+ * (see {@link #QUERIES_DRL_PATH}). Unlike the {@code ScoreHolder}, which only adds a penalty whenever a rule
+ * fires, this subtracts the penalty of every match that goes away, so it stays right across updates and
+ * deletes. The session's KieBase must contain the queries; the rows are up to date after {@code fireAllRules()}.
+ */
+public class LiveScore implements AutoCloseable {
+
+    public static final String QUERIES_DRL_PATH = "rules/incremental/StressTestQueries.drl";
+
+    private static final int RULE_COUNT = StressRule.values().length;
+
+    private final double[] penalties = new double[RULE_COUNT];
+    private final long[] matches = new long[RULE_COUNT];
+    private final List<LiveQuery> liveQueries = new ArrayList<>();
+    private boolean closed = false;
+
+    /**
+     * Opens the live queries; the rows already matched are counted right away.
+     */
+    public LiveScore(KieSession kSession) {
+        open(kSession, StressRule.HIGH_VALUE_TRANSACTION, true,
+                row -> ((Transaction) row.get("$tx")).getAmount() / 1000.0);
+        open(kSession, StressRule.EXCESSIVE_TRANSACTIONS_PER_CUSTOMER, true,
+                row -> (((Number) row.get("$count")).intValue() - 25) * 10.0);
+        open(kSession, StressRule.TRANSACTION_IN_ALERTED_LOCATION, false,
+                row -> 100.0 * ((SecurityAlert) row.get("$alert")).getSeverity());
+        open(kSession, StressRule.INACTIVE_CUSTOMER_TRANSACTION, false, row -> 500.0);
+        open(kSession, StressRule.HIGH_RISK_TRANSACTION_WITHOUT_ALERT, false, row -> 1000.0);
+    }
+
+    /**
+     * @param variable whether a row's penalty can change while it stays matched (an updated amount or
+     *                 count), in which case the penalty last counted for each row is kept to replace it
+     */
+    private void open(KieSession kSession, StressRule rule, boolean variable, ToDoubleFunction<Row> penalty) {
+        int i = rule.ordinal();
+        // Drools hands the same Row instance to the insert, update and delete callbacks of one match
+        Map<Row, Double> counted = variable ? new IdentityHashMap<>() : null;
+        liveQueries.add(kSession.openLiveQuery(rule.getConstraintName(), new Object[0], new ViewChangedEventListener() {
+            @Override
+            public void rowInserted(Row row) {
+                if (closed) {
+                    return;
+                }
+                double value = penalty.applyAsDouble(row);
+                penalties[i] += value;
+                matches[i]++;
+                if (counted != null) {
+                    counted.put(row, value);
+                }
+            }
+
+            @Override
+            public void rowUpdated(Row row) {
+                if (!closed && counted != null) {
+                    double value = penalty.applyAsDouble(row);
+                    penalties[i] += value - counted.put(row, value);
+                }
+            }
+
+            @Override
+            public void rowDeleted(Row row) {
+                if (closed) {
+                    return;
+                }
+                penalties[i] -= counted != null ? counted.remove(row) : penalty.applyAsDouble(row);
+                matches[i]--;
+            }
+        }));
+    }
+
+    public double getScore() {
+        double score = 0.0;
+        for (double penalty : penalties) {
+            score += penalty;
+        }
+        return score;
+    }
+
+    public long getMatches() {
+        long total = 0L;
+        for (long count : matches) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Per-rule matches and penalties of the current working memory.
+     */
+    public RuleBreakdown toBreakdown() {
+        RuleBreakdown breakdown = new RuleBreakdown();
+        for (StressRule rule : StressRule.values()) {
+            breakdown.add(rule, matches[rule.ordinal()], penalties[rule.ordinal()]);
+        }
+        return breakdown;
+    }
+
+    /**
+     * Closes the live queries. Closing deletes their rows, so the score is frozen first and keeps its last value.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (LiveQuery liveQuery : liveQueries) {
+            liveQuery.close();
+        }
+    }
+}
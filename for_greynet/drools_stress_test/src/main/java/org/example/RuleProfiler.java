@@ -0,0 +1,138 @@
+package org.example;
+
+import org.example.common.RuleBreakdown;
+import org.example.common.StressRule;
+import org.example.model.ScoreHolder;
+import org.kie.api.event.rule.AfterMatchFiredEvent;
+import org.kie.api.event.rule.AgendaEventListener;
+import org.kie.api.event.rule.BeforeMatchFiredEvent;
+import org.kie.api.event.rule.DefaultAgendaEventListener;
+import org.kie.api.event.rule.MatchCancelledEvent;
+import org.kie.api.event.rule.MatchCreatedEvent;
+import org.kie.api.event.rule.ObjectDeletedEvent;
+import org.kie.api.event.rule.ObjectInsertedEvent;
+import org.kie.api.event.rule.ObjectUpdatedEvent;
+import org.kie.api.event.rule.RuleRuntimeEventListener;
+import org.kie.api.runtime.KieSession;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Session listener that counts matches created, cancelled and fired per rule, times each consequence,
+ * and counts inserts/updates/deletes per fact class.
+ * <p>
+ * Phreak evaluates the network lazily inside {@code fireAllRules()}, so LHS (join/accumulate/not) cost
+ * cannot be attributed to a rule from events; the created/cancelled counts show how much work each
+ * rule's network produced, and the consequence time is only the RHS.
+ */
+public class RuleProfiler extends DefaultAgendaEventListener implements RuleRuntimeEventListener {
+
+    private static final int CREATED = 0;
+    private static final int CANCELLED = 1;
+    private static final int FIRED = 2;
+    private static final int CONSEQUENCE_NANOS = 3;
+
+    private static final int INSERTED = 0;
+    private static final int UPDATED = 1;
+    private static final int DELETED = 2;
+
+    private final Map<String, long[]> ruleStats = new LinkedHashMap<>();
+    private final Map<String, long[]> factStats = new LinkedHashMap<>();
+    private long fireStartNanos;
+
+    public void attach(KieSession kSession) {
+        kSession.addEventListener((AgendaEventListener) this);
+        kSession.addEventListener((RuleRuntimeEventListener) this);
+    }
+
+    @Override
+    public void matchCreated(MatchCreatedEvent event) {
+        ruleStats(event.getMatch().getRule().getName())[CREATED]++;
+    }
+
+    @Override
+    public void matchCancelled(MatchCancelledEvent event) {
+        ruleStats(event.getMatch().getRule().getName())[CANCELLED]++;
+    }
+
+    @Override
+    public void beforeMatchFired(BeforeMatchFiredEvent event) {
+        fireStartNanos = System.nanoTime();
+    }
+
+    @Override
+    public void afterMatchFired(AfterMatchFiredEvent event) {
+        long nanos = System.nanoTime() - fireStartNanos;
+        long[] stats = ruleStats(event.getMatch().getRule().getName());
+        stats[FIRED]++;
+        stats[CONSEQUENCE_NANOS] += nanos;
+    }
+
+    @Override
+    public void objectInserted(ObjectInsertedEvent event) {
+        factStats(event.getObject())[INSERTED]++;
+    }
+
+    @Override
+    public void objectUpdated(ObjectUpdatedEvent event) {
+        factStats(event.getObject())[UPDATED]++;
+    }
+
+    @Override
+    public void objectDeleted(ObjectDeletedEvent event) {
+        factStats(event.getOldObject())[DELETED]++;
+    }
+
+    private long[] ruleStats(String ruleName) {
+        return ruleStats.computeIfAbsent(ruleName, name -> new long[4]);
+    }
+
+    private long[] factStats(Object fact) {
+        return factStats.computeIfAbsent(fact.getClass().getSimpleName(), name -> new long[3]);
+    }
+
+    /**
+     * Combines the fired counts and consequence times with the per-rule penalties from the score holder.
+     */
+    public RuleBreakdown toBreakdown(ScoreHolder scoreHolder) {
+        RuleBreakdown breakdown = new RuleBreakdown();
+        for (StressRule rule : StressRule.values()) {
+            long[] stats = ruleStats(rule.getRuleName());
+            breakdown.add(rule, stats[FIRED], scoreHolder.getPenalty(rule));
+            breakdown.addTime(rule, stats[CONSEQUENCE_NANOS]);
+        }
+        return breakdown;
+    }
+
+    /**
+     * Adds the consequence times to a breakdown whose matches and penalties come from elsewhere (the live score).
+     */
+    public void addTimes(RuleBreakdown breakdown) {
+        for (StressRule rule : StressRule.values()) {
+            breakdown.addTime(rule, ruleStats(rule.getRuleName())[CONSEQUENCE_NANOS]);
+        }
+    }
+
+    public void printReport() {
+        System.out.println("\n#### Agenda Profile");
+        System.out.printf("| %-36s | %12s | %12s | %12s | %-16s |\n", "Rule", "Created", "Cancelled", "Fired", "Avg Consequence");
+        System.out.printf("|-%-36s-|-%12s-|-%12s-|-%12s-|-%-16s-|\n",
+                "-".repeat(36), "-".repeat(12), "-".repeat(12), "-".repeat(12), "-".repeat(16));
+        for (Map.Entry<String, long[]> entry : ruleStats.entrySet()) {
+            long[] stats = entry.getValue();
+            double avgMicros = stats[FIRED] == 0 ? 0.0 : stats[CONSEQUENCE_NANOS] / 1000.0 / stats[FIRED];
+            System.out.printf("| %-36s | %,12d | %,12d | %,12d | %13.3f us |\n",
+                    entry.getKey(), stats[CREATED], stats[CANCELLED], stats[FIRED], avgMicros);
+        }
+
+        System.out.println("\n#### Fact Operations");
+        System.out.printf("| %-36s | %12s | %12s | %12s |\n", "Fact Type", "Inserted", "Updated", "Deleted");
+        System.out.printf("|-%-36s-|-%12s-|-%12s-|-%12s-|\n", "-".repeat(36), "-".repeat(12), "-".repeat(12), "-".repeat(12));
+        for (Map.Entry<String, long[]> entry : factStats.entrySet()) {
+            long[] stats = entry.getValue();
+            System.out.printf("| %-36s | %,12d | %,12d | %,12d |\n",
+                    entry.getKey(), stats[INSERTED], stats[UPDATED], stats[DELETED]);
+        }
+    }
+}
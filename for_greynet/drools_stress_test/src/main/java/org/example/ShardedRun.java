@@ -0,0 +1,164 @@
+package org.example;
+
+import org.example.common.StressDataset;
+import org.example.model.ScoreHolder;
+import org.kie.api.KieBase;
+import org.kie.api.runtime.KieSession;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs the bulk load across N sessions of one shared KieBase, one thread per session.
+ * <p>
+ * Customers and their transactions are partitioned by {@code customerId % N}, and every shard gets
+ * a copy of all security alerts. All five rules join only within a customer or against alerts,
+ * so the per-shard results add up to exactly the single-session result.
+ */
+public class ShardedRun {
+
+    private final KieBase kBase;
+    private final StressDataset dataset;
+    private final FactGenerator.FactFactory factory;
+
+    public ShardedRun(KieBase kBase, StressDataset dataset, boolean compact) {
+        this.kBase = kBase;
+        this.dataset = dataset;
+        this.factory = new FactGenerator.FactFactory(compact, dataset.numLocations);
+    }
+
+    /**
+     * Partitions the facts (untimed), then times the parallel insert and fire of every shard.
+     */
+    public Result run(int shardCount) throws InterruptedException, ExecutionException {
+        List<List<Object>> shardFacts = partition(shardCount);
+        ExecutorService executor = Executors.newFixedThreadPool(shardCount);
+        try {
+            List<KieSession> sessions = new ArrayList<>(shardCount);
+            List<ScoreHolder> scoreHolders = new ArrayList<>(shardCount);
+            for (int shard = 0; shard < shardCount; shard++) {
+                KieSession kSession = kBase.newKieSession();
+                ScoreHolder scoreHolder = new ScoreHolder();
+                kSession.setGlobal("scoreHolder", scoreHolder);
+                sessions.add(kSession);
+                scoreHolders.add(scoreHolder);
+            }
+
+            long startTime = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>(shardCount);
+            for (int shard = 0; shard < shardCount; shard++) {
+                KieSession kSession = sessions.get(shard);
+                List<Object> facts = shardFacts.get(shard);
+                futures.add(executor.submit(() -> {
+                    for (Object fact : facts) {
+                        kSession.insert(fact);
+                    }
+                    kSession.fireAllRules();
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            long duration = System.nanoTime() - startTime;
+
+            ScoreHolder merged = new ScoreHolder();
+            for (int shard = 0; shard < shardCount; shard++) {
+                merged.merge(scoreHolders.get(shard));
+                sessions.get(shard).dispose();
+            }
+            return new Result(shardCount, duration, merged);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private List<List<Object>> partition(int shardCount) {
+        int numCustomers = dataset.getNumCustomers();
+        int numTransactions = dataset.getNumTransactions();
+        List<List<Object>> shardFacts = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int expectedSize = (numCustomers + numTransactions) / shardCount + dataset.getNumAlerts();
+            shardFacts.add(new ArrayList<>(expectedSize));
+        }
+        for (int i = 0; i < numCustomers; i++) {
+            shardFacts.get(i % shardCount).add(
+                    factory.customer(i, dataset.customerRiskLevels[i], dataset.customerStatuses[i]));
+        }
+        for (int i = 0; i < numTransactions; i++) {
+            int customerId = dataset.transactionCustomerIds[i];
+            shardFacts.get(customerId % shardCount).add(factory.transaction(i, customerId,
+                    dataset.transactionAmounts[i], dataset.transactionLocationIds[i]));
+        }
+        for (List<Object> facts : shardFacts) {
+            for (int i = 0; i < dataset.getNumAlerts(); i++) {
+                facts.add(factory.alert(dataset.alertLocationIds[i], dataset.alertSeverities[i]));
+            }
+        }
+        return shardFacts;
+    }
+
+    /**
+     * Parses a comma-separated list of shard counts; an empty spec means powers of two up to {@code maxShards}.
+     */
+    public static List<Integer> parseShardCounts(String spec, int maxShards) {
+        List<Integer> shardCounts = new ArrayList<>();
+        if (spec == null || spec.isBlank()) {
+            for (int shards = 1; shards <= maxShards; shards *= 2) {
+                shardCounts.add(shards);
+            }
+            if (shardCounts.get(shardCounts.size() - 1) != maxShards) {
+                shardCounts.add(maxShards);
+            }
+            return shardCounts;
+        }
+        for (String part : spec.split(",")) {
+            int shards = Integer.parseInt(part.trim());
+            if (shards < 1) {
+                throw new IllegalArgumentException("Shard count must be positive: " + shards);
+            }
+            shardCounts.add(shards);
+        }
+        return shardCounts;
+    }
+
+    /**
+     * Prints the scaling curve; speedup and efficiency are relative to the first (smallest) shard count.
+     */
+    public static void printReport(List<Result> results, long totalFacts) {
+        Result baseline = results.get(0);
+        System.out.println("\n#### Sharded Scaling Summary");
+        System.out.println("| Shards | Processing Time | Throughput            | Speedup | Efficiency | Final Score          | Activations   |");
+        System.out.println("|--------|-----------------|-----------------------|---------|------------|----------------------|---------------|");
+        for (Result result : results) {
+            double speedup = baseline.getSeconds() / result.getSeconds();
+            System.out.printf("| %6d | %13.4f s | %,15.2f facts/s | %6.2fx | %9.1f%% | %,20.2f | %,13d |\n",
+                    result.shardCount,
+                    result.getSeconds(),
+                    totalFacts / result.getSeconds(),
+                    speedup,
+                    100.0 * speedup * baseline.shardCount / result.shardCount,
+                    result.scoreHolder.getScore(),
+                    result.scoreHolder.getRulesFired());
+        }
+    }
+
+    public static class Result {
+        public final int shardCount;
+        public final long durationNanos;
+        public final ScoreHolder scoreHolder;
+
+        Result(int shardCount, long durationNanos, ScoreHolder scoreHolder) {
+            this.shardCount = shardCount;
+            this.durationNanos = durationNanos;
+            this.scoreHolder = scoreHolder;
+        }
+
+        public double getSeconds() {
+            return durationNanos / 1_000_000_000.0;
+        }
+    }
+}
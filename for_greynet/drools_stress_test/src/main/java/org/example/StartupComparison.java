@@ -0,0 +1,116 @@
+package org.example;
+
+import org.example.common.LatencyRecorder;
+import org.example.model.ScoreHolder;
+import org.kie.api.KieBase;
+import org.kie.api.runtime.KieSession;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures what a restarted scoring worker pays before its first result, for each way of getting a KieBase:
+ * compiling the DRL, loading the prebuilt kmodule from the classpath, or reusing a KieBase cached in this JVM.
+ * The cached row is an in-process cache hit (a map lookup after an earlier build), not a load from disk.
+ * <p>
+ * First fire is insert+fire of a small probe dataset on the first session; second fire repeats it on a
+ * fresh session of the same KieBase, so the difference is the one-off lazy work (class generation, JIT).
+ * Sources measured later in the same JVM benefit from classes loaded by earlier ones; select a single
+ * source per JVM for cold numbers.
+ */
+public class StartupComparison {
+
+    /**
+     * Supplies a KieBase; may throw if the source is not available in this build.
+     */
+    public interface KieBaseSource {
+        KieBase load();
+    }
+
+    private final List<Object> probeFacts;
+    private final List<Row> rows = new ArrayList<>();
+
+    public StartupComparison(List<Object> probeFacts) {
+        this.probeFacts = probeFacts;
+    }
+
+    public void measure(String name, KieBaseSource source) {
+        long startTime = System.nanoTime();
+        KieBase kBase;
+        try {
+            kBase = source.load();
+        } catch (RuntimeException e) {
+            rows.add(Row.unavailable(name, e.getMessage()));
+            return;
+        }
+        long setupNanos = System.nanoTime() - startTime;
+
+        startTime = System.nanoTime();
+        KieSession kSession = kBase.newKieSession();
+        long sessionNanos = System.nanoTime() - startTime;
+
+        ScoreHolder scoreHolder = new ScoreHolder();
+        long firstFireNanos = fireProbe(kSession, scoreHolder);
+        long secondFireNanos = fireProbe(kBase.newKieSession(), new ScoreHolder());
+        rows.add(new Row(name, setupNanos, sessionNanos, firstFireNanos, secondFireNanos, scoreHolder.getScore(), null));
+    }
+
+    private long fireProbe(KieSession kSession, ScoreHolder scoreHolder) {
+        kSession.setGlobal("scoreHolder", scoreHolder);
+        long startTime = System.nanoTime();
+        for (Object fact : probeFacts) {
+            kSession.insert(fact);
+        }
+        kSession.fireAllRules();
+        long duration = System.nanoTime() - startTime;
+        kSession.dispose();
+        return duration;
+    }
+
+    public void printReport() {
+        System.out.println("\n#### Startup Summary");
+        System.out.printf("| %-30s | %-14s | %-14s | %-14s | %-14s | %-18s |\n",
+                "KieBase Source", "KieBase Setup", "New Session", "First Fire", "Second Fire", "Probe Score");
+        System.out.printf("|-%-30s-|-%-14s-|-%-14s-|-%-14s-|-%-14s-|-%-18s-|\n",
+                "-".repeat(30), "-".repeat(14), "-".repeat(14), "-".repeat(14), "-".repeat(14), "-".repeat(18));
+        for (Row row : rows) {
+            if (row.error != null) {
+                System.out.printf("| %-30s | unavailable: %s\n", row.name, row.error.lines().findFirst().orElse(""));
+                continue;
+            }
+            System.out.printf("| %-30s | %11.3f ms | %11.3f ms | %11.3f ms | %11.3f ms | %,18.2f |\n",
+                    row.name,
+                    LatencyRecorder.toMillis(row.setupNanos),
+                    LatencyRecorder.toMillis(row.sessionNanos),
+                    LatencyRecorder.toMillis(row.firstFireNanos),
+                    LatencyRecorder.toMillis(row.secondFireNanos),
+                    row.probeScore);
+        }
+        System.out.printf("- Probe: %,d facts per fire\n", probeFacts.size());
+    }
+
+    private static class Row {
+        final String name;
+        final long setupNanos;
+        final long sessionNanos;
+        final long firstFireNanos;
+        final long secondFireNanos;
+        final double probeScore;
+        final String error;
+
+        Row(String name, long setupNanos, long sessionNanos, long firstFireNanos, long secondFireNanos,
+            double probeScore, String error) {
+            this.name = name;
+            this.setupNanos = setupNanos;
+            this.sessionNanos = sessionNanos;
+            this.firstFireNanos = firstFireNanos;
+            this.secondFireNanos = secondFireNanos;
+            this.probeScore = probeScore;
+            this.error = error;
+        }
+
+        static Row unavailable(String name, String error) {
+            return new Row(name, 0L, 0L, 0L, 0L, 0.0, error == null ? "unknown error" : error);
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package org.example;
+
+import org.example.common.LatencyHistogram;
+import org.example.common.LatencyRecorder;
+import org.example.common.StressDataGenerator;
+import org.example.common.StressDataset;
+import org.example.common.TransactionChunkCursor;
+import org.example.model.ScoreHolder;
+import org.example.model.TransactionEvent;
+import org.kie.api.KieBase;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.EntryPoint;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Streams transaction events into a session running {@code fireUntilHalt}, as in production, instead of
+ * bulk loading a fixed dataset.
+ * <p>
+ * Customers and alerts come from the shared {@link StressDataGenerator}; each producer thread draws its own
+ * transactions from a generator seeded {@code seed + 1 + producer} and inserts them through the
+ * {@value #ENTRY_POINT} entry point at its share of the target rate. The rules window and expire events
+ * after {@value #WINDOW_SECONDS} seconds (see {@code StressTestRulesStream.drl}), so heap should level off once
+ * the first window has filled. Every {@code gcSampleSeconds} the run forces a full GC and reads the heap, which
+ * leaves only live data; the slope over those samples in the steady state (after the warm-up) is the leak
+ * signal. The per-second heap after each pool's last collection is shown too, but it carries old-generation
+ * floating garbage until the next old collection. The report also gives the sustained event rate and alert
+ * latency percentiles; the forced GCs pause the stream, so they show up in the latency tail.
+ * If the engine cannot keep up, producers stall on the session, alerts arrive in bursts and the live events
+ * overshoot rate x window; lower {@code stress.eventRate} to find the sustainable rate.
+ */
+public class StreamingRun {
+
+    public static final String ENTRY_POINT = "transactions";
+    /** Sliding window and event expiry in {@code StressTestRulesStream.drl}. */
+    public static final int WINDOW_SECONDS = 10;
+
+    private static final int PACING_BATCH = 256;
+
+    private final KieBase kBase;
+    private final StressDataGenerator generator;
+    private final int producerCount;
+    private final double eventsPerSecond;
+    private final int durationSeconds;
+    private final int warmupSeconds;
+    private final int gcSampleSeconds;
+
+    private final LatencyHistogram alertLatency = new LatencyHistogram();
+    private final ScoreHolder scoreHolder = new ScoreHolder();
+    private final AtomicLong producedEvents = new AtomicLong();
+    private final List<Interval> intervals = new ArrayList<>();
+    private final List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+    private volatile boolean producing = true;
+    private long steadyStateAlerts;
+
+    /**
+     * @param eventsPerSecond total target ingest rate over all producers, or 0 to insert as fast as possible
+     * @param gcSampleSeconds seconds between the forced full GCs that sample the live heap
+     */
+    public StreamingRun(KieBase kBase, StressDataGenerator generator, int producerCount, double eventsPerSecond,
+                        int durationSeconds, int warmupSeconds, int gcSampleSeconds) {
+        if (producerCount < 1 || durationSeconds <= warmupSeconds || gcSampleSeconds < 1) {
+            throw new IllegalArgumentException("Invalid streaming run: producers=" + producerCount
+                    + ", duration=" + durationSeconds + " s, warm-up=" + warmupSeconds
+                    + " s, GC sample interval=" + gcSampleSeconds + " s");
+        }
+        this.kBase = kBase;
+        this.generator = generator;
+        this.producerCount = producerCount;
+        this.eventsPerSecond = eventsPerSecond;
+        this.durationSeconds = durationSeconds;
+        this.warmupSeconds = warmupSeconds;
+        this.gcSampleSeconds = gcSampleSeconds;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                heapPools.add(pool);
+            }
+        }
+    }
+
+    public void run() throws InterruptedException {
+        KieSession kSession = kBase.newKieSession();
+        kSession.setGlobal("scoreHolder", scoreHolder);
+        kSession.setGlobal("alertLatency", alertLatency);
+        FactGenerator.FactFactory factory = new FactGenerator.FactFactory(false, generator.getNumLocations());
+        StressDataset customersAndAlerts = generator.generateWithoutTransactions();
+        for (int i = 0; i < customersAndAlerts.getNumCustomers(); i++) {
+            kSession.insert(factory.customer(i, customersAndAlerts.customerRiskLevels[i], customersAndAlerts.customerStatuses[i]));
+        }
+        for (int i = 0; i < customersAndAlerts.getNumAlerts(); i++) {
+            kSession.insert(factory.alert(customersAndAlerts.alertLocationIds[i], customersAndAlerts.alertSeverities[i]));
+        }
+        EntryPoint entryPoint = kSession.getEntryPoint(ENTRY_POINT);
+
+        Thread engine = new Thread(kSession::fireUntilHalt, "stream-engine");
+        engine.start();
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < producerCount; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> produce(entryPoint, factory, producer), "stream-producer-" + p);
+            producers.add(thread);
+            thread.start();
+        }
+
+        long startNanos = System.nanoTime();
+        long previousEvents = 0L;
+        long previousAlerts = 0L;
+        for (int second = 1; second <= durationSeconds; second++) {
+            LockSupport.parkNanos(startNanos + TimeUnit.SECONDS.toNanos(second) - System.nanoTime());
+            long events = producedEvents.get();
+            long alerts = alertLatency.getCount();
+            intervals.add(new Interval(second, events - previousEvents, alerts - previousAlerts,
+                    entryPoint.getFactCount(), heapAfterLastGc(),
+                    second % gcSampleSeconds == 0 ? heapAfterFullGc() : -1L));
+            previousEvents = events;
+            previousAlerts = alerts;
+            if (second == warmupSeconds) {
+                alertLatency.reset();
+                previousAlerts = 0L;
+            }
+        }
+        steadyStateAlerts = alertLatency.getCount();
+
+        producing = false;
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        kSession.halt();
+        engine.join();
+        kSession.dispose();
+    }
+
+    private void produce(EntryPoint entryPoint, FactGenerator.FactFactory factory, int producer) {
+        StressDataGenerator producerGenerator = new StressDataGenerator(generator.getSeed() + 1 + producer,
+                generator.getNumCustomers(), Integer.MAX_VALUE, generator.getNumLocations(),
+                generator.getCustomerExponent(), generator.getLocationExponent());
+        TransactionChunkCursor transactions = producerGenerator.newTransactionCursor();
+        double nanosPerEvent = eventsPerSecond > 0 ? 1_000_000_000.0 * producerCount / eventsPerSecond : 0.0;
+        long startNanos = System.nanoTime();
+        long produced = 0L;
+        while (producing) {
+            if (!transactions.advance()) {
+                transactions = producerGenerator.newTransactionCursor();
+                continue;
+            }
+            for (int i = 0; i < transactions.getSize() && producing; i++) {
+                int id = (int) ((transactions.getFirstIndex() + (long) i) * producerCount + producer);
+                entryPoint.insert(new TransactionEvent(id, transactions.customerIds[i], transactions.amounts[i],
+                        factory.locationNames[transactions.locationIds[i]], System.currentTimeMillis(), System.nanoTime()));
+                produced++;
+                if (produced % PACING_BATCH == 0) {
+                    producedEvents.addAndGet(PACING_BATCH);
+                    if (nanosPerEvent > 0) {
+                        LockSupport.parkNanos(startNanos + (long) (produced * nanosPerEvent) - System.nanoTime());
+                    }
+                }
+            }
+        }
+        producedEvents.addAndGet(produced % PACING_BATCH);
+    }
+
+    /**
+     * Heap in use right after the most recent collection of each pool, i.e. live data plus floating garbage,
+     * without forcing a GC that would disturb the stream.
+     */
+    private long heapAfterLastGc() {
+        long total = 0L;
+        for (MemoryPoolMXBean pool : heapPools) {
+            MemoryUsage usage = pool.getCollectionUsage();
+            if (usage != null) {
+                total += usage.getUsed();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Heap in use right after a forced full GC: the live data only, as long as explicit GCs are not disabled.
+     */
+    private long heapAfterFullGc() {
+        System.gc();
+        long total = 0L;
+        for (MemoryPoolMXBean pool : heapPools) {
+            total += pool.getUsage().getUsed();
+        }
+        return total;
+    }
+
+    public void printReport() {
+        List<Interval> steadyState = intervals.subList(warmupSeconds, intervals.size());
+        long steadyEvents = 0L;
+        long minFacts = Long.MAX_VALUE;
+        long maxFacts = 0L;
+        List<Interval> gcSamples = new ArrayList<>();
+        long minHeap = Long.MAX_VALUE;
+        long maxHeap = 0L;
+        double heapSum = 0.0;
+        for (Interval interval : steadyState) {
+            steadyEvents += interval.events;
+            minFacts = Math.min(minFacts, interval.entryPointFacts);
+            maxFacts = Math.max(maxFacts, interval.entryPointFacts);
+            if (interval.fullGcHeapBytes >= 0) {
+                gcSamples.add(interval);
+                minHeap = Math.min(minHeap, interval.fullGcHeapBytes);
+                maxHeap = Math.max(maxHeap, interval.fullGcHeapBytes);
+                heapSum += interval.fullGcHeapBytes;
+            }
+        }
+        double steadySeconds = steadyState.size();
+
+        System.out.println("\n#### Streaming Summary");
+        System.out.printf("| %-30s | %-20s |\n", "Metric", "Value");
+        System.out.printf("|-%-30s-|-%-20s-|\n", "-".repeat(30), "-".repeat(20));
+        System.out.printf("| %-30s | %d\n", "Producers", producerCount);
+        System.out.printf("| %-30s | %s\n", "Target Rate", eventsPerSecond > 0 ? String.format("%,.0f events/sec", eventsPerSecond) : "unthrottled");
+        System.out.printf("| %-30s | %d s (%d s warm-up)\n", "Duration", durationSeconds, warmupSeconds);
+        System.out.printf("| %-30s | %,d\n", "Events Produced", producedEvents.get());
+        System.out.printf("| %-30s | %,.2f events/sec\n", "Sustained Rate (steady state)", steadyEvents / steadySeconds);
+        System.out.printf("| %-30s | %,d\n", "Alerts (steady state)", steadyStateAlerts);
+        System.out.printf("| %-30s | %.3f ms\n", "Alert Latency p50", LatencyRecorder.toMillis(alertLatency.getPercentile(50.0)));
+        System.out.printf("| %-30s | %.3f ms\n", "Alert Latency p99", LatencyRecorder.toMillis(alertLatency.getPercentile(99.0)));
+        System.out.printf("| %-30s | %.3f ms\n", "Alert Latency p999", LatencyRecorder.toMillis(alertLatency.getPercentile(99.9)));
+        System.out.printf("| %-30s | %.3f ms\n", "Alert Latency max", LatencyRecorder.toMillis(alertLatency.getMax()));
+        System.out.printf("| %-30s | %,d .. %,d (rate x window: %,.0f)\n", "Live Events (steady state)", minFacts, maxFacts,
+                steadyEvents / steadySeconds * WINDOW_SECONDS);
+        if (gcSamples.isEmpty()) {
+            System.out.printf("| %-30s | no forced GC in the steady state (every %d s)\n", "Heap after Full GC", gcSampleSeconds);
+        } else {
+            System.out.printf("| %-30s | %.2f MB (%.2f .. %.2f MB, %d samples every %d s)\n", "Heap after Full GC",
+                    toMegabytes(heapSum / gcSamples.size()), toMegabytes(minHeap), toMegabytes(maxHeap),
+                    gcSamples.size(), gcSampleSeconds);
+        }
+        System.out.printf("| %-30s | %+.2f MB/min\n", "Heap after Full GC Slope", toMegabytes(heapSlopePerSecond(gcSamples) * 60.0));
+        System.out.printf("| %-30s | %,d\n", "Total Rule Activations", scoreHolder.getRulesFired());
+
+        System.out.println("\n#### Streaming Intervals");
+        System.out.println("| Second | Events/sec   | Alerts/sec   | Live Events  | Heap after Last GC | Heap after Full GC |");
+        System.out.println("|--------|--------------|--------------|--------------|--------------------|--------------------|");
+        for (Interval interval : intervals) {
+            System.out.printf("| %6d | %,12d | %,12d | %,12d | %,15.2f MB | %18s |\n",
+                    interval.second, interval.events, interval.alerts, interval.entryPointFacts,
+                    toMegabytes(interval.lastGcHeapBytes),
+                    interval.fullGcHeapBytes >= 0 ? String.format("%,.2f MB", toMegabytes(interval.fullGcHeapBytes)) : "");
+        }
+    }
+
+    /**
+     * Least-squares slope of the full-GC heap samples; near zero when memory is bounded.
+     */
+    private static double heapSlopePerSecond(List<Interval> samples) {
+        int n = samples.size();
+        if (n < 2) {
+            return 0.0;
+        }
+        double meanX = 0.0;
+        double meanY = 0.0;
+        for (Interval interval : samples) {
+            meanX += interval.second;
+            meanY += interval.fullGcHeapBytes;
+        }
+        meanX /= n;
+        meanY /= n;
+        double covariance = 0.0;
+        double variance = 0.0;
+        for (Interval interval : samples) {
+            covariance += (interval.second - meanX) * (interval.fullGcHeapBytes - meanY);
+            variance += (interval.second - meanX) * (interval.second - meanX);
+        }
+        return covariance / variance;
+    }
+
+    private static double toMegabytes(double bytes) {
+        return bytes / (1024.0 * 1024.0);
+    }
+
+    private static class Interval {
+        final int second;
+        final long events;
+        final long alerts;
+        final long entryPointFacts;
+        final long lastGcHeapBytes;
+        /** Heap after the forced full GC of this second, or -1 if this second was not sampled. */
+        final long fullGcHeapBytes;
+
+        Interval(int second, long events, long alerts, long entryPointFacts, long lastGcHeapBytes, long fullGcHeapBytes) {
+            this.second = second;
+            this.events = events;
+            this.alerts = alerts;
+            this.entryPointFacts = entryPointFacts;
+            this.lastGcHeapBytes = lastGcHeapBytes;
+            this.fullGcHeapBytes = fullGcHeapBytes;
+        }
+    }
+}
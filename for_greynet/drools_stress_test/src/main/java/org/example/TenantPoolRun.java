@@ -0,0 +1,213 @@
+package org.example;
+
+import org.example.common.LatencyRecorder;
+import org.example.common.ReferenceEvaluator;
+import org.example.common.StressDataGenerator;
+import org.example.common.StressDataset;
+import org.example.model.ScoreHolder;
+import org.kie.api.KieBase;
+import org.kie.api.runtime.KieContainer;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.KieSessionsPool;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Scores many small, independent tenant datasets concurrently with one compiled KieBase, the way a scoring
+ * service would, and compares sessions drawn from a {@link KieSessionsPool} (reset and reused on dispose)
+ * with a new session per tenant.
+ * <p>
+ * Tenant {@code t} gets its own dataset from a generator seeded {@code seed + t} and its own {@link ScoreHolder}.
+ * At most {@code concurrency} tenants are in flight at once, so memory stays bounded however many tasks the
+ * executor accepts. Virtual threads are used when built with {@code -Pjdk21}, which compiles a
+ * {@link VirtualThreadExecutorProvider}; otherwise, or with {@code fixed}, a fixed pool of {@code concurrency} threads.
+ */
+public class TenantPoolRun implements AutoCloseable {
+
+    public static final String POOLED = "pooled";
+    public static final String NEW_SESSION = "new-session";
+
+    private final KieBase kBase;
+    private final KieSessionsPool sessionsPool;
+    private final boolean compact;
+    private final long seed;
+    private final int tenantCustomers;
+    private final int tenantTransactions;
+    private final int tenantLocations;
+    private final int concurrency;
+    private final boolean verify;
+
+    public TenantPoolRun(KieContainer kContainer, boolean compact, long seed, int tenantCustomers, int tenantTransactions,
+                         int tenantLocations, int concurrency, boolean verify) {
+        this.kBase = kContainer.getKieBase();
+        this.sessionsPool = kContainer.newKieSessionsPool(concurrency);
+        this.compact = compact;
+        this.seed = seed;
+        this.tenantCustomers = tenantCustomers;
+        this.tenantTransactions = tenantTransactions;
+        this.tenantLocations = tenantLocations;
+        this.concurrency = concurrency;
+        this.verify = verify;
+    }
+
+    /**
+     * Creates a virtual-thread-per-task executor if {@code kind} is {@code virtual} and this is the
+     * {@code -Pjdk21} build, otherwise a fixed pool of {@code threads} platform threads.
+     */
+    public static ExecutorService newExecutor(String kind, int threads) {
+        switch (kind) {
+            case "virtual":
+                Optional<VirtualThreadExecutorProvider> provider =
+                        ServiceLoader.load(VirtualThreadExecutorProvider.class).findFirst();
+                if (provider.isPresent()) {
+                    return provider.get().newVirtualThreadPerTaskExecutor();
+                }
+                System.out.println("Virtual threads need the -Pjdk21 build, using a fixed pool of " + threads + " threads");
+                return Executors.newFixedThreadPool(threads);
+            case "fixed":
+                return Executors.newFixedThreadPool(threads);
+            default:
+                throw new IllegalArgumentException("Unknown tenant executor: " + kind + " (expected virtual or fixed)");
+        }
+    }
+
+    /**
+     * Scores tenants {@code firstTenant .. firstTenant + tenantCount - 1} on the executor.
+     *
+     * @param sessions {@link #POOLED} or {@link #NEW_SESSION}
+     */
+    public Result run(String sessions, ExecutorService executor, int firstTenant, int tenantCount)
+            throws InterruptedException, ExecutionException {
+        boolean pooled;
+        switch (sessions) {
+            case POOLED:
+                pooled = true;
+                break;
+            case NEW_SESSION:
+                pooled = false;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown session source: " + sessions);
+        }
+        Result result = new Result(sessions, tenantCount, verify);
+        Semaphore inFlight = new Semaphore(concurrency);
+        List<Future<?>> futures = new ArrayList<>(tenantCount);
+        long startTime = System.nanoTime();
+        for (int t = firstTenant; t < firstTenant + tenantCount; t++) {
+            int tenant = t;
+            futures.add(executor.submit(() -> {
+                inFlight.acquire();
+                try {
+                    scoreTenant(tenant, pooled, result);
+                } finally {
+                    inFlight.release();
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        result.wallNanos = System.nanoTime() - startTime;
+        return result;
+    }
+
+    private void scoreTenant(int tenant, boolean pooled, Result result) {
+        // Building the tenant's facts is not part of its latency
+        StressDataset dataset = new StressDataGenerator(seed + tenant, tenantCustomers, tenantTransactions, tenantLocations)
+                .generate(ForkJoinPool.commonPool());
+        List<Object> facts = FactGenerator.materialize(dataset, compact, ForkJoinPool.commonPool());
+
+        long startTime = System.nanoTime();
+        KieSession kSession = pooled ? sessionsPool.newKieSession() : kBase.newKieSession();
+        long acquiredTime = System.nanoTime();
+        if (kSession.getFactCount() != 0) {
+            throw new IllegalStateException("Session for tenant " + tenant + " still holds " + kSession.getFactCount() + " facts");
+        }
+        ScoreHolder scoreHolder = new ScoreHolder();
+        kSession.setGlobal("scoreHolder", scoreHolder);
+        for (Object fact : facts) {
+            kSession.insert(fact);
+        }
+        kSession.fireAllRules();
+        long firedTime = System.nanoTime();
+        kSession.dispose(); // A pooled session is reset and returned to the pool
+        long endTime = System.nanoTime();
+
+        result.record(endTime - startTime, acquiredTime - startTime, endTime - firedTime, scoreHolder.getRulesFired());
+        if (verify) {
+            ReferenceEvaluator.Result reference = ReferenceEvaluator.evaluate(dataset);
+            if (!reference.scoreAgrees(scoreHolder.getScore(), 1e-9) || reference.getTotalMatches() != scoreHolder.getRulesFired()) {
+                result.mismatches.incrementAndGet();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        sessionsPool.shutdown();
+    }
+
+    public static void printReport(List<Result> results, String executorKind, int concurrency) {
+        System.out.println("\n#### Multi-Tenant Session Summary");
+        System.out.printf("- Executor: %s, at most %d tenants in flight\n", executorKind, concurrency);
+        System.out.println("- Latency runs from session acquire to dispose; wall time also covers building each tenant's facts");
+        System.out.println("| Sessions    | Tenants | Wall Time  | Tenants/sec  | Latency p50 | Latency p99 | Acquire p50 | Acquire p99 | Dispose p50 | Dispose p99 | Activations   | Reference |");
+        System.out.println("|-------------|---------|------------|--------------|-------------|-------------|-------------|-------------|-------------|-------------|---------------|-----------|");
+        for (Result result : results) {
+            System.out.printf("| %-11s | %,7d | %8.3f s | %,12.2f | %8.3f ms | %8.3f ms | %8.3f ms | %8.3f ms | %8.3f ms | %8.3f ms | %,13d | %-9s |\n",
+                    result.sessions,
+                    result.tenantCount,
+                    result.wallNanos / 1_000_000_000.0,
+                    result.tenantCount / (result.wallNanos / 1_000_000_000.0),
+                    LatencyRecorder.toMillis(result.latencies.getPercentile(50.0)),
+                    LatencyRecorder.toMillis(result.latencies.getPercentile(99.0)),
+                    LatencyRecorder.toMillis(result.acquireLatencies.getPercentile(50.0)),
+                    LatencyRecorder.toMillis(result.acquireLatencies.getPercentile(99.0)),
+                    LatencyRecorder.toMillis(result.disposeLatencies.getPercentile(50.0)),
+                    LatencyRecorder.toMillis(result.disposeLatencies.getPercentile(99.0)),
+                    result.rulesFired.get(),
+                    !result.verified ? "-" : result.mismatches.get() == 0 ? "OK" : result.mismatches.get() + " bad");
+        }
+    }
+
+    public static class Result {
+        public final String sessions;
+        public final int tenantCount;
+        final boolean verified;
+        long wallNanos;
+        // Per-tenant latencies; the recorders are not thread-safe, so record() synchronizes
+        final LatencyRecorder latencies;
+        final LatencyRecorder acquireLatencies;
+        final LatencyRecorder disposeLatencies;
+        final AtomicLong rulesFired = new AtomicLong();
+        final AtomicInteger mismatches = new AtomicInteger();
+
+        Result(String sessions, int tenantCount, boolean verified) {
+            this.sessions = sessions;
+            this.tenantCount = tenantCount;
+            this.verified = verified;
+            this.latencies = new LatencyRecorder(tenantCount);
+            this.acquireLatencies = new LatencyRecorder(tenantCount);
+            this.disposeLatencies = new LatencyRecorder(tenantCount);
+        }
+
+        synchronized void record(long latencyNanos, long acquireNanos, long disposeNanos, long activations) {
+            latencies.record(latencyNanos);
+            acquireLatencies.record(acquireNanos);
+            disposeLatencies.record(disposeNanos);
+            rulesFired.addAndGet(activations);
+        }
+    }
+}
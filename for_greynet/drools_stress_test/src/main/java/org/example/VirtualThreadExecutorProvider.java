@@ -0,0 +1,13 @@
+package org.example;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Creates the virtual-thread-per-task executor for {@code -Dstress.mode=tenants}. The implementation lives in
+ * {@code src/main/java21} and is compiled and registered (via {@link java.util.ServiceLoader}) only by the
+ * {@code jdk21} Maven profile; the default Java 11 build has none and falls back to a fixed pool.
+ */
+public interface VirtualThreadExecutorProvider {
+
+    ExecutorService newVirtualThreadPerTaskExecutor();
+}
@@ -0,0 +1,395 @@
+package org.example.common;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A stress-test dataset written once to a binary file and read back through memory mapping, so both
+ * harnesses can replay exactly the same facts across engines and versions without regenerating them.
+ * <p>
+ * Layout (little-endian): a 64-byte header, then customers, transactions and alerts as fixed-width
+ * records, each section starting on a 64-byte boundary:
+ * <pre>
+ * header       magic "STRESSFS" (8), version (4), locations (4), customers (4), transactions (4),
+ *              alerts (4), reserved (4), seed (8), customer Zipf exponent (8), location Zipf exponent (8),
+ *              zero padding
+ * customer     riskLevel (1), status (1)                      - id is the record index
+ * transaction  customerId (4), locationId (4), amount (8)     - id is the record index
+ * alert        locationId (4), severity (4)
+ * </pre>
+ * The file is mapped in 1 GiB windows; section alignment guarantees no record straddles two windows,
+ * so datasets larger than 2 GiB work with plain {@link MappedByteBuffer}s.
+ */
+public class FactStore {
+
+    private static final long MAGIC = 0x5346535345525453L; // "STRESSFS" read as a little-endian long
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int SECTION_ALIGNMENT = 64;
+    private static final int CUSTOMER_BYTES = 2;
+    private static final int TRANSACTION_BYTES = 16;
+    private static final int ALERT_BYTES = 8;
+    private static final int WINDOW_SHIFT = 30;
+    private static final long WINDOW_MASK = (1L << WINDOW_SHIFT) - 1;
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+
+    private final Path path;
+    private final long seed;
+    private final double customerExponent;
+    private final double locationExponent;
+    private final int numLocations;
+    private final int numCustomers;
+    private final int numTransactions;
+    private final int numAlerts;
+    private final long customersOffset;
+    private final long transactionsOffset;
+    private final long alertsOffset;
+    private final MappedByteBuffer[] windows;
+
+    private FactStore(Path path, long seed, double customerExponent, double locationExponent,
+                      int numLocations, int numCustomers, int numTransactions, int numAlerts,
+                      MappedByteBuffer[] windows) {
+        this.path = path;
+        this.seed = seed;
+        this.customerExponent = customerExponent;
+        this.locationExponent = locationExponent;
+        this.numLocations = numLocations;
+        this.numCustomers = numCustomers;
+        this.numTransactions = numTransactions;
+        this.numAlerts = numAlerts;
+        this.customersOffset = HEADER_BYTES;
+        this.transactionsOffset = align(customersOffset + (long) numCustomers * CUSTOMER_BYTES);
+        this.alertsOffset = align(transactionsOffset + (long) numTransactions * TRANSACTION_BYTES);
+        this.windows = windows;
+    }
+
+    // --- Writing ---
+
+    /**
+     * Streams the generator's dataset to {@code path} without materializing it; the transactions are
+     * written chunk by chunk. The file is written next to the target and moved into place when complete.
+     */
+    public static void write(Path path, StressDataGenerator generator) throws IOException {
+        StressDataset customersAndAlerts = generator.generateWithoutTransactions();
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+            buffer.putLong(MAGIC);
+            buffer.putInt(VERSION);
+            buffer.putInt(generator.getNumLocations());
+            buffer.putInt(generator.getNumCustomers());
+            buffer.putInt(generator.getNumTransactions());
+            buffer.putInt(generator.getNumAlerts());
+            buffer.putInt(0);
+            buffer.putLong(generator.getSeed());
+            buffer.putDouble(generator.getCustomerExponent());
+            buffer.putDouble(generator.getLocationExponent());
+            long written = pad(channel, buffer, 0L);
+
+            for (int i = 0; i < customersAndAlerts.getNumCustomers(); i++) {
+                written = ensureRoom(channel, buffer, CUSTOMER_BYTES, written);
+                buffer.put(customersAndAlerts.customerRiskLevels[i]);
+                buffer.put(customersAndAlerts.customerStatuses[i]);
+            }
+            written = pad(channel, buffer, written);
+
+            TransactionChunkCursor transactions = generator.newTransactionCursor();
+            while (transactions.advance()) {
+                for (int i = 0; i < transactions.getSize(); i++) {
+                    written = ensureRoom(channel, buffer, TRANSACTION_BYTES, written);
+                    buffer.putInt(transactions.customerIds[i]);
+                    buffer.putInt(transactions.locationIds[i]);
+                    buffer.putDouble(transactions.amounts[i]);
+                }
+            }
+            written = pad(channel, buffer, written);
+
+            for (int i = 0; i < customersAndAlerts.getNumAlerts(); i++) {
+                written = ensureRoom(channel, buffer, ALERT_BYTES, written);
+                buffer.putInt(customersAndAlerts.alertLocationIds[i]);
+                buffer.putInt(customersAndAlerts.alertSeverities[i]);
+            }
+            flush(channel, buffer);
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Zero-pads the output up to the next section boundary.
+     *
+     * @param written bytes already flushed to the channel
+     * @return bytes flushed to the channel afterwards
+     */
+    private static long pad(FileChannel channel, ByteBuffer buffer, long written) throws IOException {
+        long position = written + buffer.position();
+        long padding = align(position) - position;
+        written = ensureRoom(channel, buffer, (int) padding, written);
+        for (long i = 0; i < padding; i++) {
+            buffer.put((byte) 0);
+        }
+        return written;
+    }
+
+    private static long ensureRoom(FileChannel channel, ByteBuffer buffer, int bytes, long written) throws IOException {
+        if (buffer.remaining() < bytes) {
+            return written + flush(channel, buffer);
+        }
+        return written;
+    }
+
+    private static int flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        int bytes = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+        return bytes;
+    }
+
+    private static long align(long offset) {
+        return (offset + SECTION_ALIGNMENT - 1) & -SECTION_ALIGNMENT;
+    }
+
+    // --- Reading ---
+
+    /**
+     * Maps an existing store read-only and validates its header and length.
+     */
+    public static FactStore open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_BYTES) {
+                throw new IOException("Not a fact store (too short): " + path);
+            }
+            int windowCount = (int) ((fileSize + WINDOW_MASK) >>> WINDOW_SHIFT);
+            MappedByteBuffer[] windows = new MappedByteBuffer[windowCount];
+            for (int w = 0; w < windowCount; w++) {
+                long start = (long) w << WINDOW_SHIFT;
+                windows[w] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(1L << WINDOW_SHIFT, fileSize - start));
+                windows[w].order(ByteOrder.LITTLE_ENDIAN);
+            }
+
+            ByteBuffer header = windows[0];
+            if (header.getLong(0) != MAGIC) {
+                throw new IOException("Not a fact store (bad magic): " + path);
+            }
+            int version = header.getInt(8);
+            if (version != VERSION) {
+                throw new IOException("Unsupported fact store version " + version + " (expected " + VERSION + "): " + path);
+            }
+            FactStore store = new FactStore(path, header.getLong(32), header.getDouble(40), header.getDouble(48),
+                    header.getInt(12), header.getInt(16), header.getInt(20), header.getInt(24), windows);
+            long expectedSize = store.alertsOffset + (long) store.numAlerts * ALERT_BYTES;
+            if (fileSize != expectedSize) {
+                throw new IOException("Truncated or corrupt fact store: " + fileSize + " bytes, expected "
+                        + expectedSize + ": " + path);
+            }
+            return store;
+        }
+    }
+
+    /**
+     * Opens the store at {@code path}, writing it from the generator first if the file does not exist yet.
+     * An existing store must have been written from the same generator settings; it is never overwritten.
+     *
+     * @throws IOException also if the existing store's seed, counts or exponents differ from the generator's
+     */
+    public static FactStore openOrWrite(Path path, StressDataGenerator generator) throws IOException {
+        if (!Files.exists(path)) {
+            write(path, generator);
+        }
+        FactStore store = open(path);
+        StringBuilder differences = new StringBuilder();
+        appendDifference(differences, "seed", store.seed, generator.getSeed());
+        appendDifference(differences, "customers", store.numCustomers, generator.getNumCustomers());
+        appendDifference(differences, "transactions", store.numTransactions, generator.getNumTransactions());
+        appendDifference(differences, "locations", store.numLocations, generator.getNumLocations());
+        appendDifference(differences, "customer exponent", store.customerExponent, generator.getCustomerExponent());
+        appendDifference(differences, "location exponent", store.locationExponent, generator.getLocationExponent());
+        if (differences.length() > 0) {
+            throw new IOException("Fact store " + path + " was written for other settings (" + differences
+                    + "); delete it or choose another file");
+        }
+        return store;
+    }
+
+    private static void appendDifference(StringBuilder differences, String name, Object stored, Object requested) {
+        if (!stored.equals(requested)) {
+            differences.append(differences.length() > 0 ? ", " : "")
+                    .append(name).append(' ').append(stored).append(" instead of ").append(requested);
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public double getCustomerExponent() {
+        return customerExponent;
+    }
+
+    public double getLocationExponent() {
+        return locationExponent;
+    }
+
+    public int getNumLocations() {
+        return numLocations;
+    }
+
+    public int getNumCustomers() {
+        return numCustomers;
+    }
+
+    public int getNumTransactions() {
+        return numTransactions;
+    }
+
+    public int getNumAlerts() {
+        return numAlerts;
+    }
+
+    public long getFactCount() {
+        return (long) numCustomers + numTransactions + numAlerts;
+    }
+
+    public byte customerRiskLevel(int id) {
+        return getByte(customersOffset + (long) id * CUSTOMER_BYTES);
+    }
+
+    public byte customerStatus(int id) {
+        return getByte(customersOffset + (long) id * CUSTOMER_BYTES + 1);
+    }
+
+    public int transactionCustomerId(int id) {
+        return getInt(transactionsOffset + (long) id * TRANSACTION_BYTES);
+    }
+
+    public int transactionLocationId(int id) {
+        return getInt(transactionsOffset + (long) id * TRANSACTION_BYTES + 4);
+    }
+
+    public double transactionAmount(int id) {
+        return getDouble(transactionsOffset + (long) id * TRANSACTION_BYTES + 8);
+    }
+
+    public int alertLocationId(int index) {
+        return getInt(alertsOffset + (long) index * ALERT_BYTES);
+    }
+
+    public int alertSeverity(int index) {
+        return getInt(alertsOffset + (long) index * ALERT_BYTES + 4);
+    }
+
+    private byte getByte(long offset) {
+        return windows[(int) (offset >>> WINDOW_SHIFT)].get((int) (offset & WINDOW_MASK));
+    }
+
+    private int getInt(long offset) {
+        return windows[(int) (offset >>> WINDOW_SHIFT)].getInt((int) (offset & WINDOW_MASK));
+    }
+
+    private double getDouble(long offset) {
+        return windows[(int) (offset >>> WINDOW_SHIFT)].getDouble((int) (offset & WINDOW_MASK));
+    }
+
+    /**
+     * Reads customers and alerts into columns; transactions are left on disk for {@link #newTransactionCursor()}.
+     */
+    public StressDataset readWithoutTransactions() {
+        return read(false);
+    }
+
+    /**
+     * Reads the whole store into columns, e.g. for the {@link ReferenceEvaluator} or sharded runs.
+     */
+    public StressDataset readDataset() {
+        return read(true);
+    }
+
+    private StressDataset read(boolean withTransactions) {
+        byte[] riskLevels = new byte[numCustomers];
+        byte[] statuses = new byte[numCustomers];
+        for (int i = 0; i < numCustomers; i++) {
+            riskLevels[i] = customerRiskLevel(i);
+            statuses[i] = customerStatus(i);
+        }
+        int count = withTransactions ? numTransactions : 0;
+        int[] customerIds = new int[count];
+        double[] amounts = new double[count];
+        int[] locationIds = new int[count];
+        for (int i = 0; i < count; i++) {
+            customerIds[i] = transactionCustomerId(i);
+            amounts[i] = transactionAmount(i);
+            locationIds[i] = transactionLocationId(i);
+        }
+        int[] alertLocationIds = new int[numAlerts];
+        int[] alertSeverities = new int[numAlerts];
+        for (int i = 0; i < numAlerts; i++) {
+            alertLocationIds[i] = alertLocationId(i);
+            alertSeverities[i] = alertSeverity(i);
+        }
+        return new StressDataset(numLocations, riskLevels, statuses,
+                customerIds, amounts, locationIds, alertLocationIds, alertSeverities);
+    }
+
+    /**
+     * Reads the transactions sequentially in {@link StressDataGenerator#CHUNK_SIZE} chunks.
+     */
+    public TransactionChunkCursor newTransactionCursor() {
+        return new TransactionChunkCursor(Math.min(StressDataGenerator.CHUNK_SIZE, numTransactions)) {
+            @Override
+            protected int fill(int firstIndex) {
+                int size = Math.min(customerIds.length, numTransactions - firstIndex);
+                for (int i = 0; i < size; i++) {
+                    customerIds[i] = transactionCustomerId(firstIndex + i);
+                    locationIds[i] = transactionLocationId(firstIndex + i);
+                    amounts[i] = transactionAmount(firstIndex + i);
+                }
+                return Math.max(0, size);
+            }
+        };
+    }
+
+    // --- Writer ---
+
+    /**
+     * Writes a store: {@code FactStore <file> [seed customers transactions locations [customerExponent locationExponent]]}.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1 && args.length != 5 && args.length != 7) {
+            System.err.println("Usage: FactStore <file> [seed customers transactions locations [customerExponent locationExponent]]");
+            System.exit(1);
+        }
+        StressDataGenerator generator = args.length >= 5
+                ? new StressDataGenerator(Long.parseLong(args[1]), Integer.parseInt(args[2]),
+                        Integer.parseInt(args[3]), Integer.parseInt(args[4]),
+                        args.length == 7 ? Double.parseDouble(args[5]) : 0.0,
+                        args.length == 7 ? Double.parseDouble(args[6]) : 0.0)
+                : new StressDataGenerator(0L, 10_000, 10_000_000, 1_000);
+        Path path = Paths.get(args[0]);
+        long startTime = System.nanoTime();
+        write(path, generator);
+        double seconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+        System.out.printf("Wrote %,d facts (%,d bytes) to %s in %.4f s\n",
+                generator.getFactCount(), Files.size(path), path, seconds);
+    }
+}
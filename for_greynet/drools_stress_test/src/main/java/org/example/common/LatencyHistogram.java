@@ -0,0 +1,86 @@
+package org.example.common;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size latency histogram for long runs, where {@link LatencyRecorder} would keep every sample.
+ * <p>
+ * Buckets are log-linear: each power of two is split into 16 sub-buckets, so a reported percentile
+ * is the upper edge of its bucket and overstates the true value by at most 1/16 (6.25%).
+ * Values below 16 ns are exact. Recording is thread-safe and allocation-free.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    public void record(long nanos) {
+        counts.incrementAndGet(index(Math.max(0L, nanos)));
+    }
+
+    /**
+     * Clears all counts, e.g. at the end of a warm-up. Samples recorded concurrently may be lost.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0L);
+        }
+    }
+
+    public long getCount() {
+        long total = 0L;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * @param percentile in the range (0, 100], e.g. 99.9 for p999
+     */
+    public long getPercentile(double percentile) {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long total = 0L;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0L) {
+            return 0L;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0L;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return upperEdge(i);
+            }
+        }
+        return upperEdge(BUCKET_COUNT - 1);
+    }
+
+    public long getMax() {
+        return getPercentile(100.0);
+    }
+
+    private static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long upperEdge(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lowerEdge = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lowerEdge + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.common;
+
+import java.util.Arrays;
+
+/**
+ * Collects latency samples in nanoseconds and reports nearest-rank percentiles.
+ * Not thread-safe: give each thread its own recorder and {@link #merge} them afterwards.
+ */
+public class LatencyRecorder {
+    private long[] samples;
+    private int count = 0;
+    private long totalNanos = 0;
+
+    public LatencyRecorder() {
+        this(1024);
+    }
+
+    public LatencyRecorder(int expectedSamples) {
+        this.samples = new long[Math.max(16, expectedSamples)];
+    }
+
+    public void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, samples.length * 2);
+        }
+        samples[count++] = nanos;
+        totalNanos += nanos;
+    }
+
+    public void merge(LatencyRecorder other) {
+        for (int i = 0; i < other.count; i++) {
+            record(other.samples[i]);
+        }
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * @param percentile in the range (0, 100], e.g. 99.9 for p999
+     */
+    public long getPercentile(double percentile) {
+        if (count == 0) {
+            return 0L;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100.0 * count);
+        return sorted[Math.min(count, Math.max(1, rank)) - 1];
+    }
+
+    public long getMax() {
+        return getPercentile(100.0);
+    }
+
+    public static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
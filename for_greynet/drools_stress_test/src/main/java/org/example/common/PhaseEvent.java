@@ -0,0 +1,41 @@
+package org.example.common;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * One stress-test phase (setup, generate, insert, fire, ...) as a JFR event, so a recording taken with
+ * {@code -XX:StartFlightRecording} lines up GC, allocation and lock events with the harness phases.
+ */
+@Name("org.example.StressPhase")
+@Label("Stress Phase")
+@Category({"Stress Test"})
+@Description("A phase of a rule engine stress test run")
+public class PhaseEvent extends Event {
+
+    @Label("Harness")
+    public String harness;
+
+    @Label("Phase")
+    public String phase;
+
+    @Label("Allocated")
+    @DataAmount
+    public long allocatedBytes;
+
+    @Label("GC Count")
+    public long gcCount;
+
+    @Label("GC Time")
+    @Timespan(Timespan.MILLISECONDS)
+    public long gcTimeMillis;
+
+    @Label("Peak Heap")
+    @DataAmount
+    public long peakHeapBytes;
+}
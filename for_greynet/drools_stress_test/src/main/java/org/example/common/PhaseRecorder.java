@@ -0,0 +1,310 @@
+package org.example.common;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Records each phase of a run as a {@link PhaseEvent} plus its duration, allocated bytes, GC count/time
+ * and peak heap, and writes them with the run's headline metrics as JSON and CSV for CI to diff.
+ * <p>
+ * Allocated bytes come from HotSpot's {@code com.sun.management.ThreadMXBean}: each thread's counter at the
+ * end of the phase minus its own counter at the start (zero for threads started during the phase). A thread
+ * that terminates inside the phase takes its counter with it, so its allocation is missing from the total;
+ * such threads are counted in the Exited Threads column to flag the undercount.
+ * Peak heap is the sum of the heap pools' peak usage since the phase began, an upper bound on the
+ * true peak because the pools may peak at different moments. Phases must not overlap.
+ */
+public class PhaseRecorder {
+
+    private final String harness;
+    private final List<Phase> phases = new ArrayList<>();
+    private final com.sun.management.ThreadMXBean threadBean = threadBean();
+    private final List<GarbageCollectorMXBean> gcBeans = ManagementFactory.getGarbageCollectorMXBeans();
+    private final List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+
+    private PhaseEvent event;
+    private String currentPhase;
+    private long startNanos;
+    private final Map<Long, Long> startAllocatedByThread = new HashMap<>();
+    private long startGcCount;
+    private long startGcMillis;
+
+    public PhaseRecorder(String harness) {
+        this.harness = harness;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                heapPools.add(pool);
+            }
+        }
+    }
+
+    public void begin(String phase) {
+        if (currentPhase != null) {
+            throw new IllegalStateException("Phase " + currentPhase + " has not ended before " + phase);
+        }
+        currentPhase = phase;
+        for (MemoryPoolMXBean pool : heapPools) {
+            pool.resetPeakUsage();
+        }
+        startGcCount = gcCount();
+        startGcMillis = gcMillis();
+        recordStartAllocated();
+        event = new PhaseEvent();
+        event.begin();
+        startNanos = System.nanoTime();
+    }
+
+    public void end() {
+        long durationNanos = System.nanoTime() - startNanos;
+        event.end();
+        long allocatedBytes = allocatedBytesSinceStart();
+        Phase phase = new Phase(currentPhase, durationNanos,
+                allocatedBytes,
+                startAllocatedByThread.size(),
+                gcCount() - startGcCount,
+                gcMillis() - startGcMillis,
+                peakHeapBytes());
+        phases.add(phase);
+
+        event.harness = harness;
+        event.phase = phase.name;
+        event.allocatedBytes = phase.allocatedBytes;
+        event.gcCount = phase.gcCount;
+        event.gcTimeMillis = phase.gcMillis;
+        event.peakHeapBytes = phase.peakHeapBytes;
+        event.commit();
+        event = null;
+        currentPhase = null;
+        startAllocatedByThread.clear();
+    }
+
+    private void recordStartAllocated() {
+        startAllocatedByThread.clear();
+        if (threadBean == null) {
+            return;
+        }
+        long[] threadIds = threadBean.getAllThreadIds();
+        long[] allocated = threadBean.getThreadAllocatedBytes(threadIds);
+        for (int i = 0; i < threadIds.length; i++) {
+            if (allocated[i] >= 0) {
+                startAllocatedByThread.put(threadIds[i], allocated[i]);
+            }
+        }
+    }
+
+    /**
+     * Sums each live thread's allocation since the phase began; the threads left in the start map afterwards
+     * are those that exited during the phase.
+     */
+    private long allocatedBytesSinceStart() {
+        if (threadBean == null) {
+            return 0L;
+        }
+        long[] threadIds = threadBean.getAllThreadIds();
+        long[] allocated = threadBean.getThreadAllocatedBytes(threadIds);
+        long total = 0L;
+        for (int i = 0; i < threadIds.length; i++) {
+            Long start = startAllocatedByThread.remove(threadIds[i]);
+            if (allocated[i] >= 0) {
+                total += allocated[i] - (start != null ? start : 0L);
+            }
+        }
+        return total;
+    }
+
+    private long gcCount() {
+        long total = 0L;
+        for (GarbageCollectorMXBean gcBean : gcBeans) {
+            total += Math.max(0L, gcBean.getCollectionCount());
+        }
+        return total;
+    }
+
+    private long gcMillis() {
+        long total = 0L;
+        for (GarbageCollectorMXBean gcBean : gcBeans) {
+            total += Math.max(0L, gcBean.getCollectionTime());
+        }
+        return total;
+    }
+
+    private long peakHeapBytes() {
+        long total = 0L;
+        for (MemoryPoolMXBean pool : heapPools) {
+            total += pool.getPeakUsage().getUsed();
+        }
+        return total;
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) bean;
+            allocationBean.setThreadAllocatedMemoryEnabled(true);
+            return allocationBean;
+        }
+        return null;
+    }
+
+    /**
+     * Bytes allocated during the most recent phase with this name, or -1 if no such phase was recorded.
+     */
+    public long getAllocatedBytes(String phaseName) {
+        Phase phase = lastPhase(phaseName);
+        return phase != null ? phase.allocatedBytes : -1L;
+    }
+
+    /**
+     * Peak heap during the most recent phase with this name, or -1 if no such phase was recorded.
+     */
+    public long getPeakHeapBytes(String phaseName) {
+        Phase phase = lastPhase(phaseName);
+        return phase != null ? phase.peakHeapBytes : -1L;
+    }
+
+    private Phase lastPhase(String phaseName) {
+        for (int i = phases.size() - 1; i >= 0; i--) {
+            if (phases.get(i).name.equals(phaseName)) {
+                return phases.get(i);
+            }
+        }
+        return null;
+    }
+
+    public void printReport() {
+        System.out.println("\n#### Phase Summary");
+        System.out.printf("| %-14s | %-12s | %-14s | %-14s | %-8s | %-12s | %-12s |\n",
+                "Phase", "Time", "Allocated", "Exited Threads", "GC Count", "GC Time", "Peak Heap");
+        System.out.printf("|-%-14s-|-%-12s-|-%-14s-|-%-14s-|-%-8s-|-%-12s-|-%-12s-|\n",
+                "-".repeat(14), "-".repeat(12), "-".repeat(14), "-".repeat(14), "-".repeat(8), "-".repeat(12),
+                "-".repeat(12));
+        for (Phase phase : phases) {
+            System.out.printf("| %-14s | %10.4f s | %,11.2f MB | %14d | %8d | %,9d ms | %,9.2f MB |\n",
+                    phase.name,
+                    phase.durationNanos / 1_000_000_000.0,
+                    toMegabytes(phase.allocatedBytes),
+                    phase.exitedThreads,
+                    phase.gcCount,
+                    phase.gcMillis,
+                    toMegabytes(phase.peakHeapBytes));
+        }
+    }
+
+    /**
+     * Writes {@code <prefix>.json} (run metrics and phases) and {@code <prefix>.csv} (one row per phase).
+     *
+     * @param metrics headline numbers of the run (score, throughput, ...) in report order
+     */
+    public void writeResults(Path prefix, Map<String, Object> metrics) throws IOException {
+        Path json = prefix.resolveSibling(prefix.getFileName() + ".json");
+        Path csv = prefix.resolveSibling(prefix.getFileName() + ".csv");
+        Path parent = json.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(json, StandardCharsets.UTF_8))) {
+            out.println("{");
+            out.printf("  \"harness\": %s,%n", jsonValue(harness));
+            out.printf("  \"javaVersion\": %s,%n", jsonValue(System.getProperty("java.version")));
+            out.println("  \"metrics\": {");
+            int i = 0;
+            for (Map.Entry<String, Object> metric : metrics.entrySet()) {
+                out.printf("    %s: %s%s%n", jsonValue(metric.getKey()), jsonValue(metric.getValue()),
+                        ++i < metrics.size() ? "," : "");
+            }
+            out.println("  },");
+            out.println("  \"phases\": [");
+            for (int p = 0; p < phases.size(); p++) {
+                Phase phase = phases.get(p);
+                out.printf(Locale.ROOT, "    {\"phase\": %s, \"durationMs\": %.3f, \"allocatedBytes\": %d, "
+                                + "\"exitedThreads\": %d, \"gcCount\": %d, \"gcTimeMs\": %d, \"peakHeapBytes\": %d}%s%n",
+                        jsonValue(phase.name), phase.durationNanos / 1_000_000.0, phase.allocatedBytes,
+                        phase.exitedThreads, phase.gcCount, phase.gcMillis, phase.peakHeapBytes, p + 1 < phases.size() ? "," : "");
+            }
+            out.println("  ]");
+            out.println("}");
+        }
+
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(csv, StandardCharsets.UTF_8))) {
+            out.println("harness,phase,duration_ms,allocated_bytes,exited_threads,gc_count,gc_time_ms,peak_heap_bytes");
+            for (Phase phase : phases) {
+                out.printf(Locale.ROOT, "%s,%s,%.3f,%d,%d,%d,%d,%d%n", harness, phase.name,
+                        phase.durationNanos / 1_000_000.0, phase.allocatedBytes, phase.exitedThreads, phase.gcCount,
+                        phase.gcMillis, phase.peakHeapBytes);
+            }
+        }
+    }
+
+    private static String jsonValue(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof Double || value instanceof Float) {
+            double d = ((Number) value).doubleValue();
+            return Double.isFinite(d) ? String.format(Locale.ROOT, "%.6f", d) : "null";
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return value.toString();
+        }
+        StringBuilder sb = new StringBuilder("\"");
+        for (char c : value.toString().toCharArray()) {
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private static double toMegabytes(long bytes) {
+        return bytes / (1024.0 * 1024.0);
+    }
+
+    private static class Phase {
+        final String name;
+        final long durationNanos;
+        final long allocatedBytes;
+        final int exitedThreads;
+        final long gcCount;
+        final long gcMillis;
+        final long peakHeapBytes;
+
+        Phase(String name, long durationNanos, long allocatedBytes, int exitedThreads, long gcCount, long gcMillis,
+              long peakHeapBytes) {
+            this.name = name;
+            this.durationNanos = durationNanos;
+            this.allocatedBytes = allocatedBytes;
+            this.exitedThreads = exitedThreads;
+            this.gcCount = gcCount;
+            this.gcMillis = gcMillis;
+            this.peakHeapBytes = peakHeapBytes;
+        }
+    }
+}
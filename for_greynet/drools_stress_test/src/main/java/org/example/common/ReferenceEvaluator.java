@@ -0,0 +1,215 @@
+package org.example.common;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Engine-free evaluation of the five stress-test rules straight over the {@link StressDataset} columns.
+ * <p>
+ * Serves as the correctness oracle for the Drools and Bavet outputs, and as an upper bound on
+ * facts/sec for this workload: everything an engine does beyond this loop is engine overhead.
+ * Penalties are summed per transaction chunk and combined in chunk order, so the single-threaded
+ * and parallel runs return bit-for-bit the same result.
+ */
+public class ReferenceEvaluator {
+
+    private static final int RULE_COUNT = StressRule.values().length;
+    private static final int HIGH_VALUE = StressRule.HIGH_VALUE_TRANSACTION.ordinal();
+    private static final int EXCESSIVE = StressRule.EXCESSIVE_TRANSACTIONS_PER_CUSTOMER.ordinal();
+    private static final int ALERTED = StressRule.TRANSACTION_IN_ALERTED_LOCATION.ordinal();
+    private static final int INACTIVE = StressRule.INACTIVE_CUSTOMER_TRANSACTION.ordinal();
+    private static final int HIGH_RISK = StressRule.HIGH_RISK_TRANSACTION_WITHOUT_ALERT.ordinal();
+
+    private ReferenceEvaluator() {
+    }
+
+    /**
+     * Evaluates the rules on the calling thread.
+     */
+    public static Result evaluate(StressDataset dataset) {
+        return evaluate(dataset, null);
+    }
+
+    /**
+     * Evaluates the rules, splitting the transaction chunks across the pool's parallelism.
+     *
+     * @param pool null to run on the calling thread
+     */
+    public static Result evaluate(StressDataset dataset, ForkJoinPool pool) {
+        int numCustomers = dataset.getNumCustomers();
+        int numTransactions = dataset.getNumTransactions();
+
+        long[] alertedLocations = new long[(dataset.numLocations + 63) >>> 6];
+        int[] severityByLocation = new int[dataset.numLocations];
+        for (int i = 0; i < dataset.getNumAlerts(); i++) {
+            int location = dataset.alertLocationIds[i];
+            alertedLocations[location >>> 6] |= 1L << location;
+            severityByLocation[location] = dataset.alertSeverities[i];
+        }
+
+        int chunkCount = (numTransactions + StressDataGenerator.CHUNK_SIZE - 1) / StressDataGenerator.CHUNK_SIZE;
+        long[][] chunkMatches = new long[chunkCount][RULE_COUNT];
+        double[][] chunkPenalties = new double[chunkCount][RULE_COUNT];
+        int sliceCount = pool == null ? 1 : Math.max(1, Math.min(chunkCount, pool.getParallelism()));
+        int[][] sliceCustomerCounts = new int[sliceCount][];
+
+        StressDataGenerator.ChunkBody slice = s -> {
+            int[] customerCounts = new int[numCustomers];
+            int firstChunk = (int) ((long) s * chunkCount / sliceCount);
+            int lastChunk = (int) ((long) (s + 1) * chunkCount / sliceCount);
+            for (int chunk = firstChunk; chunk < lastChunk; chunk++) {
+                int from = chunk * StressDataGenerator.CHUNK_SIZE;
+                int to = Math.min(numTransactions, from + StressDataGenerator.CHUNK_SIZE);
+                evaluateChunk(dataset, from, to, alertedLocations, severityByLocation, customerCounts,
+                        chunkMatches[chunk], chunkPenalties[chunk]);
+            }
+            sliceCustomerCounts[s] = customerCounts;
+        };
+        if (pool == null) {
+            slice.apply(0);
+        } else {
+            pool.invoke(new StressDataGenerator.ChunkRangeAction(0, sliceCount, slice));
+        }
+
+        Result result = new Result();
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            for (int rule = 0; rule < RULE_COUNT; rule++) {
+                result.matchCounts[rule] += chunkMatches[chunk][rule];
+                result.penalties[rule] += chunkPenalties[chunk][rule];
+            }
+        }
+        int[] customerCounts = sliceCustomerCounts[0];
+        for (int s = 1; s < sliceCount; s++) {
+            for (int c = 0; c < numCustomers; c++) {
+                customerCounts[c] += sliceCustomerCounts[s][c];
+            }
+        }
+        for (int c = 0; c < numCustomers; c++) {
+            if (customerCounts[c] > 25) {
+                result.matchCounts[EXCESSIVE]++;
+                result.penalties[EXCESSIVE] += (customerCounts[c] - 25) * 10.0;
+            }
+        }
+        return result;
+    }
+
+    private static void evaluateChunk(StressDataset dataset, int from, int to,
+                                      long[] alertedLocations, int[] severityByLocation, int[] customerCounts,
+                                      long[] matches, double[] penalties) {
+        int[] customerIds = dataset.transactionCustomerIds;
+        double[] amounts = dataset.transactionAmounts;
+        int[] locationIds = dataset.transactionLocationIds;
+        byte[] riskLevels = dataset.customerRiskLevels;
+        byte[] statuses = dataset.customerStatuses;
+        for (int i = from; i < to; i++) {
+            int customerId = customerIds[i];
+            customerCounts[customerId]++;
+
+            double amount = amounts[i];
+            if (amount > 45000.0) {
+                matches[HIGH_VALUE]++;
+                penalties[HIGH_VALUE] += amount / 1000.0;
+            }
+            int location = locationIds[i];
+            boolean alerted = (alertedLocations[location >>> 6] & (1L << location)) != 0;
+            if (alerted) {
+                matches[ALERTED]++;
+                penalties[ALERTED] += 100.0 * severityByLocation[location];
+            }
+            if (statuses[customerId] == StressDataGenerator.STATUS_INACTIVE) {
+                matches[INACTIVE]++;
+                penalties[INACTIVE] += 500.0;
+            }
+            if (riskLevels[customerId] == StressDataGenerator.RISK_HIGH && !alerted) {
+                matches[HIGH_RISK]++;
+                penalties[HIGH_RISK] += 1000.0;
+            }
+        }
+    }
+
+    /**
+     * Total penalty (a positive number, as in the DRL's ScoreHolder) and per-rule match counts.
+     */
+    public static class Result {
+        private final long[] matchCounts = new long[RULE_COUNT];
+        private final double[] penalties = new double[RULE_COUNT];
+
+        public long getMatchCount(StressRule rule) {
+            return matchCounts[rule.ordinal()];
+        }
+
+        public double getPenalty(StressRule rule) {
+            return penalties[rule.ordinal()];
+        }
+
+        public long getTotalMatches() {
+            long total = 0;
+            for (long count : matchCounts) {
+                total += count;
+            }
+            return total;
+        }
+
+        public double getScore() {
+            double score = 0.0;
+            for (double penalty : penalties) {
+                score += penalty;
+            }
+            return score;
+        }
+
+        /**
+         * Compares an engine's total penalty with this one, allowing for a different summation order.
+         */
+        public boolean scoreAgrees(double penalty, double relativeTolerance) {
+            double expected = getScore();
+            return Math.abs(expected - penalty) <= relativeTolerance * Math.max(1.0, Math.abs(expected));
+        }
+    }
+
+    // --- Baseline Runner ---
+
+    public static void main(String[] args) {
+        int numCustomers = 10_000;
+        int numTransactions = 10_000_000;
+        int numLocations = 1_000;
+        long seed = Long.getLong("stress.seed", 0L);
+        int threads = Integer.getInteger("stress.threads", Runtime.getRuntime().availableProcessors());
+
+        System.out.println("### Starting Columnar Reference Evaluation (no engine) ###");
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        StressDataset dataset = new StressDataGenerator(seed, numCustomers, numTransactions, numLocations).generate(pool);
+
+        // Warm up both paths once so the timed runs are compiled code
+        evaluate(dataset);
+        evaluate(dataset, pool);
+
+        long startTime = System.nanoTime();
+        Result single = evaluate(dataset);
+        long singleDuration = System.nanoTime() - startTime;
+
+        startTime = System.nanoTime();
+        Result parallel = evaluate(dataset, pool);
+        long parallelDuration = System.nanoTime() - startTime;
+        pool.shutdown();
+
+        System.out.println("\n#### Performance Summary");
+        System.out.printf("| %-30s | %-20s |\n", "Metric", "Value");
+        System.out.printf("|-%-30s-|-%-20s-|\n", "-".repeat(30), "-".repeat(20));
+        System.out.printf("| %-30s | %,d facts\n", "Total Facts Processed", dataset.getFactCount());
+        System.out.printf("| %-30s | %.4f s\n", "Single-threaded Time", TimeUnit.NANOSECONDS.toMicros(singleDuration) / 1_000_000.0);
+        System.out.printf("| %-30s | %,.2f facts/sec\n", "Single-threaded Throughput", dataset.getFactCount() / (singleDuration / 1_000_000_000.0));
+        System.out.printf("| %-30s | %.4f s\n", "Parallel Time (" + threads + " threads)", TimeUnit.NANOSECONDS.toMicros(parallelDuration) / 1_000_000.0);
+        System.out.printf("| %-30s | %,.2f facts/sec\n", "Parallel Throughput", dataset.getFactCount() / (parallelDuration / 1_000_000_000.0));
+
+        System.out.println("\n#### Reference Output");
+        System.out.printf("- Final Score: %,.2f\n", single.getScore());
+        System.out.printf("- Total Rule Activations: %,d\n", single.getTotalMatches());
+        for (StressRule rule : StressRule.values()) {
+            System.out.printf("  - `%s`: %,d matches, %,.2f penalty\n",
+                    rule.getRuleName(), single.getMatchCount(rule), single.getPenalty(rule));
+        }
+        System.out.printf("- Parallel result identical: %s\n",
+                single.getScore() == parallel.getScore() && single.getTotalMatches() == parallel.getTotalMatches());
+    }
+}
@@ -0,0 +1,104 @@
+package org.example.common;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Per-rule matches, penalty and (when the engine can attribute it) time, in {@link StressRule} order,
+ * so the Drools and Bavet harnesses print and export the same table.
+ */
+public class RuleBreakdown {
+
+    private static final int RULE_COUNT = StressRule.values().length;
+
+    private final long[] matches = new long[RULE_COUNT];
+    private final double[] penalties = new double[RULE_COUNT];
+    private final long[] timeNanos = new long[RULE_COUNT];
+    private boolean timed = false;
+
+    public void add(StressRule rule, long matchCount, double penalty) {
+        matches[rule.ordinal()] += matchCount;
+        penalties[rule.ordinal()] += penalty;
+    }
+
+    public void addTime(StressRule rule, long nanos) {
+        timeNanos[rule.ordinal()] += nanos;
+        timed = true;
+    }
+
+    public long getMatches(StressRule rule) {
+        return matches[rule.ordinal()];
+    }
+
+    public double getPenalty(StressRule rule) {
+        return penalties[rule.ordinal()];
+    }
+
+    public long getTimeNanos(StressRule rule) {
+        return timeNanos[rule.ordinal()];
+    }
+
+    public boolean isTimed() {
+        return timed;
+    }
+
+    /**
+     * Prints the Markdown table; the time columns appear only if some time was recorded.
+     *
+     * @param timeLabel what the time column measures, e.g. "Consequence Time"
+     */
+    public void printReport(String timeLabel) {
+        double totalPenalty = 0.0;
+        long totalNanos = 0L;
+        for (int i = 0; i < RULE_COUNT; i++) {
+            totalPenalty += penalties[i];
+            totalNanos += timeNanos[i];
+        }
+
+        System.out.println("\n#### Per-Rule Breakdown");
+        if (timed) {
+            System.out.printf("| %-36s | %12s | %20s | %7s | %-16s | %7s |\n", "Rule", "Matches", "Penalty", "Share", timeLabel, "Share");
+            System.out.printf("|-%-36s-|-%12s-|-%20s-|-%7s-|-%-16s-|-%7s-|\n",
+                    "-".repeat(36), "-".repeat(12), "-".repeat(20), "-".repeat(7), "-".repeat(16), "-".repeat(7));
+        } else {
+            System.out.printf("| %-36s | %12s | %20s | %7s |\n", "Rule", "Matches", "Penalty", "Share");
+            System.out.printf("|-%-36s-|-%12s-|-%20s-|-%7s-|\n", "-".repeat(36), "-".repeat(12), "-".repeat(20), "-".repeat(7));
+        }
+        for (StressRule rule : StressRule.values()) {
+            int i = rule.ordinal();
+            double penaltyShare = totalPenalty == 0.0 ? 0.0 : 100.0 * penalties[i] / totalPenalty;
+            if (timed) {
+                double timeShare = totalNanos == 0L ? 0.0 : 100.0 * timeNanos[i] / totalNanos;
+                System.out.printf("| %-36s | %,12d | %,20.2f | %6.1f%% | %13.3f ms | %6.1f%% |\n",
+                        rule.getRuleName(), matches[i], penalties[i], penaltyShare,
+                        LatencyRecorder.toMillis(timeNanos[i]), timeShare);
+            } else {
+                System.out.printf("| %-36s | %,12d | %,20.2f | %6.1f%% |\n",
+                        rule.getRuleName(), matches[i], penalties[i], penaltyShare);
+            }
+        }
+    }
+
+    /**
+     * Writes one CSV row per rule; {@code time_ms} is empty when no time was recorded.
+     */
+    public void writeCsv(Path path, String engine) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8))) {
+            out.println("engine,rule,constraint,matches,penalty,time_ms");
+            for (StressRule rule : StressRule.values()) {
+                int i = rule.ordinal();
+                out.printf(Locale.ROOT, "%s,\"%s\",%s,%d,%.6f,%s%n",
+                        engine, rule.getRuleName(), rule.getConstraintName(), matches[i], penalties[i],
+                        timed ? String.format(Locale.ROOT, "%.6f", LatencyRecorder.toMillis(timeNanos[i])) : "");
+            }
+        }
+    }
+}
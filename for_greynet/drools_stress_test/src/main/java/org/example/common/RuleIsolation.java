@@ -0,0 +1,208 @@
+package org.example.common;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Attributes setup time, fire time and heap to individual rules by building the engine's network from
+ * subsets of the five {@link StressRule}s: each rule on its own, then each cumulative prefix (rules 1..k
+ * in declaration order), all over the same facts.
+ * <p>
+ * After an untimed warm-up with all rules, every subset is one {@link PhaseRecorder} phase. Retained heap
+ * is the used heap after GC while the engine still holds its state, minus the same figure taken just before
+ * the subset ran, so for Drools it is the fact handles plus the node memories of the subset's rules. A single
+ * rule's marginal cost is taken against the no-rules baseline (when the engine runs one), a prefix's against
+ * the previous prefix; prefix 1 is single rule 1 and is not run twice. Nodes shared between rules are paid
+ * for once, so the single-rule costs may add up to more than the whole rule base.
+ */
+public class RuleIsolation {
+
+    private static final StressRule[] RULES = StressRule.values();
+
+    private final String engine;
+    private final boolean baseline;
+
+    /**
+     * @param baseline whether to run an empty rule base first, which for Drools measures the fact handles alone
+     */
+    public RuleIsolation(String engine, boolean baseline) {
+        this.engine = engine;
+        this.baseline = baseline;
+    }
+
+    /**
+     * Runs the whole rule base once untimed, so the rule compiler and the insert path are warm before the first
+     * subset, then every subset in turn.
+     */
+    public List<Measurement> run(SubsetRunner runner) {
+        System.out.println("Warming up with all rules...");
+        try {
+            runner.run(EnumSet.allOf(StressRule.class));
+        } catch (Exception e) {
+            throw new IllegalStateException("Warm-up with all rules failed", e);
+        }
+        PhaseRecorder recorder = new PhaseRecorder(engine + "-isolation");
+        List<Measurement> measurements = new ArrayList<>();
+        Measurement empty = null;
+        if (baseline) {
+            empty = measure(runner, recorder, "baseline", Collections.emptySet(), null);
+            measurements.add(empty);
+        }
+        List<Measurement> singles = new ArrayList<>();
+        for (StressRule rule : RULES) {
+            Measurement single = measure(runner, recorder, "single", EnumSet.of(rule), empty);
+            singles.add(single);
+            measurements.add(single);
+        }
+        Measurement previous = singles.get(0);
+        for (int k = 2; k <= RULES.length; k++) {
+            Set<StressRule> prefix = EnumSet.range(RULES[0], RULES[k - 1]);
+            previous = measure(runner, recorder, "prefix", prefix, previous);
+            measurements.add(previous);
+        }
+        return measurements;
+    }
+
+    private Measurement measure(SubsetRunner runner, PhaseRecorder recorder, String kind, Set<StressRule> rules,
+                                Measurement reference) {
+        String label = getLabel(kind, rules);
+        System.out.printf("Isolating %s...\n", label);
+        long baselineHeap = SizeSweep.usedHeapAfterGc();
+        Outcome outcome = null;
+        String status;
+        recorder.begin(label);
+        try {
+            outcome = runner.run(rules);
+            status = "ok";
+        } catch (OutOfMemoryError e) {
+            status = "oom";
+        } catch (Exception e) {
+            System.err.println("Rule subset " + label + " failed: " + e);
+            status = "failed";
+        } finally {
+            recorder.end();
+        }
+        if (outcome != null) {
+            outcome.retainedHeapBytes -= baselineHeap;
+        } else {
+            SizeSweep.usedHeapAfterGc();
+        }
+        return new Measurement(kind, label, rules, status, outcome, recorder.getPeakHeapBytes(label) - baselineHeap,
+                reference != null && reference.outcome != null ? reference : null);
+    }
+
+    private static String getLabel(String kind, Set<StressRule> rules) {
+        if (rules.isEmpty()) {
+            return "no rules";
+        }
+        int last = 0;
+        for (StressRule rule : rules) {
+            last = Math.max(last, rule.ordinal() + 1);
+        }
+        return "prefix".equals(kind) ? "rules 1-" + last : "rule " + last;
+    }
+
+    /**
+     * Prints each subset's absolute and marginal cost, then the single-rule costs summed against the whole rule base.
+     */
+    public static void printReport(String engine, List<Measurement> measurements) {
+        System.out.println("\n#### Per-Rule Isolation (" + engine + ")");
+        System.out.println("| Subset    | Kind     | Status | Setup Time   | Fire Time    | Retained Heap | Peak Heap     | +Setup       | +Fire        | +Retained     | Matches       | Penalty              |");
+        System.out.println("|-----------|----------|--------|--------------|--------------|---------------|---------------|--------------|--------------|---------------|---------------|----------------------|");
+        long singleRetainedSum = 0L;
+        long singleFireSum = 0L;
+        Outcome empty = null;
+        Outcome whole = null;
+        for (Measurement m : measurements) {
+            if (m.outcome == null) {
+                System.out.printf("| %-9s | %-8s | %-6s | %12s | %12s | %13s | %,10.2f MB | %12s | %12s | %13s | %13s | %20s |\n",
+                        m.label, m.kind, m.status, "", "", "", toMegabytes(m.peakHeapBytes), "", "", "", "", "");
+                continue;
+            }
+            Outcome o = m.outcome;
+            Outcome r = m.reference != null ? m.reference.outcome : null;
+            System.out.printf("| %-9s | %-8s | %-6s | %10.4f s | %10.4f s | %,10.2f MB | %,10.2f MB | %+10.4f s | %+10.4f s | %+,10.2f MB | %,13d | %,20.2f |\n",
+                    m.label, m.kind, m.status,
+                    toSeconds(o.setupNanos), toSeconds(o.fireNanos),
+                    toMegabytes(o.retainedHeapBytes), toMegabytes(m.peakHeapBytes),
+                    toSeconds(o.setupNanos - (r != null ? r.setupNanos : 0L)),
+                    toSeconds(o.fireNanos - (r != null ? r.fireNanos : 0L)),
+                    toMegabytes(o.retainedHeapBytes - (r != null ? r.retainedHeapBytes : 0L)),
+                    o.matches, o.penalty);
+            if ("baseline".equals(m.kind)) {
+                empty = o;
+            } else if ("single".equals(m.kind)) {
+                singleRetainedSum += o.retainedHeapBytes - (r != null ? r.retainedHeapBytes : 0L);
+                singleFireSum += o.fireNanos - (r != null ? r.fireNanos : 0L);
+            } else if (m.rules.size() == RULES.length) {
+                whole = o;
+            }
+        }
+        System.out.println("- Marginal (+) columns: single rules against the no-rules baseline (or zero), prefixes against the previous prefix");
+        if (whole != null) {
+            System.out.printf("- Single rules summed: %,.2f MB retained, %.4f s fire; all five rules: %,.2f MB, %.4f s (the difference is node sharing)\n",
+                    toMegabytes(singleRetainedSum), toSeconds(singleFireSum),
+                    toMegabytes(whole.retainedHeapBytes - (empty != null ? empty.retainedHeapBytes : 0L)),
+                    toSeconds(whole.fireNanos - (empty != null ? empty.fireNanos : 0L)));
+        }
+    }
+
+    private static double toSeconds(long nanos) {
+        return nanos / 1_000_000_000.0;
+    }
+
+    private static double toMegabytes(long bytes) {
+        return bytes / (1024.0 * 1024.0);
+    }
+
+    /**
+     * Builds the engine for just {@code rules}, scores the facts with it and reports what it computed.
+     */
+    @FunctionalInterface
+    public interface SubsetRunner {
+        Outcome run(Set<StressRule> rules) throws Exception;
+    }
+
+    public static class Outcome {
+        final long setupNanos;
+        final long fireNanos;
+        final double penalty;
+        final long matches;
+        long retainedHeapBytes;
+
+        /**
+         * @param usedHeapBytes {@link SizeSweep#usedHeapAfterGc()} taken while the engine still holds its state
+         */
+        public Outcome(long setupNanos, long fireNanos, double penalty, long matches, long usedHeapBytes) {
+            this.setupNanos = setupNanos;
+            this.fireNanos = fireNanos;
+            this.penalty = penalty;
+            this.matches = matches;
+            this.retainedHeapBytes = usedHeapBytes;
+        }
+    }
+
+    public static class Measurement {
+        final String kind;
+        final String label;
+        final Set<StressRule> rules;
+        final String status;
+        final Outcome outcome;
+        final long peakHeapBytes;
+        final Measurement reference;
+
+        Measurement(String kind, String label, Set<StressRule> rules, String status, Outcome outcome,
+                    long peakHeapBytes, Measurement reference) {
+            this.kind = kind;
+            this.label = label;
+            this.rules = rules;
+            this.status = status;
+            this.outcome = outcome;
+            this.peakHeapBytes = peakHeapBytes;
+            this.reference = reference;
+        }
+    }
+}
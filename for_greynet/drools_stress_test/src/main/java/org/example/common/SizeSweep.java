@@ -0,0 +1,244 @@
+package org.example.common;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Runs one engine over a grid of dataset sizes and key skews to find where it stops scaling linearly.
+ * <p>
+ * For every Zipf exponent (applied to both transaction customer ids and location ids) the transaction
+ * counts are run smallest first, each on a fresh dataset streamed from a {@link StressDataGenerator}.
+ * A point that runs out of memory is recorded as {@code oom} and the larger sizes of that exponent are
+ * skipped. Each point is a {@link PhaseRecorder} phase, so allocation and peak heap come for free, and
+ * its CSV row is written as soon as it finishes, so a sweep killed at 10^8 keeps its smaller points.
+ * <p>
+ * Peak heap compares engines; retained heap is what each engine still holds after processing, which
+ * differs per engine and is labelled in the CSV and report.
+ */
+public class SizeSweep {
+
+    public static final String DEFAULT_TRANSACTIONS = "10000,100000,1000000,10000000,100000000";
+    public static final String DEFAULT_EXPONENTS = "0,0.8,1.2";
+
+    private final String engine;
+    private final String retainedHeapOf;
+    private final long seed;
+    private final int numCustomers;
+    private final int numLocations;
+    private final List<Integer> transactionCounts;
+    private final List<Double> exponents;
+
+    /**
+     * @param retainedHeapOf  what the engine still holds when its retained heap is measured, e.g. "session"
+     * @param transactionSpec comma-separated transaction counts, e.g. {@value #DEFAULT_TRANSACTIONS}
+     * @param exponentSpec    comma-separated Zipf exponents, 0 for uniform keys
+     */
+    public SizeSweep(String engine, String retainedHeapOf, long seed, int numCustomers, int numLocations,
+                     String transactionSpec, String exponentSpec) {
+        this.engine = engine;
+        this.retainedHeapOf = retainedHeapOf;
+        this.seed = seed;
+        this.numCustomers = numCustomers;
+        this.numLocations = numLocations;
+        this.transactionCounts = new ArrayList<>();
+        for (String part : transactionSpec.split(",")) {
+            transactionCounts.add(Integer.parseInt(part.trim().replace("_", "")));
+        }
+        transactionCounts.sort(null);
+        this.exponents = new ArrayList<>();
+        for (String part : exponentSpec.split(",")) {
+            exponents.add(Double.parseDouble(part.trim()));
+        }
+    }
+
+    /**
+     * Runs every point and writes one CSV row per point to {@code csv}.
+     */
+    public List<Point> run(PointRunner runner, Path csv) throws IOException {
+        Path parent = csv.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        PhaseRecorder recorder = new PhaseRecorder(engine + "-sweep");
+        List<Point> points = new ArrayList<>();
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(csv, StandardCharsets.UTF_8))) {
+            out.println("engine,transactions,customers,locations,zipf_exponent,facts,status,processing_ms,"
+                    + "throughput_facts_per_sec,ns_per_fact,scaling,retained_heap_bytes,retained_heap_of,peak_heap_bytes,"
+                    + "allocated_bytes,score,matches");
+            out.flush();
+            for (double exponent : exponents) {
+                Point previous = null;
+                boolean exhausted = false;
+                for (int transactions : transactionCounts) {
+                    StressDataGenerator generator = new StressDataGenerator(seed, numCustomers, transactions, numLocations,
+                            exponent, exponent);
+                    Point point;
+                    if (exhausted) {
+                        point = new Point(generator, "skipped", null, -1L, -1L);
+                    } else {
+                        System.out.printf("Sweep point: %,d transactions, Zipf exponent %.2f...\n", transactions, exponent);
+                        point = runPoint(runner, generator, recorder);
+                        exhausted = point.outcome == null;
+                    }
+                    point.scaling = point.getScaling(previous);
+                    if (point.outcome != null) {
+                        previous = point;
+                    }
+                    points.add(point);
+                    writeRow(out, point);
+                    out.flush();
+                }
+            }
+        }
+        return points;
+    }
+
+    private Point runPoint(PointRunner runner, StressDataGenerator generator, PhaseRecorder recorder) {
+        String phase = String.format(Locale.ROOT, "n=%d,s=%.2f", generator.getNumTransactions(), generator.getCustomerExponent());
+        long baseline = usedHeapAfterGc();
+        Outcome outcome = null;
+        String status;
+        recorder.begin(phase);
+        try {
+            outcome = runner.run(generator);
+            status = "ok";
+        } catch (OutOfMemoryError e) {
+            status = "oom";
+        } catch (Exception e) {
+            System.err.println("Sweep point failed: " + e);
+            status = "failed";
+        } finally {
+            recorder.end();
+        }
+        if (outcome != null) {
+            outcome.retainedHeapBytes -= baseline;
+        } else {
+            usedHeapAfterGc(); // Let the next exponent start from a clean heap
+        }
+        return new Point(generator, status, outcome, recorder.getPeakHeapBytes(phase), recorder.getAllocatedBytes(phase));
+    }
+
+    private void writeRow(PrintWriter out, Point point) {
+        Outcome outcome = point.outcome;
+        out.printf(Locale.ROOT, "%s,%d,%d,%d,%.3f,%d,%s,%s,%s,%s,%s,%s,%s,%d,%d,%s,%s%n",
+                engine, point.transactions, numCustomers, numLocations, point.exponent, point.facts, point.status,
+                outcome != null ? String.format(Locale.ROOT, "%.3f", outcome.processingNanos / 1_000_000.0) : "",
+                outcome != null ? String.format(Locale.ROOT, "%.2f", point.getThroughput()) : "",
+                outcome != null ? String.format(Locale.ROOT, "%.2f", point.getNanosPerFact()) : "",
+                Double.isNaN(point.scaling) ? "" : String.format(Locale.ROOT, "%.3f", point.scaling),
+                outcome != null ? Long.toString(outcome.retainedHeapBytes) : "",
+                retainedHeapOf,
+                point.peakHeapBytes, point.allocatedBytes,
+                outcome != null ? String.format(Locale.ROOT, "%.6f", outcome.penalty) : "",
+                outcome != null ? Long.toString(outcome.matches) : "");
+    }
+
+    /**
+     * Prints the sweep; scaling is the growth in processing time per fact relative to the previous
+     * successful size (1.00 is linear, above 1 is where the engine goes non-linear).
+     */
+    public void printReport(List<Point> points) {
+        System.out.println("\n#### Size and Skew Sweep (" + engine + ")");
+        System.out.println("| Transactions | Zipf  | Status  | Processing Time | Throughput            | ns/fact  | Scaling | Retained Heap | Peak Heap     | Score                |");
+        System.out.println("|--------------|-------|---------|-----------------|-----------------------|----------|---------|---------------|---------------|----------------------|");
+        for (Point point : points) {
+            if (point.outcome == null) {
+                System.out.printf("| %,12d | %5.2f | %-7s | %15s | %21s | %8s | %7s | %13s | %13s | %20s |\n",
+                        point.transactions, point.exponent, point.status, "", "", "", "", "",
+                        point.peakHeapBytes >= 0 ? String.format("%,10.2f MB", toMegabytes(point.peakHeapBytes)) : "", "");
+                continue;
+            }
+            System.out.printf("| %,12d | %5.2f | %-7s | %13.4f s | %,15.2f facts/s | %8.1f | %7s | %,10.2f MB | %,10.2f MB | %,20.2f |\n",
+                    point.transactions, point.exponent, point.status,
+                    point.outcome.processingNanos / 1_000_000_000.0,
+                    point.getThroughput(),
+                    point.getNanosPerFact(),
+                    Double.isNaN(point.scaling) ? "" : String.format("%6.2fx", point.scaling),
+                    toMegabytes(point.outcome.retainedHeapBytes),
+                    toMegabytes(point.peakHeapBytes),
+                    point.outcome.penalty);
+        }
+        System.out.println("- Retained Heap is the " + retainedHeapOf + " after processing; Peak Heap compares engines");
+    }
+
+    /**
+     * Used heap after asking for two full collections; call it while the engine still holds its state.
+     */
+    public static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        runtime.gc();
+        runtime.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static double toMegabytes(long bytes) {
+        return bytes / (1024.0 * 1024.0);
+    }
+
+    /**
+     * Loads one generated dataset into the engine and reports what it computed.
+     */
+    @FunctionalInterface
+    public interface PointRunner {
+        Outcome run(StressDataGenerator generator) throws Exception;
+    }
+
+    public static class Outcome {
+        final long processingNanos;
+        final double penalty;
+        final long matches;
+        long retainedHeapBytes;
+
+        /**
+         * @param usedHeapBytes {@link #usedHeapAfterGc()} taken while the engine still holds the dataset
+         */
+        public Outcome(long processingNanos, double penalty, long matches, long usedHeapBytes) {
+            this.processingNanos = processingNanos;
+            this.penalty = penalty;
+            this.matches = matches;
+            this.retainedHeapBytes = usedHeapBytes;
+        }
+    }
+
+    public static class Point {
+        final int transactions;
+        final double exponent;
+        final long facts;
+        final String status;
+        final Outcome outcome;
+        final long peakHeapBytes;
+        final long allocatedBytes;
+        double scaling = Double.NaN;
+
+        Point(StressDataGenerator generator, String status, Outcome outcome, long peakHeapBytes, long allocatedBytes) {
+            this.transactions = generator.getNumTransactions();
+            this.exponent = generator.getCustomerExponent();
+            this.facts = generator.getFactCount();
+            this.status = status;
+            this.outcome = outcome;
+            this.peakHeapBytes = peakHeapBytes;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        double getThroughput() {
+            return facts / (outcome.processingNanos / 1_000_000_000.0);
+        }
+
+        double getNanosPerFact() {
+            return outcome.processingNanos / (double) facts;
+        }
+
+        private double getScaling(Point previous) {
+            if (previous == null || outcome == null) {
+                return Double.NaN;
+            }
+            return getNanosPerFact() / previous.getNanosPerFact();
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package org.example.common;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Deterministic generator for the stress-test dataset, shared by the Drools and Bavet harnesses.
+ * <p>
+ * The root {@link SplittableRandom} is split once for customers, once for alerts and then once per
+ * fixed-size transaction chunk, always in that order. Chunk boundaries do not depend on the thread
+ * count, so the parallel {@link #generate(ForkJoinPool)} and the sequential {@link TransactionCursor}
+ * produce bit-for-bit the same values for a given seed.
+ * <p>
+ * Transaction customer and location ids are uniform by default; a positive skew exponent draws them
+ * from a {@link ZipfSampler} instead, so customer 0 and location 0 become the hottest keys.
+ * Exponent 0 keeps the uniform draws, so existing seeds still produce the same datasets.
+ */
+public class StressDataGenerator {
+
+    public static final int CHUNK_SIZE = 1 << 16;
+
+    public static final byte RISK_LOW = 0;
+    public static final byte RISK_MEDIUM = 1;
+    public static final byte RISK_HIGH = 2;
+    public static final byte STATUS_ACTIVE = 0;
+    public static final byte STATUS_INACTIVE = 1;
+
+    private static final double INACTIVE_PROBABILITY = 0.05;
+    private static final double MIN_AMOUNT = 1.0;
+    private static final double MAX_AMOUNT = 50000.0;
+    private static final int MAX_SEVERITY = 5;
+
+    private final long seed;
+    private final int numCustomers;
+    private final int numTransactions;
+    private final int numLocations;
+    private final ZipfSampler customerSampler;
+    private final ZipfSampler locationSampler;
+
+    public StressDataGenerator(long seed, int numCustomers, int numTransactions, int numLocations) {
+        this(seed, numCustomers, numTransactions, numLocations, 0.0, 0.0);
+    }
+
+    /**
+     * @param customerExponent Zipf exponent of the transaction customer ids, 0 for uniform
+     * @param locationExponent Zipf exponent of the transaction location ids, 0 for uniform
+     */
+    public StressDataGenerator(long seed, int numCustomers, int numTransactions, int numLocations,
+                               double customerExponent, double locationExponent) {
+        if (numCustomers <= 0 || numTransactions < 0 || numLocations <= 0) {
+            throw new IllegalArgumentException("Invalid dataset size: customers=" + numCustomers
+                    + ", transactions=" + numTransactions + ", locations=" + numLocations);
+        }
+        this.seed = seed;
+        this.numCustomers = numCustomers;
+        this.numTransactions = numTransactions;
+        this.numLocations = numLocations;
+        this.customerSampler = customerExponent == 0.0 ? null : new ZipfSampler(numCustomers, customerExponent);
+        this.locationSampler = locationExponent == 0.0 ? null : new ZipfSampler(numLocations, locationExponent);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getNumCustomers() {
+        return numCustomers;
+    }
+
+    public int getNumTransactions() {
+        return numTransactions;
+    }
+
+    public int getNumLocations() {
+        return numLocations;
+    }
+
+    public double getCustomerExponent() {
+        return customerSampler == null ? 0.0 : customerSampler.getExponent();
+    }
+
+    public double getLocationExponent() {
+        return locationSampler == null ? 0.0 : locationSampler.getExponent();
+    }
+
+    public int getNumAlerts() {
+        return Math.max(1, numLocations / 4);
+    }
+
+    public int getChunkCount() {
+        return (int) ((numTransactions + (long) CHUNK_SIZE - 1) / CHUNK_SIZE);
+    }
+
+    public long getFactCount() {
+        return (long) numCustomers + numTransactions + getNumAlerts();
+    }
+
+    /**
+     * Generates the full dataset, filling transaction chunks in parallel on the given pool.
+     */
+    public StressDataset generate(ForkJoinPool pool) {
+        SplittableRandom root = new SplittableRandom(seed);
+        byte[] riskLevels = new byte[numCustomers];
+        byte[] statuses = new byte[numCustomers];
+        fillCustomers(root.split(), riskLevels, statuses);
+        int[] alertLocationIds = new int[getNumAlerts()];
+        int[] alertSeverities = new int[getNumAlerts()];
+        fillAlerts(root.split(), alertLocationIds, alertSeverities);
+
+        SplittableRandom[] chunkRandoms = new SplittableRandom[getChunkCount()];
+        for (int chunk = 0; chunk < chunkRandoms.length; chunk++) {
+            chunkRandoms[chunk] = root.split();
+        }
+        int[] customerIds = new int[numTransactions];
+        double[] amounts = new double[numTransactions];
+        int[] locationIds = new int[numTransactions];
+        pool.invoke(new ChunkRangeAction(0, chunkRandoms.length, chunk -> {
+            int from = chunk * CHUNK_SIZE;
+            int to = Math.min(numTransactions, from + CHUNK_SIZE);
+            fillTransactions(chunkRandoms[chunk], to - from, customerIds, amounts, locationIds, from);
+        }));
+
+        return new StressDataset(numLocations, riskLevels, statuses,
+                customerIds, amounts, locationIds, alertLocationIds, alertSeverities);
+    }
+
+    /**
+     * Generates only customers and alerts; transactions are then pulled chunk by chunk
+     * through {@link #newTransactionCursor()}, so they never need to exist all at once.
+     */
+    public StressDataset generateWithoutTransactions() {
+        SplittableRandom root = new SplittableRandom(seed);
+        byte[] riskLevels = new byte[numCustomers];
+        byte[] statuses = new byte[numCustomers];
+        fillCustomers(root.split(), riskLevels, statuses);
+        int[] alertLocationIds = new int[getNumAlerts()];
+        int[] alertSeverities = new int[getNumAlerts()];
+        fillAlerts(root.split(), alertLocationIds, alertSeverities);
+        return new StressDataset(numLocations, riskLevels, statuses,
+                new int[0], new double[0], new int[0], alertLocationIds, alertSeverities);
+    }
+
+    public TransactionCursor newTransactionCursor() {
+        return new TransactionCursor();
+    }
+
+    private void fillCustomers(SplittableRandom random, byte[] riskLevels, byte[] statuses) {
+        for (int i = 0; i < numCustomers; i++) {
+            riskLevels[i] = (byte) random.nextInt(3);
+            statuses[i] = random.nextDouble() < INACTIVE_PROBABILITY ? STATUS_INACTIVE : STATUS_ACTIVE;
+        }
+    }
+
+    private void fillAlerts(SplittableRandom random, int[] alertLocationIds, int[] alertSeverities) {
+        // Partial Fisher-Yates: the first alertCount slots become a uniform random subset of locations
+        int[] locationIds = new int[numLocations];
+        for (int i = 0; i < numLocations; i++) {
+            locationIds[i] = i;
+        }
+        for (int i = 0; i < alertLocationIds.length; i++) {
+            int j = i + random.nextInt(numLocations - i);
+            int swap = locationIds[i];
+            locationIds[i] = locationIds[j];
+            locationIds[j] = swap;
+            alertLocationIds[i] = locationIds[i];
+            alertSeverities[i] = random.nextInt(MAX_SEVERITY) + 1;
+        }
+    }
+
+    private void fillTransactions(SplittableRandom random, int count,
+                                  int[] customerIds, double[] amounts, int[] locationIds, int offset) {
+        for (int i = 0; i < count; i++) {
+            customerIds[offset + i] = customerSampler == null ? random.nextInt(numCustomers) : customerSampler.sample(random);
+            amounts[offset + i] = random.nextDouble(MIN_AMOUNT, MAX_AMOUNT);
+            locationIds[offset + i] = locationSampler == null ? random.nextInt(numLocations) : locationSampler.sample(random);
+        }
+    }
+
+    /**
+     * Generates the transactions chunk by chunk; chunk {@code n} gets the same split random as in {@link #generate}.
+     */
+    public class TransactionCursor extends TransactionChunkCursor {
+        private final SplittableRandom root = new SplittableRandom(seed);
+
+        private TransactionCursor() {
+            super(Math.min(CHUNK_SIZE, numTransactions));
+            root.split(); // customers
+            root.split(); // alerts
+        }
+
+        @Override
+        protected int fill(int firstIndex) {
+            if (firstIndex >= numTransactions) {
+                return 0;
+            }
+            // Chunks are filled strictly in order, so the next split belongs to the chunk starting at firstIndex
+            int size = Math.min(CHUNK_SIZE, numTransactions - firstIndex);
+            fillTransactions(root.split(), size, customerIds, amounts, locationIds, 0);
+            return size;
+        }
+    }
+
+    /**
+     * Applies a body to every chunk index in [from, to), splitting the range across a fork/join pool.
+     */
+    public static class ChunkRangeAction extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final ChunkBody body;
+
+        public ChunkRangeAction(int from, int to, ChunkBody body) {
+            this.from = from;
+            this.to = to;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (from < to) {
+                    body.apply(from);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ChunkRangeAction(from, middle, body), new ChunkRangeAction(middle, to, body));
+        }
+    }
+
+    @FunctionalInterface
+    public interface ChunkBody {
+        void apply(int chunk);
+    }
+}
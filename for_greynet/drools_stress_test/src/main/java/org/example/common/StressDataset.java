@@ -0,0 +1,49 @@
+package org.example.common;
+
+/**
+ * A generated stress-test dataset stored as primitive columns, independent of any engine's fact classes.
+ * Risk levels and statuses use the codes in {@link StressDataGenerator}.
+ */
+public class StressDataset {
+    public final int numLocations;
+
+    public final byte[] customerRiskLevels;
+    public final byte[] customerStatuses;
+
+    public final int[] transactionCustomerIds;
+    public final double[] transactionAmounts;
+    public final int[] transactionLocationIds;
+
+    public final int[] alertLocationIds;
+    public final int[] alertSeverities;
+
+    public StressDataset(int numLocations,
+                         byte[] customerRiskLevels, byte[] customerStatuses,
+                         int[] transactionCustomerIds, double[] transactionAmounts, int[] transactionLocationIds,
+                         int[] alertLocationIds, int[] alertSeverities) {
+        this.numLocations = numLocations;
+        this.customerRiskLevels = customerRiskLevels;
+        this.customerStatuses = customerStatuses;
+        this.transactionCustomerIds = transactionCustomerIds;
+        this.transactionAmounts = transactionAmounts;
+        this.transactionLocationIds = transactionLocationIds;
+        this.alertLocationIds = alertLocationIds;
+        this.alertSeverities = alertSeverities;
+    }
+
+    public int getNumCustomers() {
+        return customerRiskLevels.length;
+    }
+
+    public int getNumTransactions() {
+        return transactionCustomerIds.length;
+    }
+
+    public int getNumAlerts() {
+        return alertLocationIds.length;
+    }
+
+    public long getFactCount() {
+        return (long) getNumCustomers() + getNumTransactions() + getNumAlerts();
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.common;
+
+/**
+ * The five stress-test rules, with their names in {@code StressTestRules.drl} and in
+ * {@code Stress_1.StressTestConstraintProvider}, so per-rule results can be lined up across engines.
+ */
+public enum StressRule {
+    HIGH_VALUE_TRANSACTION("High Value Transaction", "high_value_transaction"),
+    EXCESSIVE_TRANSACTIONS_PER_CUSTOMER("Excessive Transactions per Customer", "excessive_transactions_per_customer"),
+    TRANSACTION_IN_ALERTED_LOCATION("Transaction in Alerted Location", "transaction_in_alerted_location"),
+    INACTIVE_CUSTOMER_TRANSACTION("Inactive Customer Transaction", "inactive_customer_transaction"),
+    HIGH_RISK_TRANSACTION_WITHOUT_ALERT("High Risk Transaction without Alert", "high_risk_transaction_without_alert");
+
+    private final String ruleName;
+    private final String constraintName;
+
+    StressRule(String ruleName, String constraintName) {
+        this.ruleName = ruleName;
+        this.constraintName = constraintName;
+    }
+
+    /** Rule name as declared in the DRL. */
+    public String getRuleName() {
+        return ruleName;
+    }
+
+    /** Constraint name as passed to {@code asConstraint} in the Bavet provider. */
+    public String getConstraintName() {
+        return constraintName;
+    }
+
+    public static StressRule forRuleName(String ruleName) {
+        for (StressRule rule : values()) {
+            if (rule.ruleName.equals(ruleName)) {
+                return rule;
+            }
+        }
+        throw new IllegalArgumentException("Unknown rule name: " + ruleName);
+    }
+
+    public static StressRule forConstraintName(String constraintName) {
+        for (StressRule rule : values()) {
+            if (rule.constraintName.equals(constraintName)) {
+                return rule;
+            }
+        }
+        throw new IllegalArgumentException("Unknown constraint name: " + constraintName);
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.common;
+
+/**
+ * Walks the transactions of a dataset one chunk at a time, reusing the same column buffers for every chunk,
+ * whether the values are generated ({@link StressDataGenerator}) or read from disk ({@link FactStore}).
+ */
+public abstract class TransactionChunkCursor {
+
+    public final int[] customerIds;
+    public final double[] amounts;
+    public final int[] locationIds;
+
+    private int firstIndex = 0;
+    private int size = 0;
+    private boolean exhausted = false;
+
+    protected TransactionChunkCursor(int bufferSize) {
+        this.customerIds = new int[bufferSize];
+        this.amounts = new double[bufferSize];
+        this.locationIds = new int[bufferSize];
+    }
+
+    /**
+     * Fills the buffers with the next chunk.
+     *
+     * @return false once every transaction has been produced, and on every call after that
+     */
+    public boolean advance() {
+        if (exhausted) {
+            return false;
+        }
+        int nextIndex = firstIndex + size;
+        int nextSize = fill(nextIndex);
+        if (nextSize == 0) {
+            firstIndex = nextIndex;
+            size = 0;
+            exhausted = true;
+            return false;
+        }
+        firstIndex = nextIndex;
+        size = nextSize;
+        return true;
+    }
+
+    /**
+     * Fills the buffers starting at transaction {@code firstIndex}.
+     *
+     * @return the number of transactions filled, 0 at the end
+     */
+    protected abstract int fill(int firstIndex);
+
+    /** Transaction id of the first entry in the buffers. */
+    public int getFirstIndex() {
+        return firstIndex;
+    }
+
+    /** Number of valid entries in the buffers. */
+    public int getSize() {
+        return size;
+    }
+}
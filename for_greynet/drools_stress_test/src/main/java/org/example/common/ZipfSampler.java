@@ -0,0 +1,57 @@
+package org.example.common;
+
+import java.util.SplittableRandom;
+
+/**
+ * Draws ids in [0, n) with Zipf probabilities: id {@code k} has weight {@code 1 / (k + 1)^exponent}, so id 0
+ * is the hottest key. Exponent 0 is uniform, around 1 is typical of real traffic, and larger values concentrate
+ * more of the draws on the first few ids. Sampling is a binary search over the precomputed CDF.
+ */
+public class ZipfSampler {
+
+    private final double exponent;
+    private final double[] cdf;
+
+    public ZipfSampler(int n, double exponent) {
+        if (n <= 0 || !(exponent >= 0.0) || Double.isInfinite(exponent)) {
+            throw new IllegalArgumentException("Invalid Zipf distribution: n=" + n + ", exponent=" + exponent);
+        }
+        this.exponent = exponent;
+        this.cdf = new double[n];
+        double sum = 0.0;
+        for (int k = 0; k < n; k++) {
+            sum += Math.pow(k + 1, -exponent);
+            cdf[k] = sum;
+        }
+        for (int k = 0; k < n; k++) {
+            cdf[k] /= sum;
+        }
+        cdf[n - 1] = 1.0;
+    }
+
+    public double getExponent() {
+        return exponent;
+    }
+
+    /**
+     * Probability of drawing the hottest id.
+     */
+    public double getHottestShare() {
+        return cdf[0];
+    }
+
+    public int sample(SplittableRandom random) {
+        double u = random.nextDouble();
+        int low = 0;
+        int high = cdf.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cdf[middle] > u) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+}
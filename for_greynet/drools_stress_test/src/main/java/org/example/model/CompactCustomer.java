@@ -0,0 +1,24 @@
+package org.example.model;
+
+/**
+ * {@link Customer} with enum risk level and status, so constraints compare references instead of Strings.
+ */
+public class CompactCustomer {
+    private int id;
+    private RiskLevel riskLevel;
+    private CustomerStatus status;
+
+    public CompactCustomer(int id, RiskLevel riskLevel, CustomerStatus status) {
+        this.id = id;
+        this.riskLevel = riskLevel;
+        this.status = status;
+    }
+
+    // --- Getters and Setters ---
+    public int getId() { return id; }
+    public void setId(int id) { this.id = id; }
+    public RiskLevel getRiskLevel() { return riskLevel; }
+    public void setRiskLevel(RiskLevel riskLevel) { this.riskLevel = riskLevel; }
+    public CustomerStatus getStatus() { return status; }
+    public void setStatus(CustomerStatus status) { this.status = status; }
+}
@@ -0,0 +1,31 @@
+package org.example.model;
+
+/**
+ * {@link SecurityAlert} keyed by an int location id.
+ */
+public class CompactSecurityAlert {
+    private int locationId;
+    private int severity; // 1 to 5
+
+    public CompactSecurityAlert(int locationId, int severity) {
+        this.locationId = locationId;
+        this.severity = severity;
+    }
+
+    // --- Getters and Setters ---
+    public int getLocationId() {
+        return locationId;
+    }
+
+    public void setLocationId(int locationId) {
+        this.locationId = locationId;
+    }
+
+    public int getSeverity() {
+        return severity;
+    }
+
+    public void setSeverity(int severity) {
+        this.severity = severity;
+    }
+}
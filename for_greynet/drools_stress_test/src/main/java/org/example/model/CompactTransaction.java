@@ -0,0 +1,51 @@
+package org.example.model;
+
+/**
+ * {@link Transaction} keyed by an int location id instead of a {@code "location_N"} String.
+ */
+public class CompactTransaction {
+    private int id;
+    private int customerId;
+    private double amount;
+    private int locationId;
+
+    public CompactTransaction(int id, int customerId, double amount, int locationId) {
+        this.id = id;
+        this.customerId = customerId;
+        this.amount = amount;
+        this.locationId = locationId;
+    }
+
+    // --- Getters and Setters ---
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public int getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(int customerId) {
+        this.customerId = customerId;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(double amount) {
+        this.amount = amount;
+    }
+
+    public int getLocationId() {
+        return locationId;
+    }
+
+    public void setLocationId(int locationId) {
+        this.locationId = locationId;
+    }
+}
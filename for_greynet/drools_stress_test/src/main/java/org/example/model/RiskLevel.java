@@ -0,0 +1,7 @@
+package org.example.model;
+
+public enum RiskLevel {
+    LOW,
+    MEDIUM,
+    HIGH
+}
@@ -1,22 +1,42 @@
 package org.example.model;
 
+import org.example.common.StressRule;
+
 /**
  * A simple class to hold the calculated score.
  * An instance of this class will be set as a "global" in the Drools session
  * so that rules can modify its state.
+ * Penalties are also kept per rule, in primitive arrays indexed by {@link StressRule} ordinal, so the report
+ * can show which rule dominates the score without boxing on every activation.
+ * Not thread-safe: when sessions run in parallel, give each its own holder and {@link #merge} them.
  */
 public class ScoreHolder {
+    private static final int RULE_COUNT = StressRule.values().length;
+
     private double score = 0.0;
     private long rulesFired = 0;
+    private final double[] penaltyByRule = new double[RULE_COUNT];
+    private final long[] penaltyCountByRule = new long[RULE_COUNT];
 
-    public void addPenalty(double penalty) {
+    public void addPenalty(StressRule rule, double penalty) {
         this.score += penalty;
+        penaltyByRule[rule.ordinal()] += penalty;
+        penaltyCountByRule[rule.ordinal()]++;
     }
 
     public void incrementRulesFired() {
         this.rulesFired++;
     }
 
+    public void merge(ScoreHolder other) {
+        this.score += other.score;
+        this.rulesFired += other.rulesFired;
+        for (int i = 0; i < RULE_COUNT; i++) {
+            penaltyByRule[i] += other.penaltyByRule[i];
+            penaltyCountByRule[i] += other.penaltyCountByRule[i];
+        }
+    }
+
     public double getScore() {
         return score;
     }
@@ -24,4 +44,12 @@ public class ScoreHolder {
     public long getRulesFired() {
         return rulesFired;
     }
+
+    public double getPenalty(StressRule rule) {
+        return penaltyByRule[rule.ordinal()];
+    }
+
+    public long getPenaltyCount(StressRule rule) {
+        return penaltyCountByRule[rule.ordinal()];
+    }
 }
@@ -0,0 +1,50 @@
+package org.example.model;
+
+/**
+ * A transaction as it arrives in streaming mode: the same fields as {@link Transaction}, plus the event
+ * timestamp the rules window on and the {@link System#nanoTime()} at which the producer created it,
+ * from which the alert latency is measured.
+ */
+public class TransactionEvent {
+    private final int id;
+    private final int customerId;
+    private final double amount;
+    private final String location;
+    private final long timestamp;
+    private final long createdNanos;
+
+    public TransactionEvent(int id, int customerId, double amount, String location, long timestamp, long createdNanos) {
+        this.id = id;
+        this.customerId = customerId;
+        this.amount = amount;
+        this.location = location;
+        this.timestamp = timestamp;
+        this.createdNanos = createdNanos;
+    }
+
+    // --- Getters ---
+    public int getId() {
+        return id;
+    }
+
+    public int getCustomerId() {
+        return customerId;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    /** Event time in epoch milliseconds, as seen by the session's realtime clock. */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getCreatedNanos() {
+        return createdNanos;
+    }
+}
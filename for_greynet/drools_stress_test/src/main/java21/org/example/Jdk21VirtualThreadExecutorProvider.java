@@ -0,0 +1,15 @@
+package org.example;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Virtual threads straight from the Java 21 API; compiled only by the {@code jdk21} profile.
+ */
+public class Jdk21VirtualThreadExecutorProvider implements VirtualThreadExecutorProvider {
+
+    @Override
+    public ExecutorService newVirtualThreadPerTaskExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.cloudbalancing;
+
+import ai.timefold.solver.core.api.domain.solution.PlanningEntityCollectionProperty;
+import ai.timefold.solver.core.api.domain.solution.PlanningScore;
+import ai.timefold.solver.core.api.domain.solution.PlanningSolution;
+import ai.timefold.solver.core.api.domain.solution.ProblemFactCollectionProperty;
+import ai.timefold.solver.core.api.domain.valuerange.ValueRangeProvider;
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.example.dataset.cloudbalancing.CloudComputer;
+
+import java.util.List;
+
+/**
+ * The Timefold planning solution of a cloud balancing instance: the computers as the value range and the
+ * {@link PlannedProcess} entities assigned to them. The score is the one Bavet keeps, which the benchmark
+ * checks against {@link CloudScore#calculate}.
+ */
+@PlanningSolution
+public class CloudBalanceSolution {
+
+    @ProblemFactCollectionProperty
+    @ValueRangeProvider(id = "computerRange")
+    private List<CloudComputer> computers;
+
+    @PlanningEntityCollectionProperty
+    private List<PlannedProcess> processes;
+
+    @PlanningScore
+    private HardSoftScore score;
+
+    // Not planning data: planning clones share it, so the move list factory reaches the benchmark's run
+    private CloudMoveIteratorFactory.Run moves;
+
+    public CloudBalanceSolution() {
+    }
+
+    public CloudBalanceSolution(List<CloudComputer> computers, List<PlannedProcess> processes) {
+        this.computers = computers;
+        this.processes = processes;
+    }
+
+    /**
+     * The moves a {@link CloudMoveIteratorFactory} hands to the solver, or null outside its local search.
+     */
+    CloudMoveIteratorFactory.Run getMoves() {
+        return moves;
+    }
+
+    void setMoves(CloudMoveIteratorFactory.Run moves) {
+        this.moves = moves;
+    }
+
+    public List<CloudComputer> getComputers() {
+        return computers;
+    }
+
+    public List<PlannedProcess> getProcesses() {
+        return processes;
+    }
+
+    public HardSoftScore getScore() {
+        return score;
+    }
+
+    public void setScore(HardSoftScore score) {
+        this.score = score;
+    }
+}
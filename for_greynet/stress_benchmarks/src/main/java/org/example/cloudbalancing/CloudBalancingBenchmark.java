@@ -0,0 +1,286 @@
+package org.example.cloudbalancing;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import ai.timefold.solver.core.api.solver.SolutionManager;
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.config.heuristic.selector.common.SelectionCacheType;
+import ai.timefold.solver.core.config.heuristic.selector.common.SelectionOrder;
+import ai.timefold.solver.core.config.heuristic.selector.move.factory.MoveIteratorFactoryConfig;
+import ai.timefold.solver.core.config.localsearch.LocalSearchPhaseConfig;
+import ai.timefold.solver.core.config.localsearch.decider.acceptor.AcceptorType;
+import ai.timefold.solver.core.config.localsearch.decider.acceptor.LocalSearchAcceptorConfig;
+import ai.timefold.solver.core.config.localsearch.decider.forager.LocalSearchForagerConfig;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import ai.timefold.solver.core.config.solver.termination.TerminationConfig;
+import org.example.DroolsStressTest;
+import org.example.common.LatencyRecorder;
+import org.example.dataset.cloudbalancing.CloudBalance;
+import org.example.dataset.cloudbalancing.CloudComputer;
+import org.example.dataset.cloudbalancing.CloudProcess;
+import org.kie.api.KieBase;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Incremental move evaluation on the real cloud balancing instances ({@code data/cloudbalancing}, 2 to 1,600
+ * computers), with the same constraints as DRL ({@link DroolsCloudBalancing#DRL_PATH}) and as a
+ * {@link CloudBalancingConstraintProvider}, from the smallest instance to the largest.
+ * <p>
+ * Every process starts on a computer drawn from the seed, the same for both engines, and both evaluate the
+ * same {@link CloudMoveSequence}: each move is a change (one process to another computer) or a swap (the
+ * computers of two processes), followed by a score calculation, and is kept if it does not make the score
+ * worse, otherwise undone:
+ * <ul>
+ *     <li>Drools: this class applies each move to the process facts, fires and reads the score kept by the
+ *     live queries.</li>
+ *     <li>Bavet: a Timefold local search phase takes the moves from a {@link CloudMoveIteratorFactory} and keeps
+ *     them with a hill climbing acceptor that takes the first accepted move, the same rule.</li>
+ * </ul>
+ * Every move is timed on its own in both engines. Both final scores are checked against a from-scratch
+ * {@link CloudScore#calculate}, and as the engines make the same moves they must also reach the same final
+ * score; exits with status 1 if any check fails.
+ */
+public class CloudBalancingBenchmark {
+
+    private static final long SEED = Long.getLong("cloud.seed", 0L);
+    private static final String DATA = System.getProperty("cloud.data", "../../data/cloudbalancing");
+    private static final String SNAPSHOTS = System.getProperty("cloud.snapshots", "target/snapshots/cloudbalancing");
+    // Comma-separated engines, run in this order on each instance
+    private static final String ENGINES = System.getProperty("cloud.engines", "drools,bavet");
+    private static final long MOVE_COUNT = Long.getLong("cloud.moves", 200_000L);
+    private static final long MOVE_SECONDS = Long.getLong("cloud.moveSeconds", 60L);
+    // Moves per engine on the largest instance before measuring, so both are compiled by the JIT
+    private static final long WARMUP_MOVES = Long.getLong("cloud.warmupMoves", 20_000L);
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("### Cloud Balancing Incremental Move Benchmark ###");
+        List<CloudBalance> instances = loadInstances(Path.of(DATA), Path.of(SNAPSHOTS));
+        List<String> engines = new ArrayList<>();
+        for (String engine : ENGINES.split(",")) {
+            if (!engine.isBlank()) {
+                if (!engine.trim().equals("drools") && !engine.trim().equals("bavet")) {
+                    throw new IllegalArgumentException("Unknown engine: " + engine + " (expected drools or bavet)");
+                }
+                engines.add(engine.trim());
+            }
+        }
+
+        System.out.println("Warming up...");
+        for (String engine : engines) {
+            run(engine, instances.get(instances.size() - 1), WARMUP_MOVES);
+        }
+
+        List<MoveRun> runs = new ArrayList<>();
+        for (CloudBalance instance : instances) {
+            for (String engine : engines) {
+                System.out.printf("Running %s on %,d computers, %,d processes...%n", engine,
+                        instance.getComputerCount(), instance.getProcessCount());
+                runs.add(run(engine, instance, MOVE_COUNT));
+            }
+        }
+        boolean allAgree = printReport(runs);
+        if (!allAgree) {
+            System.exit(1);
+        }
+    }
+
+    private static List<CloudBalance> loadInstances(Path dataDirectory, Path snapshotDirectory) throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(dataDirectory)) {
+            files = list.filter(p -> p.toString().endsWith(".json")).collect(Collectors.toList());
+        }
+        List<CloudBalance> instances = new ArrayList<>(files.size());
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            instances.add(CloudBalance.load(file,
+                    snapshotDirectory.resolve(name.substring(0, name.length() - ".json".length()) + ".snap")));
+        }
+        instances.sort(Comparator.comparingInt(CloudBalance::getProcessCount));
+        return instances;
+    }
+
+    private static MoveRun run(String engine, CloudBalance instance, long moveCount) {
+        return engine.equals("drools") ? runDrools(instance, moveCount) : runBavet(instance, moveCount);
+    }
+
+    /**
+     * New planning processes on computers drawn from the seed, so every run of an instance starts alike.
+     */
+    private static List<PlannedProcess> initialProcesses(CloudBalance instance) {
+        Random random = new Random(SEED);
+        List<PlannedProcess> processes = new ArrayList<>(instance.getProcessCount());
+        for (CloudProcess process : instance.getProcesses()) {
+            processes.add(new PlannedProcess(process, instance.getComputer(random.nextInt(instance.getComputerCount()))));
+        }
+        return processes;
+    }
+
+    private static MoveRun runDrools(CloudBalance instance, long moveCount) {
+        List<CloudComputer> computers = new ArrayList<>(instance.getComputers());
+        KieBase kieBase = DroolsStressTest.getCachedKieBase(DroolsCloudBalancing.DRL_PATH);
+        long startTime = System.nanoTime();
+        try (DroolsCloudBalancing session = new DroolsCloudBalancing(kieBase, computers, initialProcesses(instance))) {
+            CloudScore initialScore = session.calculateScore();
+            long initNanos = System.nanoTime() - startTime;
+
+            List<PlannedProcess> processes = session.getProcesses();
+            CloudMoveSequence moves = new CloudMoveSequence(SEED);
+            LatencyRecorder latencies = new LatencyRecorder((int) Math.min(moveCount, 1 << 24));
+            long deadline = System.nanoTime() + MOVE_SECONDS * 1_000_000_000L;
+            CloudScore score = initialScore;
+            long keptMoves = 0L;
+            for (long move = 0; move < moveCount && computers.size() > 1; move++) {
+                long moveStart = System.nanoTime();
+                moves.next(processes, computers);
+                CloudComputer from = processes.get(moves.process).getComputer();
+                if (moves.swap) {
+                    session.swap(moves.process, moves.other);
+                } else {
+                    session.change(moves.process, moves.to);
+                }
+                CloudScore moved = session.calculateScore();
+                if (moved.compareTo(score) >= 0) {
+                    score = moved;
+                    keptMoves++;
+                } else if (moves.swap) {
+                    session.swap(moves.process, moves.other);
+                } else {
+                    session.change(moves.process, from);
+                }
+                long now = System.nanoTime();
+                latencies.record(now - moveStart);
+                if (now > deadline) {
+                    break;
+                }
+            }
+            CloudScore finalScore = session.calculateScore();
+            return new MoveRun("drools", instance, initNanos, keptMoves, latencies,
+                    initialScore.toString(), finalScore.toString(), finalScore.equals(CloudScore.calculate(processes)));
+        }
+    }
+
+    private static MoveRun runBavet(CloudBalance instance, long moveCount) {
+        List<CloudComputer> computers = new ArrayList<>(instance.getComputers());
+        CloudBalanceSolution solution = new CloudBalanceSolution(computers, initialProcesses(instance));
+        SolverConfig solverConfig = new SolverConfig()
+                .withSolutionClass(CloudBalanceSolution.class)
+                .withEntityClasses(PlannedProcess.class)
+                .withConstraintProviderClass(CloudBalancingConstraintProvider.class)
+                .withPhases(new LocalSearchPhaseConfig()
+                        .withMoveSelectorConfig(new MoveIteratorFactoryConfig()
+                                .withMoveIteratorFactoryClass(CloudMoveIteratorFactory.class)
+                                .withCacheType(SelectionCacheType.JUST_IN_TIME)
+                                .withSelectionOrder(SelectionOrder.ORIGINAL))
+                        // Keep the first move that does not make the score worse, as the Drools loop does
+                        .withAcceptorConfig(new LocalSearchAcceptorConfig()
+                                .withAcceptorTypeList(List.of(AcceptorType.HILL_CLIMBING)))
+                        .withForagerConfig(new LocalSearchForagerConfig()
+                                .withAcceptedCountLimit(1)))
+                .withTerminationConfig(new TerminationConfig()
+                        .withSpentLimit(Duration.ofSeconds(MOVE_SECONDS)));
+        SolverFactory<CloudBalanceSolution> solverFactory = SolverFactory.create(solverConfig);
+
+        long startTime = System.nanoTime();
+        HardSoftScore initialScore = SolutionManager.<CloudBalanceSolution, HardSoftScore>create(solverFactory)
+                .update(solution);
+        long initNanos = System.nanoTime() - startTime;
+
+        CloudMoveIteratorFactory.Run moves = new CloudMoveIteratorFactory.Run(SEED, moveCount);
+        solution.setMoves(moves);
+        CloudBalanceSolution best = solverFactory.buildSolver().solve(solution);
+        moves.finishMove();
+
+        HardSoftScore finalScore = best.getScore();
+        CloudScore reference = CloudScore.calculate(best.getProcesses());
+        return new MoveRun("bavet", instance, initNanos, moves.getKeptMoves(), moves.getLatencies(),
+                new CloudScore(initialScore.hardScore(), initialScore.softScore()).toString(),
+                new CloudScore(finalScore.hardScore(), finalScore.softScore()).toString(),
+                reference.hard() == finalScore.hardScore() && reference.soft() == finalScore.softScore());
+    }
+
+    private static boolean printReport(List<MoveRun> runs) {
+        boolean allAgree = true;
+        System.out.println("\n--- Stress Test Results ---");
+        System.out.println("\n#### Cloud Balancing Incremental Moves");
+        System.out.printf("- Up to %,d moves or %d s per run, seed %d; Init is session build and first score;"
+                + " both engines evaluate the same moves and keep those that do not make the score worse%n",
+                MOVE_COUNT, MOVE_SECONDS, SEED);
+        System.out.println("| Engine | Computers | Processes | Init        | Moves      | Kept     | Moves/sec    | Mean       | p50        | p99        | Initial Score           | Final Score             | Check    |");
+        System.out.println("|--------|-----------|-----------|-------------|------------|----------|--------------|------------|------------|------------|-------------------------|-------------------------|----------|");
+        for (MoveRun run : runs) {
+            System.out.printf("| %-6s | %,9d | %,9d | %8.3f ms | %,10d | %8s | %,12.0f | %7.2f us | %10s | %10s | %-23s | %-23s | %-8s |%n",
+                    run.engine,
+                    run.computers,
+                    run.processes,
+                    run.initNanos / 1_000_000.0,
+                    run.moves,
+                    String.format("%,d", run.keptMoves),
+                    run.moves / (run.moveNanos / 1_000_000_000.0),
+                    run.moveNanos / 1_000.0 / Math.max(1L, run.moves),
+                    String.format("%.2f us", run.latencies.getPercentile(50.0) / 1_000.0),
+                    String.format("%.2f us", run.latencies.getPercentile(99.0) / 1_000.0),
+                    run.initialScore,
+                    run.finalScore,
+                    run.agrees ? "OK" : "MISMATCH");
+            allAgree &= run.agrees;
+        }
+        if (runs.stream().anyMatch(run -> run.engine.equals("bavet"))) {
+            System.out.println("- Bavet's move latency also holds its step bookkeeping after each kept move");
+        }
+        // The same moves from the same start must end in the same score wherever both engines made them all
+        for (int i = 0; i + 1 < runs.size(); i++) {
+            MoveRun left = runs.get(i);
+            MoveRun right = runs.get(i + 1);
+            if (left.processes == right.processes && left.computers == right.computers && left.moves == right.moves
+                    && !left.finalScore.equals(right.finalScore)) {
+                System.out.printf("- MISMATCH: %s and %s end in different scores after the same %,d moves on %,d computers%n",
+                        left.engine, right.engine, left.moves, left.computers);
+                allAgree = false;
+            }
+        }
+        return allAgree;
+    }
+
+    /**
+     * One engine's moves on one instance; the move time is the sum of the per-move latencies.
+     */
+    private static final class MoveRun {
+
+        final String engine;
+        final int computers;
+        final int processes;
+        final long initNanos;
+        final long moveNanos;
+        final long moves;
+        /** Moves that did not make the score worse and were kept. */
+        final long keptMoves;
+        final LatencyRecorder latencies;
+        final String initialScore;
+        final String finalScore;
+        final boolean agrees;
+
+        MoveRun(String engine, CloudBalance instance, long initNanos, long keptMoves, LatencyRecorder latencies,
+                String initialScore, String finalScore, boolean agrees) {
+            this.engine = engine;
+            this.computers = instance.getComputerCount();
+            this.processes = instance.getProcessCount();
+            this.initNanos = initNanos;
+            this.moveNanos = Math.max(1L, latencies.getTotalNanos());
+            this.moves = latencies.getCount();
+            this.keptMoves = keptMoves;
+            this.latencies = latencies;
+            this.initialScore = initialScore;
+            this.finalScore = finalScore;
+            this.agrees = agrees;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.cloudbalancing;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import ai.timefold.solver.core.api.score.stream.Constraint;
+import ai.timefold.solver.core.api.score.stream.ConstraintFactory;
+import ai.timefold.solver.core.api.score.stream.ConstraintProvider;
+import ai.timefold.solver.core.api.score.stream.Joiners;
+import org.example.dataset.cloudbalancing.CloudComputer;
+
+import java.util.function.Function;
+
+import static ai.timefold.solver.core.api.score.stream.ConstraintCollectors.sum;
+
+/**
+ * The cloud balancing constraints of {@code rules/cloudbalancing/CloudBalancing.drl}, with the same names.
+ */
+public class CloudBalancingConstraintProvider implements ConstraintProvider {
+
+    @Override
+    public Constraint[] defineConstraints(ConstraintFactory constraintFactory) {
+        return new Constraint[]{
+                requiredCpuPowerTotal(constraintFactory),
+                requiredMemoryTotal(constraintFactory),
+                requiredNetworkBandwidthTotal(constraintFactory),
+                computerCost(constraintFactory)
+        };
+    }
+
+    Constraint requiredCpuPowerTotal(ConstraintFactory constraintFactory) {
+        return constraintFactory.forEach(PlannedProcess.class)
+                .groupBy(PlannedProcess::getComputer, sum(PlannedProcess::getRequiredCpuPower))
+                .filter((computer, required) -> required > computer.getCpuPower())
+                .penalize(HardSoftScore.ONE_HARD, (computer, required) -> required - computer.getCpuPower())
+                .asConstraint("requiredCpuPowerTotal");
+    }
+
+    Constraint requiredMemoryTotal(ConstraintFactory constraintFactory) {
+        return constraintFactory.forEach(PlannedProcess.class)
+                .groupBy(PlannedProcess::getComputer, sum(PlannedProcess::getRequiredMemory))
+                .filter((computer, required) -> required > computer.getMemory())
+                .penalize(HardSoftScore.ONE_HARD, (computer, required) -> required - computer.getMemory())
+                .asConstraint("requiredMemoryTotal");
+    }
+
+    Constraint requiredNetworkBandwidthTotal(ConstraintFactory constraintFactory) {
+        return constraintFactory.forEach(PlannedProcess.class)
+                .groupBy(PlannedProcess::getComputer, sum(PlannedProcess::getRequiredNetworkBandwidth))
+                .filter((computer, required) -> required > computer.getNetworkBandwidth())
+                .penalize(HardSoftScore.ONE_HARD, (computer, required) -> required - computer.getNetworkBandwidth())
+                .asConstraint("requiredNetworkBandwidthTotal");
+    }
+
+    Constraint computerCost(ConstraintFactory constraintFactory) {
+        return constraintFactory.forEach(CloudComputer.class)
+                .ifExists(PlannedProcess.class, Joiners.equal(Function.identity(), PlannedProcess::getComputer))
+                .penalize(HardSoftScore.ONE_SOFT, CloudComputer::getCost)
+                .asConstraint("computerCost");
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.cloudbalancing;
+
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+import ai.timefold.solver.core.impl.heuristic.move.AbstractMove;
+import org.example.dataset.cloudbalancing.CloudComputer;
+
+/**
+ * A {@link CloudMoveSequence} move as a Timefold move: a process to another computer, or the computers of two
+ * processes exchanged.
+ */
+final class CloudMove extends AbstractMove<CloudBalanceSolution> {
+
+    private static final String VARIABLE = "computer";
+
+    private final PlannedProcess process;
+    /** The process to swap with, or null for a change. */
+    private final PlannedProcess other;
+    private final CloudComputer to;
+
+    private CloudMove(PlannedProcess process, PlannedProcess other, CloudComputer to) {
+        this.process = process;
+        this.other = other;
+        this.to = to;
+    }
+
+    static CloudMove change(PlannedProcess process, CloudComputer to) {
+        return new CloudMove(process, null, to);
+    }
+
+    static CloudMove swap(PlannedProcess process, PlannedProcess other) {
+        return new CloudMove(process, other, null);
+    }
+
+    @Override
+    public boolean isMoveDoable(ScoreDirector<CloudBalanceSolution> scoreDirector) {
+        return other != null ? process.getComputer() != other.getComputer() : process.getComputer() != to;
+    }
+
+    @Override
+    protected void doMoveOnGenuineVariables(ScoreDirector<CloudBalanceSolution> scoreDirector) {
+        if (other != null) {
+            CloudComputer processComputer = process.getComputer();
+            set(scoreDirector, process, other.getComputer());
+            set(scoreDirector, other, processComputer);
+        } else {
+            set(scoreDirector, process, to);
+        }
+    }
+
+    private static void set(ScoreDirector<CloudBalanceSolution> scoreDirector, PlannedProcess process,
+                            CloudComputer computer) {
+        scoreDirector.beforeVariableChanged(process, VARIABLE);
+        process.setComputer(computer);
+        scoreDirector.afterVariableChanged(process, VARIABLE);
+    }
+
+    @Override
+    public String toString() {
+        return other != null ? process + " <-> " + other : process + " -> " + to;
+    }
+}
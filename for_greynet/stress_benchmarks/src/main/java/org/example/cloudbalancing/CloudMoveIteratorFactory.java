@@ -0,0 +1,121 @@
+package org.example.cloudbalancing;
+
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+import ai.timefold.solver.core.impl.heuristic.selector.move.factory.MoveIteratorFactory;
+import org.example.common.LatencyRecorder;
+import org.example.dataset.cloudbalancing.CloudComputer;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * Feeds a Timefold local search the moves of a {@link CloudMoveSequence}, so Bavet evaluates exactly the moves
+ * the Drools loop does. Every step gets a new iterator (cache type JUST_IN_TIME, original order) that draws
+ * each move only when the solver asks for it, i.e. after the previous one was evaluated and undone; it ends
+ * when the move budget is spent, which ends the phase. A cached move list would not do: Timefold copies it
+ * whole at the start of a step, drawing every move against the assignment of that moment.
+ * <p>
+ * The time between two draws is one move: doing it, calculating the score, undoing it or taking the step.
+ * Timefold instantiates this class itself, so the state of a run comes with the solution
+ * ({@link CloudBalanceSolution#getMoves()}); the working solution is a planning clone that shares it.
+ */
+public class CloudMoveIteratorFactory implements MoveIteratorFactory<CloudBalanceSolution, CloudMove> {
+
+    @Override
+    public long getSize(ScoreDirector<CloudBalanceSolution> scoreDirector) {
+        return scoreDirector.getWorkingSolution().getMoves().remaining;
+    }
+
+    @Override
+    public Iterator<CloudMove> createOriginalMoveIterator(ScoreDirector<CloudBalanceSolution> scoreDirector) {
+        CloudBalanceSolution solution = scoreDirector.getWorkingSolution();
+        Run run = solution.getMoves();
+        run.steps++;
+        List<PlannedProcess> processes = solution.getProcesses();
+        List<CloudComputer> computers = solution.getComputers();
+        return new Iterator<>() {
+            private boolean drawn = false;
+
+            @Override
+            public boolean hasNext() {
+                if (run.remaining > 0L && computers.size() > 1) {
+                    return true;
+                }
+                // Ran dry without an accepted move: the solver still steps with its best rejected one
+                run.drained |= drawn;
+                return false;
+            }
+
+            @Override
+            public CloudMove next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                drawn = true;
+                return run.next(processes, computers);
+            }
+        };
+    }
+
+    @Override
+    public Iterator<CloudMove> createRandomMoveIterator(ScoreDirector<CloudBalanceSolution> scoreDirector,
+                                                       Random workingRandom) {
+        throw new UnsupportedOperationException("The moves come in the sequence's order (selection order ORIGINAL).");
+    }
+
+    /**
+     * One solve's moves: a fresh sequence, at most {@code moveCount} moves, and their latencies.
+     */
+    static final class Run {
+
+        private final CloudMoveSequence sequence;
+        private final LatencyRecorder latencies;
+        private long remaining;
+        private long steps;
+        private boolean drained;
+        private long lastDrawNanos;
+
+        Run(long seed, long moveCount) {
+            this.sequence = new CloudMoveSequence(seed);
+            this.latencies = new LatencyRecorder((int) Math.min(moveCount, 1 << 24));
+            this.remaining = moveCount;
+        }
+
+        private CloudMove next(List<PlannedProcess> processes, List<CloudComputer> computers) {
+            finishMove();
+            remaining--;
+            sequence.next(processes, computers);
+            PlannedProcess process = processes.get(sequence.process);
+            return sequence.swap
+                    ? CloudMove.swap(process, processes.get(sequence.other))
+                    : CloudMove.change(process, sequence.to);
+        }
+
+        /**
+         * Records the move drawn last, if any; called at each draw and once when the solver returns.
+         */
+        void finishMove() {
+            long now = System.nanoTime();
+            if (lastDrawNanos != 0L) {
+                latencies.record(now - lastDrawNanos);
+            }
+            lastDrawNanos = now;
+        }
+
+        LatencyRecorder getLatencies() {
+            return latencies;
+        }
+
+        /**
+         * Moves kept: a step ends on an accepted move and the next step starts a new iterator, so this is one
+         * less than the iterators started, without the step on a rejected move after the budget ran out. One
+         * short if the time limit ended the phase right after a step. That last step does not change the
+         * result: the solver returns its best solution, which the rejected move made no better.
+         */
+        long getKeptMoves() {
+            return Math.max(0L, steps - 1 - (drained ? 1 : 0));
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.cloudbalancing;
+
+import org.example.dataset.cloudbalancing.CloudComputer;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The moves of a benchmark run, drawn from the seed: a change (one process to another computer) or a swap
+ * (the computers of two processes on different computers), half and half. A draw reads the current
+ * assignment, so two engines that apply and undo the same moves in the same order see the same sequence.
+ */
+final class CloudMoveSequence {
+
+    private final Random random;
+
+    /** The last drawn move: {@code process} changes to {@code to}, or swaps with {@code other}. */
+    int process;
+    int other;
+    boolean swap;
+    CloudComputer to;
+
+    CloudMoveSequence(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Draws the next move against the current assignment; needs at least two computers.
+     */
+    void next(List<PlannedProcess> processes, List<CloudComputer> computers) {
+        process = random.nextInt(processes.size());
+        CloudComputer from = processes.get(process).getComputer();
+        other = random.nextInt(processes.size());
+        // A swap between processes on the same computer would change nothing, so that draw is a change
+        swap = random.nextBoolean() && processes.get(other).getComputer() != from;
+        if (swap) {
+            to = null;
+        } else {
+            CloudComputer drawn = computers.get(random.nextInt(computers.size() - 1));
+            to = drawn == from ? computers.get(computers.size() - 1) : drawn;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.cloudbalancing;
+
+import org.example.dataset.cloudbalancing.CloudComputer;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A hard/soft cloud balancing score, compared hard first, in the same units and format as Timefold's
+ * {@code HardSoftScore}.
+ */
+public record CloudScore(long hard, long soft) implements Comparable<CloudScore> {
+
+    /**
+     * Calculates the score from scratch without an engine: per computer, the hard penalty is the cpu power,
+     * memory and network bandwidth required beyond its capacity, and the soft penalty its cost if it is used.
+     */
+    public static CloudScore calculate(List<PlannedProcess> processes) {
+        Map<CloudComputer, long[]> usage = new HashMap<>();
+        for (PlannedProcess process : processes) {
+            if (process.getComputer() != null) {
+                long[] required = usage.computeIfAbsent(process.getComputer(), computer -> new long[3]);
+                required[0] += process.getRequiredCpuPower();
+                required[1] += process.getRequiredMemory();
+                required[2] += process.getRequiredNetworkBandwidth();
+            }
+        }
+        long hard = 0L;
+        long soft = 0L;
+        for (Map.Entry<CloudComputer, long[]> entry : usage.entrySet()) {
+            CloudComputer computer = entry.getKey();
+            long[] required = entry.getValue();
+            hard -= Math.max(0L, required[0] - computer.getCpuPower());
+            hard -= Math.max(0L, required[1] - computer.getMemory());
+            hard -= Math.max(0L, required[2] - computer.getNetworkBandwidth());
+            soft -= computer.getCost();
+        }
+        return new CloudScore(hard, soft);
+    }
+
+    @Override
+    public int compareTo(CloudScore other) {
+        return hard != other.hard ? Long.compare(hard, other.hard) : Long.compare(soft, other.soft);
+    }
+
+    @Override
+    public String toString() {
+        return hard + "hard/" + soft + "soft";
+    }
+}
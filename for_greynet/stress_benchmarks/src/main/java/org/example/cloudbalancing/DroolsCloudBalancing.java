@@ -0,0 +1,129 @@
+package org.example.cloudbalancing;
+
+import org.example.dataset.cloudbalancing.CloudComputer;
+import org.kie.api.KieBase;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.api.runtime.rule.LiveQuery;
+import org.kie.api.runtime.rule.Row;
+import org.kie.api.runtime.rule.ViewChangedEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * A KieSession over the constraint queries of {@link #DRL_PATH} that keeps the cloud balancing score up to date
+ * while processes move between computers. A live query per constraint reports its rows as they are inserted,
+ * updated and deleted; the listener keeps the current penalty of each computer, so reading the score after
+ * {@code fireAllRules()} costs nothing beyond the network updates the move caused.
+ */
+public class DroolsCloudBalancing implements AutoCloseable {
+
+    public static final String DRL_PATH = "rules/cloudbalancing/CloudBalancing.drl";
+
+    private final KieSession kSession;
+    private final List<LiveQuery> liveQueries = new ArrayList<>();
+    private final List<PlannedProcess> processes;
+    private final FactHandle[] processHandles;
+    private long hard = 0L;
+    private long soft = 0L;
+
+    public DroolsCloudBalancing(KieBase kieBase, List<CloudComputer> computers, List<PlannedProcess> processes) {
+        this.kSession = kieBase.newKieSession();
+        int computerCount = computers.size();
+        open("requiredCpuPowerTotal", computerCount, true, (computer, total) -> total - computer.getCpuPower());
+        open("requiredMemoryTotal", computerCount, true, (computer, total) -> total - computer.getMemory());
+        open("requiredNetworkBandwidthTotal", computerCount, true,
+                (computer, total) -> total - computer.getNetworkBandwidth());
+        open("computerCost", computerCount, false, (computer, total) -> computer.getCost());
+        this.processes = processes;
+        this.processHandles = new FactHandle[processes.size()];
+        for (CloudComputer computer : computers) {
+            kSession.insert(computer);
+        }
+        for (int i = 0; i < processes.size(); i++) {
+            processHandles[i] = kSession.insert(processes.get(i));
+        }
+    }
+
+    /**
+     * Opens a live query whose rows are one {@code $computer} each, with a {@code $total} for the hard ones.
+     *
+     * @param penalty the positive penalty of a row from its computer and {@code $total} (0 if it has none)
+     */
+    private void open(String query, int computerCount, boolean isHard,
+                      ToLongBiFunction<CloudComputer, Long> penalty) {
+        long[] penalties = new long[computerCount];
+        liveQueries.add(kSession.openLiveQuery(query, new Object[0], new ViewChangedEventListener() {
+            @Override
+            public void rowInserted(Row row) {
+                set(row, penalty.applyAsLong(computer(row), total(row)));
+            }
+
+            @Override
+            public void rowUpdated(Row row) {
+                set(row, penalty.applyAsLong(computer(row), total(row)));
+            }
+
+            @Override
+            public void rowDeleted(Row row) {
+                set(row, 0L);
+            }
+
+            private void set(Row row, long value) {
+                int index = computer(row).getIndex();
+                long delta = value - penalties[index];
+                penalties[index] = value;
+                if (isHard) {
+                    hard -= delta;
+                } else {
+                    soft -= delta;
+                }
+            }
+
+            private CloudComputer computer(Row row) {
+                return (CloudComputer) row.get("$computer");
+            }
+
+            private Long total(Row row) {
+                return isHard ? ((Number) row.get("$total")).longValue() : 0L;
+            }
+        }));
+    }
+
+    public List<PlannedProcess> getProcesses() {
+        return processes;
+    }
+
+    /**
+     * Assigns a process to another computer; the queries see the change at the next {@link #calculateScore()}.
+     */
+    public void change(int process, CloudComputer computer) {
+        PlannedProcess planned = processes.get(process);
+        planned.setComputer(computer);
+        kSession.update(processHandles[process], planned, "computer");
+    }
+
+    /**
+     * Exchanges the computers of two processes.
+     */
+    public void swap(int left, int right) {
+        CloudComputer leftComputer = processes.get(left).getComputer();
+        change(left, processes.get(right).getComputer());
+        change(right, leftComputer);
+    }
+
+    public CloudScore calculateScore() {
+        kSession.fireAllRules();
+        return new CloudScore(hard, soft);
+    }
+
+    @Override
+    public void close() {
+        for (LiveQuery liveQuery : liveQueries) {
+            liveQuery.close();
+        }
+        kSession.dispose();
+    }
+}
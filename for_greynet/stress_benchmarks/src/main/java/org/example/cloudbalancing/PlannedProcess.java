@@ -0,0 +1,62 @@
+package org.example.cloudbalancing;
+
+import ai.timefold.solver.core.api.domain.entity.PlanningEntity;
+import ai.timefold.solver.core.api.domain.variable.PlanningVariable;
+import org.example.dataset.cloudbalancing.CloudComputer;
+import org.example.dataset.cloudbalancing.CloudProcess;
+
+/**
+ * A process whose computer is a planning variable. The same class is the Drools fact that moves update and
+ * the Bavet planning entity, so both engines see the same model.
+ */
+@PlanningEntity
+public class PlannedProcess {
+
+    private int id;
+    private int requiredCpuPower;
+    private int requiredMemory;
+    private int requiredNetworkBandwidth;
+
+    @PlanningVariable(valueRangeProviderRefs = "computerRange")
+    private CloudComputer computer;
+
+    public PlannedProcess() {
+    }
+
+    public PlannedProcess(CloudProcess process, CloudComputer computer) {
+        this.id = process.getId();
+        this.requiredCpuPower = process.getRequiredCpuPower();
+        this.requiredMemory = process.getRequiredMemory();
+        this.requiredNetworkBandwidth = process.getRequiredNetworkBandwidth();
+        this.computer = computer;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getRequiredCpuPower() {
+        return requiredCpuPower;
+    }
+
+    public int getRequiredMemory() {
+        return requiredMemory;
+    }
+
+    public int getRequiredNetworkBandwidth() {
+        return requiredNetworkBandwidth;
+    }
+
+    public CloudComputer getComputer() {
+        return computer;
+    }
+
+    public void setComputer(CloudComputer computer) {
+        this.computer = computer;
+    }
+
+    @Override
+    public String toString() {
+        return "Process-" + id;
+    }
+}
@@ -0,0 +1,320 @@
+package org.example.compare;
+
+import ai.timefold.solver.core.api.score.ScoreExplanation;
+import ai.timefold.solver.core.api.score.buildin.simplebigdecimal.SimpleBigDecimalScore;
+import ai.timefold.solver.core.api.solver.SolutionManager;
+import org.acme.vehiclerouting.solver.Stress_1;
+import org.acme.vehiclerouting.solver.Stress_1.EmptySolution;
+import org.example.DroolsStressTest;
+import org.example.FactGenerator;
+import org.example.common.FactStore;
+import org.example.common.PhaseRecorder;
+import org.example.common.ReferenceEvaluator;
+import org.example.common.RuleBreakdown;
+import org.example.common.StressDataGenerator;
+import org.example.common.StressDataset;
+import org.example.common.StressRule;
+import org.example.jmh.BavetStressBenchmark;
+import org.example.model.ScoreHolder;
+import org.kie.api.runtime.KieSession;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs Drools, Bavet and optionally the greyjack Python/Rust editions on one seeded dataset, checks every
+ * engine's score and per-rule match counts against the {@link ReferenceEvaluator}, and prints one table.
+ * <p>
+ * The Java engines run in this JVM, one after the other, on facts materialized from the same
+ * {@link StressDataset}; memory is the {@link PhaseRecorder} peak heap over setup and processing, less the
+ * heap the facts held before, so both engines are measured at their largest whatever they keep afterwards.
+ * The engines do not split their work at the same point: Drools compiles its DRL in setup, while Bavet builds
+ * its network during processing. The table says so per engine and adds setup plus processing. External
+ * editions are given the dataset as a {@link FactStore} file:
+ * {@code -Dstress.python="python stress.py"} runs {@code python stress.py <store file>}, which must print
+ * {@code key=value} lines for {@code score} (positive total penalty) and {@code match.<constraint_name>}
+ * for each rule, and may print {@code setup_ms}, {@code processing_ms} and {@code memory_bytes}. Other
+ * output is ignored; without {@code processing_ms} the process wall-clock time is reported.
+ * <p>
+ * Exits with status 1 if any engine disagrees with the reference.
+ */
+public class CrossEngineRunner {
+
+    private static final long SEED = Long.getLong("stress.seed", 0L);
+    private static final int NUM_CUSTOMERS = Integer.getInteger("stress.customers", 10_000);
+    private static final int NUM_TRANSACTIONS = Integer.getInteger("stress.transactions", 1_000_000);
+    private static final int NUM_LOCATIONS = Integer.getInteger("stress.locations", 1_000);
+    private static final int THREADS = Integer.getInteger("stress.threads", Runtime.getRuntime().availableProcessors());
+
+    // Comma-separated in-process engines, run in this order
+    private static final String ENGINES = System.getProperty("stress.engines", "drools,bavet");
+    // Command lines of the external editions; the fact store path is appended as the last argument
+    private static final String PYTHON_COMMAND = System.getProperty("stress.python");
+    private static final String RUST_COMMAND = System.getProperty("stress.rust");
+    private static final String FACT_STORE = System.getProperty("stress.factStore", "target/cross-engine-facts.bin");
+    private static final long EXTERNAL_TIMEOUT_MINUTES = Long.getLong("stress.externalTimeoutMinutes", 60L);
+    private static final double TOLERANCE = Double.parseDouble(System.getProperty("stress.tolerance", "1e-9"));
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        System.out.println("### Cross-Engine Stress Test ###");
+        StressDataGenerator generator = new StressDataGenerator(SEED, NUM_CUSTOMERS, NUM_TRANSACTIONS, NUM_LOCATIONS);
+        ForkJoinPool pool = new ForkJoinPool(THREADS);
+        StressDataset dataset;
+        ReferenceEvaluator.Result reference;
+        try {
+            System.out.println("Generating test data...");
+            dataset = generator.generate(pool);
+            reference = ReferenceEvaluator.evaluate(dataset, pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        List<EngineResult> results = new ArrayList<>();
+        for (String engine : ENGINES.split(",")) {
+            switch (engine.trim()) {
+                case "drools":
+                    results.add(runDrools(dataset));
+                    break;
+                case "bavet":
+                    results.add(runBavet(dataset));
+                    break;
+                case "":
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown engine: " + engine + " (expected drools or bavet)");
+            }
+        }
+        if (PYTHON_COMMAND != null || RUST_COMMAND != null) {
+            Path store = Path.of(FACT_STORE);
+            System.out.println("Writing fact store " + store + "...");
+            FactStore.write(store, generator);
+            if (PYTHON_COMMAND != null) {
+                results.add(runExternal("greyjack-python", PYTHON_COMMAND, store));
+            }
+            if (RUST_COMMAND != null) {
+                results.add(runExternal("greyjack-rust", RUST_COMMAND, store));
+            }
+        }
+
+        boolean allAgree = printReport(results, reference, dataset.getFactCount());
+        if (!allAgree) {
+            System.exit(1);
+        }
+    }
+
+    private static EngineResult runDrools(StressDataset dataset) {
+        System.out.println("Running Drools...");
+        ForkJoinPool pool = new ForkJoinPool(THREADS);
+        List<Object> facts;
+        try {
+            facts = FactGenerator.materialize(dataset, false, pool);
+        } finally {
+            pool.shutdown();
+        }
+        long baseline = usedHeapAfterGc();
+
+        PhaseRecorder phases = new PhaseRecorder("drools");
+        phases.begin("run");
+        long startTime = System.nanoTime();
+        KieSession kSession = DroolsStressTest.createKieSession();
+        long setupNanos = System.nanoTime() - startTime;
+
+        ScoreHolder scoreHolder = new ScoreHolder();
+        kSession.setGlobal("scoreHolder", scoreHolder);
+        startTime = System.nanoTime();
+        for (Object fact : facts) {
+            kSession.insert(fact);
+        }
+        kSession.fireAllRules();
+        long processingNanos = System.nanoTime() - startTime;
+        phases.end();
+
+        kSession.dispose();
+        return new EngineResult("drools", setupNanos, processingNanos, phases.getPeakHeapBytes("run") - baseline,
+                scoreHolder.getScore(), DroolsStressTest.toBreakdown(scoreHolder),
+                "setup compiles the DRL");
+    }
+
+    private static EngineResult runBavet(StressDataset dataset) {
+        System.out.println("Running Bavet...");
+        ForkJoinPool pool = new ForkJoinPool(THREADS);
+        List<Object> facts;
+        try {
+            facts = Stress_1.materialize(dataset, false, pool);
+        } finally {
+            pool.shutdown();
+        }
+        long baseline = usedHeapAfterGc();
+
+        PhaseRecorder phases = new PhaseRecorder("bavet");
+        phases.begin("run");
+        long startTime = System.nanoTime();
+        SolutionManager<EmptySolution, SimpleBigDecimalScore> solutionManager = BavetStressBenchmark.createSolutionManager();
+        long setupNanos = System.nanoTime() - startTime;
+
+        startTime = System.nanoTime();
+        ScoreExplanation<EmptySolution, SimpleBigDecimalScore> explanation = solutionManager.explain(new EmptySolution(facts));
+        long processingNanos = System.nanoTime() - startTime;
+        phases.end();
+
+        return new EngineResult("bavet", setupNanos, processingNanos, phases.getPeakHeapBytes("run") - baseline,
+                Stress_1.toPenalty(explanation.getScore()), Stress_1.toBreakdown(explanation),
+                "network is built in processing");
+    }
+
+    /**
+     * Runs an external edition on the fact store and parses its {@code key=value} report.
+     */
+    private static EngineResult runExternal(String engine, String command, Path store)
+            throws IOException, InterruptedException {
+        System.out.println("Running " + engine + ": " + command + " " + store);
+        List<String> commandLine = new ArrayList<>(Arrays.asList(command.trim().split("\\s+")));
+        commandLine.add(store.toAbsolutePath().toString());
+        ProcessBuilder builder = new ProcessBuilder(commandLine).redirectError(ProcessBuilder.Redirect.INHERIT);
+
+        long startTime = System.nanoTime();
+        Process process = builder.start();
+        // Drain stdout on its own thread so a child that hangs without closing it still hits the timeout
+        FutureTask<Map<String, String>> output = new FutureTask<>(() -> readReport(process));
+        Thread outputReader = new Thread(output, engine + "-stdout");
+        outputReader.setDaemon(true);
+        outputReader.start();
+        if (!process.waitFor(EXTERNAL_TIMEOUT_MINUTES, TimeUnit.MINUTES)) {
+            process.destroyForcibly();
+            throw new IllegalStateException(engine + " did not finish within " + EXTERNAL_TIMEOUT_MINUTES + " minutes");
+        }
+        long wallNanos = System.nanoTime() - startTime;
+        Map<String, String> report;
+        try {
+            report = output.get();
+        } catch (ExecutionException e) {
+            throw new IOException("Could not read the output of " + engine, e.getCause());
+        }
+        if (process.exitValue() != 0) {
+            throw new IllegalStateException(engine + " exited with status " + process.exitValue());
+        }
+        if (!report.containsKey("score")) {
+            throw new IllegalStateException(engine + " did not print a score=<penalty> line");
+        }
+
+        RuleBreakdown breakdown = new RuleBreakdown();
+        for (StressRule rule : StressRule.values()) {
+            String matches = report.get("match." + rule.getConstraintName());
+            breakdown.add(rule, matches != null ? Long.parseLong(matches) : 0L, 0.0);
+        }
+        return new EngineResult(engine,
+                millisToNanos(report.get("setup_ms"), 0L),
+                millisToNanos(report.get("processing_ms"), wallNanos),
+                report.containsKey("memory_bytes") ? Long.parseLong(report.get("memory_bytes")) : -1L,
+                Double.parseDouble(report.get("score")),
+                breakdown,
+                report.containsKey("processing_ms") ? "as reported by the edition" : "processing is process wall clock");
+    }
+
+    private static Map<String, String> readReport(Process process) throws IOException {
+        Map<String, String> report = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int separator = line.indexOf('=');
+                if (separator > 0) {
+                    report.put(line.substring(0, separator).trim(), line.substring(separator + 1).trim());
+                }
+            }
+        }
+        return report;
+    }
+
+    private static long millisToNanos(String millis, long defaultNanos) {
+        return millis != null ? (long) (Double.parseDouble(millis) * 1_000_000.0) : defaultNanos;
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        runtime.gc();
+        runtime.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Prints the comparison and score-equivalence tables.
+     *
+     * @return true if every engine agrees with the reference
+     */
+    private static boolean printReport(List<EngineResult> results, ReferenceEvaluator.Result reference, long totalFacts) {
+        System.out.println("\n--- Cross-Engine Results ---");
+        System.out.printf("- Dataset: seed %d, %,d customers, %,d transactions, %,d locations (%,d facts)\n",
+                SEED, NUM_CUSTOMERS, NUM_TRANSACTIONS, NUM_LOCATIONS, totalFacts);
+        System.out.printf("- Expected Score: %,.2f (%,d matches)\n", reference.getScore(), reference.getTotalMatches());
+
+        System.out.println("\n#### Engine Comparison");
+        System.out.printf("| %-16s | %-12s | %-12s | %-12s | %-22s | %-12s | %-20s | %-12s | %-8s | %s\n",
+                "Engine", "Setup", "Processing", "Setup+Proc", "Throughput", "Peak Memory", "Score", "Matches", "Check",
+                "Measured");
+        System.out.printf("|-%-16s-|-%-12s-|-%-12s-|-%-12s-|-%-22s-|-%-12s-|-%-20s-|-%-12s-|-%-8s-|-%s\n",
+                "-".repeat(16), "-".repeat(12), "-".repeat(12), "-".repeat(12), "-".repeat(22), "-".repeat(12),
+                "-".repeat(20), "-".repeat(12), "-".repeat(8), "-".repeat(8));
+        boolean allAgree = true;
+        List<String> mismatchLines = new ArrayList<>();
+        for (EngineResult result : results) {
+            List<String> mismatches = result.mismatches(reference, TOLERANCE);
+            allAgree &= mismatches.isEmpty();
+            for (String mismatch : mismatches) {
+                mismatchLines.add("- " + result.engine + ": " + mismatch);
+            }
+            double processingSeconds = result.processingNanos / 1_000_000_000.0;
+            System.out.printf("| %-16s | %10.4f s | %10.4f s | %10.4f s | %,18.2f f/s | %s | %,20.2f | %,12d | %-8s | %s\n",
+                    result.engine,
+                    result.setupNanos / 1_000_000_000.0,
+                    processingSeconds,
+                    (result.setupNanos + result.processingNanos) / 1_000_000_000.0,
+                    processingSeconds > 0 ? totalFacts / processingSeconds : Double.POSITIVE_INFINITY,
+                    result.memoryBytes >= 0 ? String.format("%,9.2f MB", result.memoryBytes / (1024.0 * 1024.0)) : String.format("%12s", "n/a"),
+                    result.penalty,
+                    result.getTotalMatches(),
+                    mismatches.isEmpty() ? "OK" : "MISMATCH",
+                    result.measured);
+        }
+        System.out.println("- Setup and processing split differently per engine (see Measured); Setup+Proc compares them");
+        System.out.println("- Peak Memory: peak heap over setup and processing above the facts, garbage included;"
+                + " external editions report their own memory_bytes");
+
+        System.out.println("\n#### Per-Rule Matches");
+        StringBuilder header = new StringBuilder(String.format("| %-36s | %12s |", "Rule", "Reference"));
+        StringBuilder separator = new StringBuilder(String.format("|-%-36s-|-%12s-|", "-".repeat(36), "-".repeat(12)));
+        for (EngineResult result : results) {
+            header.append(String.format(" %16s |", result.engine));
+            separator.append(String.format("-%16s-|", "-".repeat(16)));
+        }
+        System.out.println(header);
+        System.out.println(separator);
+        for (StressRule rule : StressRule.values()) {
+            StringBuilder row = new StringBuilder(String.format("| %-36s | %,12d |", rule.getRuleName(), reference.getMatchCount(rule)));
+            for (EngineResult result : results) {
+                row.append(String.format(" %,16d |", result.breakdown.getMatches(rule)));
+            }
+            System.out.println(row);
+        }
+
+        System.out.println("\n#### Score Equivalence");
+        if (allAgree) {
+            System.out.printf("- All %d engines agree with the reference (relative tolerance %s)\n", results.size(), TOLERANCE);
+        } else {
+            mismatchLines.forEach(System.out::println);
+        }
+        return allAgree;
+    }
+}
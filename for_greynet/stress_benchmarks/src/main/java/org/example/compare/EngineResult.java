@@ -0,0 +1,62 @@
+package org.example.compare;
+
+import org.example.common.ReferenceEvaluator;
+import org.example.common.RuleBreakdown;
+import org.example.common.StressRule;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One engine's run over the shared dataset: timings, peak memory, and the total penalty and
+ * per-rule matches used to check it against the {@link ReferenceEvaluator}.
+ */
+public class EngineResult {
+
+    final String engine;
+    final long setupNanos;
+    final long processingNanos;
+    /** Peak heap above the facts over setup and processing, or -1 if an external edition did not report it. */
+    final long memoryBytes;
+    final double penalty;
+    final RuleBreakdown breakdown;
+    /** What the setup and processing figures cover for this engine, shown in the report. */
+    final String measured;
+
+    EngineResult(String engine, long setupNanos, long processingNanos, long memoryBytes, double penalty,
+                 RuleBreakdown breakdown, String measured) {
+        this.engine = engine;
+        this.setupNanos = setupNanos;
+        this.processingNanos = processingNanos;
+        this.memoryBytes = memoryBytes;
+        this.penalty = penalty;
+        this.breakdown = breakdown;
+        this.measured = measured;
+    }
+
+    long getTotalMatches() {
+        long total = 0L;
+        for (StressRule rule : StressRule.values()) {
+            total += breakdown.getMatches(rule);
+        }
+        return total;
+    }
+
+    /**
+     * Differences from the reference result, empty if the score agrees within the tolerance and
+     * every rule has the same number of matches.
+     */
+    List<String> mismatches(ReferenceEvaluator.Result reference, double relativeTolerance) {
+        List<String> mismatches = new ArrayList<>();
+        if (!reference.scoreAgrees(penalty, relativeTolerance)) {
+            mismatches.add(String.format("score %,.6f, expected %,.6f", penalty, reference.getScore()));
+        }
+        for (StressRule rule : StressRule.values()) {
+            if (breakdown.getMatches(rule) != reference.getMatchCount(rule)) {
+                mismatches.add(String.format("%s: %,d matches, expected %,d",
+                        rule.getRuleName(), breakdown.getMatches(rule), reference.getMatchCount(rule)));
+            }
+        }
+        return mismatches;
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.jmh;
+
+import ai.timefold.solver.core.api.score.ScoreExplanation;
+import ai.timefold.solver.core.api.score.buildin.simplebigdecimal.SimpleBigDecimalScore;
+import ai.timefold.solver.core.api.solver.SolutionManager;
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import org.acme.vehiclerouting.solver.Stress_1;
+import org.acme.vehiclerouting.solver.Stress_1.EmptySolution;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Phase benchmarks for {@code Stress_1.StressTestConstraintProvider}.
+ * Bavet has no long-lived session: insert and calculation both happen inside a single
+ * {@link SolutionManager} call and the network is dropped when it returns, so the phases
+ * here are network build, score-only calculation ({@code update}) and {@code explain}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 2, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class BavetStressBenchmark {
+
+    @State(Scope.Thread)
+    public static class Network {
+        SolutionManager<EmptySolution, SimpleBigDecimalScore> solutionManager;
+
+        @Setup(Level.Trial)
+        public void build() {
+            solutionManager = createSolutionManager();
+        }
+    }
+
+    public static SolutionManager<EmptySolution, SimpleBigDecimalScore> createSolutionManager() {
+        SolverConfig solverConfig = new SolverConfig()
+                .withConstraintProviderClass(Stress_1.StressTestConstraintProvider.class)
+                .withSolutionClass(EmptySolution.class)
+                .withEntityClasses(Stress_1.DummyEntity.class)
+                .withMoveThreadCount("1");
+        SolverFactory<EmptySolution> solverFactory = SolverFactory.create(solverConfig);
+        return SolutionManager.create(solverFactory);
+    }
+
+    @Benchmark
+    public SolutionManager<EmptySolution, SimpleBigDecimalScore> buildNetwork() {
+        return createSolutionManager();
+    }
+
+    @Benchmark
+    public SimpleBigDecimalScore update(StressFacts facts, Network network) {
+        return network.solutionManager.update(new EmptySolution(facts.bavetFacts));
+    }
+
+    @Benchmark
+    public ScoreExplanation<EmptySolution, SimpleBigDecimalScore> explain(StressFacts facts, Network network) {
+        return network.solutionManager.explain(new EmptySolution(facts.bavetFacts));
+    }
+}
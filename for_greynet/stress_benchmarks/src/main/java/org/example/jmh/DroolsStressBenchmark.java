@@ -0,0 +1,125 @@
+package org.example.jmh;
+
+import org.example.DroolsStressTest;
+import org.example.model.ScoreHolder;
+import org.kie.api.runtime.KieSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Phase benchmarks for {@code StressTestRules.drl}.
+ * Each phase gets its own per-invocation state, so only the phase itself is timed.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 2, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class DroolsStressBenchmark {
+
+    /** Holds whatever session the benchmark built, so it is disposed outside the measurement. */
+    @State(Scope.Thread)
+    public static class BuiltSession {
+        KieSession kSession;
+
+        @TearDown(Level.Invocation)
+        public void dispose() {
+            if (kSession != null) {
+                kSession.dispose();
+                kSession = null;
+            }
+        }
+    }
+
+    /** A freshly built session with the score holder set, ready for inserts. */
+    @State(Scope.Thread)
+    public static class EmptySession {
+        KieSession kSession;
+
+        @Setup(Level.Invocation)
+        public void build() {
+            kSession = DroolsStressTest.createKieSession();
+            kSession.setGlobal("scoreHolder", new ScoreHolder());
+        }
+
+        @TearDown(Level.Invocation)
+        public void dispose() {
+            kSession.dispose();
+        }
+    }
+
+    /** A session with every fact inserted but no rules fired yet. */
+    @State(Scope.Thread)
+    public static class LoadedSession {
+        KieSession kSession;
+        ScoreHolder scoreHolder;
+
+        @Setup(Level.Invocation)
+        public void load(StressFacts facts) {
+            kSession = DroolsStressTest.createKieSession();
+            scoreHolder = new ScoreHolder();
+            kSession.setGlobal("scoreHolder", scoreHolder);
+            for (Object fact : facts.droolsFacts) {
+                kSession.insert(fact);
+            }
+        }
+
+        @TearDown(Level.Invocation)
+        public void dispose() {
+            kSession.dispose();
+        }
+    }
+
+    /** A session that has been loaded and fired; only disposal is left. */
+    @State(Scope.Thread)
+    public static class FiredSession {
+        KieSession kSession;
+
+        @Setup(Level.Invocation)
+        public void fire(StressFacts facts) {
+            kSession = DroolsStressTest.createKieSession();
+            kSession.setGlobal("scoreHolder", new ScoreHolder());
+            for (Object fact : facts.droolsFacts) {
+                kSession.insert(fact);
+            }
+            kSession.fireAllRules();
+        }
+    }
+
+    @Benchmark
+    public KieSession buildSession(BuiltSession built) {
+        built.kSession = DroolsStressTest.createKieSession();
+        return built.kSession;
+    }
+
+    @Benchmark
+    public long insert(StressFacts facts, EmptySession session) {
+        for (Object fact : facts.droolsFacts) {
+            session.kSession.insert(fact);
+        }
+        return session.kSession.getFactCount();
+    }
+
+    @Benchmark
+    public double fireAllRules(LoadedSession session) {
+        session.kSession.fireAllRules();
+        return session.scoreHolder.getScore();
+    }
+
+    @Benchmark
+    public void dispose(FiredSession session) {
+        session.kSession.dispose();
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.jmh;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs both stress benchmarks with the GC profiler attached and writes a JSON result file,
+ * so ops/s and {@code gc.alloc.rate.norm} can be diffed between engine versions.
+ * Any standard JMH command-line option (e.g. {@code -p transactions=10000000}) is passed through.
+ */
+public class StressBenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(DroolsStressBenchmark.class.getSimpleName())
+                .include(BavetStressBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-stress-results.json")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,48 @@
+package org.example.jmh;
+
+import org.acme.vehiclerouting.solver.Stress_1;
+import org.example.FactGenerator;
+import org.example.common.StressDataGenerator;
+import org.example.common.StressDataset;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Generates one dataset per trial with the shared {@link StressDataGenerator} and exposes it in
+ * both fact models, so the Drools and Bavet benchmarks always see identical facts.
+ */
+@State(Scope.Benchmark)
+public class StressFacts {
+
+    @Param({"0"})
+    public long seed;
+
+    @Param({"10000"})
+    public int customers;
+
+    @Param({"100000", "1000000"})
+    public int transactions;
+
+    @Param({"1000"})
+    public int locations;
+
+    /** Facts as {@link Stress_1} records. */
+    public List<Object> bavetFacts;
+
+    /** The same facts as the {@code org.example.model} classes used by the DRL. */
+    public List<Object> droolsFacts;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        StressDataset dataset = new StressDataGenerator(seed, customers, transactions, locations).generate(pool);
+        bavetFacts = Stress_1.materialize(dataset, false, pool);
+        droolsFacts = FactGenerator.materialize(dataset, false, pool);
+    }
+}